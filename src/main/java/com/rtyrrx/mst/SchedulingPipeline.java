@@ -0,0 +1,162 @@
+package com.rtyrrx.mst;
+
+import com.rtyrrx.mst.cache.SchedulingResult;
+import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.common.Metrics;
+import com.rtyrrx.mst.data.ContentHash;
+import com.rtyrrx.mst.data.TaskGraph;
+import com.rtyrrx.mst.graph.cpm.CriticalPathMethod;
+import com.rtyrrx.mst.graph.dagsp.ChainContraction;
+import com.rtyrrx.mst.graph.dagsp.DAGShortestPath;
+import com.rtyrrx.mst.graph.dagsp.KLongestPaths;
+import com.rtyrrx.mst.graph.fas.FeedbackArcSet;
+import com.rtyrrx.mst.graph.scc.ComponentOrdering;
+import com.rtyrrx.mst.graph.scc.SCC;
+import com.rtyrrx.mst.graph.topo.TopologicalSort;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+// The computation behind SmartCityScheduler, separated from the printing so
+// its result can be cached. Stage metrics go into the given map by name.
+public class SchedulingPipeline {
+    // Part of every cache key. Bump it whenever the analysis or the encoding
+    // of SchedulingResult changes, so results of older builds are not read.
+    private static final int RESULT_VERSION = 2;
+
+    public static SchedulingResult analyze(Graph graph, TaskGraph taskGraph, Map<String, Metrics> stageMetrics) {
+        return analyze(graph, taskGraph, stageMetrics, false);
+    }
+
+    // With breakCycles a feedback arc set is removed from the graph first,
+    // so every task ends up in an SCC of its own; the graph is changed in
+    // place. Otherwise cycles are only condensed and no feedback arc set is
+    // computed, it costs more than the rest of the analysis on large feeds.
+    public static SchedulingResult analyze(Graph graph, TaskGraph taskGraph, Map<String, Metrics> stageMetrics,
+                                           boolean breakCycles) {
+        int feedbackEdges = -1;
+        double feedbackWeight = 0.0;
+        if (breakCycles) {
+            FeedbackArcSet feedbackArcSet = new FeedbackArcSet(graph);
+            FeedbackArcSet.FasResult fas = feedbackArcSet.compute(3);
+            stageMetrics.put("feedback_arc_set", feedbackArcSet.getMetrics());
+            removeFeedbackArcs(graph, fas);
+            feedbackEdges = fas.removedCount();
+            feedbackWeight = fas.removedWeight();
+        }
+
+        SCC scc = new SCC(graph);
+        List<List<Integer>> components = scc.findSCCs();
+        stageMetrics.put("scc", scc.getMetrics());
+
+        int[] componentOf = new int[graph.getVertices()];
+        int[][] members = new int[components.size()][];
+        for (int c = 0; c < components.size(); c++) {
+            members[c] = components.get(c).stream().mapToInt(Integer::intValue).toArray();
+            for (int v : members[c]) {
+                componentOf[v] = c;
+            }
+        }
+        List<ComponentOrdering.ComponentOrder> groupOrders =
+                new ComponentOrdering(graph, components).orderComponents();
+
+        Graph condensation = scc.buildCondensationGraph();
+        int k = condensation.getVertices();
+        int[] offsets = new int[k + 1];
+        for (int c = 0; c < k; c++) {
+            offsets[c + 1] = offsets[c] + condensation.getOutDegree(c);
+        }
+        int[] targets = new int[offsets[k]];
+        double[] weights = new double[offsets[k]];
+        for (int c = 0; c < k; c++) {
+            for (int i = 0; i < condensation.getOutDegree(c); i++) {
+                targets[offsets[c] + i] = condensation.getNeighbor(c, i);
+                weights[offsets[c] + i] = condensation.getWeight(c, i);
+            }
+        }
+
+        TopologicalSort topoSort = new TopologicalSort(condensation);
+        int[] topoOrder = topoSort.sortToArray();
+        stageMetrics.put("topo", topoSort.getMetrics());
+
+        SchedulingResult.Paths paths = null;
+        if (topoOrder != null && k > 0) {
+            int source = topoOrder[0];
+
+            // Path queries run on the condensation with its chains folded
+            // into single edges; results are expanded back to every SCC. A
+            // longest path may end inside a chain once a lag is negative,
+            // and chain SCCs are no longer candidates after contraction, so
+            // such graphs are queried as they are.
+            ChainContraction chains = Arrays.stream(weights).allMatch(w -> w >= 0)
+                    ? ChainContraction.contract(condensation, source)
+                    : null;
+            if (chains != null) {
+                stageMetrics.put("contraction", chains.getMetrics());
+            }
+            Graph pathGraph = chains != null ? chains.graph() : condensation;
+            int pathSource = chains != null ? chains.toContracted(source) : source;
+
+            DAGShortestPath shortestPath = new DAGShortestPath(pathGraph);
+            DAGShortestPath.ShortestPathResult spResult = shortestPath.findShortestPaths(pathSource);
+            stageMetrics.put("shortest", shortestPath.getMetrics());
+
+            DAGShortestPath longestPath = new DAGShortestPath(pathGraph);
+            DAGShortestPath.LongestPathResult lpResult = longestPath.findLongestPath(pathSource);
+            stageMetrics.put("longest", longestPath.getMetrics());
+            List<KLongestPaths.RankedPath> nearCritical = new KLongestPaths(pathGraph).stream(lpResult)
+                    .limit(3)
+                    .map(path -> new KLongestPaths.RankedPath(expandPath(chains, path.vertices()), path.length()))
+                    .toList();
+
+            double[] durations = CriticalPathMethod.componentDurations(
+                    components, CriticalPathMethod.taskDurations(taskGraph));
+            CriticalPathMethod cpm = new CriticalPathMethod(condensation, durations);
+            CriticalPathMethod.CpmResult cpmResult = cpm.analyze(topoOrder);
+            stageMetrics.put("cpm", cpm.getMetrics());
+
+            double[] longestDistances = lpResult.distances();
+            paths = new SchedulingResult.Paths(source,
+                    chains != null ? chains.expandDistances(spResult.distances()) : spResult.distances(),
+                    chains != null ? chains.expandDistances(longestDistances) : longestDistances,
+                    chains != null
+                            ? chains.expandPredecessors(longestDistances, lpResult.predecessors())
+                            : lpResult.predecessors(),
+                    expandPath(chains, lpResult.criticalPath()).stream().mapToInt(Integer::intValue).toArray(),
+                    lpResult.criticalPathLength(), nearCritical,
+                    cpmResult.projectDuration(), cpmResult.criticalActivities());
+        }
+
+        return new SchedulingResult(feedbackEdges, feedbackWeight, componentOf, members, groupOrders,
+                offsets, targets, weights, topoOrder == null ? new int[0] : topoOrder, paths);
+    }
+
+    // Cache key of a run: the graph's content, the result version and
+    // whether cycles are broken first.
+    public static long cacheKey(Graph graph, boolean breakCycles) {
+        ContentHash hash = new ContentHash();
+        hash.add(graph.getContentHash());
+        hash.add(RESULT_VERSION);
+        hash.add(breakCycles ? 1 : 0);
+        return hash.value();
+    }
+
+    // Parallel edges between a pair all point the same way in the order, so
+    // removing one edge per reported arc drops exactly the reported ones.
+    private static void removeFeedbackArcs(Graph graph, FeedbackArcSet.FasResult fas) {
+        ContentHash hash = new ContentHash();
+        hash.add(graph.getContentHash());
+        hash.add(fas.removedCount());
+        for (int i = 0; i < fas.removedCount(); i++) {
+            graph.removeEdge(fas.removedSources()[i], fas.removedTargets()[i]);
+            hash.add(fas.removedSources()[i]);
+            hash.add(fas.removedTargets()[i]);
+        }
+        graph.setContentHash(hash.value());
+    }
+
+    private static List<Integer> expandPath(ChainContraction chains, List<Integer> path) {
+        return chains != null ? chains.expandPath(path) : path;
+    }
+}
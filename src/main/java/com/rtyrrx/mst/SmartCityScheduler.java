@@ -1,27 +1,84 @@
 package com.rtyrrx.mst;
 
+import com.rtyrrx.mst.cache.ResultCache;
+import com.rtyrrx.mst.cache.SchedulingResult;
 import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.common.Metrics;
+import com.rtyrrx.mst.data.DeltaApplier;
 import com.rtyrrx.mst.data.GraphLoader;
 import com.rtyrrx.mst.data.TaskGraph;
-import com.rtyrrx.mst.graph.dagsp.DAGShortestPath;
-import com.rtyrrx.mst.graph.scc.SCC;
-import com.rtyrrx.mst.graph.topo.TopologicalSort;
+import com.rtyrrx.mst.export.ResultExporter;
+import com.rtyrrx.mst.graph.dagsp.KLongestPaths;
+import com.rtyrrx.mst.graph.reorder.VertexReordering;
+import com.rtyrrx.mst.graph.scc.ComponentOrdering;
+import com.rtyrrx.mst.observability.MetricsRegistry;
+import com.rtyrrx.mst.observability.PrometheusExporter;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class SmartCityScheduler {
+    private static final long DEFAULT_CACHE_MB = 256;
 
     public static void main(String[] args) {
         if (args.length < 1) {
-            System.out.println("Usage: java SmartCityScheduler <dataset.json>");
+            System.out.println("Usage: java SmartCityScheduler <dataset.json> [--delta <delta.json>]..."
+                    + " [--reorder <bfs|rcm|level>] [--break-cycles] [--cache <dir>] [--cache-size-mb <n>] [--metrics-port <port> [--serve]]"
+                    + " [--export <dir>] [--export-format <csv|jsonl|binary>]");
             System.out.println("Example: java SmartCityScheduler data/small_cyclic.json");
             return;
         }
 
         String filename = args[0];
+        Path cacheDir = null;
+        long cacheMegabytes = DEFAULT_CACHE_MB;
+        List<String> deltas = new ArrayList<>();
+        int metricsPort = -1;
+        boolean serve = false;
+        VertexReordering.Strategy reorder = null;
+        boolean breakCycles = false;
+        Path exportDir = null;
+        ResultExporter.Format exportFormat = ResultExporter.Format.CSV;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--delta") && i + 1 < args.length) {
+                deltas.add(args[++i]);
+            } else if (args[i].equals("--reorder") && i + 1 < args.length) {
+                reorder = VertexReordering.parseStrategy(args[++i]);
+            } else if (args[i].equals("--break-cycles")) {
+                breakCycles = true;
+            } else if (args[i].equals("--export") && i + 1 < args.length) {
+                exportDir = Path.of(args[++i]);
+            } else if (args[i].equals("--export-format") && i + 1 < args.length) {
+                exportFormat = ResultExporter.parseFormat(args[++i]);
+            } else if (args[i].equals("--cache") && i + 1 < args.length) {
+                cacheDir = Path.of(args[++i]);
+            } else if (args[i].equals("--cache-size-mb") && i + 1 < args.length) {
+                cacheMegabytes = Long.parseLong(args[++i]);
+            } else if (args[i].equals("--metrics-port") && i + 1 < args.length) {
+                metricsPort = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--serve")) {
+                serve = true;
+            } else {
+                System.out.println("Unknown option: " + args[i]);
+                return;
+            }
+        }
+        if (serve && metricsPort < 0) {
+            System.out.println("--serve needs --metrics-port");
+            return;
+        }
 
+        PrometheusExporter exporter = null;
         try {
+            if (metricsPort >= 0) {
+                exporter = PrometheusExporter.start(MetricsRegistry.global(), metricsPort);
+            }
+            long start = System.nanoTime();
             System.out.println("=================================================");
             System.out.println("Smart City/Campus Scheduling System");
             System.out.println("=================================================\n");
@@ -29,92 +86,201 @@ public class SmartCityScheduler {
             System.out.println("Loading dataset: " + filename);
             Graph graph = GraphLoader.loadFromJson(filename);
             TaskGraph taskGraph = GraphLoader.loadTaskGraph(filename);
+            for (String delta : deltas) {
+                DeltaApplier.AppliedDelta applied =
+                        new DeltaApplier(graph, taskGraph).apply(GraphLoader.loadDelta(delta));
+                System.out.printf("Applied delta %s: +%d/-%d tasks, +%d/-%d dependencies, %d weight changes%n",
+                        delta, applied.tasksAdded(), applied.tasksRemoved(), applied.dependenciesAdded(),
+                        applied.dependenciesRemoved(), applied.weightsChanged());
+            }
+            if (reorder != null) {
+                // Task ids travel with their vertices, so the report below
+                // reads the same; only the numbering of components changes.
+                double spanBefore = VertexReordering.averageEdgeSpan(graph);
+                VertexReordering.Permutation permutation = new VertexReordering(graph).compute(reorder);
+                graph = permutation.apply(graph);
+                taskGraph = permutation.apply(taskGraph);
+                System.out.printf("Relabelled vertices (%s): average edge span %.1f -> %.1f%n",
+                        reorder, spanBefore, VertexReordering.averageEdgeSpan(graph));
+            }
 
             System.out.println("Description: " + taskGraph.getDescription());
             System.out.println("Vertices: " + graph.getVertices());
             System.out.println("Edges: " + graph.countEdges());
-            System.out.println();
 
-            System.out.println("----- Step 1: SCC Detection (Tarjan) -----");
-            SCC scc = new SCC(graph);
-            List<List<Integer>> components = scc.findSCCs();
-
-            System.out.println("Number of SCCs: " + scc.getSCCCount());
-            System.out.println("\nComponents:");
-            for (int i = 0; i < components.size(); i++) {
-                System.out.print("SCC " + i + " (size " + components.get(i).size() + "): ");
-                List<Integer> component = components.get(i);
-                for (int j = 0; j < Math.min(5, component.size()); j++) {
-                    int vertex = component.get(j);
-                    String taskId = graph.getTaskId(vertex);
-                    System.out.print(taskId != null ? taskId : ("V" + vertex));
-                    if (j < Math.min(5, component.size()) - 1) System.out.print(", ");
+            ResultCache cache = cacheDir != null ? new ResultCache(cacheDir, cacheMegabytes << 20) : null;
+            Map<String, Metrics> stageMetrics = new HashMap<>();
+            SchedulingResult result = null;
+            long cacheKey = SchedulingPipeline.cacheKey(graph, breakCycles);
+            if (cache != null) {
+                byte[] cached = cache.get(cacheKey);
+                if (cached != null) {
+                    try {
+                        result = SchedulingResult.decode(cached);
+                    } catch (IOException e) {
+                        // Recomputed and stored again below.
+                        cache.remove(cacheKey);
+                    }
                 }
-                if (component.size() > 5) System.out.print("...");
-                System.out.println();
             }
-
-            System.out.println("\nMetrics:");
-            printMetrics(scc.getMetrics());
-
-            System.out.println("----- Step 2: Condensation Graph (DAG of SCCs) -----");
-            Graph condensation = scc.buildCondensationGraph();
-            System.out.println("Condensation vertices: " + condensation.getVertices());
-            System.out.println("Condensation edges: " + condensation.countEdges());
-            System.out.println();
-
-            System.out.println("----- Step 3: Topological Sort (Kahn) -----");
-            TopologicalSort topoSort = new TopologicalSort(condensation);
-            List<Integer> topoOrder = topoSort.sort();
-
-            if (topoOrder != null) {
-                System.out.println("Topological order of SCCs: " + topoOrder);
-                System.out.println("\nMetrics:");
-                printMetrics(topoSort.getMetrics());
-
-                System.out.println("----- Step 4: DAG Shortest/Longest Paths -----");
-
-                if (condensation.getVertices() > 0) {
-                    DAGShortestPath dagSP = new DAGShortestPath(condensation);
-                    int source = topoOrder.getFirst();
-
-                    System.out.println("\nShortest paths from SCC " + source + ":");
-                    DAGShortestPath.ShortestPathResult spResult = dagSP.findShortestPaths(source);
-                    if (spResult != null) {
-                        for (int i = 0; i < condensation.getVertices(); i++) {
-                            if (spResult.distances()[i] != Double.POSITIVE_INFINITY) {
-                                System.out.printf("  To SCC %d: %.2f%n", i, spResult.distances()[i]);
-                            }
-                        }
-                        System.out.println("\nShortest Path Metrics:");
-                        printMetrics(dagSP.getMetrics());
-                    }
-
-                    System.out.println("\nLongest path (Critical Path) from SCC " + source + ":");
-                    DAGShortestPath.LongestPathResult lpResult = dagSP.findLongestPath(source);
-                    if (lpResult != null) {
-                        System.out.println("Critical path: " + lpResult.criticalPath());
-                        System.out.printf("Critical path length: %.2f%n", lpResult.criticalPathLength());
-                        System.out.println("\nLongest Path Metrics:");
-                        printMetrics(dagSP.getMetrics());
-                    }
+            boolean hit = result != null;
+            if (!hit) {
+                result = SchedulingPipeline.analyze(graph, taskGraph, stageMetrics, breakCycles);
+                if (cache != null) {
+                    cache.put(cacheKey, result.encode());
                 }
+            }
+
+            if (exportDir != null) {
+                // Per-component listings go to the files; the console only
+                // gets the summary.
+                printSummary(result);
+                ResultExporter resultExporter = new ResultExporter(graph);
+                ResultExporter.ExportSummary summary = resultExporter.export(result, exportDir, exportFormat);
+                System.out.printf("Exported %d rows (%.1f MB, %s) to %s in %.3f ms%n", summary.rows(),
+                        summary.bytes() / (1024.0 * 1024.0), exportFormat, exportDir,
+                        resultExporter.getMetrics().getElapsedTimeMillis());
             } else {
-                System.out.println("ERROR: Condensation graph contains a cycle (should not happen!)");
+                print(graph, result, stageMetrics);
             }
 
             System.out.println("=================================================");
             System.out.println("Analysis Complete");
+            if (cache != null) {
+                System.out.printf("Result cache %s (key %016x), total %.3f ms%n",
+                        hit ? "hit" : "miss", cacheKey, (System.nanoTime() - start) / 1_000_000.0);
+            }
             System.out.println("=================================================");
 
+            // Keep serving the collected metrics until the process is stopped;
+            // otherwise the endpoint closes with the run.
+            if (serve) {
+                System.out.println("Serving metrics on http://localhost:" + exporter.port() + "/metrics (Ctrl+C to stop)");
+                Thread.currentThread().join();
+            }
+
         } catch (IOException e) {
             System.err.println("Error loading dataset: " + e.getMessage());
         } catch (Exception e) {
             System.err.println("Error during analysis: " + e.getMessage());
+        } finally {
+            if (exporter != null) {
+                exporter.close();
+            }
+        }
+    }
+
+    // Stage metrics are only present when the result was computed in this
+    // run; a cached result is printed without them.
+    private static void print(Graph graph, SchedulingResult result, Map<String, Metrics> stageMetrics) {
+        if (result.feedbackEdges() >= 0) {
+            System.out.printf("Broke cycles: dropped %d dependencies (weight %.2f)%n",
+                    result.feedbackEdges(), result.feedbackWeight());
+        }
+        System.out.println();
+
+        System.out.println("----- Step 1: SCC Detection (Tarjan) -----");
+        int[][] components = result.components();
+        System.out.println("Number of SCCs: " + components.length);
+        System.out.println("\nComponents:");
+        for (int i = 0; i < components.length; i++) {
+            System.out.print("SCC " + i + " (size " + components[i].length + "): ");
+            int[] component = components[i];
+            for (int j = 0; j < Math.min(5, component.length); j++) {
+                System.out.print(taskName(graph, component[j]));
+                if (j < Math.min(5, component.length) - 1) System.out.print(", ");
+            }
+            if (component.length > 5) System.out.print("...");
+            System.out.println();
+        }
+
+        printStageMetrics(stageMetrics, "scc", "\nMetrics:");
+
+        if (!result.groupOrders().isEmpty()) {
+            System.out.println("Task order inside cyclic groups:");
+            for (ComponentOrdering.ComponentOrder order : result.groupOrders()) {
+                System.out.print("SCC " + order.component() + ": ");
+                for (int j = 0; j < order.tasks().length; j++) {
+                    System.out.print(taskName(graph, order.tasks()[j]));
+                    if (j < order.tasks().length - 1) System.out.print(" -> ");
+                }
+                System.out.printf(" (dropped %d dependencies, weight %.2f)%n",
+                        order.removedEdges(), order.removedWeight());
+            }
+            System.out.println();
+        }
+
+        System.out.println("----- Step 2: Condensation Graph (DAG of SCCs) -----");
+        System.out.println("Condensation vertices: " + result.condensationVertices());
+        System.out.println("Condensation edges: " + result.condensationEdges());
+        System.out.println();
+
+        System.out.println("----- Step 3: Topological Sort (Kahn) -----");
+        if (result.topoOrder().length != result.condensationVertices()) {
+            System.out.println("ERROR: Condensation graph contains a cycle (should not happen!)");
+            return;
+        }
+        System.out.println("Topological order of SCCs: " + Arrays.toString(result.topoOrder()));
+        printStageMetrics(stageMetrics, "topo", "\nMetrics:");
+
+        System.out.println("----- Step 4: DAG Shortest/Longest Paths -----");
+        SchedulingResult.Paths paths = result.paths();
+        if (paths == null) return;
+
+        System.out.println("\nShortest paths from SCC " + paths.source() + ":");
+        double[] shortest = paths.shortestDistances();
+        for (int i = 0; i < shortest.length; i++) {
+            if (shortest[i] != Double.POSITIVE_INFINITY) {
+                System.out.printf("  To SCC %d: %.2f%n", i, shortest[i]);
+            }
+        }
+        printStageMetrics(stageMetrics, "shortest", "\nShortest Path Metrics:");
+
+        System.out.println("\nLongest path (Critical Path) from SCC " + paths.source() + ":");
+        System.out.println("Critical path: " + Arrays.toString(paths.criticalPath()));
+        System.out.printf("Critical path length: %.2f%n", paths.criticalPathLength());
+
+        System.out.println("\nNear-critical paths:");
+        for (KLongestPaths.RankedPath path : paths.nearCriticalPaths()) {
+            System.out.printf("  %s (length %.2f)%n", path.vertices(), path.length());
+        }
+        printStageMetrics(stageMetrics, "longest", "\nLongest Path Metrics:");
+
+        System.out.println("----- Step 5: Critical Path Method (task durations) -----");
+        System.out.printf("Project duration: %.2f%n", paths.projectDuration());
+        System.out.println("Zero-float SCCs: " + Arrays.toString(paths.zeroFloatComponents()));
+        printStageMetrics(stageMetrics, "cpm", "\nMetrics:");
+    }
+
+    private static void printSummary(SchedulingResult result) {
+        if (result.feedbackEdges() >= 0) {
+            System.out.printf("Broke cycles: dropped %d dependencies (weight %.2f)%n",
+                    result.feedbackEdges(), result.feedbackWeight());
+        }
+        System.out.println("Number of SCCs: " + result.components().length);
+        System.out.println("Condensation edges: " + result.condensationEdges());
+        SchedulingResult.Paths paths = result.paths();
+        if (paths != null) {
+            System.out.printf("Critical path length: %.2f (%d SCCs)%n",
+                    paths.criticalPathLength(), paths.criticalPath().length);
+            System.out.printf("Project duration: %.2f%n", paths.projectDuration());
+        }
+    }
+
+    private static String taskName(Graph graph, int vertex) {
+        String taskId = graph.getTaskId(vertex);
+        return taskId != null ? taskId : ("V" + vertex);
+    }
+
+    private static void printStageMetrics(Map<String, Metrics> stageMetrics, String stage, String heading) {
+        Metrics metrics = stageMetrics.get(stage);
+        if (metrics != null) {
+            System.out.println(heading);
+            printMetrics(metrics);
         }
     }
 
-    private static void printMetrics(com.rtyrrx.mst.common.Metrics metrics) {
+    private static void printMetrics(Metrics metrics) {
         System.out.printf("Time: %.3f ms%n", metrics.getElapsedTimeMillis());
         String[] counterNames = {"dfs_visits", "edges_explored", "queue_pushes", "queue_pops", "edges_processed", "relaxations"};
         for (String name : counterNames) {
@@ -0,0 +1,129 @@
+package com.rtyrrx.mst.bench;
+
+import com.google.gson.Gson;
+import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.data.TaskGraph;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class BenchmarkSupport {
+    private static final long LARGE_STACK_BYTES = 1L << 30;
+
+    public static Graph randomDag(int vertices, int edgesPerVertex, long seed) {
+        Random random = new Random(seed);
+        Graph graph = new Graph(vertices);
+        for (int u = 0; u < vertices - 1; u++) {
+            for (int j = 0; j < edgesPerVertex; j++) {
+                int v = u + 1 + random.nextInt(vertices - u - 1);
+                graph.addEdge(u, v, 1 + random.nextInt(5));
+            }
+        }
+        return graph;
+    }
+
+    public static Graph randomGraph(int vertices, int edgesPerVertex, long seed) {
+        Random random = new Random(seed);
+        Graph graph = new Graph(vertices);
+        for (int u = 0; u < vertices; u++) {
+            for (int j = 0; j < edgesPerVertex; j++) {
+                int v = random.nextInt(vertices);
+                if (v != u) {
+                    graph.addEdge(u, v, 1 + random.nextInt(5));
+                }
+            }
+        }
+        return graph;
+    }
+
+    // Mostly forward dependencies with a few back edges, so the graph has
+    // many small SCCs and a long condensation.
+    public static TaskGraph randomTaskGraph(int tasks, int dependenciesPerTask, long seed) {
+        Random random = new Random(seed);
+        TaskGraph taskGraph = new TaskGraph();
+        taskGraph.setDescription("Generated benchmark dataset");
+        for (int i = 0; i < tasks; i++) {
+            taskGraph.addTask(new TaskGraph.Task("T" + i, "Task" + i, 1 + random.nextInt(10)));
+        }
+        for (int i = 0; i < tasks; i++) {
+            for (int j = 0; j < dependenciesPerTask; j++) {
+                int to = random.nextInt(50) == 0
+                        ? Math.max(0, i - 1 - random.nextInt(5))
+                        : Math.min(tasks - 1, i + 1 + random.nextInt(20));
+                if (to != i) {
+                    taskGraph.addDependency(new TaskGraph.Dependency("T" + i, "T" + to, 1 + random.nextInt(5)));
+                }
+            }
+        }
+        return taskGraph;
+    }
+
+    public static void writeJson(Path file, Object value) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            new Gson().toJson(value, writer);
+        }
+    }
+
+    // The recursive DFS in SCC and TopologicalSort.sortDFS goes as deep as the
+    // longest DFS path, which on million-vertex graphs exceeds the default stack.
+    public static <T> T callWithLargeStack(Callable<T> task) {
+        AtomicReference<T> result = new AtomicReference<>();
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        Thread thread = new Thread(null, () -> {
+            try {
+                result.set(task.call());
+            } catch (Exception e) {
+                failure.set(e);
+            }
+        }, "benchmark", LARGE_STACK_BYTES);
+        thread.start();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        if (failure.get() != null) {
+            throw new IllegalStateException(failure.get());
+        }
+        return result.get();
+    }
+
+    public static long gcCount() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionCount());
+        }
+        return total;
+    }
+
+    public static long gcTimeMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+
+    // Bytes allocated so far by the calling thread.
+    public static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+
+    public static long usedHeapBytes() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    public static int intArg(String[] args, int index, int defaultValue) {
+        return args.length > index ? Integer.parseInt(args[index]) : defaultValue;
+    }
+}
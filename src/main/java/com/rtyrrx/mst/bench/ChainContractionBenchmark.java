@@ -0,0 +1,101 @@
+package com.rtyrrx.mst.bench;
+
+import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.graph.dagsp.ChainContraction;
+import com.rtyrrx.mst.graph.dagsp.DAGShortestPath;
+
+import java.util.Random;
+
+// Usage: java --enable-preview -Xmx3g -cp target/classes com.rtyrrx.mst.bench.ChainContractionBenchmark
+//        [skeletonVertices] [edgesPerVertex] [maxChainLength] [iterations]
+// Every skeleton edge is stretched into a chain of 0..maxChainLength extra
+// vertices, like sequential route work between junctions.
+public class ChainContractionBenchmark {
+
+    public static void main(String[] args) {
+        int skeleton = BenchmarkSupport.intArg(args, 0, 100_000);
+        int edgesPerVertex = BenchmarkSupport.intArg(args, 1, 2);
+        int maxChainLength = BenchmarkSupport.intArg(args, 2, 16);
+        int iterations = BenchmarkSupport.intArg(args, 3, 5);
+
+        Graph graph = chainHeavyDag(skeleton, edgesPerVertex, maxChainLength, 42);
+        System.out.println("Chain-heavy DAG: " + graph.getVertices() + " vertices, " + graph.countEdges() + " edges");
+
+        long start = System.nanoTime();
+        ChainContraction chains = ChainContraction.contract(graph, 0);
+        double contractMillis = (System.nanoTime() - start) / 1_000_000.0;
+        Graph contracted = chains.graph();
+        System.out.printf("Contracted: %d vertices (%.1f%%), %d edges (%.1f%%) in %.1f ms%n%n",
+                contracted.getVertices(), 100.0 * contracted.getVertices() / graph.getVertices(),
+                contracted.countEdges(), 100.0 * contracted.countEdges() / graph.countEdges(), contractMillis);
+
+        double plain = timeQueries(graph, 0, iterations);
+        int source = chains.toContracted(0);
+        double query = timeQueries(contracted, source, iterations);
+        double expanded = timeExpandedQueries(chains, source, iterations);
+
+        System.out.printf("%-22s %14s %10s%n", "variant", "ms/query pair", "speedup");
+        System.out.printf("%-22s %14.2f %10s%n", "original", plain, "1.00x");
+        System.out.printf("%-22s %14.2f %9.2fx%n", "contracted", query, plain / query);
+        System.out.printf("%-22s %14.2f %9.2fx%n", "contracted + expand", expanded, plain / expanded);
+    }
+
+    // One shortest and one longest path query from the source.
+    private static double timeQueries(Graph graph, int source, int iterations) {
+        runQueries(graph, source);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            runQueries(graph, source);
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / iterations;
+    }
+
+    private static void runQueries(Graph graph, int source) {
+        new DAGShortestPath(graph).findShortestPaths(source);
+        new DAGShortestPath(graph).findLongestPath(source);
+    }
+
+    private static double timeExpandedQueries(ChainContraction chains, int source, int iterations) {
+        long start = 0;
+        for (int i = 0; i <= iterations; i++) {
+            if (i == 1) start = System.nanoTime();
+            DAGShortestPath.ShortestPathResult shortest =
+                    new DAGShortestPath(chains.graph()).findShortestPaths(source);
+            chains.expandDistances(shortest.distances());
+            DAGShortestPath.LongestPathResult longest = new DAGShortestPath(chains.graph()).findLongestPath(source);
+            chains.expandDistances(longest.distances());
+            chains.expandPredecessors(longest.distances(), longest.predecessors());
+            chains.expandPath(longest.criticalPath());
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / iterations;
+    }
+
+    static Graph chainHeavyDag(int skeleton, int edgesPerVertex, int maxChainLength, long seed) {
+        Random random = new Random(seed);
+        int[] from = new int[skeleton * edgesPerVertex];
+        int[] to = new int[from.length];
+        int[] length = new int[from.length];
+        int edges = 0;
+        long vertices = skeleton;
+        for (int u = 0; u < skeleton - 1; u++) {
+            for (int j = 0; j < edgesPerVertex; j++) {
+                from[edges] = u;
+                to[edges] = u + 1 + random.nextInt(Math.min(64, skeleton - 1 - u));
+                length[edges] = random.nextInt(maxChainLength + 1);
+                vertices += length[edges];
+                edges++;
+            }
+        }
+        Graph graph = new Graph(Math.toIntExact(vertices));
+        int next = skeleton;
+        for (int e = 0; e < edges; e++) {
+            int u = from[e];
+            for (int c = 0; c < length[e]; c++) {
+                graph.addEdge(u, next, 1 + random.nextInt(20));
+                u = next++;
+            }
+            graph.addEdge(u, to[e], 1 + random.nextInt(20));
+        }
+        return graph;
+    }
+}
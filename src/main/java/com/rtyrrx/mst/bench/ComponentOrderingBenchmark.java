@@ -0,0 +1,39 @@
+package com.rtyrrx.mst.bench;
+
+import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.graph.scc.ComponentOrdering;
+import com.rtyrrx.mst.graph.scc.SCC;
+
+import java.util.List;
+
+// Usage: java -cp target/classes com.rtyrrx.mst.bench.ComponentOrderingBenchmark [maxVertices] [edgesPerVertex]
+// Random digraphs with average degree above one form a giant SCC.
+public class ComponentOrderingBenchmark {
+
+    public static void main(String[] args) {
+        int maxVertices = BenchmarkSupport.intArg(args, 0, 1_000_000);
+        int edgesPerVertex = BenchmarkSupport.intArg(args, 1, 3);
+
+        System.out.printf("%10s %10s %10s %12s %10s %12s %12s %10s%n", "vertices", "edges", "groups",
+                "largest", "removed", "removed %", "removed w", "time ms");
+        for (int vertices = maxVertices / 16; vertices <= maxVertices; vertices *= 4) {
+            Graph graph = BenchmarkSupport.randomGraph(vertices, edgesPerVertex, 42);
+            List<List<Integer>> components = BenchmarkSupport.callWithLargeStack(() -> new SCC(graph).findSCCs());
+
+            ComponentOrdering ordering = new ComponentOrdering(graph, components);
+            ordering.orderComponents();
+            List<ComponentOrdering.ComponentOrder> orders = ordering.orderComponents();
+
+            int largest = 0;
+            double removedWeight = 0;
+            for (ComponentOrdering.ComponentOrder order : orders) {
+                largest = Math.max(largest, order.tasks().length);
+                removedWeight += order.removedWeight();
+            }
+            long removed = ordering.getMetrics().getCounter("edges_removed");
+            System.out.printf("%10d %10d %10d %12d %10d %11.1f%% %12.0f %10.1f%n", vertices, graph.countEdges(),
+                    orders.size(), largest, removed, 100.0 * removed / graph.countEdges(), removedWeight,
+                    ordering.getMetrics().getElapsedTimeMillis());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.rtyrrx.mst.bench;
+
+import com.rtyrrx.mst.common.CompressedGraph;
+import com.rtyrrx.mst.common.DirectedGraph;
+import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.common.OffHeapGraph;
+import com.rtyrrx.mst.graph.scc.SCC;
+import com.rtyrrx.mst.graph.topo.TopologicalSort;
+
+import java.util.Random;
+
+// Usage: java --enable-preview -cp target/classes com.rtyrrx.mst.bench.CompressedGraphBenchmark
+//        [vertices] [edgesPerVertex] [iterations]
+// Weights are 1-5 as in DatasetGenerator. Gap coding pays off with
+// locality, so a DAG whose edges only span a short window of ids (as after
+// VertexReordering on a regional feed) is compressed as well.
+public class CompressedGraphBenchmark {
+    private static final int WINDOW = 64;
+
+    public static void main(String[] args) {
+        int vertices = BenchmarkSupport.intArg(args, 0, 1_000_000);
+        int edgesPerVertex = BenchmarkSupport.intArg(args, 1, 4);
+        int iterations = BenchmarkSupport.intArg(args, 2, 3);
+
+        System.out.println("Building random DAG: " + vertices + " vertices, "
+                + edgesPerVertex + " edges per vertex");
+        System.gc();
+        long heapBefore = BenchmarkSupport.usedHeapBytes();
+        Graph graph = BenchmarkSupport.randomDag(vertices, edgesPerVertex, 42);
+        System.gc();
+        long graphBytes = BenchmarkSupport.usedHeapBytes() - heapBefore;
+        System.out.println("Edges: " + graph.countEdges());
+        System.out.println();
+
+        System.out.printf("%-22s %12s %10s %12s %12s %14s%n",
+                "layout", "MB", "B/edge", "topo ms/op", "scc ms/op", "topo Medges/s");
+        report("graph (heap estimate)", graph, graphBytes, iterations);
+        try (OffHeapGraph csr = OffHeapGraph.copyOf(graph)) {
+            report("csr", csr, csr.byteSize(), iterations);
+        }
+        CompressedGraph compressed = CompressedGraph.copyOf(graph);
+        report("compressed", compressed, compressed.byteSize(), iterations);
+
+        graph = null;
+        compressed = null;
+        CompressedGraph local = CompressedGraph.copyOf(localDag(vertices, edgesPerVertex, 42));
+        report("compressed, local", local, local.byteSize(), iterations);
+    }
+
+    private static Graph localDag(int vertices, int edgesPerVertex, long seed) {
+        Random random = new Random(seed);
+        Graph graph = new Graph(vertices);
+        for (int u = 0; u < vertices - 1; u++) {
+            for (int j = 0; j < edgesPerVertex; j++) {
+                graph.addEdge(u, Math.min(vertices - 1, u + 1 + random.nextInt(WINDOW)), 1 + random.nextInt(5));
+            }
+        }
+        return graph;
+    }
+
+    private static void report(String label, DirectedGraph graph, long bytes, int iterations) {
+        runOnce(graph);
+        long topoNanos = 0;
+        long sccNanos = 0;
+        for (int i = 0; i < iterations; i++) {
+            long[] timings = runOnce(graph);
+            topoNanos += timings[0];
+            sccNanos += timings[1];
+        }
+        double topoMillis = topoNanos / 1_000_000.0 / iterations;
+        System.out.printf("%-22s %12.1f %10.2f %12.2f %12.2f %14.1f%n",
+                label,
+                bytes / (1024.0 * 1024.0),
+                (double) bytes / graph.countEdges(),
+                topoMillis,
+                sccNanos / 1_000_000.0 / iterations,
+                graph.countEdges() / topoMillis / 1000.0);
+    }
+
+    private static long[] runOnce(DirectedGraph graph) {
+        return BenchmarkSupport.callWithLargeStack(() -> {
+            long start = System.nanoTime();
+            new TopologicalSort(graph).sortToArray();
+            long topoNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            new SCC(graph).findSCCs();
+            long sccNanos = System.nanoTime() - start;
+
+            return new long[]{topoNanos, sccNanos};
+        });
+    }
+}
@@ -0,0 +1,42 @@
+package com.rtyrrx.mst.bench;
+
+import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.graph.cpm.CriticalPathMethod;
+import com.rtyrrx.mst.graph.topo.TopologicalSort;
+
+import java.util.Random;
+
+// Usage: java -Xmx3g -cp target/classes com.rtyrrx.mst.bench.CriticalPathMethodBenchmark [maxEdges] [edgesPerVertex]
+// Doubles the graph size up to maxEdges; a flat ns/(V+E) column shows linear scaling.
+public class CriticalPathMethodBenchmark {
+
+    public static void main(String[] args) {
+        int maxEdges = BenchmarkSupport.intArg(args, 0, 10_000_000);
+        int edgesPerVertex = BenchmarkSupport.intArg(args, 1, 4);
+
+        System.out.printf("%12s %12s %12s %12s %12s%n", "vertices", "edges", "topo ms", "cpm ms", "ns/(V+E)");
+        for (int edges = maxEdges / 8; edges <= maxEdges; edges *= 2) {
+            int vertices = edges / edgesPerVertex;
+            Graph graph = BenchmarkSupport.randomDag(vertices, edgesPerVertex, 42);
+            Random random = new Random(42);
+            double[] durations = new double[vertices];
+            for (int v = 0; v < vertices; v++) {
+                durations[v] = 1 + random.nextInt(10);
+            }
+
+            TopologicalSort topoSort = new TopologicalSort(graph);
+            int[] order = topoSort.sortToArray();
+            CriticalPathMethod cpm = new CriticalPathMethod(graph, durations);
+            cpm.analyze(order);
+
+            double best = Double.MAX_VALUE;
+            for (int i = 0; i < 3; i++) {
+                cpm.analyze(order);
+                best = Math.min(best, cpm.getMetrics().getElapsedTimeMillis());
+            }
+            long size = (long) vertices + graph.countEdges();
+            System.out.printf("%12d %12d %12.1f %12.1f %12.2f%n", vertices, graph.countEdges(),
+                    topoSort.getMetrics().getElapsedTimeMillis(), best, best * 1_000_000.0 / size);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.rtyrrx.mst.bench;
+
+import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.data.DeltaApplier;
+import com.rtyrrx.mst.data.GraphDelta;
+import com.rtyrrx.mst.data.GraphLoader;
+import com.rtyrrx.mst.data.TaskGraph;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+// Usage: java -cp target/classes:<gson.jar> com.rtyrrx.mst.bench.DeltaBenchmark
+//        [tasks] [dependenciesPerTask] [deltaPercent] [iterations]
+// Applying a delta file to a loaded graph versus reloading the full
+// snapshot. The delta touches deltaPercent of the dependencies (removals,
+// additions and weight changes) and a tenth of that share of the tasks.
+public class DeltaBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int tasks = BenchmarkSupport.intArg(args, 0, 500_000);
+        int dependenciesPerTask = BenchmarkSupport.intArg(args, 1, 3);
+        int deltaPercent = BenchmarkSupport.intArg(args, 2, 1);
+        int iterations = BenchmarkSupport.intArg(args, 3, 5);
+
+        TaskGraph snapshot = BenchmarkSupport.randomTaskGraph(tasks, dependenciesPerTask, 42);
+        GraphDelta delta = randomDelta(snapshot, deltaPercent / 100.0, 7);
+
+        Path dir = Files.createTempDirectory("delta-bench");
+        Path snapshotFile = dir.resolve("snapshot.json");
+        Path deltaFile = dir.resolve("delta.json");
+        try {
+            BenchmarkSupport.writeJson(snapshotFile, snapshot);
+            BenchmarkSupport.writeJson(deltaFile, delta);
+            System.out.printf("Snapshot: %d tasks, %d dependencies, %.1f MB%n", tasks,
+                    snapshot.getDependencies().size(), Files.size(snapshotFile) / (1024.0 * 1024.0));
+            System.out.printf("Delta: +%d/-%d tasks, +%d/-%d dependencies, %d weight changes, %.1f KB%n",
+                    delta.getAddedTasks().size(), delta.getRemovedTasks().size(),
+                    delta.getAddedDependencies().size(), delta.getRemovedDependencies().size(),
+                    delta.getWeightChanges().size(), Files.size(deltaFile) / 1024.0);
+
+            long reloadNanos = 0;
+            long applyNanos = 0;
+            for (int i = -1; i < iterations; i++) {
+                long start = System.nanoTime();
+                Graph graph = GraphLoader.loadFromJson(snapshotFile.toString());
+                TaskGraph taskGraph = GraphLoader.loadTaskGraph(snapshotFile.toString());
+                long reload = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                new DeltaApplier(graph, taskGraph).apply(GraphLoader.loadDelta(deltaFile.toString()));
+                long apply = System.nanoTime() - start;
+
+                // The first round only warms up.
+                if (i >= 0) {
+                    reloadNanos += reload;
+                    applyNanos += apply;
+                }
+            }
+            System.out.printf("%-28s %10.1f ms%n", "reload full snapshot", reloadNanos / 1e6 / iterations);
+            System.out.printf("%-28s %10.1f ms%n", "load and apply delta", applyNanos / 1e6 / iterations);
+        } finally {
+            Files.deleteIfExists(snapshotFile);
+            Files.deleteIfExists(deltaFile);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    private static GraphDelta randomDelta(TaskGraph snapshot, double fraction, long seed) {
+        Random random = new Random(seed);
+        List<TaskGraph.Task> tasks = snapshot.getTasks();
+        List<TaskGraph.Dependency> dependencies = snapshot.getDependencies();
+        int changes = Math.max(1, (int) (dependencies.size() * fraction));
+        int taskChanges = Math.max(1, changes / 10);
+
+        GraphDelta delta = new GraphDelta();
+        Set<String> removedTasks = new HashSet<>();
+        while (removedTasks.size() < taskChanges) {
+            removedTasks.add(tasks.get(random.nextInt(tasks.size())).getId());
+        }
+        removedTasks.forEach(delta::removeTask);
+        for (int i = 0; i < taskChanges; i++) {
+            delta.addTask(new TaskGraph.Task("N" + i, "New" + i, 1 + random.nextInt(10)));
+        }
+
+        // Removals and weight changes pick distinct dependencies between
+        // tasks that survive; the first occurrence of a parallel pair wins.
+        Set<String> touched = new HashSet<>();
+        int removals = changes / 3;
+        int weightChanges = changes / 3;
+        while (removals + weightChanges > 0) {
+            TaskGraph.Dependency dep = dependencies.get(random.nextInt(dependencies.size()));
+            if (removedTasks.contains(dep.getFrom()) || removedTasks.contains(dep.getTo())) continue;
+            if (!touched.add(dep.getFrom() + "\0" + dep.getTo())) continue;
+            if (removals > 0) {
+                delta.removeDependency(dep.getFrom(), dep.getTo());
+                removals--;
+            } else {
+                delta.changeWeight(dep.getFrom(), dep.getTo(), 1 + random.nextInt(5));
+                weightChanges--;
+            }
+        }
+        for (int i = 0; i < changes - 2 * (changes / 3); i++) {
+            String from = i < taskChanges ? "N" + i : tasks.get(random.nextInt(tasks.size())).getId();
+            String to = tasks.get(random.nextInt(tasks.size())).getId();
+            if (removedTasks.contains(from) || removedTasks.contains(to) || from.equals(to)) continue;
+            delta.addDependency(new TaskGraph.Dependency(from, to, 1 + random.nextInt(5)));
+        }
+        return delta;
+    }
+}
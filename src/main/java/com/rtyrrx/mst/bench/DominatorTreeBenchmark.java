@@ -0,0 +1,94 @@
+package com.rtyrrx.mst.bench;
+
+import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.graph.dominator.DominatorTree;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+
+// Usage: java --enable-preview -Xmx3g -cp target/classes com.rtyrrx.mst.bench.DominatorTreeBenchmark
+//        [vertices] [edgesPerVertex] [removalSamples]
+// The removal baseline re-runs reachability once per removed vertex; it is
+// timed on a sample of vertices and extrapolated to all of them.
+public class DominatorTreeBenchmark {
+    private static final int WINDOW = 32;
+
+    public static void main(String[] args) {
+        int vertices = BenchmarkSupport.intArg(args, 0, 1_000_000);
+        int edgesPerVertex = BenchmarkSupport.intArg(args, 1, 2);
+        int samples = BenchmarkSupport.intArg(args, 2, 5);
+
+        System.out.printf("%-8s %12s %12s %14s %12s %16s%n",
+                "graph", "dom ms", "postdom ms", "steps/vertex", "dominators", "removal est. s");
+        run("random", BenchmarkSupport.randomDag(vertices, edgesPerVertex, 42), samples);
+        run("local", localDag(vertices, edgesPerVertex, 42), samples);
+    }
+
+    private static void run(String label, Graph graph, int samples) {
+        // The reverse index is cached on the graph; build it outside the timing.
+        graph.getReverseAdjacency();
+        DominatorTree.dominators(graph, 0);
+
+        long start = System.nanoTime();
+        DominatorTree dominators = DominatorTree.dominators(graph, 0);
+        double domMillis = (System.nanoTime() - start) / 1_000_000.0;
+        start = System.nanoTime();
+        DominatorTree.postDominators(graph);
+        double postMillis = (System.nanoTime() - start) / 1_000_000.0;
+
+        // Vertices that dominate something other than themselves.
+        int n = graph.getVertices();
+        boolean[] isDominator = new boolean[n];
+        for (int v = 0; v < n; v++) {
+            int idom = dominators.getImmediateDominator(v);
+            if (idom >= 0) isDominator[idom] = true;
+        }
+        int count = 0;
+        for (boolean d : isDominator) {
+            if (d) count++;
+        }
+
+        Random random = new Random(7);
+        start = System.nanoTime();
+        for (int s = 0; s < samples; s++) {
+            reachableWithout(graph, 0, 1 + random.nextInt(n - 1));
+        }
+        double removalSeconds = (System.nanoTime() - start) / 1e9 / samples * n;
+
+        System.out.printf("%-8s %12.1f %12.1f %14.2f %12d %16.0f%n", label, domMillis, postMillis,
+                (double) dominators.getMetrics().getCounter("intersect_steps") / n, count, removalSeconds);
+    }
+
+    private static int reachableWithout(Graph graph, int root, int removed) {
+        boolean[] seen = new boolean[graph.getVertices()];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        queue.add(root);
+        seen[root] = true;
+        int reached = 1;
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            for (int i = 0; i < graph.getOutDegree(u); i++) {
+                int v = graph.getNeighbor(u, i);
+                if (v != removed && !seen[v]) {
+                    seen[v] = true;
+                    reached++;
+                    queue.add(v);
+                }
+            }
+        }
+        return reached;
+    }
+
+    // Edges stay within a short window, giving deep dominator chains.
+    private static Graph localDag(int vertices, int edgesPerVertex, long seed) {
+        Random random = new Random(seed);
+        Graph graph = new Graph(vertices);
+        for (int u = 0; u < vertices - 1; u++) {
+            int edges = 1 + random.nextInt(edgesPerVertex);
+            for (int j = 0; j < edges; j++) {
+                graph.addEdge(u, u + 1 + random.nextInt(Math.min(WINDOW, vertices - u - 1)), 1);
+            }
+        }
+        return graph;
+    }
+}
@@ -0,0 +1,110 @@
+package com.rtyrrx.mst.bench;
+
+import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.graph.dagsp.DAGShortestPath;
+import com.rtyrrx.mst.graph.dagsp.PathEngine;
+import com.rtyrrx.mst.graph.scc.SCC;
+import com.rtyrrx.mst.graph.scc.SccEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntToDoubleFunction;
+
+// Usage: java --enable-preview -cp target/classes com.rtyrrx.mst.bench.EngineBenchmark
+//        [vertices] [edgesPerVertex] [queries] [threads]
+// Longest-path queries from many sources on one shared graph, answered by a
+// fresh DAGShortestPath per query and by one pooled PathEngine, plus
+// repeated SCC runs on one thread.
+public class EngineBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int vertices = BenchmarkSupport.intArg(args, 0, 200_000);
+        int edgesPerVertex = BenchmarkSupport.intArg(args, 1, 4);
+        int queries = BenchmarkSupport.intArg(args, 2, 200);
+        int threads = BenchmarkSupport.intArg(args, 3, 4);
+
+        System.out.println("Building random DAG: " + vertices + " vertices, "
+                + edgesPerVertex + " edges per vertex");
+        Graph graph = BenchmarkSupport.randomDag(vertices, edgesPerVertex, 42);
+        System.out.println("Edges: " + graph.countEdges() + ", queries: " + queries + ", threads: " + threads);
+        System.out.println();
+
+        PathEngine engine = new PathEngine(threads);
+        System.out.printf("%-16s %12s %14s %10s %12s%n",
+                "variant", "ms/query", "KB alloc/query", "gc count", "gc pause ms");
+        runPaths("dag-paths", source -> new DAGShortestPath(graph).findLongestPath(source).criticalPathLength(),
+                queries, threads);
+        runPaths("path-engine", source -> engine.longestPathLength(graph, source), queries, threads);
+
+        SccEngine sccEngine = new SccEngine(1);
+        int[] componentOf = new int[vertices];
+        int runs = Math.max(1, queries / 20);
+        runScc("scc", () -> new SCC(graph).findSCCs(), runs);
+        runScc("scc-engine", () -> sccEngine.findComponents(graph, componentOf), runs);
+    }
+
+    private static void runPaths(String label, IntToDoubleFunction query, int queries, int threads) throws Exception {
+        int sources = 1000;
+        // Warm up, and measure allocation on this thread.
+        for (int i = 0; i < 3; i++) {
+            query.applyAsDouble(i);
+        }
+        long allocated = BenchmarkSupport.allocatedBytes();
+        for (int i = 0; i < 3; i++) {
+            query.applyAsDouble(i);
+        }
+        allocated = (BenchmarkSupport.allocatedBytes() - allocated) / 3;
+
+        long gcCountBefore = BenchmarkSupport.gcCount();
+        long gcTimeBefore = BenchmarkSupport.gcTimeMillis();
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Double>> futures = new ArrayList<>();
+            for (int q = 0; q < queries; q++) {
+                int source = q % sources;
+                futures.add(executor.submit(() -> query.applyAsDouble(source)));
+            }
+            for (Future<Double> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        long nanos = System.nanoTime() - start;
+
+        System.out.printf("%-16s %12.2f %14.1f %10d %12d%n",
+                label,
+                nanos / 1_000_000.0 / queries,
+                allocated / 1024.0,
+                BenchmarkSupport.gcCount() - gcCountBefore,
+                BenchmarkSupport.gcTimeMillis() - gcTimeBefore);
+    }
+
+    // The recursive SCC needs a large stack, so both variants are measured
+    // on the same helper thread.
+    private static void runScc(String label, Runnable run, int runs) {
+        long[] measured = BenchmarkSupport.callWithLargeStack(() -> {
+            run.run();
+            long allocated = BenchmarkSupport.allocatedBytes();
+            long gcCountBefore = BenchmarkSupport.gcCount();
+            long gcTimeBefore = BenchmarkSupport.gcTimeMillis();
+            long start = System.nanoTime();
+            for (int i = 0; i < runs; i++) {
+                run.run();
+            }
+            return new long[]{System.nanoTime() - start, BenchmarkSupport.allocatedBytes() - allocated,
+                    BenchmarkSupport.gcCount() - gcCountBefore, BenchmarkSupport.gcTimeMillis() - gcTimeBefore};
+        });
+
+        System.out.printf("%-16s %12.2f %14.1f %10d %12d%n",
+                label,
+                measured[0] / 1_000_000.0 / runs,
+                measured[1] / 1024.0 / runs,
+                measured[2],
+                measured[3]);
+    }
+}
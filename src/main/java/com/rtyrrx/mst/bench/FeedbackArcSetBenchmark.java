@@ -0,0 +1,37 @@
+package com.rtyrrx.mst.bench;
+
+import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.graph.fas.FeedbackArcSet;
+
+// Usage: java -cp target/classes com.rtyrrx.mst.bench.FeedbackArcSetBenchmark
+//        [maxVertices] [edgesPerVertex] [refinementPasses]
+// Compares the plain Eades-Lin-Smyth order with the refined one by removed
+// edges, removed weight and runtime.
+public class FeedbackArcSetBenchmark {
+
+    public static void main(String[] args) {
+        int maxVertices = BenchmarkSupport.intArg(args, 0, 2_000_000);
+        int edgesPerVertex = BenchmarkSupport.intArg(args, 1, 5);
+        int passes = BenchmarkSupport.intArg(args, 2, 3);
+
+        System.out.printf("%10s %10s | %10s %9s %12s %9s | %10s %9s %12s %9s%n", "vertices", "edges",
+                "removed", "removed %", "weight", "ms", "refined", "removed %", "weight", "ms");
+        for (int vertices = maxVertices / 64; vertices <= maxVertices; vertices *= 4) {
+            Graph graph = BenchmarkSupport.randomGraph(vertices, edgesPerVertex, 42);
+            int edges = graph.countEdges();
+
+            FeedbackArcSet fas = new FeedbackArcSet(graph);
+            fas.compute();
+            FeedbackArcSet.FasResult plain = fas.compute();
+            double plainMillis = fas.getMetrics().getElapsedTimeMillis();
+            FeedbackArcSet.FasResult refined = fas.compute(passes);
+            double refinedMillis = fas.getMetrics().getElapsedTimeMillis();
+
+            System.out.printf("%10d %10d | %10d %8.1f%% %12.0f %9.1f | %10d %8.1f%% %12.0f %9.1f%n",
+                    vertices, edges,
+                    plain.removedCount(), 100.0 * plain.removedCount() / edges, plain.removedWeight(), plainMillis,
+                    refined.removedCount(), 100.0 * refined.removedCount() / edges, refined.removedWeight(),
+                    refinedMillis);
+        }
+    }
+}
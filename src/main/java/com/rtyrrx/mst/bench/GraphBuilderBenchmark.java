@@ -0,0 +1,92 @@
+package com.rtyrrx.mst.bench;
+
+import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.common.GraphBuilder;
+
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+// Usage: java --enable-preview -cp target/classes com.rtyrrx.mst.bench.GraphBuilderBenchmark
+//        [vertices] [edgesPerVertex] [rounds] [maxThreads]
+// Edges arrive in random source order, as dependencies do from a feed.
+// Each builder run uses a pool of the given size, so thread counts above
+// the available processors only add chunking overhead.
+public class GraphBuilderBenchmark {
+    // Keeps the built graphs reachable so the builds are not optimised away.
+    private static long sink;
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        int vertices = BenchmarkSupport.intArg(args, 0, 1_000_000);
+        int edgesPerVertex = BenchmarkSupport.intArg(args, 1, 8);
+        int rounds = BenchmarkSupport.intArg(args, 2, 5);
+        int maxThreads = BenchmarkSupport.intArg(args, 3, Math.max(8, Runtime.getRuntime().availableProcessors()));
+
+        int edges = vertices * edgesPerVertex;
+        Random random = new Random(42);
+        int[] from = new int[edges];
+        int[] to = new int[edges];
+        double[] weights = new double[edges];
+        for (int e = 0; e < edges; e++) {
+            from[e] = random.nextInt(vertices);
+            to[e] = random.nextInt(vertices);
+            weights[e] = 1 + random.nextInt(10);
+        }
+        System.out.println("Edges: " + edges + " over " + vertices + " vertices, "
+                + Runtime.getRuntime().availableProcessors() + " processors available");
+        System.out.println();
+
+        System.out.printf("%-20s %14s %8s%n", "variant", "best ms/build", "GCs");
+        time("addEdge loop", rounds, () -> {
+            Graph graph = new Graph(vertices);
+            for (int e = 0; e < edges; e++) {
+                graph.addEdge(from[e], to[e], weights[e]);
+            }
+            return graph;
+        });
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            int chunks = threads;
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                time("builder " + threads + " thr", rounds, () -> pool.submit(() -> {
+                    GraphBuilder builder = new GraphBuilder(vertices, edges);
+                    for (int e = 0; e < edges; e++) {
+                        builder.addEdge(from[e], to[e], weights[e]);
+                    }
+                    return builder.build(chunks);
+                }).get());
+            } finally {
+                pool.shutdown();
+            }
+        }
+        time("builder merged", rounds, () -> {
+            GraphBuilder builder = new GraphBuilder(vertices, edges)
+                    .mergeDuplicates(GraphBuilder.Duplicates.FIRST);
+            for (int e = 0; e < edges; e++) {
+                builder.addEdge(from[e], to[e], weights[e]);
+            }
+            return builder.build();
+        });
+    }
+
+    private interface Build {
+        Graph run() throws InterruptedException, ExecutionException;
+    }
+
+    // One warm-up run, then the best of the timed rounds.
+    private static void time(String name, int rounds, Build build) throws InterruptedException, ExecutionException {
+        sink += build.run().getOutDegree(0);
+        double best = Double.MAX_VALUE;
+        long gcs = 0;
+        for (int round = 0; round < rounds; round++) {
+            System.gc();
+            long before = BenchmarkSupport.gcCount();
+            long start = System.nanoTime();
+            Graph graph = build.run();
+            best = Math.min(best, (System.nanoTime() - start) / 1_000_000.0);
+            gcs += BenchmarkSupport.gcCount() - before;
+            sink += graph.getOutDegree(0);
+        }
+        System.out.printf("%-20s %14.1f %8d%n", name, best, gcs);
+    }
+}
@@ -0,0 +1,50 @@
+package com.rtyrrx.mst.bench;
+
+import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.graph.dagsp.DAGShortestPath;
+import com.rtyrrx.mst.graph.dagsp.KLongestPaths;
+
+import java.util.Iterator;
+
+// Usage: java -cp target/classes com.rtyrrx.mst.bench.KLongestPathsBenchmark [vertices] [edgesPerVertex] [maxK]
+public class KLongestPathsBenchmark {
+
+    public static void main(String[] args) {
+        int vertices = BenchmarkSupport.intArg(args, 0, 1_000_000);
+        int edgesPerVertex = BenchmarkSupport.intArg(args, 1, 3);
+        int maxK = BenchmarkSupport.intArg(args, 2, 1000);
+
+        Graph graph = BenchmarkSupport.randomDag(vertices, edgesPerVertex, 42);
+        System.out.println("DAG: " + vertices + " vertices, " + graph.countEdges() + " edges");
+
+        long start = System.nanoTime();
+        DAGShortestPath.LongestPathResult forward = new DAGShortestPath(graph).findLongestPath(0);
+        System.out.printf("Forward longest-path pass: %.2f ms (critical length %.1f, %d vertices)%n%n",
+                (System.nanoTime() - start) / 1_000_000.0,
+                forward.criticalPathLength(), forward.criticalPath().size());
+
+        // Warm up the enumeration on a throwaway iterator.
+        KLongestPaths kPaths = new KLongestPaths(graph);
+        Iterator<KLongestPaths.RankedPath> warmup = kPaths.iterator(forward);
+        for (int i = 0; i < maxK && warmup.hasNext(); i++) {
+            warmup.next();
+        }
+
+        System.out.printf("%8s %12s %14s %14s %12s%n", "K", "total ms", "us/path", "heap pushes", "K-th length");
+        start = System.nanoTime();
+        Iterator<KLongestPaths.RankedPath> paths = kPaths.iterator(forward);
+        int produced = 0;
+        int nextReport = 1;
+        double length = 0;
+        while (produced < maxK && paths.hasNext()) {
+            length = paths.next().length();
+            produced++;
+            if (produced == nextReport || produced == maxK) {
+                double millis = (System.nanoTime() - start) / 1_000_000.0;
+                System.out.printf("%8d %12.2f %14.2f %14d %12.1f%n", produced, millis,
+                        millis * 1000.0 / produced, kPaths.getMetrics().getCounter("heap_pushes"), length);
+                nextReport *= 10;
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.rtyrrx.mst.bench;
+
+import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.graph.dagsp.DAGShortestPath;
+import com.rtyrrx.mst.graph.scc.SCC;
+import com.rtyrrx.mst.graph.topo.TopologicalSort;
+import com.rtyrrx.mst.observability.MetricsRegistry;
+
+import java.util.Arrays;
+
+// Usage: java --enable-preview -cp target/classes com.rtyrrx.mst.bench.MetricsOverheadBenchmark
+//        [vertices] [edgesPerVertex] [rounds]
+// Cost of publishing to the metrics registry on an SCC, topological sort
+// and longest path run. Each round times both modes in alternating order;
+// the median of the paired differences filters out GC and scheduling noise
+// that a single comparison would pick up.
+public class MetricsOverheadBenchmark {
+
+    public static void main(String[] args) {
+        int vertices = BenchmarkSupport.intArg(args, 0, 200_000);
+        int edgesPerVertex = BenchmarkSupport.intArg(args, 1, 4);
+        int rounds = BenchmarkSupport.intArg(args, 2, 21);
+
+        Graph graph = BenchmarkSupport.randomDag(vertices, edgesPerVertex, 42);
+        MetricsRegistry registry = MetricsRegistry.global();
+        System.out.println("Edges: " + graph.countEdges() + ", rounds: " + rounds);
+
+        long[][] timings = BenchmarkSupport.callWithLargeStack(() -> {
+            runPipeline(graph);
+            long[] disabled = new long[rounds];
+            long[] enabled = new long[rounds];
+            for (int i = 0; i < rounds; i++) {
+                boolean enabledFirst = i % 2 == 1;
+                registry.setEnabled(enabledFirst);
+                long first = runPipeline(graph);
+                registry.setEnabled(!enabledFirst);
+                long second = runPipeline(graph);
+                disabled[i] = enabledFirst ? second : first;
+                enabled[i] = enabledFirst ? first : second;
+            }
+            return new long[][]{disabled, enabled};
+        });
+        registry.setEnabled(false);
+
+        long[] differences = new long[rounds];
+        for (int i = 0; i < rounds; i++) {
+            differences[i] = timings[1][i] - timings[0][i];
+        }
+        long baseline = median(timings[0]);
+        long overhead = median(differences);
+        System.out.printf("disabled median: %.2f ms%n", baseline / 1e6);
+        System.out.printf("enabled median:  %.2f ms%n", median(timings[1]) / 1e6);
+        System.out.printf("paired overhead: %.3f ms (%.2f%%)%n", overhead / 1e6, 100.0 * overhead / baseline);
+        System.out.println("scc runs published: " + registry.snapshot().get("scc").runs());
+    }
+
+    private static long runPipeline(Graph graph) {
+        // Collect the previous run's garbage outside the measured region.
+        System.gc();
+        long start = System.nanoTime();
+        new SCC(graph).findSCCs();
+        new TopologicalSort(graph).sortToArray();
+        new DAGShortestPath(graph).findLongestPath(0);
+        return System.nanoTime() - start;
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,39 @@
+package com.rtyrrx.mst.bench;
+
+import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.graph.risk.DurationDistribution;
+import com.rtyrrx.mst.graph.risk.MonteCarloScheduler;
+
+import java.util.Random;
+
+// Usage: java -cp target/classes com.rtyrrx.mst.bench.MonteCarloBenchmark [vertices] [edgesPerVertex] [samples]
+public class MonteCarloBenchmark {
+
+    public static void main(String[] args) {
+        int vertices = BenchmarkSupport.intArg(args, 0, 5_000);
+        int edgesPerVertex = BenchmarkSupport.intArg(args, 1, 3);
+        int samples = BenchmarkSupport.intArg(args, 2, 100_000);
+
+        Graph graph = BenchmarkSupport.randomDag(vertices, edgesPerVertex, 42);
+        Random random = new Random(42);
+        DurationDistribution[] durations = new DurationDistribution[vertices];
+        for (int v = 0; v < vertices; v++) {
+            double estimate = 1 + random.nextInt(10);
+            durations[v] = DurationDistribution.triangular(0.8 * estimate, estimate, 1.6 * estimate);
+        }
+        System.out.println("DAG: " + vertices + " vertices, " + graph.countEdges() + " edges, "
+                + samples + " samples");
+
+        MonteCarloScheduler scheduler = new MonteCarloScheduler(graph, durations);
+        scheduler.simulate(Math.min(samples, 10_000), 42L);
+
+        System.out.printf("%n%8s %12s %14s %10s %10s %10s%n", "threads", "time ms", "samples/sec", "p50", "p90", "p99");
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            MonteCarloScheduler.RiskReport report = scheduler.simulate(samples, threads, 42L);
+            double millis = scheduler.getMetrics().getElapsedTimeMillis();
+            System.out.printf("%8d %12.1f %14.0f %10.1f %10.1f %10.1f%n", threads, millis,
+                    samples / (millis / 1000.0), report.percentile(50), report.percentile(90), report.percentile(99));
+        }
+    }
+}
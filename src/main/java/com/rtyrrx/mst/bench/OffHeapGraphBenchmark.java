@@ -0,0 +1,87 @@
+package com.rtyrrx.mst.bench;
+
+import com.rtyrrx.mst.common.DirectedGraph;
+import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.common.OffHeapGraph;
+import com.rtyrrx.mst.graph.dagsp.DAGShortestPath;
+import com.rtyrrx.mst.graph.scc.SCC;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Usage: java --enable-preview -cp target/classes com.rtyrrx.mst.bench.OffHeapGraphBenchmark
+//        [vertices] [edgesPerVertex] [iterations] [file]
+// With a file argument the off-heap graph is written to and mapped from that file.
+public class OffHeapGraphBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int vertices = BenchmarkSupport.intArg(args, 0, 1_000_000);
+        int edgesPerVertex = BenchmarkSupport.intArg(args, 1, 4);
+        int iterations = BenchmarkSupport.intArg(args, 2, 5);
+        Path file = args.length > 3 ? Path.of(args[3]) : null;
+
+        System.out.println("Building random DAG: " + vertices + " vertices, "
+                + edgesPerVertex + " edges per vertex");
+        Graph heapGraph = BenchmarkSupport.randomDag(vertices, edgesPerVertex, 42);
+        System.out.println("Edges: " + heapGraph.countEdges());
+        System.out.println();
+
+        System.out.printf("%-10s %12s %12s %10s %12s %14s%n",
+                "storage", "scc ms/op", "dagsp ms/op", "gc count", "gc pause ms", "heap used MB");
+        run("on-heap", heapGraph, iterations);
+
+        OffHeapGraph offHeapGraph = file != null
+                ? OffHeapGraph.copyOf(heapGraph, file)
+                : OffHeapGraph.copyOf(heapGraph);
+        heapGraph = null;
+        System.gc();
+
+        try (offHeapGraph) {
+            run(file != null ? "mapped" : "off-heap", offHeapGraph, iterations);
+            System.out.printf("%nOff-heap footprint: %.1f MB%n", offHeapGraph.byteSize() / (1024.0 * 1024.0));
+        } finally {
+            if (file != null) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static void run(String label, DirectedGraph graph, int iterations) {
+        // Warm up both code paths before measuring.
+        runOnce(graph);
+
+        long gcCountBefore = BenchmarkSupport.gcCount();
+        long gcTimeBefore = BenchmarkSupport.gcTimeMillis();
+        long sccNanos = 0;
+        long pathNanos = 0;
+
+        for (int i = 0; i < iterations; i++) {
+            long[] timings = runOnce(graph);
+            sccNanos += timings[0];
+            pathNanos += timings[1];
+        }
+
+        System.out.printf("%-10s %12.2f %12.2f %10d %12d %14.1f%n",
+                label,
+                sccNanos / 1_000_000.0 / iterations,
+                pathNanos / 1_000_000.0 / iterations,
+                BenchmarkSupport.gcCount() - gcCountBefore,
+                BenchmarkSupport.gcTimeMillis() - gcTimeBefore,
+                BenchmarkSupport.usedHeapBytes() / (1024.0 * 1024.0));
+    }
+
+    private static long[] runOnce(DirectedGraph graph) {
+        return BenchmarkSupport.callWithLargeStack(() -> {
+            long start = System.nanoTime();
+            new SCC(graph).findSCCs();
+            long sccNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            new DAGShortestPath(graph).findLongestPath(0);
+            long pathNanos = System.nanoTime() - start;
+
+            return new long[]{sccNanos, pathNanos};
+        });
+    }
+}
@@ -0,0 +1,61 @@
+package com.rtyrrx.mst.bench;
+
+import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.graph.dagsp.DAGShortestPath;
+import com.rtyrrx.mst.graph.dagsp.PathCounter;
+
+import java.util.Random;
+
+// Usage: java -cp target/classes com.rtyrrx.mst.bench.PathCountBenchmark [layers] [width] [edgesPerVertex] [iterations]
+// Builds a layered DAG where every vertex links to random vertices of the next
+// layer, so path counts grow roughly like edgesPerVertex^layers.
+public class PathCountBenchmark {
+
+    public static void main(String[] args) {
+        int layers = BenchmarkSupport.intArg(args, 0, 1_000);
+        int width = BenchmarkSupport.intArg(args, 1, 1_000);
+        int edgesPerVertex = BenchmarkSupport.intArg(args, 2, 4);
+        int iterations = BenchmarkSupport.intArg(args, 3, 5);
+
+        Graph graph = layeredDag(layers, width, edgesPerVertex, 42);
+        System.out.println("Layered DAG: " + layers + " layers x " + width + " wide, "
+                + graph.countEdges() + " edges");
+
+        DAGShortestPath dagSP = new DAGShortestPath(graph);
+        PathCounter counter = new PathCounter(graph);
+        dagSP.findLongestPath(0);
+        counter.countLongestFromRoots();
+
+        double longestMillis = 0;
+        double countMillis = 0;
+        PathCounter.PathCountResult result = null;
+        for (int i = 0; i < iterations; i++) {
+            dagSP.findLongestPath(0);
+            longestMillis += dagSP.getMetrics().getElapsedTimeMillis();
+            result = counter.countLongestFromRoots();
+            countMillis += counter.getMetrics().getElapsedTimeMillis();
+        }
+
+        System.out.printf("%n%-28s %10.2f ms%n", "longest path only", longestMillis / iterations);
+        System.out.printf("%-28s %10.2f ms%n", "longest path + counts", countMillis / iterations);
+        System.out.println("Vertices promoted to BigInteger: " + counter.getMetrics().getCounter("promoted_counts"));
+        System.out.println("Critical path length: " + result.criticalLength());
+        System.out.println("Critical path count: ~10^" + (result.criticalPathCount().toString().length() - 1));
+        System.out.println("Total chains into last vertex: ~10^"
+                + (result.exactPathCount(graph.getVertices() - 1).toString().length() - 1));
+    }
+
+    private static Graph layeredDag(int layers, int width, int edgesPerVertex, long seed) {
+        Random random = new Random(seed);
+        Graph graph = new Graph(layers * width);
+        for (int layer = 0; layer < layers - 1; layer++) {
+            for (int i = 0; i < width; i++) {
+                int u = layer * width + i;
+                for (int j = 0; j < edgesPerVertex; j++) {
+                    graph.addEdge(u, (layer + 1) * width + random.nextInt(width), 1 + random.nextInt(5));
+                }
+            }
+        }
+        return graph;
+    }
+}
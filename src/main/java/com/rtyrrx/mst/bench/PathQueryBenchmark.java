@@ -0,0 +1,87 @@
+package com.rtyrrx.mst.bench;
+
+import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.graph.dagsp.DAGShortestPath;
+import com.rtyrrx.mst.graph.dagsp.PathQueries;
+
+import java.util.Random;
+
+// Usage: java -cp target/classes com.rtyrrx.mst.bench.PathQueryBenchmark [vertices] [edgesPerVertex] [queries]
+public class PathQueryBenchmark {
+
+    public static void main(String[] args) {
+        int vertices = BenchmarkSupport.intArg(args, 0, 1_000_000);
+        int edgesPerVertex = BenchmarkSupport.intArg(args, 1, 3);
+        int queries = BenchmarkSupport.intArg(args, 2, 200_000);
+
+        Graph graph = BenchmarkSupport.randomDag(vertices, edgesPerVertex, 42);
+        DAGShortestPath.LongestPathResult result = new DAGShortestPath(graph).findLongestPath(0);
+        System.out.println("DAG: " + vertices + " vertices, " + graph.countEdges() + " edges, "
+                + queries + " queries");
+
+        // Query only reachable destinations; unreachable ones are trivially empty.
+        int[] reachable = new int[vertices];
+        int reachableCount = 0;
+        for (int v = 0; v < vertices; v++) {
+            if (result.distances()[v] != Double.NEGATIVE_INFINITY) reachable[reachableCount++] = v;
+        }
+        System.out.println("Reachable destinations: " + reachableCount);
+
+        Random random = new Random(7);
+        int[] uniform = new int[queries];
+        int[] hot = new int[queries];
+        int[] hotSet = new int[1_000];
+        for (int i = 0; i < hotSet.length; i++) {
+            hotSet[i] = reachable[random.nextInt(reachableCount)];
+        }
+        for (int i = 0; i < queries; i++) {
+            uniform[i] = reachable[random.nextInt(reachableCount)];
+            hot[i] = hotSet[random.nextInt(hotSet.length)];
+        }
+
+        DAGShortestPath.ShortestPathResult asShortest =
+                new DAGShortestPath.ShortestPathResult(result.distances(), result.predecessors(), result.source());
+        PathQueries pathQueries = PathQueries.of(result);
+        int[] buffer = new int[vertices];
+
+        System.out.printf("%n%-30s %14s%n", "method", "queries/sec");
+        for (int round = 0; round < 2; round++) {
+            boolean report = round == 1;
+            time("getPathTo (boxed list)", report, queries, () -> {
+                long sink = 0;
+                for (int dest : uniform) sink += asShortest.getPathTo(dest).size();
+                return sink;
+            });
+            time("copyPathTo (reused buffer)", report, queries, () -> {
+                long sink = 0;
+                for (int dest : uniform) sink += pathQueries.copyPathTo(dest, buffer);
+                return sink;
+            });
+            time("getPathTo, hot set", report, queries, () -> {
+                long sink = 0;
+                for (int dest : hot) sink += asShortest.getPathTo(dest).size();
+                return sink;
+            });
+            time("getPath (LRU cache), hot set", report, queries, () -> {
+                long sink = 0;
+                for (int dest : hot) sink += pathQueries.getPath(dest).length();
+                return sink;
+            });
+        }
+
+        long start = System.nanoTime();
+        PathQueries.PathTree tree = pathQueries.allPaths();
+        double millis = (System.nanoTime() - start) / 1_000_000.0;
+        System.out.printf("%nallPaths export: %.2f ms for %d vertices (%d path entries)%n",
+                millis, vertices, tree.totalPathVertices());
+    }
+
+    private static void time(String label, boolean report, int queries, java.util.function.LongSupplier run) {
+        long start = System.nanoTime();
+        long sink = run.getAsLong();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        if (report) {
+            System.out.printf("%-30s %14.0f%s%n", label, queries / seconds, sink < 0 ? "!" : "");
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.rtyrrx.mst.bench;
+
+import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.graph.dagsp.DAGShortestPath;
+import com.rtyrrx.mst.graph.dagsp.PointToPointPaths;
+import com.rtyrrx.mst.graph.topo.TopologicalSort;
+
+import java.util.Random;
+
+// Usage: java --enable-preview -Xmx3g -cp target/classes com.rtyrrx.mst.bench.PointToPointBenchmark
+//        [vertices] [edgesPerVertex] [queries]
+// Pairs are drawn in topological order, either anywhere in the graph or
+// within 1000 positions of each other; the full single-source run is
+// timed on a tenth of the queries.
+public class PointToPointBenchmark {
+    private static final int WINDOW = 64;
+    private static final int NEAR = 1000;
+    private static long sink;
+
+    public static void main(String[] args) {
+        int vertices = BenchmarkSupport.intArg(args, 0, 1_000_000);
+        int edgesPerVertex = BenchmarkSupport.intArg(args, 1, 3);
+        int queries = BenchmarkSupport.intArg(args, 2, 100);
+
+        Graph graph = localDag(vertices, edgesPerVertex, 42);
+        System.out.println("Local DAG: " + graph.getVertices() + " vertices, " + graph.countEdges() + " edges");
+        int[] order = new TopologicalSort(graph).sortToArray();
+        PointToPointPaths paths = new PointToPointPaths(graph);
+        graph.getReverseAdjacency();
+        System.out.println();
+
+        System.out.printf("%-8s %14s %14s %14s %16s%n", "pairs", "full ms", "window ms", "pruned ms", "pruned scanned");
+        for (boolean near : new boolean[]{false, true}) {
+            int[][] pairs = pairs(order, queries, near ? NEAR : order.length, 7);
+            double full = timeFull(graph, pairs, Math.max(1, queries / 10));
+            double window = timePoint(paths, pairs, PointToPointPaths.Pruning.WINDOW);
+            long before = paths.getMetrics().getCounter("vertices_scanned");
+            double pruned = timePoint(paths, pairs, PointToPointPaths.Pruning.BIDIRECTIONAL);
+            long scanned = paths.getMetrics().getCounter("vertices_scanned") - before;
+            System.out.printf("%-8s %14.3f %14.3f %14.3f %16d%n", near ? "near" : "random",
+                    full, window, pruned, scanned / pairs.length);
+        }
+    }
+
+    private static double timeFull(Graph graph, int[][] pairs, int count) {
+        long start = System.nanoTime();
+        for (int q = 0; q < count; q++) {
+            DAGShortestPath.ShortestPathResult result = new DAGShortestPath(graph).findShortestPaths(pairs[q][0]);
+            sink += result.getPathTo(pairs[q][1]).size();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / count;
+    }
+
+    private static double timePoint(PointToPointPaths paths, int[][] pairs, PointToPointPaths.Pruning pruning) {
+        for (int[] pair : pairs) {
+            paths.shortestPath(pair[0], pair[1], pruning);
+        }
+        long start = System.nanoTime();
+        for (int[] pair : pairs) {
+            sink += paths.shortestPath(pair[0], pair[1], pruning).path().length;
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / pairs.length;
+    }
+
+    private static int[][] pairs(int[] order, int count, int maxGap, long seed) {
+        Random random = new Random(seed);
+        int[][] pairs = new int[count][];
+        for (int q = 0; q < count; q++) {
+            int from = random.nextInt(order.length - 1);
+            int to = from + 1 + random.nextInt(Math.min(maxGap, order.length - 1 - from));
+            pairs[q] = new int[]{order[from], order[to]};
+        }
+        return pairs;
+    }
+
+    private static Graph localDag(int vertices, int edgesPerVertex, long seed) {
+        Random random = new Random(seed);
+        Graph graph = new Graph(vertices);
+        for (int u = 0; u < vertices - 1; u++) {
+            for (int j = 0; j < edgesPerVertex; j++) {
+                graph.addEdge(u, u + 1 + random.nextInt(Math.min(WINDOW, vertices - u - 1)), 1 + random.nextInt(5));
+            }
+        }
+        return graph;
+    }
+}
@@ -0,0 +1,100 @@
+package com.rtyrrx.mst.bench;
+
+import com.rtyrrx.mst.common.DirectedGraph;
+import com.rtyrrx.mst.graph.topo.TopologicalSort;
+import com.rtyrrx.mst.graph.topo.VertexPriority;
+
+import java.util.SplittableRandom;
+
+// Usage: java --enable-preview -Xmx3g -cp target/classes com.rtyrrx.mst.bench.PriorityTopologicalSortBenchmark
+//        [vertices] [edgesPerVertex] [iterations]
+// The DAG is generated on the fly from a hash of (vertex, index), so ten
+// million vertices fit next to the sort's own arrays.
+public class PriorityTopologicalSortBenchmark {
+    private static final int WINDOW = 1024;
+
+    public static void main(String[] args) {
+        int vertices = BenchmarkSupport.intArg(args, 0, 10_000_000);
+        int edgesPerVertex = BenchmarkSupport.intArg(args, 1, 4);
+        int iterations = BenchmarkSupport.intArg(args, 2, 3);
+
+        DirectedGraph graph = implicitDag(vertices, edgesPerVertex);
+        double[] durations = new double[vertices];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int v = 0; v < vertices; v++) {
+            durations[v] = 1 + random.nextInt(100);
+        }
+        System.out.println("Implicit DAG: " + vertices + " vertices, " + graph.countEdges() + " edges");
+
+        long start = System.nanoTime();
+        VertexPriority remaining = VertexPriority.byLongestRemainingPath(graph, durations);
+        System.out.printf("Remaining path keys: %.1f ms%n%n", (System.nanoTime() - start) / 1_000_000.0);
+
+        System.out.printf("%-18s %12s %10s%n", "order", "ms/sort", "vs fifo");
+        double fifo = time(graph, null, iterations);
+        System.out.printf("%-18s %12.1f %10s%n", "fifo", fifo, "1.00x");
+        report("vertex id", time(graph, VertexPriority.byVertexId(), iterations), fifo);
+        report("longest duration", time(graph, VertexPriority.byLongestDuration(durations), iterations), fifo);
+        report("remaining path", time(graph, remaining, iterations), fifo);
+    }
+
+    private static void report(String label, double millis, double fifo) {
+        System.out.printf("%-18s %12.1f %9.2fx%n", label, millis, millis / fifo);
+    }
+
+    private static double time(DirectedGraph graph, VertexPriority priority, int iterations) {
+        sort(graph, priority);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sort(graph, priority);
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / iterations;
+    }
+
+    private static int[] sort(DirectedGraph graph, VertexPriority priority) {
+        TopologicalSort sort = new TopologicalSort(graph);
+        return priority == null ? sort.sortToArray() : sort.sortByPriority(priority);
+    }
+
+    // Edges only point forward, within a window, so the frontier of ready
+    // vertices stays large enough for the heap to matter.
+    private static DirectedGraph implicitDag(int vertices, int edgesPerVertex) {
+        return new DirectedGraph() {
+            @Override
+            public int getVertices() {
+                return vertices;
+            }
+
+            @Override
+            public int countEdges() {
+                int edges = 0;
+                for (int v = 0; v < vertices; v++) {
+                    edges += getOutDegree(v);
+                }
+                return edges;
+            }
+
+            @Override
+            public int getOutDegree(int vertex) {
+                return Math.min(edgesPerVertex, vertices - 1 - vertex);
+            }
+
+            @Override
+            public int getNeighbor(int vertex, int index) {
+                int span = Math.min(WINDOW, vertices - 1 - vertex);
+                return vertex + 1 + Math.floorMod(mix(vertex * 31L + index), span);
+            }
+
+            @Override
+            public double getWeight(int vertex, int index) {
+                return 1 + Math.floorMod(mix(vertex * 17L + index), 10);
+            }
+        };
+    }
+
+    private static long mix(long x) {
+        x = (x ^ (x >>> 33)) * 0xff51afd7ed558ccdL;
+        x = (x ^ (x >>> 33)) * 0xc4ceb93e34e53ca8L;
+        return x ^ (x >>> 33);
+    }
+}
@@ -0,0 +1,73 @@
+package com.rtyrrx.mst.bench;
+
+import com.rtyrrx.mst.SchedulingPipeline;
+import com.rtyrrx.mst.cache.ResultCache;
+import com.rtyrrx.mst.cache.SchedulingResult;
+import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.data.GraphLoader;
+import com.rtyrrx.mst.data.TaskGraph;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+
+// Usage: java --enable-preview -cp target/classes:<gson.jar> com.rtyrrx.mst.bench.ResultCacheBenchmark
+//        [tasks] [dependenciesPerTask] [iterations]
+// End-to-end time of the scheduler's work (load, hash, analyse or cache
+// lookup) on a generated dataset, with a cold and a warm result cache.
+public class ResultCacheBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int tasks = BenchmarkSupport.intArg(args, 0, 200_000);
+        int dependenciesPerTask = BenchmarkSupport.intArg(args, 1, 3);
+        int iterations = BenchmarkSupport.intArg(args, 2, 5);
+
+        Path dir = Files.createTempDirectory("result-cache-bench");
+        Path dataset = dir.resolve("dataset.json");
+        BenchmarkSupport.writeJson(dataset, BenchmarkSupport.randomTaskGraph(tasks, dependenciesPerTask, 42));
+        System.out.printf("Dataset: %d tasks, %.1f MB JSON%n", tasks, Files.size(dataset) / (1024.0 * 1024.0));
+
+        try {
+            long missNanos = 0;
+            long hitNanos = 0;
+            long loadNanos = 0;
+            for (int i = -1; i < iterations; i++) {
+                ResultCache cache = new ResultCache(dir.resolve("cache" + i), 1L << 30);
+                long miss = BenchmarkSupport.callWithLargeStack(() -> run(dataset, cache));
+                long hit = BenchmarkSupport.callWithLargeStack(() -> run(dataset, cache));
+                long start = System.nanoTime();
+                GraphLoader.loadFromJson(dataset.toString());
+                GraphLoader.loadTaskGraph(dataset.toString());
+                long load = System.nanoTime() - start;
+                // The first round only warms up.
+                if (i >= 0) {
+                    missNanos += miss;
+                    hitNanos += hit;
+                    loadNanos += load;
+                }
+            }
+            System.out.printf("%-22s %10.1f ms%n", "miss (analyse + store)", missNanos / 1e6 / iterations);
+            System.out.printf("%-22s %10.1f ms%n", "hit (lookup + decode)", hitNanos / 1e6 / iterations);
+            System.out.printf("%-22s %10.1f ms%n", "of which JSON loading", loadNanos / 1e6 / iterations);
+        } finally {
+            try (var files = Files.walk(dir)) {
+                files.sorted(java.util.Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private static long run(Path dataset, ResultCache cache) throws IOException {
+        long start = System.nanoTime();
+        Graph graph = GraphLoader.loadFromJson(dataset.toString());
+        TaskGraph taskGraph = GraphLoader.loadTaskGraph(dataset.toString());
+        byte[] cached = cache.get(graph.getContentHash());
+        if (cached != null) {
+            SchedulingResult.decode(cached);
+        } else {
+            SchedulingResult result = SchedulingPipeline.analyze(graph, taskGraph, new HashMap<>());
+            cache.put(graph.getContentHash(), result.encode());
+        }
+        return System.nanoTime() - start;
+    }
+}
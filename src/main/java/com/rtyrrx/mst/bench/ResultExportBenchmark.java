@@ -0,0 +1,102 @@
+package com.rtyrrx.mst.bench;
+
+import com.rtyrrx.mst.cache.SchedulingResult;
+import com.rtyrrx.mst.export.ResultExporter;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+// Usage: java --enable-preview -Xmx3g -cp target/classes com.rtyrrx.mst.bench.ResultExportBenchmark
+//        [vertices] [directory]
+// The result is synthetic (every vertex its own component, a long chain as
+// critical path), so only the writing is measured. "printf" reproduces the
+// scheduler's console listing into a buffered file for comparison.
+public class ResultExportBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int vertices = BenchmarkSupport.intArg(args, 0, 10_000_000);
+        Path root = args.length > 1 ? Path.of(args[1]) : Files.createTempDirectory("export-bench");
+
+        SchedulingResult result = syntheticResult(vertices, 42);
+        System.out.println("Synthetic result: " + vertices + " vertices and components");
+        System.out.println();
+
+        System.out.printf("%-8s %10s %10s %12s %12s%n", "format", "ms", "MB", "MB/s", "Mrows/s");
+        try {
+            long rows = 3L * vertices + result.paths().criticalPath().length;
+            timePrintf(result, root.resolve("printf.txt"), rows);
+            for (ResultExporter.Format format : ResultExporter.Format.values()) {
+                Path directory = root.resolve(format.name().toLowerCase());
+                ResultExporter exporter = new ResultExporter(null);
+                exporter.export(result, directory, format);
+                long start = System.nanoTime();
+                ResultExporter.ExportSummary summary = exporter.export(result, directory, format);
+                report(format.name().toLowerCase(), System.nanoTime() - start, summary.bytes(), summary.rows());
+            }
+        } finally {
+            if (args.length < 2) {
+                try (Stream<Path> files = Files.walk(root)) {
+                    for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void timePrintf(SchedulingResult result, Path file, long rows) throws IOException {
+        long start = System.nanoTime();
+        try (PrintStream out = new PrintStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            int[] componentOf = result.componentOf();
+            for (int v = 0; v < componentOf.length; v++) {
+                out.print("V" + v + ": SCC " + componentOf[v]);
+                out.println();
+            }
+            out.println("Topological order of SCCs: " + java.util.Arrays.toString(result.topoOrder()));
+            double[] shortest = result.paths().shortestDistances();
+            for (int i = 0; i < shortest.length; i++) {
+                if (shortest[i] != Double.POSITIVE_INFINITY) {
+                    out.printf("  To SCC %d: %.2f%n", i, shortest[i]);
+                }
+            }
+            out.println("Critical path: " + java.util.Arrays.toString(result.paths().criticalPath()));
+        }
+        report("printf", System.nanoTime() - start, Files.size(file), rows);
+    }
+
+    private static void report(String label, long nanos, long bytes, long rows) {
+        double seconds = nanos / 1e9;
+        System.out.printf("%-8s %10.1f %10.1f %12.1f %12.2f%n", label, nanos / 1e6,
+                bytes / 1048576.0, bytes / 1048576.0 / seconds, rows / 1e6 / seconds);
+    }
+
+    static SchedulingResult syntheticResult(int vertices, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] identity = new int[vertices];
+        double[] shortest = new double[vertices];
+        double[] longest = new double[vertices];
+        int[] predecessors = new int[vertices];
+        for (int v = 0; v < vertices; v++) {
+            identity[v] = v;
+            boolean reached = random.nextInt(10) != 0;
+            shortest[v] = reached ? random.nextInt(1000) + random.nextInt(4) * 0.25 : Double.POSITIVE_INFINITY;
+            longest[v] = reached ? shortest[v] * 3 : Double.NEGATIVE_INFINITY;
+            predecessors[v] = reached && v > 0 ? random.nextInt(v) : -1;
+        }
+        int[] criticalPath = new int[Math.min(vertices, 1000)];
+        for (int i = 0; i < criticalPath.length; i++) {
+            criticalPath[i] = (int) ((long) i * vertices / criticalPath.length);
+        }
+        SchedulingResult.Paths paths = new SchedulingResult.Paths(0, shortest, longest, predecessors,
+                criticalPath, 0.0, List.of(), 0.0, new int[0]);
+        return new SchedulingResult(-1, 0.0, identity, new int[0][], List.of(),
+                new int[vertices + 1], new int[0], new double[0], identity, paths);
+    }
+}
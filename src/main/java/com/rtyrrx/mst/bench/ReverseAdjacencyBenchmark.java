@@ -0,0 +1,112 @@
+package com.rtyrrx.mst.bench;
+
+import com.rtyrrx.mst.common.DirectedGraph;
+import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.common.ReverseAdjacency;
+import com.rtyrrx.mst.graph.topo.TopologicalSort;
+
+import java.util.Random;
+
+// Usage: java --enable-preview -cp target/classes com.rtyrrx.mst.bench.ReverseAdjacencyBenchmark
+//        [vertices] [edgesPerVertex] [sorts] [queries]
+// "Without index" runs the same code on a plain DirectedGraph view of the
+// graph, which has no cached in-degrees or predecessor lists.
+public class ReverseAdjacencyBenchmark {
+    // Keeps the query results alive so the loops are not optimised away.
+    private static long sink;
+
+    public static void main(String[] args) {
+        int vertices = BenchmarkSupport.intArg(args, 0, 1_000_000);
+        int edgesPerVertex = BenchmarkSupport.intArg(args, 1, 4);
+        int sorts = BenchmarkSupport.intArg(args, 2, 10);
+        int queries = BenchmarkSupport.intArg(args, 3, 20);
+
+        System.out.println("Building random DAG: " + vertices + " vertices, "
+                + edgesPerVertex + " edges per vertex");
+        Graph graph = BenchmarkSupport.randomDag(vertices, edgesPerVertex, 42);
+        DirectedGraph plain = view(graph);
+        System.out.println("Edges: " + graph.countEdges());
+        System.out.println();
+
+        long start = System.nanoTime();
+        ReverseAdjacency.build(graph);
+        System.out.printf("Reverse index build: %.1f ms (%d threads available)%n%n",
+                (System.nanoTime() - start) / 1_000_000.0, Runtime.getRuntime().availableProcessors());
+
+        System.out.printf("%-16s %16s %20s%n", "variant", "topo ms/sort", "predecessors ms/query");
+        double plainSort = timeSorts(plain, sorts);
+        double plainQuery = timePredecessorScans(graph, queries);
+        System.out.printf("%-16s %16.2f %20.3f%n", "without index", plainSort, plainQuery);
+
+        double indexedSort = timeSorts(graph, sorts);
+        double indexedQuery = timePredecessorLookups(graph, queries * 1000);
+        System.out.printf("%-16s %16.2f %20.3f%n", "with index", indexedSort, indexedQuery);
+    }
+
+    private static double timeSorts(DirectedGraph graph, int sorts) {
+        new TopologicalSort(graph).sortToArray();
+        long start = System.nanoTime();
+        for (int i = 0; i < sorts; i++) {
+            new TopologicalSort(graph).sortToArray();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / sorts;
+    }
+
+    // Without an index the only way to find a task's predecessors is to
+    // scan every edge.
+    private static double timePredecessorScans(Graph graph, int queries) {
+        Random random = new Random(1);
+        long found = 0;
+        long start = System.nanoTime();
+        for (int q = 0; q < queries; q++) {
+            int target = random.nextInt(graph.getVertices());
+            for (int u = 0; u < graph.getVertices(); u++) {
+                for (int i = 0; i < graph.getOutDegree(u); i++) {
+                    if (graph.getNeighbor(u, i) == target) found++;
+                }
+            }
+        }
+        sink += found;
+        return (System.nanoTime() - start) / 1_000_000.0 / queries;
+    }
+
+    private static double timePredecessorLookups(Graph graph, int queries) {
+        Random random = new Random(1);
+        long found = 0;
+        long start = System.nanoTime();
+        for (int q = 0; q < queries; q++) {
+            found += graph.getPredecessors(random.nextInt(graph.getVertices())).size();
+        }
+        sink += found;
+        return (System.nanoTime() - start) / 1_000_000.0 / queries;
+    }
+
+    private static DirectedGraph view(Graph graph) {
+        return new DirectedGraph() {
+            @Override
+            public int getVertices() {
+                return graph.getVertices();
+            }
+
+            @Override
+            public int countEdges() {
+                return graph.countEdges();
+            }
+
+            @Override
+            public int getOutDegree(int vertex) {
+                return graph.getOutDegree(vertex);
+            }
+
+            @Override
+            public int getNeighbor(int vertex, int index) {
+                return graph.getNeighbor(vertex, index);
+            }
+
+            @Override
+            public double getWeight(int vertex, int index) {
+                return graph.getWeight(vertex, index);
+            }
+        };
+    }
+}
@@ -0,0 +1,117 @@
+package com.rtyrrx.mst.bench;
+
+import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.graph.cpm.CriticalPathMethod;
+import com.rtyrrx.mst.graph.scenario.Scenario;
+import com.rtyrrx.mst.graph.scenario.ScenarioEvaluator;
+import com.rtyrrx.mst.graph.scenario.ScenarioOverlay;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Usage: java --enable-preview -cp target/classes com.rtyrrx.mst.bench.ScenarioBenchmark
+//        [vertices] [edgesPerVertex] [scenarios] [copiedScenarios]
+// Compares overlay evaluation of every scenario with the old approach of
+// copying the whole graph per scenario, timed on a smaller sample.
+public class ScenarioBenchmark {
+
+    public static void main(String[] args) {
+        int vertices = BenchmarkSupport.intArg(args, 0, 250_000);
+        int edgesPerVertex = BenchmarkSupport.intArg(args, 1, 4);
+        int scenarioCount = BenchmarkSupport.intArg(args, 2, 1000);
+        int copiedCount = BenchmarkSupport.intArg(args, 3, 20);
+
+        System.out.println("Building random DAG: " + vertices + " vertices, "
+                + edgesPerVertex + " edges per vertex");
+        Graph base = BenchmarkSupport.randomDag(vertices, edgesPerVertex, 42);
+        Random random = new Random(7);
+        double[] durations = new double[vertices];
+        for (int v = 0; v < vertices; v++) {
+            durations[v] = 1 + random.nextInt(20);
+        }
+        List<Scenario> scenarios = scenarios(base, scenarioCount, random);
+        System.out.println("Edges: " + base.countEdges() + ", scenarios: " + scenarioCount);
+        System.gc();
+        long baseHeap = BenchmarkSupport.usedHeapBytes();
+        System.out.printf("Heap with base graph: %.1f MB%n%n", baseHeap / (1024.0 * 1024.0));
+
+        ScenarioEvaluator evaluator = new ScenarioEvaluator(base, durations);
+        System.out.printf("Baseline project duration: %.1f%n", evaluator.baselineDuration());
+
+        // Warm up on a slice before timing the full batch.
+        evaluator.evaluateAll(scenarios.subList(0, Math.min(50, scenarios.size())));
+        long gcBefore = BenchmarkSupport.gcCount();
+        long start = System.nanoTime();
+        List<ScenarioEvaluator.ScenarioResult> results = evaluator.evaluateAll(scenarios);
+        long overlayNanos = System.nanoTime() - start;
+        long overlayGcs = BenchmarkSupport.gcCount() - gcBefore;
+
+        long copied = 0;
+        for (Scenario scenario : scenarios) {
+            copied += new ScenarioOverlay(base, scenario).copiedVertexCount();
+        }
+        double longest = 0;
+        for (ScenarioEvaluator.ScenarioResult result : results) {
+            longest = Math.max(longest, result.durationChange());
+        }
+
+        start = System.nanoTime();
+        for (Scenario scenario : scenarios.subList(0, Math.min(copiedCount, scenarios.size()))) {
+            Graph copy = materialize(base, scenario);
+            new CriticalPathMethod(copy, scenario.applyDurations(durations)).analyze();
+        }
+        long copyNanos = System.nanoTime() - start;
+
+        System.out.printf("%-10s %14s %14s %12s%n", "approach", "ms/scenario", "scenarios/s", "gc count");
+        System.out.printf("%-10s %14.2f %14.1f %12d%n", "overlay",
+                overlayNanos / 1_000_000.0 / scenarioCount, scenarioCount * 1e9 / overlayNanos, overlayGcs);
+        System.out.printf("%-10s %14.2f %14.1f %12s%n", "copy",
+                copyNanos / 1_000_000.0 / copiedCount, copiedCount * 1e9 / copyNanos, "-");
+        System.out.println();
+        System.out.printf("Orders reused: %d, recomputed: %d%n",
+                evaluator.getMetrics().getCounter("orders_reused"),
+                evaluator.getMetrics().getCounter("orders_recomputed"));
+        System.out.printf("Copied adjacency lists per scenario: %.1f of %d%n", (double) copied / scenarioCount, vertices);
+        System.out.printf("Largest project duration increase: %.1f%n", longest);
+    }
+
+    private static List<Scenario> scenarios(Graph base, int count, Random random) {
+        int n = base.getVertices();
+        List<Scenario> result = new ArrayList<>(count);
+        for (int s = 0; s < count; s++) {
+            Scenario scenario = new Scenario("scenario-" + s);
+            for (int j = 0; j < 5; j++) {
+                scenario.scaleDuration(random.nextInt(n), 1 + random.nextDouble() * 2);
+            }
+            for (int j = 0; j < 5; j++) {
+                int u = random.nextInt(n - 1);
+                if (base.getOutDegree(u) == 0) continue;
+                int v = base.getNeighbor(u, random.nextInt(base.getOutDegree(u)));
+                if (j % 2 == 0) {
+                    scenario.removeDependency(u, v);
+                } else {
+                    scenario.changeWeight(u, v, random.nextInt(10));
+                }
+            }
+            // Forward in id order, so the base graph stays acyclic.
+            if (s % 4 == 0) {
+                int u = random.nextInt(n - 1);
+                scenario.addDependency(u, u + 1 + random.nextInt(n - u - 1), 1.0);
+            }
+            result.add(scenario);
+        }
+        return result;
+    }
+
+    private static Graph materialize(Graph base, Scenario scenario) {
+        ScenarioOverlay overlay = new ScenarioOverlay(base, scenario);
+        Graph copy = new Graph(overlay.getVertices());
+        for (int u = 0; u < overlay.getVertices(); u++) {
+            for (int i = 0; i < overlay.getOutDegree(u); i++) {
+                copy.addEdge(u, overlay.getNeighbor(u, i), overlay.getWeight(u, i));
+            }
+        }
+        return copy;
+    }
+}
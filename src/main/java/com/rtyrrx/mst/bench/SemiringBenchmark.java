@@ -0,0 +1,79 @@
+package com.rtyrrx.mst.bench;
+
+import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.common.Metrics;
+import com.rtyrrx.mst.common.MetricsImpl;
+import com.rtyrrx.mst.graph.dagsp.DAGShortestPath;
+import com.rtyrrx.mst.graph.dagsp.StandardSemiring;
+import com.rtyrrx.mst.graph.topo.TopologicalSort;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+// Usage: java -cp target/classes com.rtyrrx.mst.bench.SemiringBenchmark [vertices] [edgesPerVertex] [iterations]
+public class SemiringBenchmark {
+
+    public static void main(String[] args) {
+        int vertices = BenchmarkSupport.intArg(args, 0, 1_000_000);
+        int edgesPerVertex = BenchmarkSupport.intArg(args, 1, 4);
+        int iterations = BenchmarkSupport.intArg(args, 2, 10);
+
+        Graph graph = BenchmarkSupport.randomDag(vertices, edgesPerVertex, 42);
+        DAGShortestPath dagSP = new DAGShortestPath(graph);
+        System.out.println("DAG: " + vertices + " vertices, " + graph.countEdges() + " edges");
+        System.out.printf("%n%-26s %12s%n", "variant", "ms/op");
+
+        report("branchy shortest (legacy)", iterations, () -> legacyPaths(graph, true));
+        report("branchy longest (legacy)", iterations, () -> legacyPaths(graph, false));
+        report("min-plus kernel", iterations, () -> dagSP.findShortestPaths(0));
+        report("max-plus kernel", iterations, () -> dagSP.findLongestPath(0));
+        report("generic MIN_PLUS", iterations, () -> dagSP.findPaths(0, StandardSemiring.MIN_PLUS));
+        report("generic MAX_PLUS", iterations, () -> dagSP.findPaths(0, StandardSemiring.MAX_PLUS));
+        report("generic BOTTLENECK", iterations, () -> dagSP.findPaths(0, StandardSemiring.BOTTLENECK));
+        report("generic PATH_COUNT", iterations, () -> dagSP.findPaths(0, StandardSemiring.PATH_COUNT));
+    }
+
+    private static void report(String label, int iterations, Supplier<?> run) {
+        for (int i = 0; i < 3; i++) {
+            run.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            run.get();
+        }
+        System.out.printf("%-26s %12.2f%n", label, (System.nanoTime() - start) / 1_000_000.0 / iterations);
+    }
+
+    // The relaxation loop as it was before the specialized kernels: mode
+    // ternary and a counter map update on every edge.
+    private static double[] legacyPaths(Graph graph, boolean findShortest) {
+        int n = graph.getVertices();
+        double[] dist = new double[n];
+        int[] pred = new int[n];
+        Metrics metrics = new MetricsImpl();
+
+        double initialValue = findShortest ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+        Arrays.fill(dist, initialValue);
+        Arrays.fill(pred, -1);
+        dist[0] = 0;
+
+        List<Integer> topoOrder = new TopologicalSort(graph).sort();
+        for (int u : topoOrder) {
+            if (dist[u] != initialValue) {
+                int degree = graph.getOutDegree(u);
+                for (int i = 0; i < degree; i++) {
+                    metrics.incrementCounter("relaxations");
+                    int v = graph.getNeighbor(u, i);
+                    double newDist = dist[u] + graph.getWeight(u, i);
+                    boolean shouldUpdate = findShortest ? (newDist < dist[v]) : (newDist > dist[v]);
+                    if (shouldUpdate) {
+                        dist[v] = newDist;
+                        pred[v] = u;
+                    }
+                }
+            }
+        }
+        return dist;
+    }
+}
@@ -0,0 +1,60 @@
+package com.rtyrrx.mst.bench;
+
+import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.graph.dagsp.BatchedPaths;
+import com.rtyrrx.mst.graph.dagsp.RelaxationKernel;
+
+import java.util.Random;
+
+// Usage: java --add-modules jdk.incubator.vector -cp target/classes
+//        com.rtyrrx.mst.bench.VectorRelaxationBenchmark [vertices] [edgesPerVertex] [iterations]
+// Without the module only the scalar kernel is measured.
+public class VectorRelaxationBenchmark {
+
+    public static void main(String[] args) {
+        int vertices = BenchmarkSupport.intArg(args, 0, 200_000);
+        int edgesPerVertex = BenchmarkSupport.intArg(args, 1, 4);
+        int iterations = BenchmarkSupport.intArg(args, 2, 5);
+
+        Graph graph = BenchmarkSupport.randomDag(vertices, edgesPerVertex, 42);
+        System.out.println("DAG: " + vertices + " vertices, " + graph.countEdges() + " edges");
+
+        RelaxationKernel scalar = RelaxationKernel.scalar();
+        RelaxationKernel best = RelaxationKernel.best();
+        System.out.println("Kernels: " + scalar.name() + " vs " + best.name());
+
+        System.out.printf("%n%6s %-12s %14s %14s %14s%n", "lanes", "kernel", "multi-src ms", "lane-wt ms", "Mrelax/sec");
+        Random random = new Random(42);
+        for (int lanes : new int[]{4, 8, 16, 32}) {
+            int[] sources = new int[lanes];
+            for (int l = 0; l < lanes; l++) {
+                sources[l] = random.nextInt(Math.max(1, vertices / 100));
+            }
+            double[] laneWeights = new double[graph.countEdges() * lanes];
+            for (int i = 0; i < laneWeights.length; i++) {
+                laneWeights[i] = 1 + random.nextInt(5);
+            }
+
+            for (RelaxationKernel kernel : new RelaxationKernel[]{scalar, best}) {
+                BatchedPaths batched = new BatchedPaths(graph, kernel);
+                batched.longestFromSources(sources);
+                batched.longestWithLaneWeights(0, laneWeights, lanes);
+
+                double multiSource = 0;
+                double laneWeighted = 0;
+                long relaxations = 0;
+                for (int i = 0; i < iterations; i++) {
+                    batched.longestFromSources(sources);
+                    multiSource += batched.getMetrics().getElapsedTimeMillis();
+                    relaxations += batched.getMetrics().getCounter("relaxations");
+                    batched.longestWithLaneWeights(0, laneWeights, lanes);
+                    laneWeighted += batched.getMetrics().getElapsedTimeMillis();
+                    relaxations += batched.getMetrics().getCounter("relaxations");
+                }
+                System.out.printf("%6d %-12s %14.2f %14.2f %14.1f%n", lanes, kernel.name(),
+                        multiSource / iterations, laneWeighted / iterations,
+                        relaxations / ((multiSource + laneWeighted) / 1000.0) / 1_000_000.0);
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.rtyrrx.mst.bench;
+
+import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.graph.dagsp.DAGShortestPath;
+import com.rtyrrx.mst.graph.reorder.VertexReordering;
+import com.rtyrrx.mst.graph.scc.SCC;
+
+import java.util.Random;
+
+// Usage: java --enable-preview -cp target/classes com.rtyrrx.mst.bench.VertexReorderingBenchmark
+//        [vertices] [edgesPerVertex] [iterations]
+// The graph has short-range dependencies, like a real feed, but its vertex
+// ids are shuffled. Hardware cache-miss counts are not visible from the JVM;
+// run the benchmark under `perf stat -e cache-misses,cache-references` to
+// collect them alongside the timings.
+public class VertexReorderingBenchmark {
+    private static final int WINDOW = 64;
+
+    public static void main(String[] args) {
+        int vertices = BenchmarkSupport.intArg(args, 0, 1_000_000);
+        int edgesPerVertex = BenchmarkSupport.intArg(args, 1, 4);
+        int iterations = BenchmarkSupport.intArg(args, 2, 5);
+
+        System.out.println("Building shuffled local DAG: " + vertices + " vertices, "
+                + edgesPerVertex + " edges per vertex");
+        Graph shuffled = shuffledLocalDag(vertices, edgesPerVertex, 42);
+        System.out.println("Edges: " + shuffled.countEdges());
+        System.out.println();
+
+        System.out.printf("%-10s %12s %12s %12s %12s%n",
+                "order", "reorder ms", "edge span", "scc ms/op", "dagsp ms/op");
+        run("shuffled", shuffled, 0, iterations);
+        for (String name : new String[]{"bfs", "rcm", "level"}) {
+            VertexReordering.Strategy strategy = VertexReordering.parseStrategy(name);
+            long start = System.nanoTime();
+            VertexReordering.Permutation permutation = new VertexReordering(shuffled).compute(strategy);
+            Graph relabelled = permutation.apply(shuffled);
+            long reorderNanos = System.nanoTime() - start;
+            run(name, relabelled, reorderNanos, iterations);
+        }
+    }
+
+    private static Graph shuffledLocalDag(int vertices, int edgesPerVertex, long seed) {
+        Random random = new Random(seed);
+        int[] ids = new int[vertices];
+        for (int i = 0; i < vertices; i++) {
+            ids[i] = i;
+        }
+        for (int i = vertices - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = ids[i];
+            ids[i] = ids[j];
+            ids[j] = tmp;
+        }
+        Graph graph = new Graph(vertices);
+        for (int u = 0; u < vertices - 1; u++) {
+            for (int j = 0; j < edgesPerVertex; j++) {
+                int v = Math.min(vertices - 1, u + 1 + random.nextInt(WINDOW));
+                graph.addEdge(ids[u], ids[v], 1 + random.nextInt(5));
+            }
+        }
+        return graph;
+    }
+
+    private static void run(String label, Graph graph, long reorderNanos, int iterations) {
+        // Start from a vertex with no predecessors so the whole DAG is swept.
+        boolean[] hasPredecessor = new boolean[graph.getVertices()];
+        for (int u = 0; u < graph.getVertices(); u++) {
+            for (int i = 0; i < graph.getOutDegree(u); i++) {
+                hasPredecessor[graph.getNeighbor(u, i)] = true;
+            }
+        }
+        int source = 0;
+        while (hasPredecessor[source]) {
+            source++;
+        }
+        int root = source;
+
+        runOnce(graph, root);
+        long sccNanos = 0;
+        long pathNanos = 0;
+        for (int i = 0; i < iterations; i++) {
+            long[] timings = runOnce(graph, root);
+            sccNanos += timings[0];
+            pathNanos += timings[1];
+        }
+
+        System.out.printf("%-10s %12.1f %12.1f %12.2f %12.2f%n",
+                label,
+                reorderNanos / 1_000_000.0,
+                VertexReordering.averageEdgeSpan(graph),
+                sccNanos / 1_000_000.0 / iterations,
+                pathNanos / 1_000_000.0 / iterations);
+    }
+
+    private static long[] runOnce(Graph graph, int source) {
+        return BenchmarkSupport.callWithLargeStack(() -> {
+            long start = System.nanoTime();
+            new SCC(graph).findSCCs();
+            long sccNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            new DAGShortestPath(graph).findLongestPath(source);
+            long pathNanos = System.nanoTime() - start;
+
+            return new long[]{sccNanos, pathNanos};
+        });
+    }
+}
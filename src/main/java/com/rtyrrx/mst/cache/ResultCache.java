@@ -0,0 +1,165 @@
+package com.rtyrrx.mst.cache;
+
+import com.rtyrrx.mst.common.Metrics;
+import com.rtyrrx.mst.common.MetricsImpl;
+
+import java.io.*;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Persistent cache of binary payloads keyed by a 64-bit content hash, one
+// file per entry. Hits touch the file's modification time, so eviction can
+// drop the least recently used entries across runs until the directory
+// fits the size bound again. Every entry carries a CRC32 of its payload;
+// entries that fail to read or check out are deleted and count as misses.
+public class ResultCache {
+    private static final int MAGIC = 0x52434831;
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 24;
+    private static final String SUFFIX = ".bin";
+
+    private final Path directory;
+    private final long maxBytes;
+    private final Metrics metrics;
+
+    public ResultCache(Path directory, long maxBytes) throws IOException {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Cache size bound must be positive");
+        }
+        this.directory = Files.createDirectories(directory);
+        this.maxBytes = maxBytes;
+        this.metrics = new MetricsImpl();
+    }
+
+    // A file deleted by a concurrent run between the lookup and the read is
+    // a plain miss; any other read failure also drops the entry.
+    public byte[] get(long key) throws IOException {
+        Path file = fileFor(key);
+        byte[] payload;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readLong() != key) {
+                throw new IOException("Not a cache entry for this key");
+            }
+            int length = in.readInt();
+            int checksum = in.readInt();
+            if (length < 0 || length > Files.size(file) - HEADER_BYTES) {
+                throw new EOFException("Truncated cache entry");
+            }
+            payload = in.readNBytes(length);
+            if (payload.length != length) {
+                throw new EOFException("Truncated cache entry");
+            }
+            if (checksum(payload) != checksum) {
+                throw new IOException("Cache entry checksum mismatch");
+            }
+        } catch (NoSuchFileException e) {
+            metrics.incrementCounter("cache_misses");
+            return null;
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            metrics.incrementCounter("cache_misses");
+            return null;
+        }
+
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (NoSuchFileException e) {
+            // Evicted by a concurrent run; the payload is already read.
+        }
+        metrics.incrementCounter("cache_hits");
+        return payload;
+    }
+
+    // For entries whose payload the caller could not use.
+    public void remove(long key) throws IOException {
+        Files.deleteIfExists(fileFor(key));
+    }
+
+    public void put(long key, byte[] payload) throws IOException {
+        if (HEADER_BYTES + (long) payload.length > maxBytes) {
+            return;
+        }
+
+        // Write to a temporary file and move it in place, so a crashed or
+        // concurrent run never leaves a half-written entry under the key.
+        Path temp = Files.createTempFile(directory, "entry", ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(key);
+            out.writeInt(payload.length);
+            out.writeInt(checksum(payload));
+            out.write(payload);
+        }
+        try {
+            Files.move(temp, fileFor(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, fileFor(key), StandardCopyOption.REPLACE_EXISTING);
+        }
+        metrics.incrementCounter("bytes_written", HEADER_BYTES + payload.length);
+
+        evict(fileFor(key));
+    }
+
+    public long sizeBytes() throws IOException {
+        long total = 0;
+        for (Entry entry : entries()) {
+            total += entry.size();
+        }
+        return total;
+    }
+
+    // The entry just written is never the victim, even when its timestamp
+    // ties with older ones at the file system's resolution.
+    private void evict(Path keep) throws IOException {
+        List<Entry> entries = entries();
+        long total = 0;
+        for (Entry entry : entries) {
+            total += entry.size();
+        }
+        entries.sort(Comparator.comparingLong(Entry::lastUsed));
+        for (int i = 0; i < entries.size() && total > maxBytes; i++) {
+            if (entries.get(i).file().equals(keep)) continue;
+            Files.deleteIfExists(entries.get(i).file());
+            total -= entries.get(i).size();
+            metrics.incrementCounter("cache_evictions");
+        }
+    }
+
+    private List<Entry> entries() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (!file.getFileName().toString().endsWith(SUFFIX)) continue;
+                try {
+                    entries.add(new Entry(file, Files.size(file), Files.getLastModifiedTime(file).toMillis()));
+                } catch (NoSuchFileException e) {
+                    // Removed by a concurrent run.
+                }
+            }
+        }
+        return entries;
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private Path fileFor(long key) {
+        return directory.resolve(String.format("%016x", key) + SUFFIX);
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    private record Entry(Path file, long size, long lastUsed) {
+    }
+}
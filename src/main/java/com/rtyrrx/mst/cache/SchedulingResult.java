@@ -0,0 +1,162 @@
+package com.rtyrrx.mst.cache;
+
+import com.rtyrrx.mst.graph.dagsp.KLongestPaths;
+import com.rtyrrx.mst.graph.scc.ComponentOrdering;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+
+// Everything SmartCityScheduler reports for a dataset, kept as primitive
+// arrays so it encodes to a compact binary form for ResultCache. paths is
+// null when the condensation is empty, feedbackEdges is -1 for a DAG.
+public record SchedulingResult(int feedbackEdges, double feedbackWeight,
+                               int[] componentOf, int[][] components,
+                               List<ComponentOrdering.ComponentOrder> groupOrders,
+                               int[] condensationOffsets, int[] condensationTargets, double[] condensationWeights,
+                               int[] topoOrder, Paths paths) {
+
+    public int condensationVertices() {
+        return condensationOffsets.length - 1;
+    }
+
+    public int condensationEdges() {
+        return condensationTargets.length;
+    }
+
+    public record Paths(int source, double[] shortestDistances,
+                        double[] longestDistances, int[] longestPredecessors,
+                        int[] criticalPath, double criticalPathLength,
+                        List<KLongestPaths.RankedPath> nearCriticalPaths,
+                        double projectDuration, int[] zeroFloatComponents) {
+    }
+
+    public byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(feedbackEdges);
+            out.writeDouble(feedbackWeight);
+            writeInts(out, componentOf);
+            out.writeInt(components.length);
+            for (int[] component : components) {
+                writeInts(out, component);
+            }
+            out.writeInt(groupOrders.size());
+            for (ComponentOrdering.ComponentOrder order : groupOrders) {
+                out.writeInt(order.component());
+                writeInts(out, order.tasks());
+                out.writeInt(order.removedEdges());
+                out.writeDouble(order.removedWeight());
+            }
+            writeInts(out, condensationOffsets);
+            writeInts(out, condensationTargets);
+            writeDoubles(out, condensationWeights);
+            writeInts(out, topoOrder);
+
+            out.writeBoolean(paths != null);
+            if (paths != null) {
+                out.writeInt(paths.source());
+                writeDoubles(out, paths.shortestDistances());
+                writeDoubles(out, paths.longestDistances());
+                writeInts(out, paths.longestPredecessors());
+                writeInts(out, paths.criticalPath());
+                out.writeDouble(paths.criticalPathLength());
+                out.writeInt(paths.nearCriticalPaths().size());
+                for (KLongestPaths.RankedPath path : paths.nearCriticalPaths()) {
+                    writeInts(out, path.vertices().stream().mapToInt(Integer::intValue).toArray());
+                    out.writeDouble(path.length());
+                }
+                out.writeDouble(paths.projectDuration());
+                writeInts(out, paths.zeroFloatComponents());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static SchedulingResult decode(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        int feedbackEdges = in.readInt();
+        double feedbackWeight = in.readDouble();
+        int[] componentOf = readInts(in);
+        int[][] components = new int[readLength(in)][];
+        for (int c = 0; c < components.length; c++) {
+            components[c] = readInts(in);
+        }
+        int orderCount = readLength(in);
+        List<ComponentOrdering.ComponentOrder> groupOrders = new ArrayList<>(orderCount);
+        for (int i = 0; i < orderCount; i++) {
+            groupOrders.add(new ComponentOrdering.ComponentOrder(
+                    in.readInt(), readInts(in), in.readInt(), in.readDouble()));
+        }
+        int[] offsets = readInts(in);
+        int[] targets = readInts(in);
+        double[] weights = readDoubles(in);
+        int[] topoOrder = readInts(in);
+
+        Paths paths = null;
+        if (in.readBoolean()) {
+            int source = in.readInt();
+            double[] shortest = readDoubles(in);
+            double[] longest = readDoubles(in);
+            int[] predecessors = readInts(in);
+            int[] criticalPath = readInts(in);
+            double criticalPathLength = in.readDouble();
+            int pathCount = readLength(in);
+            List<KLongestPaths.RankedPath> nearCritical = new ArrayList<>(pathCount);
+            for (int i = 0; i < pathCount; i++) {
+                List<Integer> vertices = new ArrayList<>();
+                for (int v : readInts(in)) {
+                    vertices.add(v);
+                }
+                nearCritical.add(new KLongestPaths.RankedPath(vertices, in.readDouble()));
+            }
+            paths = new Paths(source, shortest, longest, predecessors, criticalPath, criticalPathLength,
+                    nearCritical, in.readDouble(), readInts(in));
+        }
+        if (in.available() != 0) {
+            throw new IOException("Trailing bytes after scheduling result");
+        }
+        return new SchedulingResult(feedbackEdges, feedbackWeight, componentOf, components, groupOrders,
+                offsets, targets, weights, topoOrder, paths);
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    private static void writeDoubles(DataOutputStream out, double[] values) throws IOException {
+        out.writeInt(values.length);
+        for (double value : values) {
+            out.writeDouble(value);
+        }
+    }
+
+    private static int readLength(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > in.available()) {
+            throw new IOException("Corrupt length " + length);
+        }
+        return length;
+    }
+
+    private static int[] readInts(DataInputStream in) throws IOException {
+        int[] values = new int[readLength(in)];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+
+    private static double[] readDoubles(DataInputStream in) throws IOException {
+        double[] values = new double[readLength(in)];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readDouble();
+        }
+        return values;
+    }
+}
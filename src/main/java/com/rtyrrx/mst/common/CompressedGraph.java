@@ -0,0 +1,254 @@
+package com.rtyrrx.mst.common;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Immutable adjacency with every neighbour list sorted by target and stored
+// as LEB128 varints: the degree, then one value per edge packing the gap to
+// the previous target (the first target relative to the vertex itself,
+// zigzag-coded) with the weight's dictionary code in the low bits. Feeds
+// only use a handful of distinct weights, so the code is usually 2-3 bits;
+// when there are too many for a dictionary the weights are kept losslessly
+// in a separate array instead.
+public final class CompressedGraph implements DirectedGraph {
+    private static final int MAX_DICTIONARY_BITS = 12;
+
+    private final int vertices;
+    private final int edges;
+    private final int[] offsets;
+    private final byte[] data;
+    private final int codeBits;
+    private final double[] dictionary;
+    // Only used without a dictionary: weights by edge, in target order.
+    private final int[] edgeOffsets;
+    private final double[] weights;
+
+    private CompressedGraph(int vertices, int edges, int[] offsets, byte[] data, int codeBits,
+                            double[] dictionary, int[] edgeOffsets, double[] weights) {
+        this.vertices = vertices;
+        this.edges = edges;
+        this.offsets = offsets;
+        this.data = data;
+        this.codeBits = codeBits;
+        this.dictionary = dictionary;
+        this.edgeOffsets = edgeOffsets;
+        this.weights = weights;
+    }
+
+    public static CompressedGraph copyOf(DirectedGraph source) {
+        int n = source.getVertices();
+        Map<Double, Integer> codes = new HashMap<>();
+        for (int u = 0; u < n && codes.size() <= 1 << MAX_DICTIONARY_BITS; u++) {
+            int degree = source.getOutDegree(u);
+            for (int i = 0; i < degree; i++) {
+                codes.putIfAbsent(source.getWeight(u, i), codes.size());
+            }
+        }
+        boolean coded = codes.size() <= 1 << MAX_DICTIONARY_BITS;
+        int codeBits = coded ? 32 - Integer.numberOfLeadingZeros(Math.max(0, codes.size() - 1)) : 0;
+        double[] dictionary = null;
+        if (coded) {
+            dictionary = new double[codes.size()];
+            for (Map.Entry<Double, Integer> entry : codes.entrySet()) {
+                dictionary[entry.getValue()] = entry.getKey();
+            }
+        }
+
+        int[] offsets = new int[n + 1];
+        int[] edgeOffsets = coded ? null : new int[n + 1];
+        double[] weights = coded ? null : new double[source.countEdges()];
+        byte[] data = new byte[Math.max(16, source.countEdges() * 2)];
+        int position = 0;
+        int edgeCount = 0;
+        long[] sorted = new long[16];
+        for (int u = 0; u < n; u++) {
+            offsets[u] = position;
+            int degree = source.getOutDegree(u);
+            if (sorted.length < degree) {
+                sorted = new long[Math.max(degree, sorted.length * 2)];
+            }
+            // Sort by target, keeping the original index to break ties and
+            // to find the weight again.
+            for (int i = 0; i < degree; i++) {
+                sorted[i] = ((long) source.getNeighbor(u, i) << 32) | i;
+            }
+            Arrays.sort(sorted, 0, degree);
+
+            data = ensureCapacity(data, position + 5 + (long) degree * 10);
+            position = writeVarint(data, position, degree);
+            int previous = u;
+            for (int k = 0; k < degree; k++) {
+                int target = (int) (sorted[k] >>> 32);
+                int index = (int) sorted[k];
+                double weight = source.getWeight(u, index);
+                long gap = k == 0 ? zigzag(target - u) : target - previous;
+                long value = coded ? (gap << codeBits) | codes.get(weight) : gap;
+                position = writeVarint(data, position, value);
+                if (!coded) {
+                    weights[edgeCount + k] = weight;
+                }
+                previous = target;
+            }
+            edgeCount += degree;
+            if (!coded) {
+                edgeOffsets[u + 1] = edgeCount;
+            }
+        }
+        offsets[n] = position;
+        return new CompressedGraph(n, edgeCount, offsets, Arrays.copyOf(data, position), codeBits,
+                dictionary, edgeOffsets, weights);
+    }
+
+    private static byte[] ensureCapacity(byte[] data, long required) {
+        if (required <= data.length) {
+            return data;
+        }
+        if (required > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Graph is too large to compress into one array");
+        }
+        return Arrays.copyOf(data, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(required, data.length * 2L)));
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static int unzigzag(long value) {
+        return (int) ((value >>> 1) ^ -(value & 1));
+    }
+
+    private static int writeVarint(byte[] data, int position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            data[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[position++] = (byte) value;
+        return position;
+    }
+
+    // Bytes of the varint stream plus the vertex offsets and weight tables.
+    public long byteSize() {
+        long size = data.length + (long) offsets.length * Integer.BYTES;
+        if (dictionary != null) {
+            size += (long) dictionary.length * Double.BYTES;
+        } else {
+            size += (long) edgeOffsets.length * Integer.BYTES + (long) weights.length * Double.BYTES;
+        }
+        return size;
+    }
+
+    public boolean isDictionaryCoded() {
+        return dictionary != null;
+    }
+
+    @Override
+    public int getVertices() {
+        return vertices;
+    }
+
+    @Override
+    public int countEdges() {
+        return edges;
+    }
+
+    @Override
+    public int getOutDegree(int vertex) {
+        int position = offsets[vertex];
+        int degree = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[position++];
+            degree |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return degree;
+    }
+
+    // Random access decodes from the start of the list; traversals should
+    // use cursor() instead.
+    @Override
+    public int getNeighbor(int vertex, int index) {
+        Cursor cursor = new Cursor();
+        cursor.reset(vertex);
+        for (int i = 0; i <= index; i++) {
+            if (!cursor.next()) {
+                throw new IndexOutOfBoundsException("Vertex " + vertex + " has no edge " + index);
+            }
+        }
+        return cursor.target();
+    }
+
+    @Override
+    public double getWeight(int vertex, int index) {
+        Cursor cursor = new Cursor();
+        cursor.reset(vertex);
+        for (int i = 0; i <= index; i++) {
+            if (!cursor.next()) {
+                throw new IndexOutOfBoundsException("Vertex " + vertex + " has no edge " + index);
+            }
+        }
+        return cursor.weight();
+    }
+
+    @Override
+    public EdgeCursor cursor() {
+        return new Cursor();
+    }
+
+    private final class Cursor implements EdgeCursor {
+        private int position;
+        private int remaining;
+        private int edge;
+        private int target;
+        private int code;
+        private boolean first;
+
+        @Override
+        public void reset(int vertex) {
+            position = offsets[vertex];
+            remaining = (int) readVarint();
+            target = vertex;
+            first = true;
+            edge = edgeOffsets == null ? 0 : edgeOffsets[vertex] - 1;
+        }
+
+        @Override
+        public boolean next() {
+            if (remaining == 0) {
+                return false;
+            }
+            remaining--;
+            long value = readVarint();
+            code = (int) (value & ((1L << codeBits) - 1));
+            long gap = value >>> codeBits;
+            target = first ? target + unzigzag(gap) : target + (int) gap;
+            first = false;
+            edge++;
+            return true;
+        }
+
+        @Override
+        public int target() {
+            return target;
+        }
+
+        @Override
+        public double weight() {
+            return dictionary != null ? dictionary[code] : weights[edge];
+        }
+
+        private long readVarint() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+    }
+}
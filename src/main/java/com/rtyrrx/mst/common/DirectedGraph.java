@@ -0,0 +1,13 @@
+package com.rtyrrx.mst.common;
+
+public interface DirectedGraph {
+    int getVertices();
+    int countEdges();
+    int getOutDegree(int vertex);
+    int getNeighbor(int vertex, int index);
+    double getWeight(int vertex, int index);
+
+    default EdgeCursor cursor() {
+        return new IndexedEdgeCursor(this);
+    }
+}
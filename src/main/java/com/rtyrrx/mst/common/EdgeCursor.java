@@ -0,0 +1,14 @@
+package com.rtyrrx.mst.common;
+
+// Sequential view of one vertex's outgoing edges. Layouts that can only be
+// decoded front to back (CompressedGraph) make this the fast path; a cursor
+// is reusable across vertices via reset and is not thread-safe.
+public interface EdgeCursor {
+    void reset(int vertex);
+
+    boolean next();
+
+    int target();
+
+    double weight();
+}
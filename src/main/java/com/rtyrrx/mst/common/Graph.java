@@ -2,33 +2,68 @@ package com.rtyrrx.mst.common;
 
 import java.util.*;
 
-public class Graph {
-    private final int vertices;
+public class Graph implements DirectedGraph {
+    private int vertices;
     private final List<List<Edge>> adjacencyList;
     private final Map<Integer, String> vertexToTaskId;
+    private final Map<String, Integer> taskIdToVertex;
+    private final BitSet freeVertices;
+    private long contentHash;
+    private int modCount;
+    // Derived indexes, each stamped with the modCount it was built at.
+    private volatile Cached<ReverseAdjacency> reverseIndex;
+    private volatile Cached<int[]> inDegreeIndex;
 
     public Graph(int vertices) {
         this.vertices = vertices;
         this.adjacencyList = new ArrayList<>(vertices);
         this.vertexToTaskId = new HashMap<>();
+        this.taskIdToVertex = new HashMap<>();
+        this.freeVertices = new BitSet();
 
         for (int i = 0; i < vertices; i++) {
             adjacencyList.add(new ArrayList<>());
         }
     }
 
+    // Takes ownership of fully built lists; used by GraphBuilder.
+    Graph(List<List<Edge>> adjacencyList) {
+        this.vertices = adjacencyList.size();
+        this.adjacencyList = adjacencyList;
+        this.vertexToTaskId = new HashMap<>();
+        this.taskIdToVertex = new HashMap<>();
+        this.freeVertices = new BitSet();
+    }
+
     public void addEdge(int source, int dest, double weight) {
         adjacencyList.get(source).add(new Edge(dest, weight));
+        modCount++;
     }
 
     public void addEdge(int source, int dest) {
         addEdge(source, dest, 1.0);
     }
 
+    @Override
     public int getVertices() {
         return vertices;
     }
 
+    @Override
+    public int getOutDegree(int vertex) {
+        return adjacencyList.get(vertex).size();
+    }
+
+    @Override
+    public int getNeighbor(int vertex, int index) {
+        return adjacencyList.get(vertex).get(index).destination;
+    }
+
+    @Override
+    public double getWeight(int vertex, int index) {
+        return adjacencyList.get(vertex).get(index).weight;
+    }
+
     public List<Edge> getAdjacentEdges(int vertex) {
         return adjacencyList.get(vertex);
     }
@@ -41,14 +76,186 @@ public class Graph {
         return adjacent;
     }
 
+    // Removes the first edge to dest and keeps the order of the others, so
+    // the list reads as if that edge had never been added.
+    public boolean removeEdge(int source, int dest) {
+        List<Edge> edges = adjacencyList.get(source);
+        for (int i = 0; i < edges.size(); i++) {
+            if (edges.get(i).destination == dest) {
+                edges.remove(i);
+                modCount++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean setEdgeWeight(int source, int dest, double weight) {
+        List<Edge> edges = adjacencyList.get(source);
+        for (int i = 0; i < edges.size(); i++) {
+            if (edges.get(i).destination == dest) {
+                edges.set(i, new Edge(dest, weight));
+                modCount++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Reuses the lowest vertex freed by removeVertices before growing the
+    // graph.
+    public int addVertex() {
+        modCount++;
+        int free = freeVertices.nextSetBit(0);
+        if (free >= 0) {
+            freeVertices.clear(free);
+            return free;
+        }
+        adjacencyList.add(new ArrayList<>());
+        return vertices++;
+    }
+
+    // Removed vertices stay as isolated placeholders without a task id, so
+    // the remaining vertex ids do not shift. Incoming edges of the whole
+    // batch are dropped in one sweep over the adjacency lists.
+    public void removeVertices(Collection<Integer> removed) {
+        if (removed.isEmpty()) return;
+        boolean[] marked = new boolean[vertices];
+        for (int v : removed) {
+            marked[v] = true;
+        }
+        for (int u = 0; u < vertices; u++) {
+            if (marked[u]) {
+                adjacencyList.get(u).clear();
+            } else {
+                adjacencyList.get(u).removeIf(edge -> marked[edge.destination]);
+            }
+        }
+        for (int v = 0; v < vertices; v++) {
+            if (marked[v]) {
+                String taskId = vertexToTaskId.remove(v);
+                if (taskId != null) {
+                    taskIdToVertex.remove(taskId);
+                }
+                freeVertices.set(v);
+            }
+        }
+        modCount++;
+    }
+
+    // Drops the placeholders left by removeVertices and renumbers the other
+    // vertices in their current order, keeping every adjacency list's
+    // order. Returns the new id of each old vertex, -1 for a dropped one.
+    public int[] compactVertices() {
+        int[] remap = new int[vertices];
+        int kept = 0;
+        for (int v = 0; v < vertices; v++) {
+            remap[v] = freeVertices.get(v) ? -1 : kept++;
+        }
+        if (kept == vertices) {
+            return remap;
+        }
+
+        List<List<Edge>> compacted = new ArrayList<>(kept);
+        for (int u = 0; u < vertices; u++) {
+            if (remap[u] < 0) continue;
+            List<Edge> edges = adjacencyList.get(u);
+            List<Edge> renumbered = new ArrayList<>(edges.size());
+            for (Edge edge : edges) {
+                renumbered.add(new Edge(remap[edge.destination], edge.weight));
+            }
+            compacted.add(renumbered);
+        }
+        adjacencyList.clear();
+        adjacencyList.addAll(compacted);
+
+        Map<Integer, String> taskIds = new HashMap<>(vertexToTaskId);
+        vertexToTaskId.clear();
+        taskIdToVertex.clear();
+        for (Map.Entry<Integer, String> entry : taskIds.entrySet()) {
+            mapTaskToVertex(entry.getValue(), remap[entry.getKey()]);
+        }
+        freeVertices.clear();
+        vertices = kept;
+        modCount++;
+        return remap;
+    }
+
+    // Bumped by every structural change, so derived indexes can tell when
+    // they are stale.
+    public int getModCount() {
+        return modCount;
+    }
+
+    // Built on first use and kept until the graph changes. Edits made
+    // through the lists returned by getAdjacentEdges bypass modCount and are
+    // not seen.
+    public ReverseAdjacency getReverseAdjacency() {
+        Cached<ReverseAdjacency> cached = reverseIndex;
+        if (cached == null || cached.modCount() != modCount) {
+            cached = new Cached<>(modCount, ReverseAdjacency.build(this));
+            reverseIndex = cached;
+        }
+        return cached.value();
+    }
+
+    public List<Integer> getPredecessors(int vertex) {
+        ReverseAdjacency reverse = getReverseAdjacency();
+        List<Integer> predecessors = new ArrayList<>(reverse.getInDegree(vertex));
+        for (int i = 0; i < reverse.getInDegree(vertex); i++) {
+            predecessors.add(reverse.getPredecessor(vertex, i));
+        }
+        return predecessors;
+    }
+
+    public int getInDegree(int vertex) {
+        return inDegrees()[vertex];
+    }
+
+    // A copy the caller may modify, e.g. as Kahn's working counters.
+    public int[] copyInDegrees() {
+        return inDegrees().clone();
+    }
+
+    private int[] inDegrees() {
+        Cached<int[]> cached = inDegreeIndex;
+        if (cached == null || cached.modCount() != modCount) {
+            Cached<ReverseAdjacency> reverse = reverseIndex;
+            int[] inDegrees = reverse != null && reverse.modCount() == modCount
+                    ? reverse.value().inDegrees()
+                    : ReverseAdjacency.countInDegrees(this);
+            cached = new Cached<>(modCount, inDegrees);
+            inDegreeIndex = cached;
+        }
+        return cached.value();
+    }
+
     public void mapTaskToVertex(String taskId, int vertex) {
-        vertexToTaskId.put(vertex, taskId);
+        String previous = vertexToTaskId.put(vertex, taskId);
+        if (previous != null) {
+            taskIdToVertex.remove(previous);
+        }
+        taskIdToVertex.put(taskId, vertex);
     }
 
     public String getTaskId(int vertex) {
         return vertexToTaskId.get(vertex);
     }
 
+    public Integer getVertex(String taskId) {
+        return taskIdToVertex.get(taskId);
+    }
+
+    // Set by GraphLoader from the parsed dataset; 0 for graphs built in code.
+    public long getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(long contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    @Override
     public int countEdges() {
         int count = 0;
         for (List<Edge> edges : adjacencyList) {
@@ -57,6 +264,9 @@ public class Graph {
         return count;
     }
 
+    private record Cached<T>(int modCount, T value) {
+    }
+
     public static class Edge {
         public final int destination;
         public final double weight;
@@ -0,0 +1,185 @@
+package com.rtyrrx.mst.common;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+// Collects edges into primitive arrays and builds the Graph in one go with a
+// counting sort by source: every chunk of the edge buffer counts its own
+// edges per source, prefix sums turn the counts into each chunk's first slot
+// per source, and the chunks scatter into their slots. Chunks of earlier
+// edges get earlier slots, so every adjacency list comes out in insertion
+// order, exactly as an addEdge loop would leave it, and is allocated once at
+// its final size. Large edge sets are counted, scattered and materialised in
+// parallel.
+public class GraphBuilder {
+    // What to do with further edges between a pair that already has one.
+    // Merged edges stay at the position of the pair's first edge.
+    public enum Duplicates {KEEP, FIRST, MIN, MAX, SUM}
+
+    // Below this many edges the per-chunk count arrays cost more than the
+    // parallel passes save.
+    private static final int PARALLEL_THRESHOLD = 1 << 18;
+
+    private final int vertices;
+    private int[] sources;
+    private int[] targets;
+    private double[] weights;
+    private int size;
+    private Duplicates duplicates = Duplicates.KEEP;
+
+    public GraphBuilder(int vertices) {
+        this(vertices, 16);
+    }
+
+    public GraphBuilder(int vertices, int expectedEdges) {
+        if (vertices < 0) {
+            throw new IllegalArgumentException("Negative vertex count: " + vertices);
+        }
+        this.vertices = vertices;
+        int capacity = Math.max(16, expectedEdges);
+        this.sources = new int[capacity];
+        this.targets = new int[capacity];
+        this.weights = new double[capacity];
+    }
+
+    public GraphBuilder addEdge(int source, int dest, double weight) {
+        if (source < 0 || source >= vertices || dest < 0 || dest >= vertices) {
+            throw new IllegalArgumentException("Edge out of range: " + source + " -> " + dest);
+        }
+        if (size == sources.length) {
+            int capacity = (int) Math.min(Integer.MAX_VALUE - 8, (long) size * 2);
+            sources = Arrays.copyOf(sources, capacity);
+            targets = Arrays.copyOf(targets, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+        }
+        sources[size] = source;
+        targets[size] = dest;
+        weights[size] = weight;
+        size++;
+        return this;
+    }
+
+    public GraphBuilder mergeDuplicates(Duplicates duplicates) {
+        this.duplicates = duplicates;
+        return this;
+    }
+
+    public int getVertices() {
+        return vertices;
+    }
+
+    public int countEdges() {
+        return size;
+    }
+
+    public Graph build() {
+        int chunks = size < PARALLEL_THRESHOLD ? 1 : Runtime.getRuntime().availableProcessors();
+        return build(chunks);
+    }
+
+    // The result does not depend on the number of chunks.
+    public Graph build(int requestedChunks) {
+        int n = vertices;
+        int chunks = boundChunks(requestedChunks, size, n);
+
+        int[][] counts = new int[chunks][n];
+        forEachChunk(chunks, size, (chunk, from, to) -> {
+            int[] count = counts[chunk];
+            for (int e = from; e < to; e++) {
+                count[sources[e]]++;
+            }
+        });
+
+        int[] offsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            int slot = offsets[u];
+            for (int c = 0; c < chunks; c++) {
+                int count = counts[c][u];
+                counts[c][u] = slot;
+                slot += count;
+            }
+            offsets[u + 1] = slot;
+        }
+
+        int[] sortedTargets = new int[size];
+        double[] sortedWeights = new double[size];
+        forEachChunk(chunks, size, (chunk, from, to) -> {
+            int[] next = counts[chunk];
+            for (int e = from; e < to; e++) {
+                int slot = next[sources[e]]++;
+                sortedTargets[slot] = targets[e];
+                sortedWeights[slot] = weights[e];
+            }
+        });
+
+        // Each chunk of source vertices merges and materialises its own
+        // lists; set() on distinct indexes leaves the list's structure alone.
+        List<List<Graph.Edge>> adjacency = new ArrayList<>(Collections.nCopies(n, null));
+        forEachChunk(Math.min(chunks, Math.max(1, n)), n, (chunk, from, to) -> {
+            int[] firstSlot = duplicates == Duplicates.KEEP ? null : new int[n];
+            for (int u = from; u < to; u++) {
+                int end = offsets[u + 1];
+                if (firstSlot != null) {
+                    end = merge(offsets[u], end, sortedTargets, sortedWeights, firstSlot);
+                }
+                List<Graph.Edge> edges = new ArrayList<>(end - offsets[u]);
+                for (int slot = offsets[u]; slot < end; slot++) {
+                    edges.add(new Graph.Edge(sortedTargets[slot], sortedWeights[slot]));
+                }
+                adjacency.set(u, edges);
+            }
+        });
+        return new Graph(adjacency);
+    }
+
+    // Every chunk holds an int[n] of counts, and of first slots when merging,
+    // so there is at most one chunk per n edges: the per-chunk arrays then
+    // never outgrow the edge buffer, however many processors there are.
+    static int boundChunks(int requestedChunks, int edges, int vertices) {
+        long perVertex = vertices == 0 ? edges : edges / vertices;
+        return (int) Math.max(1, Math.min(requestedChunks, perVertex));
+    }
+
+    // Compacts the slots of u in place, folding every repeated target into
+    // its first slot; returns the new end. firstSlot[v] is only trusted when
+    // it points into the part of u already written and holds v there, so
+    // the array never needs clearing between vertices.
+    private int merge(int start, int end, int[] sortedTargets, double[] sortedWeights, int[] firstSlot) {
+        int write = start;
+        for (int slot = start; slot < end; slot++) {
+            int v = sortedTargets[slot];
+            double weight = sortedWeights[slot];
+            int first = firstSlot[v];
+            if (first < start || first >= write || sortedTargets[first] != v) {
+                firstSlot[v] = write;
+                sortedTargets[write] = v;
+                sortedWeights[write] = weight;
+                write++;
+                continue;
+            }
+            switch (duplicates) {
+                case MIN -> sortedWeights[first] = Math.min(sortedWeights[first], weight);
+                case MAX -> sortedWeights[first] = Math.max(sortedWeights[first], weight);
+                case SUM -> sortedWeights[first] += weight;
+                default -> { }
+            }
+        }
+        return write;
+    }
+
+    private interface ChunkTask {
+        void run(int chunk, int from, int to);
+    }
+
+    private static void forEachChunk(int chunks, int n, ChunkTask task) {
+        if (chunks == 1) {
+            task.run(0, 0, n);
+            return;
+        }
+        IntStream.range(0, chunks).parallel().forEach(c ->
+                task.run(c, (int) ((long) n * c / chunks), (int) ((long) n * (c + 1) / chunks)));
+    }
+}
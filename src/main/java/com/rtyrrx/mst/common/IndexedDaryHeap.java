@@ -0,0 +1,130 @@
+package com.rtyrrx.mst.common;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+// Min-heap of vertex ids keyed by primitive doubles, with a position index
+// per vertex so a queued vertex's key can be changed in place. Equal keys
+// are ordered by vertex id, which makes the pop order fully deterministic.
+// Arity 4 keeps the tree shallow and each sift-down scans one cache line
+// of children.
+public final class IndexedDaryHeap {
+    private static final int ARITY = 4;
+
+    private final int[] heap;
+    private final int[] position;
+    private final double[] keys;
+    private int size;
+
+    public IndexedDaryHeap(int capacity) {
+        heap = new int[capacity];
+        position = new int[capacity];
+        keys = new double[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int vertex) {
+        return position[vertex] >= 0;
+    }
+
+    public double key(int vertex) {
+        return keys[vertex];
+    }
+
+    public void push(int vertex, double key) {
+        if (contains(vertex)) {
+            throw new IllegalArgumentException("Vertex " + vertex + " is already queued");
+        }
+        keys[vertex] = key;
+        heap[size] = vertex;
+        position[vertex] = size;
+        siftUp(size++);
+    }
+
+    // Moves a queued vertex up or down to match its new key.
+    public void changeKey(int vertex, double key) {
+        int at = position[vertex];
+        if (at < 0) {
+            throw new IllegalArgumentException("Vertex " + vertex + " is not queued");
+        }
+        double old = keys[vertex];
+        keys[vertex] = key;
+        if (key < old) {
+            siftUp(at);
+        } else {
+            siftDown(at);
+        }
+    }
+
+    public int peek() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return heap[0];
+    }
+
+    public int pop() {
+        int top = peek();
+        position[top] = -1;
+        size--;
+        if (size > 0) {
+            heap[0] = heap[size];
+            position[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private boolean before(int a, int b) {
+        return keys[a] < keys[b] || (keys[a] == keys[b] && a < b);
+    }
+
+    private void siftUp(int at) {
+        int vertex = heap[at];
+        while (at > 0) {
+            int parent = (at - 1) / ARITY;
+            if (!before(vertex, heap[parent])) break;
+            heap[at] = heap[parent];
+            position[heap[at]] = at;
+            at = parent;
+        }
+        heap[at] = vertex;
+        position[vertex] = at;
+    }
+
+    private void siftDown(int at) {
+        int vertex = heap[at];
+        while (true) {
+            int first = at * ARITY + 1;
+            if (first >= size) break;
+            int best = first;
+            int last = Math.min(first + ARITY, size);
+            for (int child = first + 1; child < last; child++) {
+                if (before(heap[child], heap[best])) {
+                    best = child;
+                }
+            }
+            if (!before(heap[best], vertex)) break;
+            heap[at] = heap[best];
+            position[heap[at]] = at;
+            at = best;
+        }
+        heap[at] = vertex;
+        position[vertex] = at;
+    }
+}
@@ -0,0 +1,35 @@
+package com.rtyrrx.mst.common;
+
+// Default cursor over the indexed accessors of any DirectedGraph.
+final class IndexedEdgeCursor implements EdgeCursor {
+    private final DirectedGraph graph;
+    private int vertex;
+    private int index;
+    private int degree;
+
+    IndexedEdgeCursor(DirectedGraph graph) {
+        this.graph = graph;
+    }
+
+    @Override
+    public void reset(int vertex) {
+        this.vertex = vertex;
+        this.index = -1;
+        this.degree = graph.getOutDegree(vertex);
+    }
+
+    @Override
+    public boolean next() {
+        return ++index < degree;
+    }
+
+    @Override
+    public int target() {
+        return graph.getNeighbor(vertex, index);
+    }
+
+    @Override
+    public double weight() {
+        return graph.getWeight(vertex, index);
+    }
+}
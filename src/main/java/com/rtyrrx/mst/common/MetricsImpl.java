@@ -1,5 +1,7 @@
 package com.rtyrrx.mst.common;
 
+import com.rtyrrx.mst.observability.MetricsRegistry;
+
 import java.util.HashMap;
 import java.util.Map;
 
@@ -7,9 +9,26 @@ public class MetricsImpl implements Metrics {
     private long startTime;
     private long endTime;
     private final Map<String, Long> counters;
+    private final String name;
+    private final MetricsRegistry registry;
+    private Map<String, Long> published;
+    // Time of the current run published so far; -1 until its first slice.
+    private long publishedNanos = -1;
 
     public MetricsImpl() {
+        this(null, null);
+    }
+
+    // A named instance publishes to the registry when it stops. Everything
+    // between two resets is one run, however many slices it is timed in.
+    public MetricsImpl(String name) {
+        this(name, MetricsRegistry.global());
+    }
+
+    public MetricsImpl(String name, MetricsRegistry registry) {
         this.counters = new HashMap<>();
+        this.name = name;
+        this.registry = registry;
     }
 
     @Override
@@ -20,6 +39,33 @@ public class MetricsImpl implements Metrics {
     @Override
     public void stopTiming() {
         endTime = System.nanoTime();
+        if (registry != null && registry.isEnabled()) {
+            publish();
+        }
+    }
+
+    // Some algorithms time several slices of one run, e.g. one per advance
+    // of a stream, so later slices extend the recorded run and only the
+    // counts added since the previous publish go out.
+    private void publish() {
+        long slice = endTime - startTime;
+        if (publishedNanos < 0) {
+            registry.recordRun(name, slice);
+            publishedNanos = slice;
+        } else {
+            registry.extendRun(name, publishedNanos, publishedNanos + slice);
+            publishedNanos += slice;
+        }
+        if (published == null) {
+            published = new HashMap<>();
+        }
+        for (Map.Entry<String, Long> counter : counters.entrySet()) {
+            long delta = counter.getValue() - published.getOrDefault(counter.getKey(), 0L);
+            if (delta != 0) {
+                registry.addCounter(name, counter.getKey(), delta);
+                published.put(counter.getKey(), counter.getValue());
+            }
+        }
     }
 
     @Override
@@ -52,5 +98,9 @@ public class MetricsImpl implements Metrics {
         startTime = 0;
         endTime = 0;
         counters.clear();
+        publishedNanos = -1;
+        if (published != null) {
+            published.clear();
+        }
     }
 }
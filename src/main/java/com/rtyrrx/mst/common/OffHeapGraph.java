@@ -0,0 +1,177 @@
+package com.rtyrrx.mst.common;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// CSR layout: [magic, version, vertices, edges] header, then weights (double),
+// offsets (vertices + 1 ints) and targets (int). Weights come first so every
+// section stays naturally aligned in both allocated and mapped segments.
+public final class OffHeapGraph implements DirectedGraph, AutoCloseable {
+    private static final int MAGIC = 0x53434731;
+    private static final int VERSION = 1;
+    private static final long HEADER_BYTES = 16;
+
+    private final Arena arena;
+    private final int vertices;
+    private final int edges;
+    private final MemorySegment offsets;
+    private final MemorySegment targets;
+    private final MemorySegment weights;
+
+    private OffHeapGraph(Arena arena, MemorySegment data) {
+        if (data.get(ValueLayout.JAVA_INT, 0) != MAGIC || data.get(ValueLayout.JAVA_INT, 4) != VERSION) {
+            throw new IllegalArgumentException("Not an off-heap graph segment");
+        }
+        this.arena = arena;
+        this.vertices = data.get(ValueLayout.JAVA_INT, 8);
+        this.edges = data.get(ValueLayout.JAVA_INT, 12);
+
+        long weightsStart = HEADER_BYTES;
+        long offsetsStart = weightsStart + (long) edges * Double.BYTES;
+        long targetsStart = offsetsStart + (long) (vertices + 1) * Integer.BYTES;
+        this.weights = data.asSlice(weightsStart, (long) edges * Double.BYTES);
+        this.offsets = data.asSlice(offsetsStart, (long) (vertices + 1) * Integer.BYTES);
+        this.targets = data.asSlice(targetsStart, (long) edges * Integer.BYTES);
+    }
+
+    public static OffHeapGraph copyOf(DirectedGraph source) {
+        Arena arena = Arena.ofShared();
+        try {
+            MemorySegment data = arena.allocate(byteSize(source), Double.BYTES);
+            write(source, data);
+            return new OffHeapGraph(arena, data);
+        } catch (RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    public static OffHeapGraph copyOf(DirectedGraph source, Path file) throws IOException {
+        Arena arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MemorySegment data = channel.map(FileChannel.MapMode.READ_WRITE, 0, byteSize(source), arena);
+            write(source, data);
+            data.force();
+            return new OffHeapGraph(arena, data);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    // The header is read and the file size checked against it before
+    // mapping, so a truncated file fails here rather than on first access.
+    public static OffHeapGraph open(Path file) throws IOException {
+        Arena arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate((int) HEADER_BYTES).order(ByteOrder.nativeOrder());
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) break;
+            }
+            if (header.hasRemaining()) {
+                throw new IOException(file + " is too short for an off-heap graph header");
+            }
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException(file + " is not an off-heap graph file");
+            }
+            long n = header.getInt(8);
+            long m = header.getInt(12);
+            if (n < 0 || m < 0) {
+                throw new IOException(file + " has a corrupt header: " + n + " vertices, " + m + " edges");
+            }
+            long expected = HEADER_BYTES + m * Double.BYTES + (n + 1) * Integer.BYTES + m * Integer.BYTES;
+            if (channel.size() < expected) {
+                throw new IOException(file + " is truncated: " + channel.size() + " bytes, expected "
+                        + expected + " for " + n + " vertices and " + m + " edges");
+            }
+            MemorySegment data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+            return new OffHeapGraph(arena, data);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    private static long byteSize(DirectedGraph source) {
+        long n = source.getVertices();
+        long m = source.countEdges();
+        return HEADER_BYTES + m * Double.BYTES + (n + 1) * Integer.BYTES + m * Integer.BYTES;
+    }
+
+    private static void write(DirectedGraph source, MemorySegment data) {
+        int n = source.getVertices();
+        int m = source.countEdges();
+        data.set(ValueLayout.JAVA_INT, 0, MAGIC);
+        data.set(ValueLayout.JAVA_INT, 4, VERSION);
+        data.set(ValueLayout.JAVA_INT, 8, n);
+        data.set(ValueLayout.JAVA_INT, 12, m);
+
+        long weightsStart = HEADER_BYTES;
+        long offsetsStart = weightsStart + (long) m * Double.BYTES;
+        long targetsStart = offsetsStart + (long) (n + 1) * Integer.BYTES;
+
+        int edge = 0;
+        for (int v = 0; v < n; v++) {
+            data.set(ValueLayout.JAVA_INT, offsetsStart + (long) v * Integer.BYTES, edge);
+            int degree = source.getOutDegree(v);
+            for (int i = 0; i < degree; i++) {
+                data.set(ValueLayout.JAVA_DOUBLE, weightsStart + (long) edge * Double.BYTES, source.getWeight(v, i));
+                data.set(ValueLayout.JAVA_INT, targetsStart + (long) edge * Integer.BYTES, source.getNeighbor(v, i));
+                edge++;
+            }
+        }
+        data.set(ValueLayout.JAVA_INT, offsetsStart + (long) n * Integer.BYTES, edge);
+    }
+
+    @Override
+    public int getVertices() {
+        return vertices;
+    }
+
+    @Override
+    public int countEdges() {
+        return edges;
+    }
+
+    @Override
+    public int getOutDegree(int vertex) {
+        return offsets.getAtIndex(ValueLayout.JAVA_INT, vertex + 1L)
+                - offsets.getAtIndex(ValueLayout.JAVA_INT, vertex);
+    }
+
+    @Override
+    public int getNeighbor(int vertex, int index) {
+        return targets.getAtIndex(ValueLayout.JAVA_INT, edgeIndex(vertex, index));
+    }
+
+    @Override
+    public double getWeight(int vertex, int index) {
+        return weights.getAtIndex(ValueLayout.JAVA_DOUBLE, edgeIndex(vertex, index));
+    }
+
+    private long edgeIndex(int vertex, int index) {
+        return (long) offsets.getAtIndex(ValueLayout.JAVA_INT, vertex) + index;
+    }
+
+    public long byteSize() {
+        return HEADER_BYTES + (long) edges * Double.BYTES + (vertices + 1L) * Integer.BYTES
+                + (long) edges * Integer.BYTES;
+    }
+
+    public boolean isOpen() {
+        return arena.scope().isAlive();
+    }
+
+    @Override
+    public void close() {
+        arena.close();
+    }
+}
@@ -0,0 +1,158 @@
+package com.rtyrrx.mst.common;
+
+import java.util.stream.IntStream;
+
+// Predecessor lists in CSR form, i.e. the transpose of a graph. As a
+// DirectedGraph it can be handed to any traversal to walk edges backwards.
+// Predecessors of a vertex are ordered by source vertex, then by the
+// position of the edge in the source's adjacency list, whether the index
+// was built sequentially or in parallel.
+public final class ReverseAdjacency implements DirectedGraph {
+    // Below this many edges the per-chunk count arrays cost more than the
+    // parallel passes save.
+    private static final int PARALLEL_THRESHOLD = 1 << 20;
+
+    private final int[] offsets;
+    private final int[] sources;
+    private final double[] weights;
+
+    private ReverseAdjacency(int[] offsets, int[] sources, double[] weights) {
+        this.offsets = offsets;
+        this.sources = sources;
+        this.weights = weights;
+    }
+
+    // Graph keeps its index cached until the next mutation; other layouts
+    // get a fresh one.
+    public static ReverseAdjacency of(DirectedGraph graph) {
+        return graph instanceof Graph cached ? cached.getReverseAdjacency() : build(graph);
+    }
+
+    public static ReverseAdjacency build(DirectedGraph graph) {
+        int chunks = graph.countEdges() < PARALLEL_THRESHOLD ? 1 : Runtime.getRuntime().availableProcessors();
+        return build(graph, chunks);
+    }
+
+    static ReverseAdjacency build(DirectedGraph graph, int requestedChunks) {
+        int n = graph.getVertices();
+        int edges = graph.countEdges();
+        // Each chunk holds an int[n] of counts; at most one chunk per n edges
+        // keeps them within the size of the index being built, which matters
+        // as the index is rebuilt after every mutation of a Graph.
+        int chunks = Math.max(1, Math.min(Math.min(n, requestedChunks), edges / Math.max(1, n)));
+
+        // Counting pass: every chunk of source vertices counts its own edges
+        // per target, so chunks never write to shared counters.
+        int[][] counts = new int[chunks][n];
+        forEachChunk(chunks, n, (chunk, from, to) -> {
+            int[] count = counts[chunk];
+            EdgeCursor cursor = graph.cursor();
+            for (int u = from; u < to; u++) {
+                cursor.reset(u);
+                while (cursor.next()) {
+                    count[cursor.target()]++;
+                }
+            }
+        });
+
+        // Turn the counts into each chunk's first slot per target; chunks of
+        // lower source vertices come first.
+        int[] offsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            int slot = offsets[v];
+            for (int c = 0; c < chunks; c++) {
+                int count = counts[c][v];
+                counts[c][v] = slot;
+                slot += count;
+            }
+            offsets[v + 1] = slot;
+        }
+
+        int[] sources = new int[edges];
+        double[] weights = new double[edges];
+        forEachChunk(chunks, n, (chunk, from, to) -> {
+            int[] next = counts[chunk];
+            EdgeCursor cursor = graph.cursor();
+            for (int u = from; u < to; u++) {
+                cursor.reset(u);
+                while (cursor.next()) {
+                    int slot = next[cursor.target()]++;
+                    sources[slot] = u;
+                    weights[slot] = cursor.weight();
+                }
+            }
+        });
+        return new ReverseAdjacency(offsets, sources, weights);
+    }
+
+    // In-degrees alone need only the counting pass.
+    public static int[] countInDegrees(DirectedGraph graph) {
+        int[] inDegrees = new int[graph.getVertices()];
+        EdgeCursor cursor = graph.cursor();
+        for (int u = 0; u < inDegrees.length; u++) {
+            cursor.reset(u);
+            while (cursor.next()) {
+                inDegrees[cursor.target()]++;
+            }
+        }
+        return inDegrees;
+    }
+
+    private interface ChunkTask {
+        void run(int chunk, int from, int to);
+    }
+
+    private static void forEachChunk(int chunks, int n, ChunkTask task) {
+        if (chunks == 1) {
+            task.run(0, 0, n);
+            return;
+        }
+        IntStream.range(0, chunks).parallel().forEach(c ->
+                task.run(c, (int) ((long) n * c / chunks), (int) ((long) n * (c + 1) / chunks)));
+    }
+
+    public int getInDegree(int vertex) {
+        return offsets[vertex + 1] - offsets[vertex];
+    }
+
+    public int getPredecessor(int vertex, int index) {
+        return sources[offsets[vertex] + index];
+    }
+
+    public double getPredecessorWeight(int vertex, int index) {
+        return weights[offsets[vertex] + index];
+    }
+
+    public int[] inDegrees() {
+        int[] result = new int[offsets.length - 1];
+        for (int v = 0; v < result.length; v++) {
+            result[v] = offsets[v + 1] - offsets[v];
+        }
+        return result;
+    }
+
+    @Override
+    public int getVertices() {
+        return offsets.length - 1;
+    }
+
+    @Override
+    public int countEdges() {
+        return sources.length;
+    }
+
+    @Override
+    public int getOutDegree(int vertex) {
+        return getInDegree(vertex);
+    }
+
+    @Override
+    public int getNeighbor(int vertex, int index) {
+        return getPredecessor(vertex, index);
+    }
+
+    @Override
+    public double getWeight(int vertex, int index) {
+        return getPredecessorWeight(vertex, index);
+    }
+}
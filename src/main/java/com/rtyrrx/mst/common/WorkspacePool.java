@@ -0,0 +1,61 @@
+package com.rtyrrx.mst.common;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+// Thread-safe pool of per-call scratch space for the stateless engines.
+// Workspaces are sized by vertex count; one that is too small for the
+// requested graph is dropped and replaced by a larger one, so a pool that
+// serves graphs of similar size stops allocating after warmup.
+public class WorkspacePool<W> {
+    private final IntFunction<W> factory;
+    private final ToIntFunction<W> capacity;
+    private final int maxIdle;
+    private final ConcurrentLinkedQueue<W> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final AtomicLong created = new AtomicLong();
+
+    public WorkspacePool(IntFunction<W> factory, ToIntFunction<W> capacity) {
+        this(factory, capacity, Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    public WorkspacePool(IntFunction<W> factory, ToIntFunction<W> capacity, int maxIdle) {
+        if (maxIdle < 0) {
+            throw new IllegalArgumentException("Idle workspace limit must not be negative");
+        }
+        this.factory = factory;
+        this.capacity = capacity;
+        this.maxIdle = maxIdle;
+    }
+
+    public W acquire(int vertices) {
+        W workspace = idle.poll();
+        if (workspace != null) {
+            idleCount.decrementAndGet();
+            if (capacity.applyAsInt(workspace) >= vertices) {
+                return workspace;
+            }
+        }
+        created.incrementAndGet();
+        return factory.apply(vertices);
+    }
+
+    public void release(W workspace) {
+        if (idleCount.incrementAndGet() <= maxIdle) {
+            idle.offer(workspace);
+        } else {
+            idleCount.decrementAndGet();
+        }
+    }
+
+    public long createdCount() {
+        return created.get();
+    }
+
+    public int idleCount() {
+        return idleCount.get();
+    }
+}
@@ -0,0 +1,39 @@
+package com.rtyrrx.mst.data;
+
+// Streaming 64-bit hash over primitive values. Each value is folded in with
+// a multiply-rotate step and the state is finished with the SplitMix64
+// mixer, which is plenty for keying cached results of the same dataset.
+public class ContentHash {
+    private static final long MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private long state = 0x243F6A8885A308D3L;
+    private long length;
+
+    public void add(long value) {
+        state = Long.rotateLeft(state ^ (value * MULTIPLIER), 27) * 0xC2B2AE3D27D4EB4FL;
+        length++;
+    }
+
+    public void add(double value) {
+        // Normalise -0.0 and NaN payloads so equal values hash equally.
+        add(Double.doubleToLongBits(value == 0.0 ? 0.0 : value));
+    }
+
+    public void add(String value) {
+        if (value == null) {
+            add(-1L);
+            return;
+        }
+        add(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            add(value.charAt(i));
+        }
+    }
+
+    public long value() {
+        long h = state ^ length;
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+}
@@ -0,0 +1,227 @@
+package com.rtyrrx.mst.data;
+
+import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.common.Metrics;
+import com.rtyrrx.mst.common.MetricsImpl;
+
+import java.util.*;
+
+// Applies a GraphDelta to a loaded graph in place. The delta is checked
+// against the graph first, so a bad delta leaves the graph untouched.
+// Removed tasks are compacted away, shifting later vertex ids down, and
+// added tasks are appended, so the graph is numbered exactly as a snapshot
+// of the result would be. The task list of the TaskGraph is renumbered the
+// same way, keeping per-task data such as durations aligned with vertices,
+// and its dependency list is edited to match the graph.
+public class DeltaApplier {
+    private final Graph graph;
+    private final TaskGraph taskGraph;
+    private final Metrics metrics;
+
+    public DeltaApplier(Graph graph, TaskGraph taskGraph) {
+        if (taskGraph.getTasks().size() != graph.getVertices()) {
+            throw new IllegalArgumentException("Task list must line up with the graph's vertices");
+        }
+        this.graph = graph;
+        this.taskGraph = taskGraph;
+        this.metrics = new MetricsImpl("delta_applier");
+    }
+
+    public AppliedDelta apply(GraphDelta delta) {
+        metrics.reset();
+        metrics.startTiming();
+        validate(delta);
+
+        for (TaskGraph.Dependency dep : delta.getRemovedDependencies()) {
+            graph.removeEdge(graph.getVertex(dep.getFrom()), graph.getVertex(dep.getTo()));
+        }
+
+        List<Integer> removedVertices = new ArrayList<>(delta.getRemovedTasks().size());
+        for (String taskId : delta.getRemovedTasks()) {
+            removedVertices.add(graph.getVertex(taskId));
+        }
+        if (!removedVertices.isEmpty()) {
+            graph.removeVertices(removedVertices);
+            int[] remap = graph.compactVertices();
+            List<TaskGraph.Task> tasks = taskGraph.getTasks();
+            List<TaskGraph.Task> kept = new ArrayList<>(graph.getVertices());
+            for (int v = 0; v < remap.length; v++) {
+                if (remap[v] >= 0) kept.add(tasks.get(v));
+            }
+            tasks.clear();
+            tasks.addAll(kept);
+        }
+
+        for (TaskGraph.Task task : delta.getAddedTasks()) {
+            int v = graph.addVertex();
+            graph.mapTaskToVertex(task.getId(), v);
+            taskGraph.getTasks().add(task);
+        }
+
+        for (TaskGraph.Dependency dep : delta.getAddedDependencies()) {
+            graph.addEdge(graph.getVertex(dep.getFrom()), graph.getVertex(dep.getTo()), dep.getWeight());
+        }
+        for (TaskGraph.Dependency dep : delta.getWeightChanges()) {
+            graph.setEdgeWeight(graph.getVertex(dep.getFrom()), graph.getVertex(dep.getTo()), dep.getWeight());
+        }
+
+        updateDependencies(delta);
+        graph.setContentHash(hash(graph.getContentHash(), delta));
+
+        AppliedDelta applied = new AppliedDelta(delta.getAddedTasks().size(), removedVertices.size(),
+                delta.getAddedDependencies().size(), delta.getRemovedDependencies().size(),
+                delta.getWeightChanges().size());
+        metrics.incrementCounter("tasks_added", applied.tasksAdded());
+        metrics.incrementCounter("tasks_removed", applied.tasksRemoved());
+        metrics.incrementCounter("dependencies_added", applied.dependenciesAdded());
+        metrics.incrementCounter("dependencies_removed", applied.dependenciesRemoved());
+        metrics.incrementCounter("weights_changed", applied.weightsChanged());
+        metrics.stopTiming();
+        return applied;
+    }
+
+    // Leaves the list as a snapshot of the result would have it. Edges of a
+    // source keep the order of its dependencies, so the first matching
+    // dependency is the edge removeEdge and setEdgeWeight picked.
+    private void updateDependencies(GraphDelta delta) {
+        Set<String> removedTasks = new HashSet<>(delta.getRemovedTasks());
+        Set<String> removedEdges = new HashSet<>();
+        for (TaskGraph.Dependency dep : delta.getRemovedDependencies()) {
+            removedEdges.add(edgeKey(dep));
+        }
+        List<TaskGraph.Dependency> dependencies = taskGraph.getDependencies();
+        List<TaskGraph.Dependency> kept = new ArrayList<>(dependencies.size() + delta.getAddedDependencies().size());
+        for (TaskGraph.Dependency dep : dependencies) {
+            if (removedTasks.contains(dep.getFrom()) || removedTasks.contains(dep.getTo())) continue;
+            if (removedEdges.remove(edgeKey(dep))) continue;
+            kept.add(dep);
+        }
+        kept.addAll(delta.getAddedDependencies());
+
+        // A later change of the same dependency wins, as in the graph.
+        Map<String, TaskGraph.Dependency> changes = new HashMap<>();
+        for (TaskGraph.Dependency dep : delta.getWeightChanges()) {
+            changes.put(edgeKey(dep), dep);
+        }
+        for (int i = 0; i < kept.size() && !changes.isEmpty(); i++) {
+            TaskGraph.Dependency dep = kept.get(i);
+            TaskGraph.Dependency change = changes.remove(edgeKey(dep));
+            if (change != null) {
+                kept.set(i, new TaskGraph.Dependency(dep.getFrom(), dep.getTo(), change.getWeight()));
+            }
+        }
+        dependencies.clear();
+        dependencies.addAll(kept);
+    }
+
+    private void validate(GraphDelta delta) {
+        Set<String> removed = new HashSet<>();
+        for (String taskId : delta.getRemovedTasks()) {
+            if (graph.getVertex(taskId) == null) {
+                throw new IllegalArgumentException("Cannot remove unknown task " + taskId);
+            }
+            if (!removed.add(taskId)) {
+                throw new IllegalArgumentException("Task " + taskId + " removed twice");
+            }
+        }
+        Set<String> added = new HashSet<>();
+        for (TaskGraph.Task task : delta.getAddedTasks()) {
+            boolean exists = graph.getVertex(task.getId()) != null && !removed.contains(task.getId());
+            if (task.getId() == null || exists || !added.add(task.getId())) {
+                throw new IllegalArgumentException("Cannot add task " + task.getId() + ": id already in use");
+            }
+        }
+
+        Set<String> removedEdges = new HashSet<>();
+        for (TaskGraph.Dependency dep : delta.getRemovedDependencies()) {
+            Integer from = graph.getVertex(dep.getFrom());
+            Integer to = graph.getVertex(dep.getTo());
+            if (from == null || to == null || !hasEdge(from, to)) {
+                throw new IllegalArgumentException("Cannot remove missing dependency " + describe(dep));
+            }
+            if (!removedEdges.add(edgeKey(dep))) {
+                throw new IllegalArgumentException("Dependency " + describe(dep) + " removed twice");
+            }
+        }
+        Set<String> addedEdges = new HashSet<>();
+        for (TaskGraph.Dependency dep : delta.getAddedDependencies()) {
+            requireTaskAfterDelta(dep.getFrom(), added, removed, dep);
+            requireTaskAfterDelta(dep.getTo(), added, removed, dep);
+            addedEdges.add(edgeKey(dep));
+        }
+        for (TaskGraph.Dependency dep : delta.getWeightChanges()) {
+            requireTaskAfterDelta(dep.getFrom(), added, removed, dep);
+            requireTaskAfterDelta(dep.getTo(), added, removed, dep);
+            // The graph is still the pre-delta one, so an edge this delta
+            // removes only counts if the delta also adds it back.
+            boolean existing = !added.contains(dep.getFrom()) && !added.contains(dep.getTo())
+                    && !removedEdges.contains(edgeKey(dep))
+                    && hasEdge(graph.getVertex(dep.getFrom()), graph.getVertex(dep.getTo()));
+            if (!existing && !addedEdges.contains(edgeKey(dep))) {
+                throw new IllegalArgumentException("Cannot change weight of missing dependency " + describe(dep));
+            }
+        }
+    }
+
+    private void requireTaskAfterDelta(String taskId, Set<String> added, Set<String> removed,
+                                       TaskGraph.Dependency dep) {
+        boolean present = added.contains(taskId) || (graph.getVertex(taskId) != null && !removed.contains(taskId));
+        if (!present) {
+            throw new IllegalArgumentException("Dependency " + describe(dep) + " refers to unknown task " + taskId);
+        }
+    }
+
+    private boolean hasEdge(int from, int to) {
+        int degree = graph.getOutDegree(from);
+        for (int i = 0; i < degree; i++) {
+            if (graph.getNeighbor(from, i) == to) return true;
+        }
+        return false;
+    }
+
+    private static String edgeKey(TaskGraph.Dependency dep) {
+        return dep.getFrom() + "\0" + dep.getTo();
+    }
+
+    private static String describe(TaskGraph.Dependency dep) {
+        return dep.getFrom() + " -> " + dep.getTo();
+    }
+
+    // Chained from the base snapshot's hash, so the same delta on the same
+    // snapshot yields the same cache key.
+    private static long hash(long baseHash, GraphDelta delta) {
+        ContentHash hash = new ContentHash();
+        hash.add(baseHash);
+        hash.add(delta.getRemovedDependencies().size());
+        for (TaskGraph.Dependency dep : delta.getRemovedDependencies()) {
+            hash.add(dep.getFrom());
+            hash.add(dep.getTo());
+        }
+        hash.add(delta.getRemovedTasks().size());
+        for (String taskId : delta.getRemovedTasks()) {
+            hash.add(taskId);
+        }
+        hash.add(delta.getAddedTasks().size());
+        for (TaskGraph.Task task : delta.getAddedTasks()) {
+            hash.add(task.getId());
+            hash.add(task.getDuration());
+        }
+        for (List<TaskGraph.Dependency> deps : List.of(delta.getAddedDependencies(), delta.getWeightChanges())) {
+            hash.add(deps.size());
+            for (TaskGraph.Dependency dep : deps) {
+                hash.add(dep.getFrom());
+                hash.add(dep.getTo());
+                hash.add(dep.getWeight());
+            }
+        }
+        return hash.value();
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public record AppliedDelta(int tasksAdded, int tasksRemoved, int dependenciesAdded,
+                               int dependenciesRemoved, int weightsChanged) {
+    }
+}
@@ -0,0 +1,83 @@
+package com.rtyrrx.mst.data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// An incremental change to a dataset, in the same JSON vocabulary as
+// TaskGraph. Removed dependencies match on from/to only; weight changes
+// carry the new weight of an existing dependency.
+public class GraphDelta {
+    private List<TaskGraph.Task> addedTasks;
+    private List<String> removedTasks;
+    private List<TaskGraph.Dependency> addedDependencies;
+    private List<TaskGraph.Dependency> removedDependencies;
+    private List<TaskGraph.Dependency> weightChanges;
+
+    public GraphDelta() {
+        this.addedTasks = new ArrayList<>();
+        this.removedTasks = new ArrayList<>();
+        this.addedDependencies = new ArrayList<>();
+        this.removedDependencies = new ArrayList<>();
+        this.weightChanges = new ArrayList<>();
+    }
+
+    public List<TaskGraph.Task> getAddedTasks() {
+        return addedTasks != null ? addedTasks : List.of();
+    }
+
+    public void setAddedTasks(List<TaskGraph.Task> addedTasks) {
+        this.addedTasks = addedTasks;
+    }
+
+    public List<String> getRemovedTasks() {
+        return removedTasks != null ? removedTasks : List.of();
+    }
+
+    public void setRemovedTasks(List<String> removedTasks) {
+        this.removedTasks = removedTasks;
+    }
+
+    public List<TaskGraph.Dependency> getAddedDependencies() {
+        return addedDependencies != null ? addedDependencies : List.of();
+    }
+
+    public void setAddedDependencies(List<TaskGraph.Dependency> addedDependencies) {
+        this.addedDependencies = addedDependencies;
+    }
+
+    public List<TaskGraph.Dependency> getRemovedDependencies() {
+        return removedDependencies != null ? removedDependencies : List.of();
+    }
+
+    public void setRemovedDependencies(List<TaskGraph.Dependency> removedDependencies) {
+        this.removedDependencies = removedDependencies;
+    }
+
+    public List<TaskGraph.Dependency> getWeightChanges() {
+        return weightChanges != null ? weightChanges : List.of();
+    }
+
+    public void setWeightChanges(List<TaskGraph.Dependency> weightChanges) {
+        this.weightChanges = weightChanges;
+    }
+
+    public void addTask(TaskGraph.Task task) {
+        this.addedTasks.add(task);
+    }
+
+    public void removeTask(String taskId) {
+        this.removedTasks.add(taskId);
+    }
+
+    public void addDependency(TaskGraph.Dependency dependency) {
+        this.addedDependencies.add(dependency);
+    }
+
+    public void removeDependency(String from, String to) {
+        this.removedDependencies.add(new TaskGraph.Dependency(from, to, 0.0));
+    }
+
+    public void changeWeight(String from, String to, double weight) {
+        this.weightChanges.add(new TaskGraph.Dependency(from, to, weight));
+    }
+}
@@ -2,6 +2,9 @@ package com.rtyrrx.mst.data;
 
 import com.google.gson.Gson;
 import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.common.GraphBuilder;
+import com.rtyrrx.mst.observability.GraphBuildEvent;
+import com.rtyrrx.mst.observability.GraphParseEvent;
 
 import java.io.FileReader;
 import java.io.IOException;
@@ -12,35 +15,69 @@ public class GraphLoader {
     private static final Gson gson = new Gson();
 
     public static Graph loadFromJson(String filename) throws IOException {
-        try (FileReader reader = new FileReader(filename)) {
-            TaskGraph taskGraph = gson.fromJson(reader, TaskGraph.class);
-            return convertToGraph(taskGraph);
-        }
+        return convertToGraph(loadTaskGraph(filename));
     }
 
     private static Graph convertToGraph(TaskGraph taskGraph) {
+        GraphBuildEvent event = new GraphBuildEvent();
+        event.begin();
         int numVertices = taskGraph.getTasks().size();
-        Graph graph = new Graph(numVertices);
+        GraphBuilder builder = new GraphBuilder(numVertices, taskGraph.getDependencies().size());
+
+        // Hashed while converting so a cached result can be looked up without
+        // a second pass; everything the analysis reads goes into the hash.
+        ContentHash hash = new ContentHash();
+        hash.add(numVertices);
 
         Map<String, Integer> taskIdMap = new HashMap<>();
         for (int i = 0; i < taskGraph.getTasks().size(); i++) {
             TaskGraph.Task task = taskGraph.getTasks().get(i);
             taskIdMap.put(task.getId(), i);
-            graph.mapTaskToVertex(task.getId(), i);
+            hash.add(task.getId());
+            hash.add(task.getDuration());
         }
 
+        hash.add(taskGraph.getDependencies().size());
         for (TaskGraph.Dependency dep : taskGraph.getDependencies()) {
             int from = taskIdMap.get(dep.getFrom());
             int to = taskIdMap.get(dep.getTo());
-            graph.addEdge(from, to, dep.getWeight());
+            builder.addEdge(from, to, dep.getWeight());
+            hash.add(from);
+            hash.add(to);
+            hash.add(dep.getWeight());
         }
 
+        Graph graph = builder.build();
+        for (int i = 0; i < numVertices; i++) {
+            graph.mapTaskToVertex(taskGraph.getTasks().get(i).getId(), i);
+        }
+        graph.setContentHash(hash.value());
+        if (event.shouldCommit()) {
+            event.vertices = numVertices;
+            event.edges = taskGraph.getDependencies().size();
+            event.commit();
+        }
         return graph;
     }
 
     public static TaskGraph loadTaskGraph(String filename) throws IOException {
+        GraphParseEvent event = new GraphParseEvent();
+        event.begin();
+        try (FileReader reader = new FileReader(filename)) {
+            TaskGraph taskGraph = gson.fromJson(reader, TaskGraph.class);
+            if (event.shouldCommit()) {
+                event.file = filename;
+                event.tasks = taskGraph.getTasks().size();
+                event.dependencies = taskGraph.getDependencies().size();
+                event.commit();
+            }
+            return taskGraph;
+        }
+    }
+
+    public static GraphDelta loadDelta(String filename) throws IOException {
         try (FileReader reader = new FileReader(filename)) {
-            return gson.fromJson(reader, TaskGraph.class);
+            return gson.fromJson(reader, GraphDelta.class);
         }
     }
 }
@@ -0,0 +1,420 @@
+package com.rtyrrx.mst.export;
+
+import com.rtyrrx.mst.cache.SchedulingResult;
+import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.common.Metrics;
+import com.rtyrrx.mst.common.MetricsImpl;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Writes a SchedulingResult to files instead of the console. Rows are
+// encoded straight from the primitive result arrays into one 1 MB buffer
+// per file that is drained to a FileChannel whenever it fills up, so no
+// per-row strings are built. Text formats write one file per table;
+// unreachable distances are empty (CSV) or null (JSON lines). The binary
+// format is a single columnar file:
+//   [magic, version, columns] then per column
+//   [name length, name bytes, type, count, values], little-endian.
+public class ResultExporter {
+    public static final String BINARY_FILE = "result.mstx";
+    private static final int MAGIC = 0x4D535843;
+    private static final int VERSION = 1;
+    private static final byte INT_COLUMN = 0;
+    private static final byte DOUBLE_COLUMN = 1;
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    public enum Format {CSV, JSONL, BINARY}
+
+    private final Graph graph;
+    private final Metrics metrics;
+
+    // The graph only supplies task ids for the component table; it may be null.
+    public ResultExporter(Graph graph) {
+        this.graph = graph;
+        this.metrics = new MetricsImpl("result_export");
+    }
+
+    public static Format parseFormat(String name) {
+        return switch (name.toLowerCase(Locale.ROOT)) {
+            case "csv" -> Format.CSV;
+            case "jsonl", "json" -> Format.JSONL;
+            case "binary", "bin" -> Format.BINARY;
+            default -> throw new IllegalArgumentException("Unknown export format: " + name);
+        };
+    }
+
+    public ExportSummary export(SchedulingResult result, Path directory, Format format) throws IOException {
+        Files.createDirectories(directory);
+        metrics.reset();
+        metrics.startTiming();
+        try {
+            List<Path> files = new ArrayList<>();
+            long rows = 0;
+            long bytes = 0;
+            if (format == Format.BINARY) {
+                Path file = directory.resolve(BINARY_FILE);
+                Sink sink = new Sink(file);
+                try (sink) {
+                    writeColumns(result, sink);
+                }
+                bytes += sink.written();
+                files.add(file);
+                for (Table table : Table.values()) {
+                    rows += Math.max(0, table.rowCount(result));
+                }
+            } else {
+                String suffix = format == Format.CSV ? ".csv" : ".jsonl";
+                for (Table table : Table.values()) {
+                    if (table.rowCount(result) < 0) continue;
+                    Path file = directory.resolve(table.fileName + suffix);
+                    Sink sink = new Sink(file);
+                    try (sink) {
+                        rows += format == Format.CSV ? writeCsv(table, result, sink) : writeJsonLines(table, result, sink);
+                    }
+                    bytes += sink.written();
+                    files.add(file);
+                }
+            }
+            metrics.incrementCounter("rows_written", rows);
+            metrics.incrementCounter("bytes_written", bytes);
+            return new ExportSummary(files, rows, bytes);
+        } finally {
+            metrics.stopTiming();
+        }
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public record ExportSummary(List<Path> files, long rows, long bytes) {
+    }
+
+    // Columns come back in file order as int[] or double[].
+    public static Map<String, Object> readColumns(Path file) throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        if (data.remaining() < 12 || data.getInt() != MAGIC || data.getInt() != VERSION) {
+            throw new IOException("Not a columnar result file: " + file);
+        }
+        int columns = data.getInt();
+        Map<String, Object> result = new LinkedHashMap<>();
+        try {
+            for (int c = 0; c < columns; c++) {
+                byte[] name = new byte[data.get() & 0xFF];
+                data.get(name);
+                byte type = data.get();
+                int count = data.getInt();
+                int width = type == INT_COLUMN ? Integer.BYTES : Double.BYTES;
+                if (count < 0 || (long) count * width > data.remaining()) {
+                    throw new IOException("Corrupt column length " + count);
+                }
+                if (type == INT_COLUMN) {
+                    int[] values = new int[count];
+                    data.asIntBuffer().get(values);
+                    result.put(new String(name, StandardCharsets.US_ASCII), values);
+                } else if (type == DOUBLE_COLUMN) {
+                    double[] values = new double[count];
+                    data.asDoubleBuffer().get(values);
+                    result.put(new String(name, StandardCharsets.US_ASCII), values);
+                } else {
+                    throw new IOException("Unknown column type " + type);
+                }
+                data.position(data.position() + count * width);
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated columnar result file: " + file, e);
+        }
+        return result;
+    }
+
+    private enum Table {
+        COMPONENTS("components"),
+        TOPO_ORDER("topo_order"),
+        DISTANCES("distances"),
+        CRITICAL_PATH("critical_path");
+
+        final String fileName;
+
+        Table(String fileName) {
+            this.fileName = fileName;
+        }
+
+        // -1 when the result has nothing for this table.
+        int rowCount(SchedulingResult result) {
+            return switch (this) {
+                case COMPONENTS -> result.componentOf().length;
+                case TOPO_ORDER -> result.topoOrder().length;
+                case DISTANCES -> result.paths() == null ? -1 : result.paths().shortestDistances().length;
+                case CRITICAL_PATH -> result.paths() == null ? -1 : result.paths().criticalPath().length;
+            };
+        }
+    }
+
+    private long writeCsv(Table table, SchedulingResult result, Sink sink) throws IOException {
+        int rows = table.rowCount(result);
+        SchedulingResult.Paths paths = result.paths();
+        switch (table) {
+            case COMPONENTS -> {
+                sink.ascii("vertex,task,component\n");
+                int[] componentOf = result.componentOf();
+                for (int v = 0; v < rows; v++) {
+                    sink.integer(v).ascii(',');
+                    String task = taskId(v);
+                    if (task != null) {
+                        sink.csvString(task);
+                    }
+                    sink.ascii(',').integer(componentOf[v]).ascii('\n');
+                }
+            }
+            case TOPO_ORDER, CRITICAL_PATH -> {
+                int[] values = table == Table.TOPO_ORDER ? result.topoOrder() : paths.criticalPath();
+                sink.ascii("position,component\n");
+                for (int i = 0; i < rows; i++) {
+                    sink.integer(i).ascii(',').integer(values[i]).ascii('\n');
+                }
+            }
+            case DISTANCES -> {
+                double[] shortest = paths.shortestDistances();
+                double[] longest = paths.longestDistances();
+                int[] predecessors = paths.longestPredecessors();
+                sink.ascii("component,shortest,longest,predecessor\n");
+                for (int c = 0; c < rows; c++) {
+                    sink.integer(c).ascii(',');
+                    if (Double.isFinite(shortest[c])) sink.decimal(shortest[c]);
+                    sink.ascii(',');
+                    if (Double.isFinite(longest[c])) sink.decimal(longest[c]);
+                    sink.ascii(',').integer(predecessors[c]).ascii('\n');
+                }
+            }
+        }
+        return rows;
+    }
+
+    private long writeJsonLines(Table table, SchedulingResult result, Sink sink) throws IOException {
+        int rows = table.rowCount(result);
+        SchedulingResult.Paths paths = result.paths();
+        switch (table) {
+            case COMPONENTS -> {
+                int[] componentOf = result.componentOf();
+                for (int v = 0; v < rows; v++) {
+                    sink.ascii("{\"vertex\":").integer(v).ascii(",\"task\":");
+                    String task = taskId(v);
+                    if (task != null) {
+                        sink.jsonString(task);
+                    } else {
+                        sink.ascii("null");
+                    }
+                    sink.ascii(",\"component\":").integer(componentOf[v]).ascii("}\n");
+                }
+            }
+            case TOPO_ORDER, CRITICAL_PATH -> {
+                int[] values = table == Table.TOPO_ORDER ? result.topoOrder() : paths.criticalPath();
+                for (int i = 0; i < rows; i++) {
+                    sink.ascii("{\"position\":").integer(i).ascii(",\"component\":").integer(values[i]).ascii("}\n");
+                }
+            }
+            case DISTANCES -> {
+                double[] shortest = paths.shortestDistances();
+                double[] longest = paths.longestDistances();
+                int[] predecessors = paths.longestPredecessors();
+                for (int c = 0; c < rows; c++) {
+                    sink.ascii("{\"component\":").integer(c).ascii(",\"shortest\":").jsonNumber(shortest[c])
+                            .ascii(",\"longest\":").jsonNumber(longest[c])
+                            .ascii(",\"predecessor\":").integer(predecessors[c]).ascii("}\n");
+                }
+            }
+        }
+        return rows;
+    }
+
+    private void writeColumns(SchedulingResult result, Sink sink) throws IOException {
+        SchedulingResult.Paths paths = result.paths();
+        sink.binaryInt(MAGIC).binaryInt(VERSION).binaryInt(paths == null ? 2 : 6);
+        sink.column("component_of", result.componentOf());
+        sink.column("topo_order", result.topoOrder());
+        if (paths != null) {
+            sink.column("shortest", paths.shortestDistances());
+            sink.column("longest", paths.longestDistances());
+            sink.column("predecessor", paths.longestPredecessors());
+            sink.column("critical_path", paths.criticalPath());
+        }
+    }
+
+    private String taskId(int vertex) {
+        return graph != null && vertex < graph.getVertices() ? graph.getTaskId(vertex) : null;
+    }
+
+    private static final class Sink implements AutoCloseable {
+        private final FileChannel channel;
+        // Text is written into the backing array directly; the buffer view
+        // tracks the position and serves the bulk binary puts.
+        private final byte[] bytes = new byte[BUFFER_BYTES];
+        private final ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        private final byte[] digits = new byte[20];
+        private final StringBuilder text = new StringBuilder(32);
+        private long written;
+
+        Sink(Path file) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        }
+
+        long written() {
+            return written;
+        }
+
+        Sink ascii(char c) throws IOException {
+            ensure(1);
+            buffer.put((byte) c);
+            return this;
+        }
+
+        Sink ascii(CharSequence s) throws IOException {
+            int length = s.length();
+            ensure(length);
+            int p = buffer.position();
+            for (int i = 0; i < length; i++) {
+                bytes[p++] = (byte) s.charAt(i);
+            }
+            buffer.position(p);
+            return this;
+        }
+
+        Sink integer(int value) throws IOException {
+            long v = value;
+            boolean negative = v < 0;
+            if (negative) v = -v;
+            int i = digits.length;
+            do {
+                digits[--i] = (byte) ('0' + v % 10);
+                v /= 10;
+            } while (v != 0);
+            if (negative) digits[--i] = '-';
+            ensure(digits.length - i);
+            buffer.put(digits, i, digits.length - i);
+            return this;
+        }
+
+        // Integral values are the common case for durations and lags.
+        Sink decimal(double value) throws IOException {
+            if (value == Math.rint(value) && Math.abs(value) < 1e9) {
+                return integer((int) value);
+            }
+            text.setLength(0);
+            return ascii(text.append(value));
+        }
+
+        Sink jsonNumber(double value) throws IOException {
+            return Double.isFinite(value) ? decimal(value) : ascii("null");
+        }
+
+        Sink csvString(String value) throws IOException {
+            boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            if (!quote) {
+                return utf8(value);
+            }
+            return ascii('"').utf8(value.replace("\"", "\"\"")).ascii('"');
+        }
+
+        // Runs between escapes are encoded in one call, so a surrogate pair
+        // is never split.
+        Sink jsonString(String value) throws IOException {
+            ascii('"');
+            int run = 0;
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c != '"' && c != '\\' && c >= 0x20) continue;
+                if (run < i) utf8(value.substring(run, i));
+                if (c < 0x20) {
+                    ascii(String.format("\\u%04x", (int) c));
+                } else {
+                    ascii('\\').ascii(c);
+                }
+                run = i + 1;
+            }
+            if (run < value.length()) utf8(run == 0 ? value : value.substring(run));
+            return ascii('"');
+        }
+
+        Sink utf8(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            for (int from = 0; from < bytes.length; from += BUFFER_BYTES) {
+                int length = Math.min(BUFFER_BYTES, bytes.length - from);
+                ensure(length);
+                buffer.put(bytes, from, length);
+            }
+            return this;
+        }
+
+        Sink binaryInt(int value) throws IOException {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+            return this;
+        }
+
+        void column(String name, int[] values) throws IOException {
+            columnHeader(name, INT_COLUMN, values.length);
+            for (int from = 0; from < values.length; ) {
+                ensure(Integer.BYTES);
+                int count = Math.min(values.length - from, buffer.remaining() / Integer.BYTES);
+                buffer.asIntBuffer().put(values, from, count);
+                buffer.position(buffer.position() + count * Integer.BYTES);
+                from += count;
+            }
+        }
+
+        void column(String name, double[] values) throws IOException {
+            columnHeader(name, DOUBLE_COLUMN, values.length);
+            for (int from = 0; from < values.length; ) {
+                ensure(Double.BYTES);
+                int count = Math.min(values.length - from, buffer.remaining() / Double.BYTES);
+                buffer.asDoubleBuffer().put(values, from, count);
+                buffer.position(buffer.position() + count * Double.BYTES);
+                from += count;
+            }
+        }
+
+        private void columnHeader(String name, byte type, int count) throws IOException {
+            byte[] bytes = name.getBytes(StandardCharsets.US_ASCII);
+            ensure(bytes.length + 6);
+            buffer.put((byte) bytes.length).put(bytes).put(type).putInt(count);
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                drain();
+            }
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                written += channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                drain();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.rtyrrx.mst.graph.cpm;
+
+import com.rtyrrx.mst.common.DirectedGraph;
+import com.rtyrrx.mst.common.Metrics;
+import com.rtyrrx.mst.common.MetricsImpl;
+import com.rtyrrx.mst.data.TaskGraph;
+import com.rtyrrx.mst.graph.topo.TopologicalSort;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Full Critical Path Method over a DAG. Vertices are activities with a
+// duration, edge weights are finish-to-start lags. A virtual super-source
+// starts every activity no earlier than time 0 and a virtual super-sink
+// finishes every activity no later than the project duration, so any
+// number of start and end activities is supported. Both passes walk one
+// topological order and only use outgoing edges: the forward pass pushes
+// earliest starts to successors, the backward pass pulls latest finishes
+// from them in reverse order.
+public class CriticalPathMethod {
+    private static final double EPSILON = 1e-9;
+
+    private final DirectedGraph graph;
+    private final double[] durations;
+    private final Metrics metrics;
+
+    public CriticalPathMethod(DirectedGraph graph) {
+        this(graph, new double[graph.getVertices()]);
+    }
+
+    public CriticalPathMethod(DirectedGraph graph, double[] durations) {
+        if (durations.length != graph.getVertices()) {
+            throw new IllegalArgumentException("Expected one duration per vertex");
+        }
+        this.graph = graph;
+        this.durations = durations;
+        this.metrics = new MetricsImpl("critical_path_method");
+    }
+
+    // GraphLoader maps the i-th task to vertex i.
+    public static double[] taskDurations(TaskGraph taskGraph) {
+        List<TaskGraph.Task> tasks = taskGraph.getTasks();
+        double[] result = new double[tasks.size()];
+        for (int i = 0; i < tasks.size(); i++) {
+            result[i] = tasks.get(i).getDuration();
+        }
+        return result;
+    }
+
+    // Tasks of one strongly connected component run as a group, so a
+    // condensation vertex lasts as long as all of its tasks together.
+    public static double[] componentDurations(List<List<Integer>> components, double[] taskDurations) {
+        double[] result = new double[components.size()];
+        for (int c = 0; c < components.size(); c++) {
+            for (int task : components.get(c)) {
+                result[c] += taskDurations[task];
+            }
+        }
+        return result;
+    }
+
+    public CpmResult analyze() {
+        int[] order = new TopologicalSort(graph).sortToArray();
+        if (order == null) {
+            return null;
+        }
+        return analyze(order);
+    }
+
+    public CpmResult analyze(int[] topoOrder) {
+        int n = graph.getVertices();
+        if (topoOrder.length != n) {
+            throw new IllegalArgumentException("Topological order must cover every vertex");
+        }
+        double[] es = new double[n];
+        double[] ef = new double[n];
+        double[] ls = new double[n];
+        double[] lf = new double[n];
+        double[] totalFloat = new double[n];
+        double[] freeFloat = new double[n];
+
+        metrics.reset();
+        metrics.startTiming();
+
+        double projectDuration = 0.0;
+        long relaxations = 0;
+        for (int u : topoOrder) {
+            ef[u] = es[u] + durations[u];
+            if (ef[u] > projectDuration) {
+                projectDuration = ef[u];
+            }
+            int degree = graph.getOutDegree(u);
+            relaxations += degree;
+            for (int i = 0; i < degree; i++) {
+                int v = graph.getNeighbor(u, i);
+                double ready = ef[u] + graph.getWeight(u, i);
+                if (ready > es[v]) {
+                    es[v] = ready;
+                }
+            }
+        }
+
+        for (int k = n - 1; k >= 0; k--) {
+            int u = topoOrder[k];
+            double latestFinish = projectDuration;
+            double earliestSuccessor = projectDuration;
+            int degree = graph.getOutDegree(u);
+            relaxations += degree;
+            for (int i = 0; i < degree; i++) {
+                int v = graph.getNeighbor(u, i);
+                double lag = graph.getWeight(u, i);
+                latestFinish = Math.min(latestFinish, ls[v] - lag);
+                earliestSuccessor = Math.min(earliestSuccessor, es[v] - lag);
+            }
+            lf[u] = latestFinish;
+            ls[u] = latestFinish - durations[u];
+            totalFloat[u] = ls[u] - es[u];
+            freeFloat[u] = earliestSuccessor - ef[u];
+        }
+
+        metrics.incrementCounter("relaxations", relaxations);
+        metrics.stopTiming();
+        return new CpmResult(topoOrder, es, ef, ls, lf, totalFloat, freeFloat, projectDuration);
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public record CpmResult(int[] topoOrder, double[] earliestStart, double[] earliestFinish,
+                            double[] latestStart, double[] latestFinish,
+                            double[] totalFloat, double[] freeFloat, double projectDuration) {
+        public boolean isCritical(int vertex) {
+            return totalFloat[vertex] <= EPSILON * Math.max(1.0, Math.abs(projectDuration));
+        }
+
+        // Zero-float activities in topological order.
+        public int[] criticalActivities() {
+            int[] result = new int[topoOrder.length];
+            int count = 0;
+            for (int v : topoOrder) {
+                if (isCritical(v)) {
+                    result[count++] = v;
+                }
+            }
+            return Arrays.copyOf(result, count);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.rtyrrx.mst.graph.dagsp;
+
+import com.rtyrrx.mst.common.DirectedGraph;
+import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.common.Metrics;
+import com.rtyrrx.mst.common.MetricsImpl;
+import com.rtyrrx.mst.graph.topo.TopologicalSort;
+
+import java.util.Arrays;
+
+// Runs several DAG path computations over one topological order at once.
+// Distances are stored lane-interleaved (dist[vertex * lanes + lane]) so the
+// relaxation of one edge touches two contiguous blocks that the kernel can
+// process with SIMD instructions. Per-lane edge weights use the same layout
+// keyed by edge index, where edges are numbered vertex by vertex in
+// adjacency order.
+public class BatchedPaths {
+    private final DirectedGraph graph;
+    private final RelaxationKernel kernel;
+    private final Metrics metrics;
+    private int[] edgeStart;
+    private int edgeStartModCount;
+
+    public BatchedPaths(DirectedGraph graph) {
+        this(graph, RelaxationKernel.best());
+    }
+
+    public BatchedPaths(DirectedGraph graph, RelaxationKernel kernel) {
+        this.graph = graph;
+        this.kernel = kernel;
+        this.metrics = new MetricsImpl("batched_paths");
+    }
+
+    public BatchResult shortestFromSources(int[] sources) {
+        return run(sources, -1, null, sources.length, true);
+    }
+
+    public BatchResult longestFromSources(int[] sources) {
+        return run(sources, -1, null, sources.length, false);
+    }
+
+    public BatchResult shortestWithLaneWeights(int source, double[] laneWeights, int lanes) {
+        return run(null, source, laneWeights, lanes, true);
+    }
+
+    public BatchResult longestWithLaneWeights(int source, double[] laneWeights, int lanes) {
+        return run(null, source, laneWeights, lanes, false);
+    }
+
+    private BatchResult run(int[] sources, int source, double[] laneWeights, int lanes, boolean findShortest) {
+        int n = graph.getVertices();
+        if (laneWeights != null && laneWeights.length != (long) graph.countEdges() * lanes) {
+            throw new IllegalArgumentException("Expected " + lanes + " weights per edge");
+        }
+
+        metrics.reset();
+        metrics.startTiming();
+
+        int[] order = new TopologicalSort(graph).sortToArray();
+        if (order == null) {
+            metrics.stopTiming();
+            return null;
+        }
+
+        double[] dist = new double[n * lanes];
+        Arrays.fill(dist, findShortest ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY);
+        for (int l = 0; l < lanes; l++) {
+            int start = sources != null ? sources[l] : source;
+            dist[start * lanes + l] = 0;
+        }
+
+        // One loop per mode and weight layout, chosen once per call, so the
+        // edge loop hands every edge straight to the kernel.
+        if (laneWeights == null) {
+            if (findShortest) {
+                relaxMin(order, dist, lanes);
+            } else {
+                relaxMax(order, dist, lanes);
+            }
+        } else {
+            int[] starts = edgeStart();
+            if (findShortest) {
+                relaxMin(order, dist, lanes, laneWeights, starts);
+            } else {
+                relaxMax(order, dist, lanes, laneWeights, starts);
+            }
+        }
+
+        metrics.incrementCounter("relaxations", (long) graph.countEdges() * lanes);
+        metrics.stopTiming();
+        return new BatchResult(dist, lanes);
+    }
+
+    private void relaxMin(int[] order, double[] dist, int lanes) {
+        for (int u : order) {
+            int degree = graph.getOutDegree(u);
+            int from = u * lanes;
+            for (int i = 0; i < degree; i++) {
+                kernel.relaxMin(dist, from, graph.getNeighbor(u, i) * lanes, graph.getWeight(u, i), lanes);
+            }
+        }
+    }
+
+    private void relaxMax(int[] order, double[] dist, int lanes) {
+        for (int u : order) {
+            int degree = graph.getOutDegree(u);
+            int from = u * lanes;
+            for (int i = 0; i < degree; i++) {
+                kernel.relaxMax(dist, from, graph.getNeighbor(u, i) * lanes, graph.getWeight(u, i), lanes);
+            }
+        }
+    }
+
+    private void relaxMin(int[] order, double[] dist, int lanes, double[] laneWeights, int[] starts) {
+        for (int u : order) {
+            int degree = graph.getOutDegree(u);
+            int from = u * lanes;
+            int weightOffset = starts[u] * lanes;
+            for (int i = 0; i < degree; i++, weightOffset += lanes) {
+                kernel.relaxMin(dist, from, graph.getNeighbor(u, i) * lanes, laneWeights, weightOffset, lanes);
+            }
+        }
+    }
+
+    private void relaxMax(int[] order, double[] dist, int lanes, double[] laneWeights, int[] starts) {
+        for (int u : order) {
+            int degree = graph.getOutDegree(u);
+            int from = u * lanes;
+            int weightOffset = starts[u] * lanes;
+            for (int i = 0; i < degree; i++, weightOffset += lanes) {
+                kernel.relaxMax(dist, from, graph.getNeighbor(u, i) * lanes, laneWeights, weightOffset, lanes);
+            }
+        }
+    }
+
+    // First edge index of every vertex. A Graph keeps it until its next
+    // mutation; other layouts are rebuilt per call.
+    private int[] edgeStart() {
+        int modCount = graph instanceof Graph g ? g.getModCount() : -1;
+        if (edgeStart != null && modCount >= 0 && modCount == edgeStartModCount) {
+            return edgeStart;
+        }
+        int n = graph.getVertices();
+        int[] starts = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            starts[v + 1] = starts[v] + graph.getOutDegree(v);
+        }
+        edgeStart = starts;
+        edgeStartModCount = modCount;
+        return starts;
+    }
+
+    public RelaxationKernel getKernel() {
+        return kernel;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public record BatchResult(double[] distances, int lanes) {
+        public double distance(int vertex, int lane) {
+            return distances[vertex * lanes + lane];
+        }
+    }
+}
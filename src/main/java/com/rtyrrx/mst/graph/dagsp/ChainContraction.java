@@ -0,0 +1,278 @@
+package com.rtyrrx.mst.graph.dagsp;
+
+import com.rtyrrx.mst.common.DirectedGraph;
+import com.rtyrrx.mst.common.EdgeCursor;
+import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.common.Metrics;
+import com.rtyrrx.mst.common.MetricsImpl;
+import com.rtyrrx.mst.common.ReverseAdjacency;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Contracts maximal chains of vertices with exactly one predecessor and one
+// successor into single edges weighted with the chain's total. A chain
+// vertex is only reachable through its chain, so its distance is the
+// distance of the chain's head plus the weight up to it, and results on the
+// contracted graph expand back exactly. Two chains between the same pair of
+// vertices would make a contracted path ambiguous, so the second one keeps
+// its last vertex; the contracted graph never gains a parallel edge.
+public class ChainContraction {
+    private final int originalVertices;
+    private final int originalEdges;
+    private final Graph contracted;
+    private final int[] newToOld;
+    private final int[] oldToNew;
+    // Chain vertices: contracted index of the chain's head, the original
+    // vertex before them and the weight from the head up to and including
+    // the edge into the vertex.
+    private final int[] chainHead;
+    private final int[] chainPrevious;
+    private final double[] chainPrefix;
+    // Contracted edge e = edgeOffsets[u] + i carries the chain vertices
+    // chainVertices[chainStart[e] .. chainStart[e + 1]).
+    private final int[] edgeOffsets;
+    private final int[] chainStart;
+    private final int[] chainVertices;
+    private final Metrics metrics;
+
+    private ChainContraction(DirectedGraph graph, Graph contracted, int[] newToOld, int[] oldToNew,
+                             int[] chainHead, int[] chainPrevious, double[] chainPrefix,
+                             int[] edgeOffsets, int[] chainStart, int[] chainVertices, Metrics metrics) {
+        this.originalVertices = graph.getVertices();
+        this.originalEdges = graph.countEdges();
+        this.contracted = contracted;
+        this.newToOld = newToOld;
+        this.oldToNew = oldToNew;
+        this.chainHead = chainHead;
+        this.chainPrevious = chainPrevious;
+        this.chainPrefix = chainPrefix;
+        this.edgeOffsets = edgeOffsets;
+        this.chainStart = chainStart;
+        this.chainVertices = chainVertices;
+        this.metrics = metrics;
+    }
+
+    // Vertices in keep survive even when they sit inside a chain, e.g. the
+    // source of a later path query.
+    public static ChainContraction contract(DirectedGraph graph, int... keep) {
+        Metrics metrics = new MetricsImpl("chain_contraction");
+        metrics.startTiming();
+
+        int n = graph.getVertices();
+        int[] inDegree = graph instanceof Graph cached
+                ? cached.copyInDegrees()
+                : ReverseAdjacency.countInDegrees(graph);
+        boolean[] kept = new boolean[n];
+        for (int v = 0; v < n; v++) {
+            kept[v] = inDegree[v] != 1 || graph.getOutDegree(v) != 1;
+        }
+        for (int v : keep) {
+            if (v < 0 || v >= n) {
+                throw new IllegalArgumentException("Vertex " + v + " is out of range");
+            }
+            kept[v] = true;
+        }
+
+        // A cycle made only of chain vertices has no kept vertex to start
+        // from; its first unvisited vertex is kept instead.
+        boolean[] visited = new boolean[n];
+        int[] lastTarget = new int[n];
+        Arrays.fill(lastTarget, -1);
+        EdgeCursor edges = graph.cursor();
+        for (int u = 0; u < n; u++) {
+            if (kept[u]) {
+                splitParallelChains(graph, u, kept, visited, lastTarget, edges);
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            if (!kept[v] && !visited[v]) {
+                kept[v] = true;
+                splitParallelChains(graph, v, kept, visited, lastTarget, edges);
+            }
+        }
+
+        int k = 0;
+        int[] oldToNew = new int[n];
+        for (int v = 0; v < n; v++) {
+            oldToNew[v] = kept[v] ? k++ : -1;
+        }
+        int[] newToOld = new int[k];
+        for (int v = 0; v < n; v++) {
+            if (kept[v]) newToOld[oldToNew[v]] = v;
+        }
+
+        Graph contracted = new Graph(k);
+        int[] chainHead = new int[n];
+        int[] chainPrevious = new int[n];
+        double[] chainPrefix = new double[n];
+        Arrays.fill(chainHead, -1);
+        int[] edgeOffsets = new int[k + 1];
+        int[] chainStart = new int[graph.countEdges() + 1];
+        int[] chainVertices = new int[n - k];
+        int edgeCount = 0;
+        int chainLength = 0;
+        for (int u = 0; u < k; u++) {
+            int original = newToOld[u];
+            String taskId = graph instanceof Graph g ? g.getTaskId(original) : null;
+            if (taskId != null) {
+                contracted.mapTaskToVertex(taskId, u);
+            }
+            edgeOffsets[u] = edgeCount;
+            int degree = graph.getOutDegree(original);
+            for (int i = 0; i < degree; i++) {
+                chainStart[edgeCount] = chainLength;
+                double weight = graph.getWeight(original, i);
+                int previous = original;
+                int v = graph.getNeighbor(original, i);
+                while (!kept[v]) {
+                    chainHead[v] = u;
+                    chainPrevious[v] = previous;
+                    chainPrefix[v] = weight;
+                    chainVertices[chainLength++] = v;
+                    weight += graph.getWeight(v, 0);
+                    previous = v;
+                    v = graph.getNeighbor(v, 0);
+                }
+                contracted.addEdge(u, oldToNew[v], weight);
+                edgeCount++;
+            }
+        }
+        edgeOffsets[k] = edgeCount;
+        chainStart[edgeCount] = chainLength;
+
+        metrics.incrementCounter("vertices_removed", n - k);
+        metrics.incrementCounter("edges_removed", graph.countEdges() - edgeCount);
+        metrics.stopTiming();
+        return new ChainContraction(graph, contracted, newToOld, oldToNew, chainHead, chainPrevious, chainPrefix,
+                edgeOffsets, Arrays.copyOf(chainStart, edgeCount + 1), chainVertices, metrics);
+    }
+
+    // Walks every chain leaving u; a chain that ends where an earlier edge
+    // of u already ends keeps its last vertex, which then starts a
+    // one-edge chain of its own.
+    private static void splitParallelChains(DirectedGraph graph, int u, boolean[] kept, boolean[] visited,
+                                            int[] lastTarget, EdgeCursor edges) {
+        edges.reset(u);
+        while (edges.next()) {
+            int v = edges.target();
+            if (kept[v]) {
+                lastTarget[v] = u;
+            }
+        }
+        edges.reset(u);
+        while (edges.next()) {
+            int v = edges.target();
+            if (kept[v]) continue;
+            int last = -1;
+            while (!kept[v]) {
+                visited[v] = true;
+                last = v;
+                v = graph.getNeighbor(v, 0);
+            }
+            if (lastTarget[v] == u) {
+                kept[last] = true;
+            } else {
+                lastTarget[v] = u;
+            }
+        }
+    }
+
+    public Graph graph() {
+        return contracted;
+    }
+
+    public int originalVertices() {
+        return originalVertices;
+    }
+
+    public int originalEdges() {
+        return originalEdges;
+    }
+
+    public int toOriginal(int contractedVertex) {
+        return newToOld[contractedVertex];
+    }
+
+    // -1 for a vertex that was folded into a chain.
+    public int toContracted(int originalVertex) {
+        return oldToNew[originalVertex];
+    }
+
+    // Distances or path values computed on the contracted graph, extended
+    // to every original vertex. Unreached heads leave their chains at the
+    // same sentinel.
+    public double[] expandDistances(double[] contractedDistances) {
+        double[] result = new double[originalVertices];
+        for (int v = 0; v < originalVertices; v++) {
+            if (oldToNew[v] >= 0) {
+                result[v] = contractedDistances[oldToNew[v]];
+            } else {
+                double head = contractedDistances[chainHead[v]];
+                result[v] = Double.isInfinite(head) ? head : head + chainPrefix[v];
+            }
+        }
+        return result;
+    }
+
+    // Predecessors on the original graph for a contracted shortest/longest
+    // path tree. Where a kept vertex has several contracted edges from its
+    // predecessor, the one whose weight accounts for the distance is used.
+    public int[] expandPredecessors(double[] contractedDistances, int[] contractedPredecessors) {
+        int[] result = new int[originalVertices];
+        for (int v = 0; v < originalVertices; v++) {
+            int w = oldToNew[v];
+            if (w < 0) {
+                result[v] = Double.isInfinite(contractedDistances[chainHead[v]]) ? -1 : chainPrevious[v];
+                continue;
+            }
+            int p = contractedPredecessors[w];
+            if (p < 0) {
+                result[v] = -1;
+                continue;
+            }
+            int edge = findEdge(p, w, contractedDistances);
+            result[v] = chainStart[edge + 1] > chainStart[edge]
+                    ? chainVertices[chainStart[edge + 1] - 1]
+                    : newToOld[p];
+        }
+        return result;
+    }
+
+    public List<Integer> expandPath(List<Integer> contractedPath) {
+        List<Integer> path = new ArrayList<>();
+        for (int j = 0; j < contractedPath.size(); j++) {
+            int w = contractedPath.get(j);
+            if (j > 0) {
+                int edge = findEdge(contractedPath.get(j - 1), w, null);
+                for (int c = chainStart[edge]; c < chainStart[edge + 1]; c++) {
+                    path.add(chainVertices[c]);
+                }
+            }
+            path.add(newToOld[w]);
+        }
+        return path;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    // Without distances the first edge from u to w is used, which is the
+    // only one unless the original graph already had parallel edges.
+    private int findEdge(int u, int w, double[] distances) {
+        int match = -1;
+        for (int i = 0; i < contracted.getOutDegree(u); i++) {
+            if (contracted.getNeighbor(u, i) != w) continue;
+            if (match < 0) match = edgeOffsets[u] + i;
+            if (distances != null && distances[u] + contracted.getWeight(u, i) == distances[w]) {
+                return edgeOffsets[u] + i;
+            }
+        }
+        if (match < 0) {
+            throw new IllegalArgumentException("No contracted edge " + u + " -> " + w);
+        }
+        return match;
+    }
+}
@@ -1,19 +1,20 @@
 package com.rtyrrx.mst.graph.dagsp;
 
-import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.common.DirectedGraph;
 import com.rtyrrx.mst.common.Metrics;
 import com.rtyrrx.mst.common.MetricsImpl;
 import com.rtyrrx.mst.graph.topo.TopologicalSort;
+import com.rtyrrx.mst.observability.PathRelaxationEvent;
 
 import java.util.*;
 
 public class DAGShortestPath {
-    private final Graph graph;
+    private final DirectedGraph graph;
     private final Metrics metrics;
 
-    public DAGShortestPath(Graph graph) {
+    public DAGShortestPath(DirectedGraph graph) {
         this.graph = graph;
-        this.metrics = new MetricsImpl();
+        this.metrics = new MetricsImpl("dag_paths");
     }
 
     public ShortestPathResult findShortestPaths(int source) {
@@ -39,45 +40,149 @@ public class DAGShortestPath {
         return new LongestPathResult(result.distances, result.predecessors, source, criticalPath, maxDist);
     }
 
+    public SemiringResult findPaths(int source, PathSemiring semiring) {
+        int n = graph.getVertices();
+        double[] values = new double[n];
+        int[] pred = new int[n];
+
+        double zero = semiring.zero();
+        Arrays.fill(values, zero);
+        Arrays.fill(pred, -1);
+        values[source] = semiring.one();
+
+        PathRelaxationEvent event = new PathRelaxationEvent();
+        event.begin();
+        metrics.reset();
+        metrics.startTiming();
+
+        int[] order = new TopologicalSort(graph).sortToArray();
+        if (order == null) {
+            metrics.stopTiming();
+            return null;
+        }
+
+        boolean selective = semiring.isSelective();
+        long relaxations = 0;
+        for (int k = indexOf(order, source); k < n; k++) {
+            int u = order[k];
+            double value = values[u];
+            if (value == zero) continue;
+
+            int degree = graph.getOutDegree(u);
+            relaxations += degree;
+            for (int i = 0; i < degree; i++) {
+                int v = graph.getNeighbor(u, i);
+                double current = values[v];
+                double combined = semiring.combine(current, semiring.extend(value, graph.getWeight(u, i)));
+                if (combined != current) {
+                    values[v] = combined;
+                    if (selective) {
+                        pred[v] = u;
+                    }
+                }
+            }
+        }
+
+        metrics.incrementCounter("relaxations", relaxations);
+        metrics.stopTiming();
+        commit(event, semiring.toString(), source, relaxations);
+        return new SemiringResult(values, pred, source);
+    }
+
+    // The min-plus and max-plus kernels are kept as separate loops so the
+    // comparison and sentinel are constants rather than a per-edge branch on
+    // the mode; which one runs is decided once per call.
     private PathResult computePaths(int source, boolean findShortest) {
         int n = graph.getVertices();
         double[] dist = new double[n];
         int[] pred = new int[n];
 
-        double initialValue = findShortest ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
-        Arrays.fill(dist, initialValue);
+        Arrays.fill(dist, findShortest ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY);
         Arrays.fill(pred, -1);
         dist[source] = 0;
 
+        PathRelaxationEvent event = new PathRelaxationEvent();
+        event.begin();
         metrics.reset();
         metrics.startTiming();
 
         TopologicalSort topoSort = new TopologicalSort(graph);
-        List<Integer> topoOrder = topoSort.sort();
+        int[] order = topoSort.sortToArray();
 
-        if (topoOrder == null) {
+        if (order == null) {
             metrics.stopTiming();
             return null;
         }
 
-        for (int u : topoOrder) {
-            if (dist[u] != initialValue) {
-                for (Graph.Edge edge : graph.getAdjacentEdges(u)) {
-                    metrics.incrementCounter("relaxations");
-                    int v = edge.destination;
-                    double newDist = dist[u] + edge.weight;
+        // Vertices ordered before the source cannot be reached from it.
+        int first = indexOf(order, source);
+        long relaxations = findShortest
+                ? relaxMinPlus(order, first, dist, pred)
+                : relaxMaxPlus(order, first, dist, pred);
 
-                    boolean shouldUpdate = findShortest ? (newDist < dist[v]) : (newDist > dist[v]);
-                    if (shouldUpdate) {
-                        dist[v] = newDist;
-                        pred[v] = u;
-                    }
+        metrics.incrementCounter("relaxations", relaxations);
+        metrics.stopTiming();
+        commit(event, findShortest ? "min-plus" : "max-plus", source, relaxations);
+        return new PathResult(dist, pred);
+    }
+
+    private void commit(PathRelaxationEvent event, String mode, int source, long relaxations) {
+        if (event.shouldCommit()) {
+            event.vertices = graph.getVertices();
+            event.mode = mode;
+            event.source = source;
+            event.relaxations = relaxations;
+            event.commit();
+        }
+    }
+
+    private long relaxMinPlus(int[] order, int first, double[] dist, int[] pred) {
+        long relaxations = 0;
+        for (int k = first; k < order.length; k++) {
+            int u = order[k];
+            double du = dist[u];
+            if (du == Double.POSITIVE_INFINITY) continue;
+
+            int degree = graph.getOutDegree(u);
+            relaxations += degree;
+            for (int i = 0; i < degree; i++) {
+                int v = graph.getNeighbor(u, i);
+                double newDist = du + graph.getWeight(u, i);
+                if (newDist < dist[v]) {
+                    dist[v] = newDist;
+                    pred[v] = u;
                 }
             }
         }
+        return relaxations;
+    }
 
-        metrics.stopTiming();
-        return new PathResult(dist, pred);
+    private long relaxMaxPlus(int[] order, int first, double[] dist, int[] pred) {
+        long relaxations = 0;
+        for (int k = first; k < order.length; k++) {
+            int u = order[k];
+            double du = dist[u];
+            if (du == Double.NEGATIVE_INFINITY) continue;
+
+            int degree = graph.getOutDegree(u);
+            relaxations += degree;
+            for (int i = 0; i < degree; i++) {
+                int v = graph.getNeighbor(u, i);
+                double newDist = du + graph.getWeight(u, i);
+                if (newDist > dist[v]) {
+                    dist[v] = newDist;
+                    pred[v] = u;
+                }
+            }
+        }
+        return relaxations;
+    }
+
+    private static int indexOf(int[] order, int vertex) {
+        for (int k = 0; k < order.length; k++) {
+            if (order[k] == vertex) return k;
+        }
+        return order.length;
     }
 
     private static List<Integer> reconstructPath(int[] pred, int source, int dest) {
@@ -111,6 +216,12 @@ public class DAGShortestPath {
         }
     }
 
+    public record SemiringResult(double[] values, int[] predecessors, int source) {
+        public List<Integer> getPathTo(int dest) {
+            return reconstructPath(predecessors, source, dest);
+        }
+    }
+
     public record LongestPathResult(double[] distances, int[] predecessors, int source,
                                      List<Integer> criticalPath, double criticalPathLength) {
     }
@@ -0,0 +1,69 @@
+package com.rtyrrx.mst.graph.dagsp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Read-only view of a path stored in a shared int array. The array belongs
+// to the cache that handed out the view, so it is never exposed; callers
+// get vertices one at a time or as copies.
+public final class IntPath {
+    public static final IntPath EMPTY = new IntPath(new int[0], 0, 0);
+
+    private final int[] data;
+    private final int offset;
+    private final int length;
+
+    IntPath(int[] data, int offset, int length) {
+        this.data = data;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    public int vertex(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return data[offset + index];
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOfRange(data, offset, offset + length);
+    }
+
+    public List<Integer> toList() {
+        List<Integer> path = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            path.add(data[offset + i]);
+        }
+        return path;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof IntPath other && Arrays.equals(data, offset, offset + length,
+                other.data, other.offset, other.offset + other.length);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + data[i];
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return toList().toString();
+    }
+}
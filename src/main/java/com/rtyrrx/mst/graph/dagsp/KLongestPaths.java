@@ -0,0 +1,217 @@
+package com.rtyrrx.mst.graph.dagsp;
+
+import com.rtyrrx.mst.common.DirectedGraph;
+import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.common.Metrics;
+import com.rtyrrx.mst.common.MetricsImpl;
+import com.rtyrrx.mst.common.ReverseAdjacency;
+
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Enumerates source-to-sink paths of a DAG in descending length. The search
+// grows path suffixes backwards from the sinks and orders them by
+// forward distance + suffix length; since the forward longest distances are
+// exact, the best partial suffix always completes to the next longest path,
+// so paths are produced lazily without a separate deviation step.
+public class KLongestPaths {
+    private final DirectedGraph graph;
+    private final Metrics metrics;
+    private ReverseAdjacency predecessors;
+
+    public KLongestPaths(DirectedGraph graph) {
+        this.graph = graph;
+        this.metrics = new MetricsImpl("k_longest_paths");
+    }
+
+    public List<RankedPath> findKLongestPaths(int source, int k) {
+        DAGShortestPath.LongestPathResult forward = new DAGShortestPath(graph).findLongestPath(source);
+        if (forward == null) return null;
+        return stream(forward).limit(k).toList();
+    }
+
+    public Stream<RankedPath> stream(DAGShortestPath.LongestPathResult forward) {
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(iterator(forward), Spliterator.ORDERED | Spliterator.NONNULL),
+                false);
+    }
+
+    public Stream<RankedPath> stream(DAGShortestPath.LongestPathResult forward, int target) {
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(iterator(forward, target), Spliterator.ORDERED | Spliterator.NONNULL),
+                false);
+    }
+
+    public Iterator<RankedPath> iterator(DAGShortestPath.LongestPathResult forward) {
+        double[] dist = forward.distances();
+        List<Integer> sinks = new ArrayList<>();
+        for (int v = 0; v < graph.getVertices(); v++) {
+            if (dist[v] != Double.NEGATIVE_INFINITY && graph.getOutDegree(v) == 0) {
+                sinks.add(v);
+            }
+        }
+        return new PathIterator(forward, sinks);
+    }
+
+    public Iterator<RankedPath> iterator(DAGShortestPath.LongestPathResult forward, int target) {
+        if (forward.distances()[target] == Double.NEGATIVE_INFINITY) {
+            return Collections.emptyIterator();
+        }
+        return new PathIterator(forward, List.of(target));
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public record RankedPath(List<Integer> vertices, double length) {
+    }
+
+    private final class PathIterator implements Iterator<RankedPath> {
+        private final double[] dist;
+        private final int source;
+        // Partial suffixes form a forest: each node points to the node that
+        // continues it towards the sink, so suffixes share storage.
+        private int[] nodeVertex = new int[64];
+        private int[] nodeNext = new int[64];
+        private double[] nodeSuffix = new double[64];
+        private int nodeCount;
+        private final MaxHeap heap = new MaxHeap();
+        private RankedPath next;
+
+        PathIterator(DAGShortestPath.LongestPathResult forward, List<Integer> ends) {
+            // A Graph returns its cached index, rebuilt only after a change.
+            if (predecessors == null || graph instanceof Graph) {
+                predecessors = ReverseAdjacency.of(graph);
+            }
+            this.dist = forward.distances();
+            this.source = forward.source();
+            metrics.reset();
+            for (int end : ends) {
+                push(end, -1, 0.0);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                next = advance();
+            }
+            return next != null;
+        }
+
+        @Override
+        public RankedPath next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            RankedPath result = next;
+            next = null;
+            return result;
+        }
+
+        private RankedPath advance() {
+            metrics.startTiming();
+            try {
+                while (!heap.isEmpty()) {
+                    int node = heap.pop();
+                    metrics.incrementCounter("heap_pops");
+                    int v = nodeVertex[node];
+                    if (v == source) {
+                        return materialize(node);
+                    }
+                    int inDegree = predecessors.getInDegree(v);
+                    for (int j = 0; j < inDegree; j++) {
+                        int u = predecessors.getPredecessor(v, j);
+                        if (dist[u] != Double.NEGATIVE_INFINITY) {
+                            push(u, node, nodeSuffix[node] + predecessors.getPredecessorWeight(v, j));
+                        }
+                    }
+                }
+                return null;
+            } finally {
+                metrics.stopTiming();
+            }
+        }
+
+        private void push(int vertex, int nextNode, double suffix) {
+            if (nodeCount == nodeVertex.length) {
+                int capacity = nodeCount * 2;
+                nodeVertex = Arrays.copyOf(nodeVertex, capacity);
+                nodeNext = Arrays.copyOf(nodeNext, capacity);
+                nodeSuffix = Arrays.copyOf(nodeSuffix, capacity);
+            }
+            int node = nodeCount++;
+            nodeVertex[node] = vertex;
+            nodeNext[node] = nextNode;
+            nodeSuffix[node] = suffix;
+            heap.push(node, dist[vertex] + suffix);
+            metrics.incrementCounter("heap_pushes");
+        }
+
+        private RankedPath materialize(int node) {
+            List<Integer> path = new ArrayList<>();
+            for (int current = node; current != -1; current = nodeNext[current]) {
+                path.add(nodeVertex[current]);
+            }
+            return new RankedPath(path, nodeSuffix[node]);
+        }
+    }
+
+    // Ties go to the newest node, i.e. the latest extension of the suffix
+    // just popped, so equally long suffixes are completed depth-first; with
+    // many tied paths a FIFO order would widen the search exponentially.
+    private static final class MaxHeap {
+        private int[] items = new int[64];
+        private double[] keys = new double[64];
+        private int size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void push(int item, double key) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!above(key, item, keys[parent], items[parent])) break;
+                items[i] = items[parent];
+                keys[i] = keys[parent];
+                i = parent;
+            }
+            items[i] = item;
+            keys[i] = key;
+        }
+
+        int pop() {
+            int top = items[0];
+            size--;
+            if (size > 0) {
+                int item = items[size];
+                double key = keys[size];
+                int i = 0;
+                while (true) {
+                    int child = 2 * i + 1;
+                    if (child >= size) break;
+                    if (child + 1 < size && above(keys[child + 1], items[child + 1], keys[child], items[child])) child++;
+                    if (!above(keys[child], items[child], key, item)) break;
+                    items[i] = items[child];
+                    keys[i] = keys[child];
+                    i = child;
+                }
+                items[i] = item;
+                keys[i] = key;
+            }
+            return top;
+        }
+
+        private static boolean above(double key, int item, double otherKey, int otherItem) {
+            return key > otherKey || (key == otherKey && item > otherItem);
+        }
+    }
+}
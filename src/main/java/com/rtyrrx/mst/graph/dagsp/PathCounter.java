@@ -0,0 +1,194 @@
+package com.rtyrrx.mst.graph.dagsp;
+
+import com.rtyrrx.mst.common.DirectedGraph;
+import com.rtyrrx.mst.common.Metrics;
+import com.rtyrrx.mst.common.MetricsImpl;
+import com.rtyrrx.mst.graph.topo.TopologicalSort;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+// Counts paths alongside distances in the same pass over the topological
+// order. Counts are kept in long arrays; a vertex whose count overflows is
+// promoted to an exact BigInteger while its long entry saturates at
+// Long.MAX_VALUE, so ordinary graphs never pay for arbitrary precision.
+public class PathCounter {
+    private final DirectedGraph graph;
+    private final Metrics metrics;
+
+    public PathCounter(DirectedGraph graph) {
+        this.graph = graph;
+        this.metrics = new MetricsImpl("path_counter");
+    }
+
+    public PathCountResult countLongest(int source) {
+        return count(source, false);
+    }
+
+    public PathCountResult countShortest(int source) {
+        return count(source, true);
+    }
+
+    // Every vertex without predecessors starts a chain, so counts are the
+    // number of dependency chains leading into each task from any root.
+    public PathCountResult countLongestFromRoots() {
+        return count(-1, false);
+    }
+
+    public PathCountResult countShortestFromRoots() {
+        return count(-1, true);
+    }
+
+    private PathCountResult count(int source, boolean findShortest) {
+        int n = graph.getVertices();
+        double unreached = findShortest ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+        double[] dist = new double[n];
+        Arrays.fill(dist, unreached);
+        Counts paths = new Counts(n);
+        Counts optimal = new Counts(n);
+
+        metrics.reset();
+        metrics.startTiming();
+
+        int[] order = new TopologicalSort(graph).sortToArray();
+        if (order == null) {
+            metrics.stopTiming();
+            return null;
+        }
+
+        if (source >= 0) {
+            dist[source] = 0;
+            paths.small[source] = 1;
+            optimal.small[source] = 1;
+        }
+
+        long relaxations = 0;
+        for (int u : order) {
+            if (dist[u] == unreached) {
+                // In roots mode a vertex nothing has reached yet has no
+                // predecessors at all, since they all precede it in the order.
+                if (source >= 0) continue;
+                dist[u] = 0;
+                paths.small[u] = 1;
+                optimal.small[u] = 1;
+            }
+
+            int degree = graph.getOutDegree(u);
+            relaxations += degree;
+            for (int i = 0; i < degree; i++) {
+                int v = graph.getNeighbor(u, i);
+                double newDist = dist[u] + graph.getWeight(u, i);
+
+                paths.add(v, paths, u);
+                boolean better = findShortest ? newDist < dist[v] : newDist > dist[v];
+                if (better) {
+                    dist[v] = newDist;
+                    optimal.copy(v, optimal, u);
+                } else if (newDist == dist[v]) {
+                    optimal.add(v, optimal, u);
+                }
+            }
+        }
+
+        double criticalLength = unreached;
+        for (int v = 0; v < n; v++) {
+            if (dist[v] != unreached && graph.getOutDegree(v) == 0) {
+                boolean better = findShortest ? dist[v] < criticalLength : dist[v] > criticalLength;
+                if (better) {
+                    criticalLength = dist[v];
+                }
+            }
+        }
+        BigInteger criticalPathCount = BigInteger.ZERO;
+        for (int v = 0; v < n; v++) {
+            if (dist[v] == criticalLength && graph.getOutDegree(v) == 0) {
+                criticalPathCount = criticalPathCount.add(optimal.exact(v));
+            }
+        }
+
+        metrics.incrementCounter("relaxations", relaxations);
+        metrics.incrementCounter("promoted_counts", paths.promoted + optimal.promoted);
+        metrics.stopTiming();
+        return new PathCountResult(dist, paths.small, optimal.small, paths.big, optimal.big,
+                criticalLength, criticalPathCount);
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    // Critical paths are the source-to-sink chains of optimal length: the
+    // longest chains in longest mode, the shortest complete chains otherwise.
+    public record PathCountResult(double[] distances, long[] pathCounts, long[] optimalPathCounts,
+                                  BigInteger[] pathCountOverflow, BigInteger[] optimalCountOverflow,
+                                  double criticalLength, BigInteger criticalPathCount) {
+        public boolean isSaturated() {
+            return pathCountOverflow != null || optimalCountOverflow != null;
+        }
+
+        public BigInteger exactPathCount(int vertex) {
+            return exact(pathCounts, pathCountOverflow, vertex);
+        }
+
+        public BigInteger exactOptimalPathCount(int vertex) {
+            return exact(optimalPathCounts, optimalCountOverflow, vertex);
+        }
+
+        private static BigInteger exact(long[] small, BigInteger[] big, int vertex) {
+            if (big != null && big[vertex] != null) {
+                return big[vertex];
+            }
+            return BigInteger.valueOf(small[vertex]);
+        }
+    }
+
+    private static final class Counts {
+        final long[] small;
+        BigInteger[] big;
+        long promoted;
+
+        Counts(int n) {
+            this.small = new long[n];
+        }
+
+        BigInteger exact(int v) {
+            if (big != null && big[v] != null) {
+                return big[v];
+            }
+            return BigInteger.valueOf(small[v]);
+        }
+
+        void copy(int v, Counts from, int u) {
+            small[v] = from.small[u];
+            if (big != null) {
+                big[v] = null;
+            }
+            if (from.big != null && from.big[u] != null) {
+                ensureBig();
+                big[v] = from.big[u];
+            }
+        }
+
+        void add(int v, Counts from, int u) {
+            long sum = small[v] + from.small[u];
+            boolean exact = (big == null || big[v] == null) && (from.big == null || from.big[u] == null);
+            if (exact && sum >= 0) {
+                small[v] = sum;
+                return;
+            }
+            BigInteger value = exact(v).add(from.exact(u));
+            ensureBig();
+            if (big[v] == null) {
+                promoted++;
+            }
+            big[v] = value;
+            small[v] = Long.MAX_VALUE;
+        }
+
+        private void ensureBig() {
+            if (big == null) {
+                big = new BigInteger[small.length];
+            }
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.rtyrrx.mst.graph.dagsp;
+
+import com.rtyrrx.mst.common.DirectedGraph;
+import com.rtyrrx.mst.common.Metrics;
+import com.rtyrrx.mst.common.MetricsImpl;
+import com.rtyrrx.mst.common.WorkspacePool;
+
+import java.util.Arrays;
+
+// Stateless counterpart of DAGShortestPath for concurrent queries. The
+// topological order and distance arrays live in a pooled workspace, and
+// results are written into caller-supplied arrays, so repeated queries on
+// graphs of similar size allocate nothing per vertex after warmup. Every
+// method returns false or NaN when the graph has a cycle. Only a completed
+// run hands its workspace back, so a query that throws midway never leaks
+// partial state into a later one.
+public class PathEngine {
+    private final WorkspacePool<Workspace> pool;
+
+    public PathEngine() {
+        pool = new WorkspacePool<>(Workspace::new, w -> w.order.length);
+    }
+
+    // maxIdleWorkspaces should cover the number of queries expected to
+    // overlap; beyond that, released workspaces are left to the GC.
+    public PathEngine(int maxIdleWorkspaces) {
+        pool = new WorkspacePool<>(Workspace::new, w -> w.order.length, maxIdleWorkspaces);
+    }
+
+    public boolean shortestPaths(DirectedGraph graph, int source, double[] distances, int[] predecessors) {
+        return paths(graph, source, true, distances, predecessors);
+    }
+
+    public boolean longestPaths(DirectedGraph graph, int source, double[] distances, int[] predecessors) {
+        return paths(graph, source, false, distances, predecessors);
+    }
+
+    public double shortestDistance(DirectedGraph graph, int source, int target) {
+        int n = graph.getVertices();
+        if (target < 0 || target >= n) {
+            throw new IllegalArgumentException("Target vertex " + target + " is not in the graph");
+        }
+        Workspace ws = pool.acquire(n);
+        double distance = ws.run(graph, source, true, ws.dist, null) ? ws.dist[target] : Double.NaN;
+        pool.release(ws);
+        return distance;
+    }
+
+    // Length of the longest path starting at source.
+    public double longestPathLength(DirectedGraph graph, int source) {
+        int n = graph.getVertices();
+        Workspace ws = pool.acquire(n);
+        double longest = Double.NaN;
+        if (ws.run(graph, source, false, ws.dist, null)) {
+            longest = 0.0;
+            for (int v = 0; v < n; v++) {
+                longest = Math.max(longest, ws.dist[v]);
+            }
+        }
+        pool.release(ws);
+        return longest;
+    }
+
+    private boolean paths(DirectedGraph graph, int source, boolean findShortest,
+                          double[] distances, int[] predecessors) {
+        int n = graph.getVertices();
+        if (distances.length < n || (predecessors != null && predecessors.length < n)) {
+            throw new IllegalArgumentException("Expected room for one result per vertex");
+        }
+        Workspace ws = pool.acquire(n);
+        boolean acyclic = ws.run(graph, source, findShortest, distances, predecessors);
+        pool.release(ws);
+        return acyclic;
+    }
+
+    public WorkspacePool<?> getPool() {
+        return pool;
+    }
+
+    private static final class Workspace {
+        final int[] inDegree;
+        final int[] order;
+        final double[] dist;
+        final Metrics metrics = new MetricsImpl("path_engine");
+
+        Workspace(int capacity) {
+            inDegree = new int[capacity];
+            order = new int[capacity];
+            dist = new double[capacity];
+        }
+
+        boolean run(DirectedGraph graph, int source, boolean findShortest, double[] dist, int[] pred) {
+            int n = graph.getVertices();
+            if (source < 0 || source >= n) {
+                throw new IllegalArgumentException("Source vertex " + source + " is not in the graph");
+            }
+            metrics.reset();
+            metrics.startTiming();
+
+            int count = sort(graph, n);
+            if (count < n) {
+                metrics.stopTiming();
+                return false;
+            }
+
+            Arrays.fill(dist, 0, n, findShortest ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY);
+            if (pred != null) {
+                Arrays.fill(pred, 0, n, -1);
+            }
+            dist[source] = 0;
+
+            int first = 0;
+            while (order[first] != source) {
+                first++;
+            }
+            long relaxations = findShortest
+                    ? relaxMinPlus(graph, n, first, dist, pred)
+                    : relaxMaxPlus(graph, n, first, dist, pred);
+
+            metrics.incrementCounter("relaxations", relaxations);
+            metrics.stopTiming();
+            return true;
+        }
+
+        // Kahn's algorithm into the workspace order; returns how many
+        // vertices were ordered.
+        private int sort(DirectedGraph graph, int n) {
+            Arrays.fill(inDegree, 0, n, 0);
+            for (int u = 0; u < n; u++) {
+                int degree = graph.getOutDegree(u);
+                for (int i = 0; i < degree; i++) {
+                    inDegree[graph.getNeighbor(u, i)]++;
+                }
+            }
+            int tail = 0;
+            for (int v = 0; v < n; v++) {
+                if (inDegree[v] == 0) {
+                    order[tail++] = v;
+                }
+            }
+            for (int head = 0; head < tail; head++) {
+                int u = order[head];
+                int degree = graph.getOutDegree(u);
+                for (int i = 0; i < degree; i++) {
+                    int v = graph.getNeighbor(u, i);
+                    if (--inDegree[v] == 0) {
+                        order[tail++] = v;
+                    }
+                }
+            }
+            return tail;
+        }
+
+        private long relaxMinPlus(DirectedGraph graph, int n, int first, double[] dist, int[] pred) {
+            long relaxations = 0;
+            for (int k = first; k < n; k++) {
+                int u = order[k];
+                double du = dist[u];
+                if (du == Double.POSITIVE_INFINITY) continue;
+
+                int degree = graph.getOutDegree(u);
+                relaxations += degree;
+                for (int i = 0; i < degree; i++) {
+                    int v = graph.getNeighbor(u, i);
+                    double newDist = du + graph.getWeight(u, i);
+                    if (newDist < dist[v]) {
+                        dist[v] = newDist;
+                        if (pred != null) {
+                            pred[v] = u;
+                        }
+                    }
+                }
+            }
+            return relaxations;
+        }
+
+        private long relaxMaxPlus(DirectedGraph graph, int n, int first, double[] dist, int[] pred) {
+            long relaxations = 0;
+            for (int k = first; k < n; k++) {
+                int u = order[k];
+                double du = dist[u];
+                if (du == Double.NEGATIVE_INFINITY) continue;
+
+                int degree = graph.getOutDegree(u);
+                relaxations += degree;
+                for (int i = 0; i < degree; i++) {
+                    int v = graph.getNeighbor(u, i);
+                    double newDist = du + graph.getWeight(u, i);
+                    if (newDist > dist[v]) {
+                        dist[v] = newDist;
+                        if (pred != null) {
+                            pred[v] = u;
+                        }
+                    }
+                }
+            }
+            return relaxations;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.rtyrrx.mst.graph.dagsp;
+
+import com.rtyrrx.mst.common.Metrics;
+import com.rtyrrx.mst.common.MetricsImpl;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Path lookups over a predecessor tree. Single paths can be written into a
+// caller-owned buffer or served from an LRU cache bounded by the bytes held
+// in cached paths; allPaths() answers for every destination at once.
+public class PathQueries {
+    private static final long DEFAULT_CACHE_BYTES = 4L << 20;
+    // Rough per-entry cost of the map node, the boxed key and the array header.
+    private static final int ENTRY_OVERHEAD_BYTES = 80;
+
+    private final int[] predecessors;
+    private final int source;
+    private final long cacheBytes;
+    private final LinkedHashMap<Integer, int[]> cache;
+    private final Metrics metrics;
+    private long cachedBytes;
+    private int[] scratch;
+
+    public PathQueries(int[] predecessors, int source) {
+        this(predecessors, source, DEFAULT_CACHE_BYTES);
+    }
+
+    public PathQueries(int[] predecessors, int source, long cacheBytes) {
+        this.predecessors = predecessors;
+        this.source = source;
+        this.cacheBytes = cacheBytes;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true);
+        this.metrics = new MetricsImpl("path_queries");
+    }
+
+    public static PathQueries of(DAGShortestPath.ShortestPathResult result) {
+        return new PathQueries(result.predecessors(), result.source());
+    }
+
+    public static PathQueries of(DAGShortestPath.LongestPathResult result) {
+        return new PathQueries(result.predecessors(), result.source());
+    }
+
+    public boolean isReachable(int dest) {
+        return dest == source || predecessors[dest] != -1;
+    }
+
+    public int pathLength(int dest) {
+        if (!isReachable(dest)) return 0;
+        int length = 1;
+        for (int current = dest; current != source; current = predecessors[current]) {
+            length++;
+        }
+        return length;
+    }
+
+    // Writes the path into buffer[0..length) and returns its length, or 0 if
+    // dest is unreachable. The buffer must hold the whole path; a buffer of
+    // graph size always does.
+    public int copyPathTo(int dest, int[] buffer) {
+        if (!isReachable(dest)) return 0;
+        int length = 0;
+        int current = dest;
+        while (true) {
+            buffer[length++] = current;
+            if (current == source) break;
+            current = predecessors[current];
+        }
+        for (int i = 0, j = length - 1; i < j; i++, j--) {
+            int tmp = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = tmp;
+        }
+        return length;
+    }
+
+    public IntPath getPath(int dest) {
+        int[] cached = cache.get(dest);
+        if (cached != null) {
+            metrics.incrementCounter("cache_hits");
+            return new IntPath(cached, 0, cached.length);
+        }
+        metrics.incrementCounter("cache_misses");
+
+        if (scratch == null) {
+            scratch = new int[predecessors.length];
+        }
+        int length = copyPathTo(dest, scratch);
+        if (length == 0) return IntPath.EMPTY;
+
+        int[] path = new int[length];
+        System.arraycopy(scratch, 0, path, 0, length);
+        long bytes = entryBytes(length);
+        if (bytes <= cacheBytes) {
+            cache.put(dest, path);
+            cachedBytes += bytes;
+            evict();
+        }
+        return new IntPath(path, 0, length);
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<Integer, int[]>> eldest = cache.entrySet().iterator();
+        while (cachedBytes > cacheBytes && eldest.hasNext()) {
+            cachedBytes -= entryBytes(eldest.next().getValue().length);
+            eldest.remove();
+            metrics.incrementCounter("cache_evictions");
+        }
+    }
+
+    private static long entryBytes(int length) {
+        return ENTRY_OVERHEAD_BYTES + 4L * length;
+    }
+
+    public long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    public int getCachedPaths() {
+        return cache.size();
+    }
+
+    // Every path from the source at once, kept as the predecessor tree plus
+    // each vertex's depth, so it takes O(V) memory however long the paths
+    // are. Depths are resolved once per vertex by walking up to the first
+    // vertex whose depth is known.
+    public PathTree allPaths() {
+        int n = predecessors.length;
+        int[] depth = new int[n];
+        Arrays.fill(depth, -1);
+        if (source >= 0 && source < n) {
+            depth[source] = 0;
+        }
+
+        int[] chain = new int[n];
+        for (int v = 0; v < n; v++) {
+            if (depth[v] != -1 || predecessors[v] == -1) continue;
+            int top = 0;
+            int current = v;
+            while (depth[current] == -1 && predecessors[current] != -1) {
+                chain[top++] = current;
+                current = predecessors[current];
+            }
+            int base = depth[current];
+            while (top > 0) {
+                int w = chain[--top];
+                depth[w] = base == -1 ? -1 : ++base;
+            }
+        }
+        return new PathTree(predecessors, depth);
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    // depths[v] is the number of edges on the path to v, -1 if unreachable.
+    public record PathTree(int[] predecessors, int[] depths) {
+        // Walks the tree from dest, filling the path back to front.
+        public IntPath pathTo(int dest) {
+            int length = depths[dest] + 1;
+            if (length == 0) return IntPath.EMPTY;
+            int[] path = new int[length];
+            int current = dest;
+            for (int i = length - 1; i >= 0; i--) {
+                path[i] = current;
+                current = predecessors[current];
+            }
+            return new IntPath(path, 0, length);
+        }
+
+        // Vertices over all paths together; can exceed the int range.
+        public long totalPathVertices() {
+            long total = 0;
+            for (int depth : depths) {
+                total += depth + 1;
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.rtyrrx.mst.graph.dagsp;
+
+// Path algebra for a single pass over a topological order: the value of a
+// vertex is the combination, over all incoming edges, of the predecessor's
+// value extended by the edge weight.
+public interface PathSemiring {
+    // Value of a vertex no path has reached yet; identity of combine.
+    double zero();
+
+    // Value of the source (the empty path).
+    double one();
+
+    double extend(double pathValue, double edgeWeight);
+
+    double combine(double current, double candidate);
+
+    // Selective semirings pick one of the candidates, so the predecessor of
+    // the winning candidate identifies a best path.
+    default boolean isSelective() {
+        return true;
+    }
+}
@@ -0,0 +1,212 @@
+package com.rtyrrx.mst.graph.dagsp;
+
+import com.rtyrrx.mst.common.DirectedGraph;
+import com.rtyrrx.mst.common.EdgeCursor;
+import com.rtyrrx.mst.common.Metrics;
+import com.rtyrrx.mst.common.MetricsImpl;
+import com.rtyrrx.mst.common.ReverseAdjacency;
+import com.rtyrrx.mst.graph.topo.TopologicalSort;
+
+import java.util.Arrays;
+
+// Source-to-target path queries on a DAG. Only vertices between the source
+// and the target in topological order can lie on a path, so the WINDOW mode
+// relaxes just that slice of the order; BIDIRECTIONAL first walks backwards
+// from the target and then relaxes only vertices that can still reach it,
+// which pays for the extra search only when the source fans out into many
+// branches that never reach the target.
+// Both use the same topological order as DAGShortestPath and visit the
+// surviving vertices and edges in the same order, so they return exactly
+// the path the full single-source run would. Scratch arrays are reused
+// between queries, so one instance serves one thread at a time.
+public class PointToPointPaths {
+    public enum Pruning {WINDOW, BIDIRECTIONAL}
+
+    private final DirectedGraph graph;
+    private final int[] order;
+    private final int[] position;
+    private final Metrics metrics;
+    private ReverseAdjacency predecessors;
+
+    // Entries are valid only where the stamp matches the current query.
+    private double[] dist;
+    private int[] pred;
+    private int[] reachedStamp;
+    private int[] targetStamp;
+    private int[] candidates;
+    private int[] queue;
+    private int query;
+
+    public PointToPointPaths(DirectedGraph graph) {
+        this.graph = graph;
+        this.order = new TopologicalSort(graph).sortToArray();
+        this.metrics = new MetricsImpl("point_to_point");
+        if (order == null) {
+            this.position = null;
+            return;
+        }
+        this.position = new int[order.length];
+        for (int k = 0; k < order.length; k++) {
+            position[order[k]] = k;
+        }
+    }
+
+    public PathResult shortestPath(int source, int target) {
+        return shortestPath(source, target, Pruning.WINDOW);
+    }
+
+    public PathResult longestPath(int source, int target) {
+        return longestPath(source, target, Pruning.WINDOW);
+    }
+
+    // Both return null if the graph has a cycle.
+    public PathResult shortestPath(int source, int target, Pruning pruning) {
+        return query(source, target, pruning, true);
+    }
+
+    public PathResult longestPath(int source, int target, Pruning pruning) {
+        return query(source, target, pruning, false);
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    // length is +/-infinity and path empty when the target is unreachable.
+    public record PathResult(int source, int target, double length, int[] path, int scannedVertices) {
+        public boolean isReachable() {
+            return path.length > 0;
+        }
+    }
+
+    private PathResult query(int source, int target, Pruning pruning, boolean findShortest) {
+        if (order == null) return null;
+        int n = order.length;
+        if (source < 0 || source >= n || target < 0 || target >= n) {
+            throw new IllegalArgumentException("Vertex out of range: " + source + " -> " + target);
+        }
+        metrics.startTiming();
+        metrics.incrementCounter("queries");
+        ensureScratch(n);
+        if (++query == Integer.MAX_VALUE) {
+            Arrays.fill(reachedStamp, 0);
+            Arrays.fill(targetStamp, 0);
+            query = 1;
+        }
+
+        double unreached = findShortest ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+        int first = position[source];
+        int last = position[target];
+        int scanned = 0;
+        long relaxations = 0;
+        if (first <= last) {
+            reachedStamp[source] = query;
+            dist[source] = 0;
+            pred[source] = -1;
+            if (pruning == Pruning.WINDOW) {
+                for (int k = first; k <= last; k++) {
+                    int u = order[k];
+                    if (reachedStamp[u] != query) continue;
+                    scanned++;
+                    relaxations += relax(u, last, findShortest, false);
+                }
+            } else {
+                // Sorting a co-reachable set that covers much of the window
+                // costs more than filtering the window by it.
+                int count = collectCoReachable(target, first);
+                boolean dense = (long) count * 16 >= last - first + 1;
+                if (!dense) {
+                    for (int i = 0; i < count; i++) {
+                        candidates[i] = position[queue[i]];
+                    }
+                    Arrays.sort(candidates, 0, count);
+                }
+                for (int i = dense ? first : 0, end = dense ? last + 1 : count; i < end; i++) {
+                    int u = order[dense ? i : candidates[i]];
+                    if (reachedStamp[u] != query || targetStamp[u] != query) continue;
+                    scanned++;
+                    relaxations += relax(u, last, findShortest, true);
+                }
+            }
+        }
+        metrics.incrementCounter("vertices_scanned", scanned);
+        metrics.incrementCounter("relaxations", relaxations);
+
+        PathResult result;
+        if (first > last || reachedStamp[target] != query) {
+            result = new PathResult(source, target, unreached, new int[0], scanned);
+        } else {
+            int length = 1;
+            for (int v = target; v != source; v = pred[v]) {
+                length++;
+            }
+            int[] path = new int[length];
+            for (int v = target, i = length - 1; i >= 0; v = pred[v], i--) {
+                path[i] = v;
+            }
+            result = new PathResult(source, target, dist[target], path, scanned);
+        }
+        metrics.stopTiming();
+        return result;
+    }
+
+    // Relaxes the edges of a reached vertex u that stay inside the window
+    // and, when pruned, lead to a vertex that can reach the target.
+    private long relax(int u, int last, boolean findShortest, boolean pruned) {
+        double du = dist[u];
+        int degree = graph.getOutDegree(u);
+        long relaxations = 0;
+        for (int i = 0; i < degree; i++) {
+            int v = graph.getNeighbor(u, i);
+            if (position[v] > last || pruned && targetStamp[v] != query) continue;
+            relaxations++;
+            double newDist = du + graph.getWeight(u, i);
+            if (reachedStamp[v] != query) {
+                reachedStamp[v] = query;
+                dist[v] = newDist;
+                pred[v] = u;
+            } else if (findShortest ? newDist < dist[v] : newDist > dist[v]) {
+                dist[v] = newDist;
+                pred[v] = u;
+            }
+        }
+        return relaxations;
+    }
+
+    // Breadth-first search backwards from the target over vertices at or
+    // after the source's position; stamps them, leaves them in queue and
+    // returns how many there are.
+    private int collectCoReachable(int target, int first) {
+        if (predecessors == null) {
+            predecessors = ReverseAdjacency.of(graph);
+        }
+        EdgeCursor edges = predecessors.cursor();
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = target;
+        targetStamp[target] = query;
+        while (head < tail) {
+            int v = queue[head++];
+            edges.reset(v);
+            while (edges.next()) {
+                int u = edges.target();
+                if (targetStamp[u] != query && position[u] >= first) {
+                    targetStamp[u] = query;
+                    queue[tail++] = u;
+                }
+            }
+        }
+        return tail;
+    }
+
+    private void ensureScratch(int n) {
+        if (dist == null) {
+            dist = new double[n];
+            pred = new int[n];
+            reachedStamp = new int[n];
+            targetStamp = new int[n];
+            candidates = new int[n];
+            queue = new int[n];
+        }
+    }
+}
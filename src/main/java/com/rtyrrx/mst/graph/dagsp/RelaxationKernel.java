@@ -0,0 +1,34 @@
+package com.rtyrrx.mst.graph.dagsp;
+
+// Relaxes one edge u -> v for a block of distance lanes stored contiguously:
+// dist[to + l] = better(dist[to + l], dist[from + l] + weight) for l < lanes.
+public interface RelaxationKernel {
+    void relaxMin(double[] dist, int from, int to, double weight, int lanes);
+
+    void relaxMax(double[] dist, int from, int to, double weight, int lanes);
+
+    void relaxMin(double[] dist, int from, int to, double[] weights, int weightOffset, int lanes);
+
+    void relaxMax(double[] dist, int from, int to, double[] weights, int weightOffset, int lanes);
+
+    String name();
+
+    static RelaxationKernel scalar() {
+        return new ScalarRelaxationKernel();
+    }
+
+    // The vector kernel is only loaded reflectively so that nothing links
+    // against jdk.incubator.vector unless the module was added at startup.
+    static RelaxationKernel best() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (RelaxationKernel) Class.forName("com.rtyrrx.mst.graph.dagsp.VectorRelaxationKernel")
+                        .getDeclaredConstructor()
+                        .newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                return scalar();
+            }
+        }
+        return scalar();
+    }
+}
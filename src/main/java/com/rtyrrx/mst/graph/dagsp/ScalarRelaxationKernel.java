@@ -0,0 +1,37 @@
+package com.rtyrrx.mst.graph.dagsp;
+
+class ScalarRelaxationKernel implements RelaxationKernel {
+
+    @Override
+    public void relaxMin(double[] dist, int from, int to, double weight, int lanes) {
+        for (int l = 0; l < lanes; l++) {
+            dist[to + l] = Math.min(dist[to + l], dist[from + l] + weight);
+        }
+    }
+
+    @Override
+    public void relaxMax(double[] dist, int from, int to, double weight, int lanes) {
+        for (int l = 0; l < lanes; l++) {
+            dist[to + l] = Math.max(dist[to + l], dist[from + l] + weight);
+        }
+    }
+
+    @Override
+    public void relaxMin(double[] dist, int from, int to, double[] weights, int weightOffset, int lanes) {
+        for (int l = 0; l < lanes; l++) {
+            dist[to + l] = Math.min(dist[to + l], dist[from + l] + weights[weightOffset + l]);
+        }
+    }
+
+    @Override
+    public void relaxMax(double[] dist, int from, int to, double[] weights, int weightOffset, int lanes) {
+        for (int l = 0; l < lanes; l++) {
+            dist[to + l] = Math.max(dist[to + l], dist[from + l] + weights[weightOffset + l]);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+}
@@ -0,0 +1,95 @@
+package com.rtyrrx.mst.graph.dagsp;
+
+public enum StandardSemiring implements PathSemiring {
+    MIN_PLUS {
+        @Override
+        public double zero() {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        @Override
+        public double one() {
+            return 0.0;
+        }
+
+        @Override
+        public double extend(double pathValue, double edgeWeight) {
+            return pathValue + edgeWeight;
+        }
+
+        @Override
+        public double combine(double current, double candidate) {
+            return Math.min(current, candidate);
+        }
+    },
+    MAX_PLUS {
+        @Override
+        public double zero() {
+            return Double.NEGATIVE_INFINITY;
+        }
+
+        @Override
+        public double one() {
+            return 0.0;
+        }
+
+        @Override
+        public double extend(double pathValue, double edgeWeight) {
+            return pathValue + edgeWeight;
+        }
+
+        @Override
+        public double combine(double current, double candidate) {
+            return Math.max(current, candidate);
+        }
+    },
+    // Widest path: the value of a path is its smallest edge weight.
+    BOTTLENECK {
+        @Override
+        public double zero() {
+            return Double.NEGATIVE_INFINITY;
+        }
+
+        @Override
+        public double one() {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        @Override
+        public double extend(double pathValue, double edgeWeight) {
+            return Math.min(pathValue, edgeWeight);
+        }
+
+        @Override
+        public double combine(double current, double candidate) {
+            return Math.max(current, candidate);
+        }
+    },
+    // Number of distinct paths; exact up to 2^53, PathCounter keeps exact counts.
+    PATH_COUNT {
+        @Override
+        public double zero() {
+            return 0.0;
+        }
+
+        @Override
+        public double one() {
+            return 1.0;
+        }
+
+        @Override
+        public double extend(double pathValue, double edgeWeight) {
+            return pathValue;
+        }
+
+        @Override
+        public double combine(double current, double candidate) {
+            return current + candidate;
+        }
+
+        @Override
+        public boolean isSelective() {
+            return false;
+        }
+    }
+}
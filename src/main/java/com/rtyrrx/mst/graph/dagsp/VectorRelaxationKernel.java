@@ -0,0 +1,67 @@
+package com.rtyrrx.mst.graph.dagsp;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+class VectorRelaxationKernel extends ScalarRelaxationKernel {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public void relaxMin(double[] dist, int from, int to, double weight, int lanes) {
+        int l = 0;
+        int bound = SPECIES.loopBound(lanes);
+        for (; l < bound; l += SPECIES.length()) {
+            DoubleVector candidate = DoubleVector.fromArray(SPECIES, dist, from + l).add(weight);
+            DoubleVector.fromArray(SPECIES, dist, to + l).min(candidate).intoArray(dist, to + l);
+        }
+        for (; l < lanes; l++) {
+            dist[to + l] = Math.min(dist[to + l], dist[from + l] + weight);
+        }
+    }
+
+    @Override
+    public void relaxMax(double[] dist, int from, int to, double weight, int lanes) {
+        int l = 0;
+        int bound = SPECIES.loopBound(lanes);
+        for (; l < bound; l += SPECIES.length()) {
+            DoubleVector candidate = DoubleVector.fromArray(SPECIES, dist, from + l).add(weight);
+            DoubleVector.fromArray(SPECIES, dist, to + l).max(candidate).intoArray(dist, to + l);
+        }
+        for (; l < lanes; l++) {
+            dist[to + l] = Math.max(dist[to + l], dist[from + l] + weight);
+        }
+    }
+
+    @Override
+    public void relaxMin(double[] dist, int from, int to, double[] weights, int weightOffset, int lanes) {
+        int l = 0;
+        int bound = SPECIES.loopBound(lanes);
+        for (; l < bound; l += SPECIES.length()) {
+            DoubleVector candidate = DoubleVector.fromArray(SPECIES, dist, from + l)
+                    .add(DoubleVector.fromArray(SPECIES, weights, weightOffset + l));
+            DoubleVector.fromArray(SPECIES, dist, to + l).min(candidate).intoArray(dist, to + l);
+        }
+        for (; l < lanes; l++) {
+            dist[to + l] = Math.min(dist[to + l], dist[from + l] + weights[weightOffset + l]);
+        }
+    }
+
+    @Override
+    public void relaxMax(double[] dist, int from, int to, double[] weights, int weightOffset, int lanes) {
+        int l = 0;
+        int bound = SPECIES.loopBound(lanes);
+        for (; l < bound; l += SPECIES.length()) {
+            DoubleVector candidate = DoubleVector.fromArray(SPECIES, dist, from + l)
+                    .add(DoubleVector.fromArray(SPECIES, weights, weightOffset + l));
+            DoubleVector.fromArray(SPECIES, dist, to + l).max(candidate).intoArray(dist, to + l);
+        }
+        for (; l < lanes; l++) {
+            dist[to + l] = Math.max(dist[to + l], dist[from + l] + weights[weightOffset + l]);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "vector-" + SPECIES.vectorBitSize();
+    }
+}
@@ -0,0 +1,108 @@
+package com.rtyrrx.mst.graph.dominator;
+
+import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.graph.scc.SCC;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Dominator queries on a task graph by task id. Cyclic groups are
+// collapsed with SCC first, so answers are groups of task ids: a group of
+// several tasks is passed through as a whole, not necessarily every task
+// in it. Groups are listed in the order a path meets them.
+public class BottleneckFinder {
+    private final Graph graph;
+    private final List<List<Integer>> components;
+    private final int[] componentOf;
+    private final Graph condensation;
+    private final DominatorTree dominators;
+    private final DominatorTree postDominators;
+
+    public BottleneckFinder(Graph graph) {
+        this.graph = graph;
+        SCC scc = new SCC(graph);
+        this.components = scc.findSCCs();
+        this.componentOf = new int[graph.getVertices()];
+        for (int c = 0; c < components.size(); c++) {
+            for (int v : components.get(c)) {
+                componentOf[v] = c;
+            }
+        }
+        this.condensation = scc.buildCondensationGraph();
+        this.dominators = DominatorTree.dominators(condensation);
+        this.postDominators = DominatorTree.postDominators(condensation);
+    }
+
+    // Groups every chain of dependencies leading into the task passes through.
+    public List<List<String>> mustPassBefore(String taskId) {
+        return groups(dominators.getDominators(componentOf[vertexOf(taskId)]), false);
+    }
+
+    // Groups every chain of dependents leaving the task passes through.
+    public List<List<String>> mustPassAfter(String taskId) {
+        return groups(postDominators.getDominators(componentOf[vertexOf(taskId)]), true);
+    }
+
+    // Groups on every path from a start task to a final task: the common
+    // dominators of all final groups under the virtual root.
+    public List<List<String>> projectBottlenecks() {
+        List<Integer> sinks = new ArrayList<>();
+        for (int c = 0; c < condensation.getVertices(); c++) {
+            if (condensation.getOutDegree(c) == 0) sinks.add(c);
+        }
+        if (sinks.isEmpty()) {
+            return List.of();
+        }
+        int common = dominators.commonDominator(sinks.stream().mapToInt(Integer::intValue).toArray());
+        if (common == -1) {
+            return List.of();
+        }
+        int[] strict = dominators.getDominators(common);
+        int[] chain = new int[strict.length + 1];
+        System.arraycopy(strict, 0, chain, 0, strict.length);
+        chain[strict.length] = common;
+        return groups(chain, false);
+    }
+
+    public boolean isBottleneckFor(String candidate, String taskId) {
+        int from = componentOf[vertexOf(candidate)];
+        int to = componentOf[vertexOf(taskId)];
+        return from != to && (dominators.dominates(from, to) || postDominators.dominates(from, to));
+    }
+
+    public DominatorTree getDominatorTree() {
+        return dominators;
+    }
+
+    public DominatorTree getPostDominatorTree() {
+        return postDominators;
+    }
+
+    // Post-dominator chains run from the final task back towards the
+    // query; reversed, they read in path order.
+    private List<List<String>> groups(int[] chain, boolean reverse) {
+        List<List<String>> result = new ArrayList<>(chain.length);
+        for (int i = 0; i < chain.length; i++) {
+            int component = chain[reverse ? chain.length - 1 - i : i];
+            List<String> tasks = new ArrayList<>();
+            for (int v : components.get(component)) {
+                tasks.add(taskName(v));
+            }
+            result.add(tasks);
+        }
+        return result;
+    }
+
+    private int vertexOf(String taskId) {
+        Integer vertex = graph.getVertex(taskId);
+        if (vertex == null) {
+            throw new IllegalArgumentException("Unknown task: " + taskId);
+        }
+        return vertex;
+    }
+
+    private String taskName(int vertex) {
+        String taskId = graph.getTaskId(vertex);
+        return taskId != null ? taskId : ("V" + vertex);
+    }
+}
@@ -0,0 +1,243 @@
+package com.rtyrrx.mst.graph.dominator;
+
+import com.rtyrrx.mst.common.DirectedGraph;
+import com.rtyrrx.mst.common.EdgeCursor;
+import com.rtyrrx.mst.common.Metrics;
+import com.rtyrrx.mst.common.MetricsImpl;
+import com.rtyrrx.mst.common.ReverseAdjacency;
+import com.rtyrrx.mst.graph.topo.TopologicalSort;
+
+import java.util.Arrays;
+
+// Dominators of a DAG in one pass over a topological order: every
+// predecessor of a vertex is final by the time the vertex is reached, so
+// its immediate dominator is the nearest common ancestor of its
+// predecessors in the tree built so far. Ancestors are found by walking
+// the deeper side up by topological position (Cooper, Harvey & Kennedy),
+// with no iteration to a fixed point. Without an explicit root every
+// vertex without predecessors hangs below a virtual root, reported as -1.
+// Post-dominators are the dominators of the transpose.
+public class DominatorTree {
+    private final int[] idom;
+    private final int[] depth;
+    // Pre/post visit times of the tree, so dominates() is two comparisons.
+    private final int[] enter;
+    private final int[] exit;
+    private final Metrics metrics;
+
+    private DominatorTree(int[] idom, int[] depth, Metrics metrics) {
+        this.idom = idom;
+        this.depth = depth;
+        this.metrics = metrics;
+        int n = idom.length;
+        this.enter = new int[n];
+        this.exit = new int[n];
+        numberTree();
+    }
+
+    public static DominatorTree dominators(DirectedGraph dag) {
+        return dominators(dag, -1);
+    }
+
+    // Returns null if the graph has a cycle; run it on the condensation.
+    public static DominatorTree dominators(DirectedGraph dag, int root) {
+        checkRoot(dag, root);
+        Metrics metrics = new MetricsImpl("dominator_tree");
+        metrics.startTiming();
+        int[] order = new TopologicalSort(dag).sortToArray();
+        if (order == null) {
+            metrics.stopTiming();
+            return null;
+        }
+        return build(order, ReverseAdjacency.of(dag), root, metrics);
+    }
+
+    public static DominatorTree postDominators(DirectedGraph dag) {
+        return postDominators(dag, -1);
+    }
+
+    public static DominatorTree postDominators(DirectedGraph dag, int sink) {
+        checkRoot(dag, sink);
+        Metrics metrics = new MetricsImpl("dominator_tree");
+        metrics.startTiming();
+        int[] order = new TopologicalSort(dag).sortToArray();
+        if (order == null) {
+            metrics.stopTiming();
+            return null;
+        }
+        for (int i = 0, j = order.length - 1; i < j; i++, j--) {
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        return build(order, dag, sink, metrics);
+    }
+
+    private static void checkRoot(DirectedGraph dag, int root) {
+        if (root < -1 || root >= dag.getVertices()) {
+            throw new IllegalArgumentException("Root " + root + " is out of range");
+        }
+    }
+
+    // order is a topological order of the graph whose predecessor lists
+    // the backward graph holds.
+    private static DominatorTree build(int[] order, DirectedGraph backward, int root, Metrics metrics) {
+        int n = order.length;
+        int[] position = new int[n];
+        for (int k = 0; k < n; k++) {
+            position[order[k]] = k;
+        }
+        int[] idom = new int[n];
+        int[] depth = new int[n];
+        Arrays.fill(idom, -1);
+        Arrays.fill(depth, -1);
+
+        EdgeCursor predecessors = backward.cursor();
+        long steps = 0;
+        for (int v : order) {
+            if (v == root) {
+                depth[v] = 0;
+                continue;
+            }
+            int dominator = -2;
+            predecessors.reset(v);
+            while (predecessors.next() && dominator != -1) {
+                int p = predecessors.target();
+                if (depth[p] < 0) continue;
+                if (dominator == -2) {
+                    dominator = p;
+                    continue;
+                }
+                // Walk up from whichever side is later in the order; an
+                // ancestor always comes earlier.
+                int a = dominator;
+                while (a != p && a != -1 && p != -1) {
+                    steps++;
+                    if (position[a] > position[p]) {
+                        a = idom[a];
+                    } else {
+                        p = idom[p];
+                    }
+                }
+                dominator = a == p ? a : -1;
+            }
+            if (dominator == -2) {
+                // No reached predecessor: a source under the virtual root,
+                // or unreachable from an explicit root.
+                if (root < 0 && backward.getOutDegree(v) == 0) {
+                    depth[v] = 0;
+                }
+                continue;
+            }
+            idom[v] = dominator;
+            depth[v] = dominator == -1 ? 0 : depth[dominator] + 1;
+        }
+
+        metrics.incrementCounter("intersect_steps", steps);
+        DominatorTree tree = new DominatorTree(idom, depth, metrics);
+        metrics.stopTiming();
+        return tree;
+    }
+
+    private void numberTree() {
+        int n = idom.length;
+        int[] childOffsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            if (idom[v] >= 0) childOffsets[idom[v] + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            childOffsets[v + 1] += childOffsets[v];
+        }
+        int[] children = new int[childOffsets[n]];
+        int[] fill = Arrays.copyOf(childOffsets, n);
+        for (int v = 0; v < n; v++) {
+            if (idom[v] >= 0) children[fill[idom[v]]++] = v;
+        }
+
+        int[] stack = new int[n];
+        int[] next = new int[n];
+        int clock = 0;
+        Arrays.fill(enter, -1);
+        Arrays.fill(exit, -1);
+        for (int top = 0; top < n; top++) {
+            if (depth[top] != 0) continue;
+            int size = 0;
+            stack[size++] = top;
+            enter[top] = clock++;
+            next[top] = childOffsets[top];
+            while (size > 0) {
+                int v = stack[size - 1];
+                if (next[v] < childOffsets[v + 1]) {
+                    int child = children[next[v]++];
+                    enter[child] = clock++;
+                    next[child] = childOffsets[child];
+                    stack[size++] = child;
+                } else {
+                    exit[v] = clock++;
+                    size--;
+                }
+            }
+        }
+    }
+
+    public int getVertices() {
+        return idom.length;
+    }
+
+    // -1 for the root, a source under the virtual root, or an unreachable vertex.
+    public int getImmediateDominator(int vertex) {
+        return idom[vertex];
+    }
+
+    public boolean isReachable(int vertex) {
+        return depth[vertex] >= 0;
+    }
+
+    // Number of strict dominators; -1 when unreachable.
+    public int getDepth(int vertex) {
+        return depth[vertex];
+    }
+
+    // Reflexive: every reachable vertex dominates itself.
+    public boolean dominates(int dominator, int vertex) {
+        return isReachable(dominator) && isReachable(vertex)
+                && enter[dominator] <= enter[vertex] && exit[vertex] <= exit[dominator];
+    }
+
+    // Strict dominators from the top of the tree down to the immediate one.
+    public int[] getDominators(int vertex) {
+        if (!isReachable(vertex)) {
+            return new int[0];
+        }
+        int[] chain = new int[depth[vertex]];
+        for (int v = idom[vertex], i = chain.length - 1; v != -1; v = idom[v], i--) {
+            chain[i] = v;
+        }
+        return chain;
+    }
+
+    // Nearest vertex dominating all given vertices, or -1 when only the
+    // virtual root does or one of them is unreachable.
+    public int commonDominator(int... vertices) {
+        if (vertices.length == 0) {
+            throw new IllegalArgumentException("Expected at least one vertex");
+        }
+        int common = vertices[0];
+        for (int v : vertices) {
+            if (!isReachable(v)) return -1;
+            while (common != -1 && !dominates(common, v)) {
+                common = idom[common];
+            }
+            if (common == -1) return -1;
+        }
+        return common;
+    }
+
+    public int[] immediateDominators() {
+        return idom.clone();
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+}
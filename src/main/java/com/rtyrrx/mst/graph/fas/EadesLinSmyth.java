@@ -0,0 +1,162 @@
+package com.rtyrrx.mst.graph.fas;
+
+import com.rtyrrx.mst.common.DirectedGraph;
+
+import java.util.Arrays;
+
+// Greedy feedback arc set heuristic of Eades, Lin and Smyth (1993). Sinks
+// are peeled to the back of the sequence, sources to the front, and
+// otherwise the vertex with the largest outdegree - indegree goes to the
+// front. Vertices live in bucket lists keyed by that difference, so the
+// whole run is O(V + E). Edges pointing backwards in the resulting
+// sequence form the feedback arc set; self-loops are always in it.
+public class EadesLinSmyth {
+    private static final int NONE = -1;
+
+    private final DirectedGraph graph;
+
+    public EadesLinSmyth(DirectedGraph graph) {
+        this.graph = graph;
+    }
+
+    public int[] sequence() {
+        int n = graph.getVertices();
+        if (n == 0) return new int[0];
+
+        int[] outDegree = new int[n];
+        int[] inDegree = new int[n];
+        int[] predOffsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            int degree = graph.getOutDegree(u);
+            for (int i = 0; i < degree; i++) {
+                int v = graph.getNeighbor(u, i);
+                if (v != u) {
+                    outDegree[u]++;
+                    inDegree[v]++;
+                    predOffsets[v + 1]++;
+                }
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            predOffsets[v + 1] += predOffsets[v];
+        }
+        int[] predecessors = new int[predOffsets[n]];
+        int[] fill = Arrays.copyOf(predOffsets, n);
+        for (int u = 0; u < n; u++) {
+            int degree = graph.getOutDegree(u);
+            for (int i = 0; i < degree; i++) {
+                int v = graph.getNeighbor(u, i);
+                if (v != u) {
+                    predecessors[fill[v]++] = u;
+                }
+            }
+        }
+
+        // Bucket 0 holds sinks, bucket 1 sources, bucket 2 + (delta + range)
+        // holds the remaining vertices by delta = outdegree - indegree. With
+        // parallel edges the degrees, and so delta, can exceed n.
+        int range = 0;
+        for (int v = 0; v < n; v++) {
+            range = Math.max(range, Math.max(outDegree[v], inDegree[v]));
+        }
+        int buckets = 2 * range + 3;
+        int[] head = new int[buckets];
+        Arrays.fill(head, NONE);
+        int[] next = new int[n];
+        int[] prev = new int[n];
+        int[] bucketOf = new int[n];
+        boolean[] removed = new boolean[n];
+
+        int maxDeltaBucket = 2;
+        for (int v = 0; v < n; v++) {
+            int bucket = bucketFor(outDegree[v], inDegree[v], range);
+            insert(v, bucket, head, next, prev, bucketOf);
+            maxDeltaBucket = Math.max(maxDeltaBucket, bucket);
+        }
+
+        int[] front = new int[n];
+        int frontSize = 0;
+        int[] back = new int[n];
+        int backSize = 0;
+        int remaining = n;
+
+        while (remaining > 0) {
+            int u;
+            if (head[0] != NONE) {
+                u = head[0];
+                back[backSize++] = u;
+            } else if (head[1] != NONE) {
+                u = head[1];
+                front[frontSize++] = u;
+            } else {
+                while (head[maxDeltaBucket] == NONE) {
+                    maxDeltaBucket--;
+                }
+                u = head[maxDeltaBucket];
+                front[frontSize++] = u;
+            }
+
+            unlink(u, head, next, prev, bucketOf);
+            removed[u] = true;
+            remaining--;
+
+            int degree = graph.getOutDegree(u);
+            for (int i = 0; i < degree; i++) {
+                int v = graph.getNeighbor(u, i);
+                if (v == u || removed[v]) continue;
+                inDegree[v]--;
+                maxDeltaBucket = Math.max(maxDeltaBucket, move(v, outDegree, inDegree, range, head, next, prev, bucketOf));
+            }
+            for (int j = predOffsets[u]; j < predOffsets[u + 1]; j++) {
+                int w = predecessors[j];
+                if (removed[w]) continue;
+                outDegree[w]--;
+                maxDeltaBucket = Math.max(maxDeltaBucket, move(w, outDegree, inDegree, range, head, next, prev, bucketOf));
+            }
+        }
+
+        int[] sequence = new int[n];
+        System.arraycopy(front, 0, sequence, 0, frontSize);
+        for (int i = 0; i < backSize; i++) {
+            sequence[frontSize + i] = back[backSize - 1 - i];
+        }
+        return sequence;
+    }
+
+    private static int bucketFor(int outDegree, int inDegree, int range) {
+        if (outDegree == 0) return 0;
+        if (inDegree == 0) return 1;
+        return 2 + outDegree - inDegree + range;
+    }
+
+    private static int move(int v, int[] outDegree, int[] inDegree, int range,
+                            int[] head, int[] next, int[] prev, int[] bucketOf) {
+        int bucket = bucketFor(outDegree[v], inDegree[v], range);
+        if (bucket != bucketOf[v]) {
+            unlink(v, head, next, prev, bucketOf);
+            insert(v, bucket, head, next, prev, bucketOf);
+        }
+        return bucket;
+    }
+
+    private static void insert(int v, int bucket, int[] head, int[] next, int[] prev, int[] bucketOf) {
+        bucketOf[v] = bucket;
+        prev[v] = NONE;
+        next[v] = head[bucket];
+        if (head[bucket] != NONE) {
+            prev[head[bucket]] = v;
+        }
+        head[bucket] = v;
+    }
+
+    private static void unlink(int v, int[] head, int[] next, int[] prev, int[] bucketOf) {
+        if (prev[v] != NONE) {
+            next[prev[v]] = next[v];
+        } else {
+            head[bucketOf[v]] = next[v];
+        }
+        if (next[v] != NONE) {
+            prev[next[v]] = prev[v];
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package com.rtyrrx.mst.graph.fas;
+
+import com.rtyrrx.mst.common.DirectedGraph;
+import com.rtyrrx.mst.common.Metrics;
+import com.rtyrrx.mst.common.MetricsImpl;
+
+import java.util.Arrays;
+
+// Turns a cyclic graph into a DAG by dropping the dependencies that point
+// backwards in a vertex sequence. The sequence starts from Eades-Lin-Smyth
+// and can be refined by passes that move each vertex to the position
+// minimising the weight of its own backward edges. A move only touches
+// the moved vertex's edges, so a pass costs O(E log d) rather than the
+// O(V * E) of trying every insertion point against the whole order.
+public class FeedbackArcSet {
+    private final DirectedGraph graph;
+    private final Metrics metrics;
+
+    public FeedbackArcSet(DirectedGraph graph) {
+        this.graph = graph;
+        this.metrics = new MetricsImpl("feedback_arc_set");
+    }
+
+    public FasResult compute() {
+        return compute(0);
+    }
+
+    public FasResult compute(int refinementPasses) {
+        if (refinementPasses < 0) {
+            throw new IllegalArgumentException("Refinement passes must be non-negative");
+        }
+        metrics.reset();
+        metrics.startTiming();
+
+        int[] order = new EadesLinSmyth(graph).sequence();
+        int n = order.length;
+        if (refinementPasses > 0 && n > 1) {
+            int[] offsets = new int[n + 1];
+            int[] neighbors = incidentEdges(offsets);
+            double[] weights = new double[neighbors.length];
+            boolean[] outgoing = new boolean[neighbors.length];
+            fillIncidentEdges(offsets, neighbors, weights, outgoing);
+
+            double removedWeight = backwardWeight(order);
+            for (int pass = 0; pass < refinementPasses; pass++) {
+                metrics.incrementCounter("refinement_passes");
+                int[] previous = order.clone();
+                long moves = refine(order, offsets, neighbors, weights, outgoing);
+                if (moves == 0) break;
+                // Moves are judged against neighbours only and ties between
+                // equal positions can cost a little, so keep strict progress.
+                double weight = backwardWeight(order);
+                if (weight >= removedWeight) {
+                    order = previous;
+                    break;
+                }
+                removedWeight = weight;
+                metrics.incrementCounter("vertex_moves", moves);
+            }
+        }
+
+        FasResult result = collect(order);
+        metrics.incrementCounter("edges_removed", result.removedCount());
+        metrics.stopTiming();
+        return result;
+    }
+
+    // Incident edges of every vertex in one CSR: out-edges flagged outgoing,
+    // in-edges not. Self-loops are left out, no order can keep them.
+    private int[] incidentEdges(int[] offsets) {
+        int n = graph.getVertices();
+        for (int u = 0; u < n; u++) {
+            int degree = graph.getOutDegree(u);
+            for (int i = 0; i < degree; i++) {
+                int v = graph.getNeighbor(u, i);
+                if (v != u) {
+                    offsets[u + 1]++;
+                    offsets[v + 1]++;
+                }
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        return new int[offsets[n]];
+    }
+
+    private void fillIncidentEdges(int[] offsets, int[] neighbors, double[] weights, boolean[] outgoing) {
+        int n = graph.getVertices();
+        int[] fill = Arrays.copyOf(offsets, n);
+        for (int u = 0; u < n; u++) {
+            int degree = graph.getOutDegree(u);
+            for (int i = 0; i < degree; i++) {
+                int v = graph.getNeighbor(u, i);
+                if (v == u) continue;
+                double weight = graph.getWeight(u, i);
+                int slot = fill[u]++;
+                neighbors[slot] = v;
+                weights[slot] = weight;
+                outgoing[slot] = true;
+                slot = fill[v]++;
+                neighbors[slot] = u;
+                weights[slot] = weight;
+            }
+        }
+    }
+
+    // Positions are doubles during a pass so a vertex can be dropped between
+    // two others without shifting the rest; the order is renumbered after.
+    private long refine(int[] order, int[] offsets, int[] neighbors, double[] weights, boolean[] outgoing) {
+        int n = order.length;
+        double[] key = new double[n];
+        for (int p = 0; p < n; p++) {
+            key[order[p]] = p;
+        }
+
+        int maxDegree = 0;
+        for (int v = 0; v < n; v++) {
+            maxDegree = Math.max(maxDegree, offsets[v + 1] - offsets[v]);
+        }
+        int[] sortBuffer = new int[maxDegree];
+        boolean[] moved = new boolean[n];
+        double[] sortedKeys = new double[maxDegree];
+
+        long moves = 0;
+        for (int v : order) {
+            int degree = offsets[v + 1] - offsets[v];
+            if (degree == 0) continue;
+
+            // Incident edge slots sorted by the current position of the other end.
+            for (int j = 0; j < degree; j++) {
+                sortBuffer[j] = j;
+            }
+            sortByKey(sortBuffer, degree, offsets[v], neighbors, key);
+            for (int j = 0; j < degree; j++) {
+                sortedKeys[j] = key[neighbors[offsets[v] + sortBuffer[j]]];
+            }
+
+            // Placing v before every neighbour makes all in-edges backward;
+            // stepping past a neighbour flips the edge between them.
+            double cost = 0;
+            for (int j = offsets[v]; j < offsets[v + 1]; j++) {
+                if (!outgoing[j]) cost += weights[j];
+            }
+            double bestCost = Double.POSITIVE_INFINITY;
+            double currentCost = Double.NaN;
+            int bestGap = -1;
+            int currentGap = -1;
+            for (int gap = 0; gap <= degree; gap++) {
+                if (currentGap == -1 && (gap == degree || sortedKeys[gap] > key[v])) {
+                    currentGap = gap;
+                    currentCost = cost;
+                }
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestGap = gap;
+                }
+                if (gap < degree) {
+                    int slot = offsets[v] + sortBuffer[gap];
+                    cost += outgoing[slot] ? weights[slot] : -weights[slot];
+                }
+            }
+
+            if (bestCost < currentCost && bestGap != currentGap) {
+                double low = bestGap == 0 ? sortedKeys[0] - 1.0 : sortedKeys[bestGap - 1];
+                double high = bestGap == degree ? sortedKeys[degree - 1] + 1.0 : sortedKeys[bestGap];
+                double target = low + (high - low) / 2;
+                // Out of double precision between the two neighbours: skip,
+                // the renumbering at the end of the pass makes room again.
+                if (target > low && target < high) {
+                    key[v] = target;
+                    if (!moved[v]) {
+                        moved[v] = true;
+                        moves++;
+                    }
+                }
+            }
+        }
+
+        // Vertices that stayed put are still in key order, so only the moved
+        // ones need sorting before the two runs are merged back.
+        if (moves > 0) {
+            Integer[] movedVertices = new Integer[(int) moves];
+            int[] stayed = new int[n - (int) moves];
+            int movedCount = 0;
+            int stayedCount = 0;
+            for (int v : order) {
+                if (moved[v]) {
+                    movedVertices[movedCount++] = v;
+                } else {
+                    stayed[stayedCount++] = v;
+                }
+            }
+            Arrays.sort(movedVertices, (a, b) -> Double.compare(key[a], key[b]));
+            int i = 0;
+            int j = 0;
+            for (int p = 0; p < n; p++) {
+                if (j == movedCount || (i < stayedCount && key[stayed[i]] <= key[movedVertices[j]])) {
+                    order[p] = stayed[i++];
+                } else {
+                    order[p] = movedVertices[j++];
+                }
+            }
+        }
+        return moves;
+    }
+
+    private static void sortByKey(int[] slots, int length, int base, int[] neighbors, double[] key) {
+        // Insertion sort for the common small degree, a boxed sort otherwise.
+        if (length <= 32) {
+            for (int i = 1; i < length; i++) {
+                int slot = slots[i];
+                double k = key[neighbors[base + slot]];
+                int j = i - 1;
+                while (j >= 0 && key[neighbors[base + slots[j]]] > k) {
+                    slots[j + 1] = slots[j];
+                    j--;
+                }
+                slots[j + 1] = slot;
+            }
+            return;
+        }
+        Integer[] boxed = new Integer[length];
+        for (int i = 0; i < length; i++) {
+            boxed[i] = slots[i];
+        }
+        Arrays.sort(boxed, (a, b) -> Double.compare(key[neighbors[base + a]], key[neighbors[base + b]]));
+        for (int i = 0; i < length; i++) {
+            slots[i] = boxed[i];
+        }
+    }
+
+    private double backwardWeight(int[] order) {
+        int[] position = positions(order);
+        double total = 0;
+        for (int u = 0; u < order.length; u++) {
+            int degree = graph.getOutDegree(u);
+            for (int i = 0; i < degree; i++) {
+                if (position[graph.getNeighbor(u, i)] <= position[u]) total += graph.getWeight(u, i);
+            }
+        }
+        return total;
+    }
+
+    private static int[] positions(int[] order) {
+        int[] position = new int[order.length];
+        for (int p = 0; p < order.length; p++) {
+            position[order[p]] = p;
+        }
+        return position;
+    }
+
+    private FasResult collect(int[] order) {
+        int n = order.length;
+        int[] position = positions(order);
+
+        int removed = 0;
+        for (int u = 0; u < n; u++) {
+            int degree = graph.getOutDegree(u);
+            for (int i = 0; i < degree; i++) {
+                if (position[graph.getNeighbor(u, i)] <= position[u]) removed++;
+            }
+        }
+
+        int[] sources = new int[removed];
+        int[] targets = new int[removed];
+        double[] weights = new double[removed];
+        double totalWeight = 0;
+        int next = 0;
+        for (int u = 0; u < n; u++) {
+            int degree = graph.getOutDegree(u);
+            for (int i = 0; i < degree; i++) {
+                int v = graph.getNeighbor(u, i);
+                if (position[v] <= position[u]) {
+                    sources[next] = u;
+                    targets[next] = v;
+                    weights[next] = graph.getWeight(u, i);
+                    totalWeight += weights[next];
+                    next++;
+                }
+            }
+        }
+        return new FasResult(order, sources, targets, weights, totalWeight);
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    // topologicalOrder is a valid order of the graph once the removed edges
+    // are dropped: every kept edge points forwards in it.
+    public record FasResult(int[] topologicalOrder, int[] removedSources, int[] removedTargets,
+                            double[] removedWeights, double removedWeight) {
+        public int removedCount() {
+            return removedSources.length;
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.rtyrrx.mst.graph.reorder;
+
+import com.rtyrrx.mst.common.DirectedGraph;
+import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.common.Metrics;
+import com.rtyrrx.mst.common.MetricsImpl;
+import com.rtyrrx.mst.data.ContentHash;
+import com.rtyrrx.mst.data.TaskGraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Relabels vertices so that vertices visited together sit close together in
+// the adjacency arrays. BFS and RCM work on the undirected view of the
+// graph; TOPOLOGICAL_LEVEL sorts by Kahn level, which is the order the DAG
+// path kernels sweep in. The permutation is kept so results computed on
+// the relabelled graph can be translated back.
+public class VertexReordering {
+
+    public enum Strategy {
+        BFS, REVERSE_CUTHILL_MCKEE, TOPOLOGICAL_LEVEL
+    }
+
+    private final DirectedGraph graph;
+    private final Metrics metrics;
+
+    public VertexReordering(DirectedGraph graph) {
+        this.graph = graph;
+        this.metrics = new MetricsImpl("vertex_reordering");
+    }
+
+    public static Strategy parseStrategy(String name) {
+        return switch (name.toLowerCase()) {
+            case "bfs" -> Strategy.BFS;
+            case "rcm" -> Strategy.REVERSE_CUTHILL_MCKEE;
+            case "level", "topo" -> Strategy.TOPOLOGICAL_LEVEL;
+            default -> throw new IllegalArgumentException("Unknown reordering strategy: " + name);
+        };
+    }
+
+    // Mean |u - v| over all edges; the smaller it is, the closer the
+    // endpoints of an edge sit in the per-vertex arrays.
+    public static double averageEdgeSpan(DirectedGraph graph) {
+        long edges = 0;
+        double span = 0;
+        for (int u = 0; u < graph.getVertices(); u++) {
+            int degree = graph.getOutDegree(u);
+            for (int i = 0; i < degree; i++) {
+                span += Math.abs(u - graph.getNeighbor(u, i));
+            }
+            edges += degree;
+        }
+        return edges == 0 ? 0.0 : span / edges;
+    }
+
+    public Permutation compute(Strategy strategy) {
+        metrics.reset();
+        metrics.startTiming();
+        int[] newToOld = switch (strategy) {
+            case BFS -> breadthFirst(false);
+            case REVERSE_CUTHILL_MCKEE -> reverse(breadthFirst(true));
+            case TOPOLOGICAL_LEVEL -> topologicalLevels();
+        };
+        int[] oldToNew = new int[newToOld.length];
+        long moved = 0;
+        for (int v = 0; v < newToOld.length; v++) {
+            oldToNew[newToOld[v]] = v;
+            if (newToOld[v] != v) {
+                moved++;
+            }
+        }
+        metrics.incrementCounter("vertices_moved", moved);
+        metrics.stopTiming();
+        return new Permutation(newToOld, oldToNew);
+    }
+
+    // Undirected neighbourhoods as CSR, self-loops dropped.
+    private int[][] undirectedAdjacency() {
+        int n = graph.getVertices();
+        int[] offsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            int degree = graph.getOutDegree(u);
+            for (int i = 0; i < degree; i++) {
+                int v = graph.getNeighbor(u, i);
+                if (v != u) {
+                    offsets[u + 1]++;
+                    offsets[v + 1]++;
+                }
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] neighbors = new int[offsets[n]];
+        int[] fill = Arrays.copyOf(offsets, n);
+        for (int u = 0; u < n; u++) {
+            int degree = graph.getOutDegree(u);
+            for (int i = 0; i < degree; i++) {
+                int v = graph.getNeighbor(u, i);
+                if (v != u) {
+                    neighbors[fill[u]++] = v;
+                    neighbors[fill[v]++] = u;
+                }
+            }
+        }
+        return new int[][]{offsets, neighbors};
+    }
+
+    // Cuthill-McKee starts every component at a minimum-degree vertex and
+    // visits neighbours by increasing degree; plain BFS keeps input order.
+    private int[] breadthFirst(boolean cuthillMcKee) {
+        int n = graph.getVertices();
+        int[][] adjacency = undirectedAdjacency();
+        int[] offsets = adjacency[0];
+        int[] neighbors = adjacency[1];
+
+        Integer[] starts = new Integer[n];
+        for (int v = 0; v < n; v++) {
+            starts[v] = v;
+        }
+        if (cuthillMcKee) {
+            Arrays.sort(starts, (a, b) -> Integer.compare(offsets[a + 1] - offsets[a], offsets[b + 1] - offsets[b]));
+            for (int v = 0; v < n; v++) {
+                sortByDegree(neighbors, offsets[v], offsets[v + 1], offsets);
+            }
+        }
+
+        boolean[] visited = new boolean[n];
+        int[] order = new int[n];
+        int tail = 0;
+        for (int start : starts) {
+            if (visited[start]) continue;
+            visited[start] = true;
+            order[tail++] = start;
+            for (int head = tail - 1; head < tail; head++) {
+                int u = order[head];
+                for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+                    int v = neighbors[j];
+                    if (!visited[v]) {
+                        visited[v] = true;
+                        order[tail++] = v;
+                    }
+                }
+            }
+        }
+        return order;
+    }
+
+    // Stable in both branches: insertion sort for the common small degree,
+    // otherwise a primitive sort of degree << 32 | position, whose low half
+    // keeps equal degrees in their list order and recovers the vertex.
+    private static void sortByDegree(int[] neighbors, int from, int to, int[] offsets) {
+        if (to - from <= 32) {
+            for (int i = from + 1; i < to; i++) {
+                int v = neighbors[i];
+                int degree = offsets[v + 1] - offsets[v];
+                int j = i - 1;
+                while (j >= from && offsets[neighbors[j] + 1] - offsets[neighbors[j]] > degree) {
+                    neighbors[j + 1] = neighbors[j];
+                    j--;
+                }
+                neighbors[j + 1] = v;
+            }
+            return;
+        }
+        long[] keys = new long[to - from];
+        for (int i = from; i < to; i++) {
+            int v = neighbors[i];
+            keys[i - from] = (long) (offsets[v + 1] - offsets[v]) << 32 | i;
+        }
+        Arrays.sort(keys);
+        int[] sorted = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            sorted[i] = neighbors[(int) keys[i]];
+        }
+        System.arraycopy(sorted, 0, neighbors, from, sorted.length);
+    }
+
+    // Vertices on cycles never reach in-degree zero; they keep their
+    // relative input order after all levelled vertices.
+    private int[] topologicalLevels() {
+        int n = graph.getVertices();
+        int[] inDegree = new int[n];
+        for (int u = 0; u < n; u++) {
+            int degree = graph.getOutDegree(u);
+            for (int i = 0; i < degree; i++) {
+                inDegree[graph.getNeighbor(u, i)]++;
+            }
+        }
+
+        int[] order = new int[n];
+        boolean[] placed = new boolean[n];
+        int tail = 0;
+        for (int v = 0; v < n; v++) {
+            if (inDegree[v] == 0) {
+                order[tail++] = v;
+                placed[v] = true;
+            }
+        }
+        // Kahn's FIFO queue already emits vertices level by level.
+        for (int head = 0; head < tail; head++) {
+            int u = order[head];
+            int degree = graph.getOutDegree(u);
+            for (int i = 0; i < degree; i++) {
+                int v = graph.getNeighbor(u, i);
+                if (--inDegree[v] == 0) {
+                    order[tail++] = v;
+                    placed[v] = true;
+                }
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            if (!placed[v]) {
+                order[tail++] = v;
+            }
+        }
+        return order;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    private static int[] reverse(int[] order) {
+        int[] reversed = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            reversed[i] = order[order.length - 1 - i];
+        }
+        return reversed;
+    }
+
+    // newToOld[v] is the original vertex relabelled as v.
+    public record Permutation(int[] newToOld, int[] oldToNew) {
+
+        public int toOriginal(int vertex) {
+            return newToOld[vertex];
+        }
+
+        public int toReordered(int vertex) {
+            return oldToNew[vertex];
+        }
+
+        public int[] toOriginal(int[] vertices) {
+            int[] result = new int[vertices.length];
+            for (int i = 0; i < vertices.length; i++) {
+                result[i] = newToOld[vertices[i]];
+            }
+            return result;
+        }
+
+        public List<List<Integer>> toOriginal(List<List<Integer>> groups) {
+            List<List<Integer>> result = new ArrayList<>(groups.size());
+            for (List<Integer> group : groups) {
+                List<Integer> translated = new ArrayList<>(group.size());
+                for (int v : group) {
+                    translated.add(newToOld[v]);
+                }
+                result.add(translated);
+            }
+            return result;
+        }
+
+        // Per-vertex values of the relabelled graph, indexed by original vertex.
+        public double[] valuesByOriginal(double[] values) {
+            double[] result = new double[values.length];
+            for (int v = 0; v < values.length; v++) {
+                result[newToOld[v]] = values[v];
+            }
+            return result;
+        }
+
+        // Adjacency lists are rebuilt in the new order, so the edge objects
+        // of neighbouring vertices are also allocated next to each other.
+        public Graph apply(Graph graph) {
+            int n = graph.getVertices();
+            Graph relabelled = new Graph(n);
+            for (int v = 0; v < n; v++) {
+                int old = newToOld[v];
+                int degree = graph.getOutDegree(old);
+                for (int i = 0; i < degree; i++) {
+                    relabelled.addEdge(v, oldToNew[graph.getNeighbor(old, i)], graph.getWeight(old, i));
+                }
+                String taskId = graph.getTaskId(old);
+                if (taskId != null) {
+                    relabelled.mapTaskToVertex(taskId, v);
+                }
+            }
+            // Vertex ids in cached results depend on the labelling, so the
+            // relabelled graph gets its own key.
+            ContentHash hash = new ContentHash();
+            hash.add(graph.getContentHash());
+            for (int old : newToOld) {
+                hash.add(old);
+            }
+            relabelled.setContentHash(hash.value());
+            return relabelled;
+        }
+
+        // Keeps the task list aligned with the relabelled vertices. The
+        // dependencies name tasks by id and are copied as they are, into a
+        // list of their own so a later delta edits only this one.
+        public TaskGraph apply(TaskGraph taskGraph) {
+            TaskGraph reordered = new TaskGraph();
+            reordered.setDescription(taskGraph.getDescription());
+            reordered.setDependencies(new ArrayList<>(taskGraph.getDependencies()));
+            List<TaskGraph.Task> tasks = new ArrayList<>(newToOld.length);
+            for (int old : newToOld) {
+                tasks.add(taskGraph.getTasks().get(old));
+            }
+            reordered.setTasks(tasks);
+            return reordered;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.rtyrrx.mst.graph.risk;
+
+import java.util.SplittableRandom;
+
+@FunctionalInterface
+public interface DurationDistribution {
+    double sample(SplittableRandom random);
+
+    static DurationDistribution fixed(double value) {
+        return random -> value;
+    }
+
+    static DurationDistribution uniform(double min, double max) {
+        if (max < min) {
+            throw new IllegalArgumentException("max must be >= min");
+        }
+        return random -> min + (max - min) * random.nextDouble();
+    }
+
+    static DurationDistribution triangular(double min, double mode, double max) {
+        if (mode < min || max < mode) {
+            throw new IllegalArgumentException("Expected min <= mode <= max");
+        }
+        if (max == min) {
+            return fixed(min);
+        }
+        double split = (mode - min) / (max - min);
+        return random -> {
+            double u = random.nextDouble();
+            return u < split
+                    ? min + Math.sqrt(u * (max - min) * (mode - min))
+                    : max - Math.sqrt((1 - u) * (max - min) * (max - mode));
+        };
+    }
+
+    // Lognormal with the given median and shape parameter sigma (the
+    // standard deviation of the underlying normal distribution).
+    static DurationDistribution lognormal(double median, double sigma) {
+        if (median <= 0 || sigma < 0) {
+            throw new IllegalArgumentException("Expected median > 0 and sigma >= 0");
+        }
+        double mu = Math.log(median);
+        return random -> Math.exp(mu + sigma * gaussian(random));
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        double u1 = 1.0 - random.nextDouble();
+        double u2 = random.nextDouble();
+        return Math.sqrt(-2.0 * Math.log(u1)) * Math.cos(2.0 * Math.PI * u2);
+    }
+}
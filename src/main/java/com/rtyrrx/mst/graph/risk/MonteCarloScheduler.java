@@ -0,0 +1,183 @@
+package com.rtyrrx.mst.graph.risk;
+
+import com.rtyrrx.mst.common.DirectedGraph;
+import com.rtyrrx.mst.common.Metrics;
+import com.rtyrrx.mst.common.MetricsImpl;
+import com.rtyrrx.mst.data.TaskGraph;
+import com.rtyrrx.mst.graph.topo.TopologicalSort;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+// Activity-on-node model: a task starts once every predecessor has finished
+// and the dependency lag (edge weight) has elapsed, and finishes after its
+// sampled duration. The makespan of a sample is the latest finish time.
+public class MonteCarloScheduler {
+    private final DirectedGraph graph;
+    private final DurationDistribution[] durations;
+    private final Metrics metrics;
+
+    public MonteCarloScheduler(DirectedGraph graph, DurationDistribution[] durations) {
+        if (durations.length != graph.getVertices()) {
+            throw new IllegalArgumentException("Expected one duration distribution per vertex");
+        }
+        this.graph = graph;
+        this.durations = durations;
+        this.metrics = new MetricsImpl("monte_carlo");
+    }
+
+    // GraphLoader maps the i-th task to vertex i, so the estimates line up with the graph.
+    public static DurationDistribution[] triangularEstimates(TaskGraph taskGraph,
+                                                             double optimisticFactor, double pessimisticFactor) {
+        List<TaskGraph.Task> tasks = taskGraph.getTasks();
+        DurationDistribution[] result = new DurationDistribution[tasks.size()];
+        for (int i = 0; i < tasks.size(); i++) {
+            double estimate = tasks.get(i).getDuration();
+            result[i] = DurationDistribution.triangular(
+                    estimate * optimisticFactor, estimate, estimate * pessimisticFactor);
+        }
+        return result;
+    }
+
+    public RiskReport simulate(int samples, long seed) {
+        return simulate(samples, Runtime.getRuntime().availableProcessors(), seed);
+    }
+
+    public RiskReport simulate(int samples, int threads, long seed) {
+        metrics.reset();
+        metrics.startTiming();
+
+        List<Integer> topoOrder = new TopologicalSort(graph).sort();
+        if (topoOrder == null) {
+            metrics.stopTiming();
+            return null;
+        }
+        int[] order = topoOrder.stream().mapToInt(Integer::intValue).toArray();
+
+        int n = graph.getVertices();
+        // Flatten the adjacency once; every sample walks all of it.
+        int[] offsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] = offsets[v] + graph.getOutDegree(v);
+        }
+        int[] targets = new int[offsets[n]];
+        double[] lags = new double[offsets[n]];
+        for (int v = 0; v < n; v++) {
+            int degree = graph.getOutDegree(v);
+            for (int i = 0; i < degree; i++) {
+                targets[offsets[v] + i] = graph.getNeighbor(v, i);
+                lags[offsets[v] + i] = graph.getWeight(v, i);
+            }
+        }
+
+        double[] makespans = new double[samples];
+        long[] criticalCounts = new long[n];
+        int workers = Math.max(1, Math.min(threads, samples));
+
+        // Split the generators up front so results only depend on the seed and
+        // the worker count, not on thread scheduling.
+        SplittableRandom root = new SplittableRandom(seed);
+        List<Callable<long[]>> tasks = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            int from = (int) ((long) samples * w / workers);
+            int to = (int) ((long) samples * (w + 1) / workers);
+            SplittableRandom random = root.split();
+            tasks.add(() -> runSamples(order, offsets, targets, lags, random, makespans, from, to));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            for (Future<long[]> future : executor.invokeAll(tasks)) {
+                long[] counts = future.get();
+                for (int v = 0; v < n; v++) {
+                    criticalCounts[v] += counts[v];
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Arrays.sort(makespans);
+        double[] criticality = new double[n];
+        for (int v = 0; v < n; v++) {
+            criticality[v] = samples == 0 ? 0.0 : (double) criticalCounts[v] / samples;
+        }
+
+        metrics.incrementCounter("samples", samples);
+        metrics.incrementCounter("relaxations", (long) samples * targets.length);
+        metrics.stopTiming();
+        return new RiskReport(makespans, criticality);
+    }
+
+    private long[] runSamples(int[] order, int[] offsets, int[] targets, double[] lags,
+                              SplittableRandom random, double[] makespans, int from, int to) {
+        int n = order.length;
+        double[] finish = new double[n];
+        double[] start = new double[n];
+        int[] criticalPred = new int[n];
+        long[] criticalCounts = new long[n];
+
+        for (int s = from; s < to; s++) {
+            Arrays.fill(start, 0.0);
+            Arrays.fill(criticalPred, -1);
+
+            double makespan = 0.0;
+            int last = -1;
+            for (int u : order) {
+                finish[u] = start[u] + durations[u].sample(random);
+                if (last == -1 || finish[u] > makespan) {
+                    makespan = finish[u];
+                    last = u;
+                }
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int v = targets[e];
+                    double ready = finish[u] + lags[e];
+                    if (ready > start[v] || (ready == start[v] && criticalPred[v] == -1)) {
+                        start[v] = ready;
+                        criticalPred[v] = u;
+                    }
+                }
+            }
+
+            makespans[s] = makespan;
+            for (int v = last; v != -1; v = criticalPred[v]) {
+                criticalCounts[v]++;
+            }
+        }
+        return criticalCounts;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public record RiskReport(double[] sortedMakespans, double[] criticalityIndex) {
+        public int samples() {
+            return sortedMakespans.length;
+        }
+
+        public double percentile(double p) {
+            if (p < 0 || p > 100) {
+                throw new IllegalArgumentException("Percentile must be within [0, 100]");
+            }
+            if (sortedMakespans.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(p / 100.0 * sortedMakespans.length) - 1;
+            return sortedMakespans[Math.max(0, index)];
+        }
+
+        public double mean() {
+            double sum = 0;
+            for (double makespan : sortedMakespans) {
+                sum += makespan;
+            }
+            return sortedMakespans.length == 0 ? Double.NaN : sum / sortedMakespans.length;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.rtyrrx.mst.graph.scc;
+
+import com.rtyrrx.mst.common.DirectedGraph;
+import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.common.Metrics;
+import com.rtyrrx.mst.common.MetricsImpl;
+import com.rtyrrx.mst.graph.fas.EadesLinSmyth;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+// Orders the tasks inside every non-trivial SCC. Each component is copied
+// into a local graph, its cycles are broken with the Eades-Lin-Smyth
+// heuristic and the resulting sequence is the crew order; the dependencies
+// that point backwards in it are the ones that had to be dropped.
+// Components are independent, so they are processed in parallel.
+public class ComponentOrdering {
+    private final DirectedGraph graph;
+    private final List<List<Integer>> components;
+    private final Metrics metrics;
+
+    public ComponentOrdering(DirectedGraph graph, List<List<Integer>> components) {
+        this.graph = graph;
+        this.components = components;
+        this.metrics = new MetricsImpl("component_ordering");
+    }
+
+    public List<ComponentOrder> orderComponents() {
+        int n = graph.getVertices();
+        int[] componentOf = new int[n];
+        int[] localIndex = new int[n];
+        for (int c = 0; c < components.size(); c++) {
+            List<Integer> component = components.get(c);
+            for (int i = 0; i < component.size(); i++) {
+                componentOf[component.get(i)] = c;
+                localIndex[component.get(i)] = i;
+            }
+        }
+
+        metrics.reset();
+        metrics.startTiming();
+
+        List<ComponentOrder> orders = IntStream.range(0, components.size())
+                .filter(c -> components.get(c).size() > 1)
+                .parallel()
+                .mapToObj(c -> orderComponent(c, componentOf, localIndex))
+                .toList();
+
+        for (ComponentOrder order : orders) {
+            metrics.incrementCounter("components_ordered");
+            metrics.incrementCounter("edges_removed", order.removedEdges());
+        }
+        metrics.stopTiming();
+        return orders;
+    }
+
+    private ComponentOrder orderComponent(int c, int[] componentOf, int[] localIndex) {
+        List<Integer> members = components.get(c);
+        Graph local = new Graph(members.size());
+        for (int i = 0; i < members.size(); i++) {
+            int u = members.get(i);
+            int degree = graph.getOutDegree(u);
+            for (int k = 0; k < degree; k++) {
+                int v = graph.getNeighbor(u, k);
+                if (componentOf[v] == c) {
+                    local.addEdge(i, localIndex[v], graph.getWeight(u, k));
+                }
+            }
+        }
+
+        int[] sequence = new EadesLinSmyth(local).sequence();
+        int[] position = new int[sequence.length];
+        for (int p = 0; p < sequence.length; p++) {
+            position[sequence[p]] = p;
+        }
+
+        int removedEdges = 0;
+        double removedWeight = 0.0;
+        for (int i = 0; i < members.size(); i++) {
+            int degree = local.getOutDegree(i);
+            for (int k = 0; k < degree; k++) {
+                if (position[local.getNeighbor(i, k)] <= position[i]) {
+                    removedEdges++;
+                    removedWeight += local.getWeight(i, k);
+                }
+            }
+        }
+
+        int[] tasks = new int[sequence.length];
+        for (int p = 0; p < sequence.length; p++) {
+            tasks[p] = members.get(sequence[p]);
+        }
+        return new ComponentOrder(c, tasks, removedEdges, removedWeight);
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public record ComponentOrder(int component, int[] tasks, int removedEdges, double removedWeight) {
+    }
+}
@@ -1,13 +1,18 @@
 package com.rtyrrx.mst.graph.scc;
 
+import com.rtyrrx.mst.common.DirectedGraph;
+import com.rtyrrx.mst.common.EdgeCursor;
 import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.common.GraphBuilder;
 import com.rtyrrx.mst.common.Metrics;
 import com.rtyrrx.mst.common.MetricsImpl;
+import com.rtyrrx.mst.observability.CondensationEvent;
+import com.rtyrrx.mst.observability.SccEvent;
 
 import java.util.*;
 
 public class SCC {
-    private final Graph graph;
+    private final DirectedGraph graph;
     private final Metrics metrics;
     private int[] ids;
     private int[] low;
@@ -17,9 +22,9 @@ public class SCC {
     private int sccCount;
     private List<List<Integer>> components;
 
-    public SCC(Graph graph) {
+    public SCC(DirectedGraph graph) {
         this.graph = graph;
-        this.metrics = new MetricsImpl();
+        this.metrics = new MetricsImpl("scc");
     }
 
     public List<List<Integer>> findSCCs() {
@@ -34,6 +39,8 @@ public class SCC {
         id = 0;
         sccCount = 0;
 
+        SccEvent event = new SccEvent();
+        event.begin();
         metrics.reset();
         metrics.startTiming();
 
@@ -44,6 +51,14 @@ public class SCC {
         }
 
         metrics.stopTiming();
+        if (event.shouldCommit()) {
+            event.vertices = n;
+            event.edges = graph.countEdges();
+            event.components = sccCount;
+            event.dfsVisits = metrics.getCounter("dfs_visits");
+            event.edgesExplored = metrics.getCounter("edges_explored");
+            event.commit();
+        }
         return components;
     }
 
@@ -56,8 +71,13 @@ public class SCC {
         stack.push(at);
         onStack[at] = true;
 
-        for (int to : graph.getAdjacentVertices(at)) {
+        // Each frame keeps its own cursor, since the recursion interleaves
+        // the traversal of several adjacency lists.
+        EdgeCursor edges = graph.cursor();
+        edges.reset(at);
+        while (edges.next()) {
             metrics.incrementCounter("edges_explored");
+            int to = edges.target();
 
             if (ids[to] == -1) {
                 dfs(to);
@@ -86,8 +106,8 @@ public class SCC {
             findSCCs();
         }
 
-        Graph condensation = new Graph(sccCount);
-
+        CondensationEvent event = new CondensationEvent();
+        event.begin();
         int[] vertexToComponent = new int[graph.getVertices()];
         for (int i = 0; i < components.size(); i++) {
             for (int vertex : components.get(i)) {
@@ -95,21 +115,27 @@ public class SCC {
             }
         }
 
-        Set<String> addedEdges = new HashSet<>();
+        // The first edge between two components carries the weight.
+        GraphBuilder builder = new GraphBuilder(sccCount).mergeDuplicates(GraphBuilder.Duplicates.FIRST);
         for (int v = 0; v < graph.getVertices(); v++) {
             int fromComp = vertexToComponent[v];
-            for (Graph.Edge edge : graph.getAdjacentEdges(v)) {
-                int toComp = vertexToComponent[edge.destination];
+            int degree = graph.getOutDegree(v);
+            for (int i = 0; i < degree; i++) {
+                int toComp = vertexToComponent[graph.getNeighbor(v, i)];
                 if (fromComp != toComp) {
-                    String edgeKey = fromComp + "->" + toComp;
-                    if (!addedEdges.contains(edgeKey)) {
-                        condensation.addEdge(fromComp, toComp, edge.weight);
-                        addedEdges.add(edgeKey);
-                    }
+                    builder.addEdge(fromComp, toComp, graph.getWeight(v, i));
                 }
             }
         }
-
+        Graph condensation = builder.build();
+
+        if (event.shouldCommit()) {
+            event.vertices = graph.getVertices();
+            event.edges = graph.countEdges();
+            event.components = sccCount;
+            event.condensationEdges = condensation.countEdges();
+            event.commit();
+        }
         return condensation;
     }
 
@@ -0,0 +1,145 @@
+package com.rtyrrx.mst.graph.scc;
+
+import com.rtyrrx.mst.common.DirectedGraph;
+import com.rtyrrx.mst.common.Metrics;
+import com.rtyrrx.mst.common.MetricsImpl;
+import com.rtyrrx.mst.common.WorkspacePool;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Stateless Tarjan: every call borrows its arrays from a pool, so one
+// engine can serve concurrent queries on shared graphs. The DFS keeps an
+// explicit call stack instead of recursing, which also makes it safe on
+// threads with small stacks such as virtual threads. Components are
+// numbered in the order SCC emits them.
+public class SccEngine {
+    private final WorkspacePool<Workspace> pool;
+
+    public SccEngine() {
+        pool = new WorkspacePool<>(Workspace::new, w -> w.index.length);
+    }
+
+    // Keeps at most maxIdleWorkspaces spare workspaces between calls.
+    public SccEngine(int maxIdleWorkspaces) {
+        pool = new WorkspacePool<>(Workspace::new, w -> w.index.length, maxIdleWorkspaces);
+    }
+
+    // Writes the component of every vertex into componentOf and returns the
+    // number of components.
+    public int findComponents(DirectedGraph graph, int[] componentOf) {
+        int n = graph.getVertices();
+        if (componentOf.length < n) {
+            throw new IllegalArgumentException("Expected room for one component per vertex");
+        }
+        // A run that throws can leave onStack bits set, so only a completed
+        // run hands its workspace back.
+        Workspace ws = pool.acquire(n);
+        int components = ws.run(graph, componentOf);
+        pool.release(ws);
+        return components;
+    }
+
+    // Members of each component are listed in vertex order.
+    public List<List<Integer>> findSCCs(DirectedGraph graph) {
+        int[] componentOf = new int[graph.getVertices()];
+        int count = findComponents(graph, componentOf);
+        List<List<Integer>> components = new ArrayList<>(count);
+        for (int c = 0; c < count; c++) {
+            components.add(new ArrayList<>());
+        }
+        for (int v = 0; v < componentOf.length; v++) {
+            components.get(componentOf[v]).add(v);
+        }
+        return components;
+    }
+
+    public WorkspacePool<?> getPool() {
+        return pool;
+    }
+
+    private static final class Workspace {
+        final int[] index;
+        final int[] low;
+        final int[] stack;
+        final int[] callVertex;
+        final int[] callEdge;
+        final boolean[] onStack;
+        // Each workspace is used by one call at a time, so it can own the
+        // metrics instance that publishes the run.
+        final Metrics metrics = new MetricsImpl("scc_engine");
+
+        Workspace(int capacity) {
+            index = new int[capacity];
+            low = new int[capacity];
+            stack = new int[capacity];
+            callVertex = new int[capacity];
+            callEdge = new int[capacity];
+            onStack = new boolean[capacity];
+        }
+
+        int run(DirectedGraph graph, int[] componentOf) {
+            int n = graph.getVertices();
+            metrics.reset();
+            metrics.startTiming();
+            Arrays.fill(index, 0, n, -1);
+
+            int nextIndex = 0;
+            int components = 0;
+            int top = 0;
+            long edgesExplored = 0;
+            for (int root = 0; root < n; root++) {
+                if (index[root] != -1) continue;
+
+                int depth = 0;
+                index[root] = low[root] = nextIndex++;
+                stack[top++] = root;
+                onStack[root] = true;
+                callVertex[depth] = root;
+                callEdge[depth++] = 0;
+
+                while (depth > 0) {
+                    int u = callVertex[depth - 1];
+                    int i = callEdge[depth - 1];
+                    if (i < graph.getOutDegree(u)) {
+                        callEdge[depth - 1] = i + 1;
+                        edgesExplored++;
+                        int v = graph.getNeighbor(u, i);
+                        if (index[v] == -1) {
+                            index[v] = low[v] = nextIndex++;
+                            stack[top++] = v;
+                            onStack[v] = true;
+                            callVertex[depth] = v;
+                            callEdge[depth++] = 0;
+                        } else if (onStack[v]) {
+                            low[u] = Math.min(low[u], low[v]);
+                        }
+                        continue;
+                    }
+
+                    depth--;
+                    if (low[u] == index[u]) {
+                        int w;
+                        do {
+                            w = stack[--top];
+                            onStack[w] = false;
+                            componentOf[w] = components;
+                            low[w] = index[u];
+                        } while (w != u);
+                        components++;
+                    }
+                    if (depth > 0 && onStack[u]) {
+                        int parent = callVertex[depth - 1];
+                        low[parent] = Math.min(low[parent], low[u]);
+                    }
+                }
+            }
+
+            metrics.incrementCounter("dfs_visits", n);
+            metrics.incrementCounter("edges_explored", edgesExplored);
+            metrics.stopTiming();
+            return components;
+        }
+    }
+}
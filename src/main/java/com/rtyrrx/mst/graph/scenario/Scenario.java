@@ -0,0 +1,88 @@
+package com.rtyrrx.mst.graph.scenario;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoubleUnaryOperator;
+
+// A named what-if variant of a base graph, expressed in vertex ids. Each
+// change names one dependency (the first matching edge, as in
+// Graph.removeEdge) or one task duration.
+public class Scenario {
+    private final String name;
+    private final List<Change> removedDependencies = new ArrayList<>();
+    private final List<Change> addedDependencies = new ArrayList<>();
+    private final List<Change> weightChanges = new ArrayList<>();
+    private final Map<Integer, DoubleUnaryOperator> durationChanges = new LinkedHashMap<>();
+
+    public Scenario(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Scenario removeDependency(int from, int to) {
+        removedDependencies.add(new Change(from, to, 0.0));
+        return this;
+    }
+
+    public Scenario addDependency(int from, int to, double weight) {
+        addedDependencies.add(new Change(from, to, weight));
+        return this;
+    }
+
+    public Scenario changeWeight(int from, int to, double weight) {
+        weightChanges.add(new Change(from, to, weight));
+        return this;
+    }
+
+    public Scenario setDuration(int task, double duration) {
+        durationChanges.merge(task, d -> duration, DoubleUnaryOperator::andThen);
+        return this;
+    }
+
+    public Scenario scaleDuration(int task, double factor) {
+        durationChanges.merge(task, d -> d * factor, DoubleUnaryOperator::andThen);
+        return this;
+    }
+
+    public List<Change> getRemovedDependencies() {
+        return Collections.unmodifiableList(removedDependencies);
+    }
+
+    public List<Change> getAddedDependencies() {
+        return Collections.unmodifiableList(addedDependencies);
+    }
+
+    public List<Change> getWeightChanges() {
+        return Collections.unmodifiableList(weightChanges);
+    }
+
+    public boolean changesDurations() {
+        return !durationChanges.isEmpty();
+    }
+
+    // Returns the base array itself when no duration changes, so scenarios
+    // that only touch dependencies share it.
+    public double[] applyDurations(double[] baseDurations) {
+        if (durationChanges.isEmpty()) {
+            return baseDurations;
+        }
+        double[] result = baseDurations.clone();
+        for (Map.Entry<Integer, DoubleUnaryOperator> change : durationChanges.entrySet()) {
+            int task = change.getKey();
+            if (task < 0 || task >= result.length) {
+                throw new IllegalArgumentException("Scenario " + name + " refers to unknown task " + task);
+            }
+            result[task] = change.getValue().applyAsDouble(result[task]);
+        }
+        return result;
+    }
+
+    public record Change(int from, int to, double weight) {
+    }
+}
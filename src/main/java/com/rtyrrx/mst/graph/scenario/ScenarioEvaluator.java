@@ -0,0 +1,160 @@
+package com.rtyrrx.mst.graph.scenario;
+
+import com.rtyrrx.mst.common.DirectedGraph;
+import com.rtyrrx.mst.common.Metrics;
+import com.rtyrrx.mst.common.MetricsImpl;
+import com.rtyrrx.mst.graph.cpm.CriticalPathMethod;
+import com.rtyrrx.mst.graph.scc.SccEngine;
+import com.rtyrrx.mst.graph.topo.TopologicalSort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+// Runs critical-path and cycle checks for many scenarios over one shared
+// base graph. Every scenario gets its own virtual thread; a semaphore
+// bounds how many hold per-vertex working arrays at once, so memory scales
+// with the concurrency limit rather than the number of scenarios.
+public class ScenarioEvaluator {
+    private final DirectedGraph base;
+    private final double[] baseDurations;
+    private final int maxConcurrent;
+    private final int[] baseOrder;
+    private final int[] basePosition;
+    private final double baselineDuration;
+    private final SccEngine sccEngine = new SccEngine();
+    private final Metrics metrics;
+
+    public ScenarioEvaluator(DirectedGraph base, double[] baseDurations) {
+        this(base, baseDurations, Runtime.getRuntime().availableProcessors());
+    }
+
+    public ScenarioEvaluator(DirectedGraph base, double[] baseDurations, int maxConcurrent) {
+        if (baseDurations.length != base.getVertices()) {
+            throw new IllegalArgumentException("Expected one duration per vertex");
+        }
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("At least one scenario must be able to run");
+        }
+        this.base = base;
+        this.baseDurations = baseDurations;
+        this.maxConcurrent = maxConcurrent;
+        this.metrics = new MetricsImpl("scenario_evaluator");
+
+        baseOrder = new TopologicalSort(base).sortToArray();
+        if (baseOrder != null) {
+            basePosition = new int[baseOrder.length];
+            for (int i = 0; i < baseOrder.length; i++) {
+                basePosition[baseOrder[i]] = i;
+            }
+            baselineDuration = new CriticalPathMethod(base, baseDurations).analyze(baseOrder).projectDuration();
+        } else {
+            basePosition = null;
+            baselineDuration = Double.NaN;
+        }
+    }
+
+    // NaN when the base graph itself is cyclic.
+    public double baselineDuration() {
+        return baselineDuration;
+    }
+
+    public ScenarioResult evaluate(Scenario scenario) {
+        metrics.reset();
+        metrics.startTiming();
+        ScenarioResult result = run(scenario);
+        record(result);
+        metrics.stopTiming();
+        return result;
+    }
+
+    // Results come back in the order of the input list.
+    public List<ScenarioResult> evaluateAll(List<Scenario> scenarios) {
+        metrics.reset();
+        metrics.startTiming();
+        Semaphore permits = new Semaphore(maxConcurrent);
+        List<ScenarioResult> results = new ArrayList<>(scenarios.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<ScenarioResult>> futures = new ArrayList<>(scenarios.size());
+            for (Scenario scenario : scenarios) {
+                futures.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return run(scenario);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            for (Future<ScenarioResult> future : futures) {
+                ScenarioResult result = future.get();
+                record(result);
+                results.add(result);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Scenario evaluation interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Scenario evaluation failed", e.getCause());
+        } finally {
+            metrics.stopTiming();
+        }
+        return results;
+    }
+
+    private ScenarioResult run(Scenario scenario) {
+        ScenarioOverlay overlay = new ScenarioOverlay(base, scenario);
+
+        // Removing edges or changing weights and durations never breaks a
+        // topological order, so the base order is reused unless an added
+        // dependency points backwards in it.
+        boolean reused = baseOrder != null;
+        for (Scenario.Change change : scenario.getAddedDependencies()) {
+            if (reused && basePosition[change.from()] >= basePosition[change.to()]) {
+                reused = false;
+            }
+        }
+        int[] order = reused ? baseOrder : new TopologicalSort(overlay).sortToArray();
+
+        if (order == null) {
+            int cyclicGroups = 0;
+            for (List<Integer> component : sccEngine.findSCCs(overlay)) {
+                if (component.size() > 1) {
+                    cyclicGroups++;
+                }
+            }
+            return new ScenarioResult(scenario.getName(), false, cyclicGroups, Double.NaN, Double.NaN,
+                    new int[0], false);
+        }
+
+        double[] durations = scenario.applyDurations(baseDurations);
+        CriticalPathMethod.CpmResult cpm = new CriticalPathMethod(overlay, durations).analyze(order);
+        return new ScenarioResult(scenario.getName(), true, 0, cpm.projectDuration(),
+                cpm.projectDuration() - baselineDuration, cpm.criticalActivities(), reused);
+    }
+
+    private void record(ScenarioResult result) {
+        metrics.incrementCounter("scenarios");
+        metrics.incrementCounter(result.orderReused() ? "orders_reused" : "orders_recomputed");
+        if (!result.acyclic()) {
+            metrics.incrementCounter("cyclic_scenarios");
+        }
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    // A scenario that introduces a cycle has no schedule; cyclicGroups
+    // counts its strongly connected components with more than one task.
+    public record ScenarioResult(String name, boolean acyclic, int cyclicGroups, double projectDuration,
+                                 double durationChange, int[] criticalActivities, boolean orderReused) {
+    }
+}
@@ -0,0 +1,166 @@
+package com.rtyrrx.mst.graph.scenario;
+
+import com.rtyrrx.mst.common.DirectedGraph;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Copy-on-write view of a base graph with a scenario applied. Only the
+// adjacency of vertices whose outgoing edges change is copied; every other
+// lookup goes straight to the base, which is shared and never modified.
+public class ScenarioOverlay implements DirectedGraph {
+    // A 1024-bit filter over the copied vertices lets most lookups skip
+    // the binary search.
+    private static final int FILTER_MASK = 1023;
+
+    private final DirectedGraph base;
+    private final int edges;
+    private final long[] filter = new long[(FILTER_MASK + 1) / 64];
+    private final int[] copiedVertices;
+    private final int[][] copiedTargets;
+    private final double[][] copiedWeights;
+
+    public ScenarioOverlay(DirectedGraph base, Scenario scenario) {
+        this.base = base;
+
+        Map<Integer, Adjacency> copies = new TreeMap<>();
+        for (Scenario.Change change : scenario.getRemovedDependencies()) {
+            Adjacency adjacency = copy(copies, change);
+            int index = adjacency.find(change.to());
+            if (index < 0) {
+                throw missing(scenario, "remove", change);
+            }
+            adjacency.remove(index);
+        }
+        for (Scenario.Change change : scenario.getAddedDependencies()) {
+            copy(copies, change).add(change.to(), change.weight());
+        }
+        for (Scenario.Change change : scenario.getWeightChanges()) {
+            Adjacency adjacency = copy(copies, change);
+            int index = adjacency.find(change.to());
+            if (index < 0) {
+                throw missing(scenario, "change the weight of", change);
+            }
+            adjacency.weights[index] = change.weight();
+        }
+
+        int edgeCount = base.countEdges();
+        copiedVertices = new int[copies.size()];
+        copiedTargets = new int[copies.size()][];
+        copiedWeights = new double[copies.size()][];
+        int i = 0;
+        for (Map.Entry<Integer, Adjacency> entry : copies.entrySet()) {
+            int v = entry.getKey();
+            Adjacency adjacency = entry.getValue();
+            copiedVertices[i] = v;
+            copiedTargets[i] = Arrays.copyOf(adjacency.targets, adjacency.size);
+            copiedWeights[i] = Arrays.copyOf(adjacency.weights, adjacency.size);
+            edgeCount += adjacency.size - base.getOutDegree(v);
+            filter[(v & FILTER_MASK) >>> 6] |= 1L << v;
+            i++;
+        }
+        this.edges = edgeCount;
+    }
+
+    private Adjacency copy(Map<Integer, Adjacency> copies, Scenario.Change change) {
+        int n = base.getVertices();
+        if (change.from() < 0 || change.from() >= n || change.to() < 0 || change.to() >= n) {
+            throw new IllegalArgumentException("Dependency " + change.from() + " -> " + change.to()
+                    + " refers to an unknown vertex");
+        }
+        return copies.computeIfAbsent(change.from(), this::baseAdjacency);
+    }
+
+    private Adjacency baseAdjacency(int v) {
+        int degree = base.getOutDegree(v);
+        Adjacency adjacency = new Adjacency(degree + 1);
+        for (int i = 0; i < degree; i++) {
+            adjacency.add(base.getNeighbor(v, i), base.getWeight(v, i));
+        }
+        return adjacency;
+    }
+
+    private static IllegalArgumentException missing(Scenario scenario, String action, Scenario.Change change) {
+        return new IllegalArgumentException("Scenario " + scenario.getName() + " cannot " + action
+                + " missing dependency " + change.from() + " -> " + change.to());
+    }
+
+    private int copyIndex(int vertex) {
+        if ((filter[(vertex & FILTER_MASK) >>> 6] & (1L << vertex)) == 0) {
+            return -1;
+        }
+        return Arrays.binarySearch(copiedVertices, vertex);
+    }
+
+    public boolean isCopied(int vertex) {
+        return copyIndex(vertex) >= 0;
+    }
+
+    public int copiedVertexCount() {
+        return copiedVertices.length;
+    }
+
+    @Override
+    public int getVertices() {
+        return base.getVertices();
+    }
+
+    @Override
+    public int countEdges() {
+        return edges;
+    }
+
+    @Override
+    public int getOutDegree(int vertex) {
+        int copy = copyIndex(vertex);
+        return copy < 0 ? base.getOutDegree(vertex) : copiedTargets[copy].length;
+    }
+
+    @Override
+    public int getNeighbor(int vertex, int index) {
+        int copy = copyIndex(vertex);
+        return copy < 0 ? base.getNeighbor(vertex, index) : copiedTargets[copy][index];
+    }
+
+    @Override
+    public double getWeight(int vertex, int index) {
+        int copy = copyIndex(vertex);
+        return copy < 0 ? base.getWeight(vertex, index) : copiedWeights[copy][index];
+    }
+
+    private static final class Adjacency {
+        int[] targets;
+        double[] weights;
+        int size;
+
+        Adjacency(int capacity) {
+            targets = new int[capacity];
+            weights = new double[capacity];
+        }
+
+        int find(int target) {
+            for (int i = 0; i < size; i++) {
+                if (targets[i] == target) return i;
+            }
+            return -1;
+        }
+
+        void add(int target, double weight) {
+            if (size == targets.length) {
+                targets = Arrays.copyOf(targets, size * 2 + 1);
+                weights = Arrays.copyOf(weights, size * 2 + 1);
+            }
+            targets[size] = target;
+            weights[size] = weight;
+            size++;
+        }
+
+        // Swap-remove, matching Graph.removeEdge.
+        void remove(int index) {
+            size--;
+            targets[index] = targets[size];
+            weights[index] = weights[size];
+        }
+    }
+}
@@ -1,65 +1,141 @@
 package com.rtyrrx.mst.graph.topo;
 
+import com.rtyrrx.mst.common.DirectedGraph;
+import com.rtyrrx.mst.common.EdgeCursor;
 import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.common.IndexedDaryHeap;
+import com.rtyrrx.mst.common.ReverseAdjacency;
 import com.rtyrrx.mst.common.Metrics;
 import com.rtyrrx.mst.common.MetricsImpl;
+import com.rtyrrx.mst.observability.TopologicalSortEvent;
 
 import java.util.*;
 
 public class TopologicalSort {
-    private final Graph graph;
+    private final DirectedGraph graph;
     private final Metrics metrics;
 
-    public TopologicalSort(Graph graph) {
+    public TopologicalSort(DirectedGraph graph) {
         this.graph = graph;
-        this.metrics = new MetricsImpl();
+        this.metrics = new MetricsImpl("topological_sort");
     }
 
     public List<Integer> sort() {
+        int[] order = sortToArray();
+        if (order == null) {
+            return null;
+        }
+
+        List<Integer> topoOrder = new ArrayList<>(order.length);
+        for (int v : order) {
+            topoOrder.add(v);
+        }
+        return topoOrder;
+    }
+
+    // Kahn's algorithm with the output array doubling as the FIFO queue:
+    // vertices are appended at the tail and consumed from the head.
+    public int[] sortToArray() {
         int n = graph.getVertices();
-        int[] inDegree = new int[n];
+        int[] order = new int[n];
 
+        TopologicalSortEvent event = new TopologicalSortEvent();
+        event.begin();
         metrics.reset();
         metrics.startTiming();
 
-        for (int v = 0; v < n; v++) {
-            for (int neighbor : graph.getAdjacentVertices(v)) {
-                inDegree[neighbor]++;
-            }
-        }
+        // A Graph keeps its in-degrees cached between sorts, so only the
+        // first sort after a change counts them. Edges are read through a
+        // cursor so compressed layouts decode each list once per pass.
+        int[] inDegree = graph instanceof Graph cached
+                ? cached.copyInDegrees()
+                : ReverseAdjacency.countInDegrees(graph);
+        EdgeCursor edges = graph.cursor();
 
-        Queue<Integer> queue = new LinkedList<>();
+        int tail = 0;
         for (int v = 0; v < n; v++) {
             if (inDegree[v] == 0) {
-                queue.offer(v);
-                metrics.incrementCounter("queue_pushes");
+                order[tail++] = v;
             }
         }
 
-        List<Integer> topoOrder = new ArrayList<>();
-
-        while (!queue.isEmpty()) {
-            int v = queue.poll();
-            metrics.incrementCounter("queue_pops");
-            topoOrder.add(v);
-
-            for (int neighbor : graph.getAdjacentVertices(v)) {
-                metrics.incrementCounter("edges_processed");
-                inDegree[neighbor]--;
-                if (inDegree[neighbor] == 0) {
-                    queue.offer(neighbor);
-                    metrics.incrementCounter("queue_pushes");
+        int head = 0;
+        long edgesProcessed = 0;
+        while (head < tail) {
+            int v = order[head++];
+
+            edges.reset(v);
+            while (edges.next()) {
+                edgesProcessed++;
+                int neighbor = edges.target();
+                if (--inDegree[neighbor] == 0) {
+                    order[tail++] = neighbor;
                 }
             }
         }
 
+        metrics.incrementCounter("queue_pushes", tail);
+        metrics.incrementCounter("queue_pops", head);
+        metrics.incrementCounter("edges_processed", edgesProcessed);
         metrics.stopTiming();
+        if (event.shouldCommit()) {
+            event.vertices = n;
+            event.edgesProcessed = edgesProcessed;
+            event.queuePushes = tail;
+            event.acyclic = tail == n;
+            event.commit();
+        }
 
-        if (topoOrder.size() != n) {
+        if (tail != n) {
             return null;
         }
 
-        return topoOrder;
+        return order;
+    }
+
+    // Kahn's algorithm with the ready set in a heap instead of a FIFO, so
+    // among the vertices whose predecessors are all placed the one with the
+    // smallest key goes next. The order depends only on the graph and the
+    // keys, never on edge insertion order.
+    public int[] sortByPriority(VertexPriority priority) {
+        int n = graph.getVertices();
+        int[] order = new int[n];
+
+        metrics.reset();
+        metrics.startTiming();
+
+        int[] inDegree = graph instanceof Graph cached
+                ? cached.copyInDegrees()
+                : ReverseAdjacency.countInDegrees(graph);
+        IndexedDaryHeap ready = new IndexedDaryHeap(n);
+        for (int v = 0; v < n; v++) {
+            if (inDegree[v] == 0) {
+                ready.push(v, priority.key(v));
+            }
+        }
+
+        EdgeCursor edges = graph.cursor();
+        int count = 0;
+        long edgesProcessed = 0;
+        while (!ready.isEmpty()) {
+            int v = ready.pop();
+            order[count++] = v;
+
+            edges.reset(v);
+            while (edges.next()) {
+                edgesProcessed++;
+                int neighbor = edges.target();
+                if (--inDegree[neighbor] == 0) {
+                    ready.push(neighbor, priority.key(neighbor));
+                }
+            }
+        }
+
+        metrics.incrementCounter("heap_pushes", count);
+        metrics.incrementCounter("heap_pops", count);
+        metrics.incrementCounter("edges_processed", edgesProcessed);
+        metrics.stopTiming();
+        return count == n ? order : null;
     }
 
     public List<Integer> sortDFS() {
@@ -95,8 +171,10 @@ public class TopologicalSort {
         visited[v] = true;
         recStack[v] = true;
 
-        for (int neighbor : graph.getAdjacentVertices(v)) {
+        int degree = graph.getOutDegree(v);
+        for (int i = 0; i < degree; i++) {
             metrics.incrementCounter("edges_explored");
+            int neighbor = graph.getNeighbor(v, i);
 
             if (!visited[neighbor]) {
                 if (hasCycle(neighbor, visited, recStack, stack)) {
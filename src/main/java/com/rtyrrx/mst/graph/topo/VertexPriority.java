@@ -0,0 +1,63 @@
+package com.rtyrrx.mst.graph.topo;
+
+import com.rtyrrx.mst.common.DirectedGraph;
+import com.rtyrrx.mst.common.EdgeCursor;
+import com.rtyrrx.mst.common.Graph;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+// Sort key for ready vertices in TopologicalSort.sortByPriority: smaller
+// keys are scheduled first, ties go to the smaller vertex id. Keys are
+// read once per vertex, so factories precompute whatever they need.
+@FunctionalInterface
+public interface VertexPriority {
+    double key(int vertex);
+
+    static VertexPriority byVertexId() {
+        return vertex -> vertex;
+    }
+
+    // Lexicographic task id; vertices without a task id come last.
+    static VertexPriority byTaskId(Graph graph) {
+        int n = graph.getVertices();
+        Integer[] vertices = new Integer[n];
+        for (int v = 0; v < n; v++) {
+            vertices[v] = v;
+        }
+        Arrays.sort(vertices, Comparator.comparing(graph::getTaskId, Comparator.nullsLast(Comparator.naturalOrder())));
+        double[] rank = new double[n];
+        for (int r = 0; r < n; r++) {
+            rank[vertices[r]] = r;
+        }
+        return vertex -> rank[vertex];
+    }
+
+    static VertexPriority byLongestDuration(double[] durations) {
+        return vertex -> -durations[vertex];
+    }
+
+    // Longest chain of durations and lags from the vertex to any sink, its
+    // own duration included; the classic list-scheduling priority.
+    static VertexPriority byLongestRemainingPath(DirectedGraph graph, double[] durations) {
+        if (durations.length != graph.getVertices()) {
+            throw new IllegalArgumentException("Expected one duration per vertex");
+        }
+        int[] order = new TopologicalSort(graph).sortToArray();
+        if (order == null) {
+            throw new IllegalArgumentException("Remaining path lengths need an acyclic graph");
+        }
+        double[] remaining = new double[order.length];
+        EdgeCursor edges = graph.cursor();
+        for (int k = order.length - 1; k >= 0; k--) {
+            int u = order[k];
+            double tail = 0.0;
+            edges.reset(u);
+            while (edges.next()) {
+                tail = Math.max(tail, edges.weight() + remaining[edges.target()]);
+            }
+            remaining[u] = durations[u] + tail;
+        }
+        return vertex -> -remaining[vertex];
+    }
+}
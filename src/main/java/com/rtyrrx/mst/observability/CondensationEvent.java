@@ -0,0 +1,23 @@
+package com.rtyrrx.mst.observability;
+
+import jdk.jfr.*;
+
+// Building the DAG of SCCs, including the deduplication of parallel
+// component edges.
+@Name("com.rtyrrx.mst.Condensation")
+@Label("Condensation")
+@Category({"Smart City Scheduler", "Pipeline"})
+@StackTrace(false)
+public class CondensationEvent extends Event {
+    @Label("Vertices")
+    public int vertices;
+
+    @Label("Edges")
+    public int edges;
+
+    @Label("Components")
+    public int components;
+
+    @Label("Condensation Edges")
+    public int condensationEdges;
+}
@@ -0,0 +1,16 @@
+package com.rtyrrx.mst.observability;
+
+import jdk.jfr.*;
+
+// Conversion of a parsed TaskGraph into the adjacency-list Graph.
+@Name("com.rtyrrx.mst.GraphBuild")
+@Label("Graph Build")
+@Category({"Smart City Scheduler", "Pipeline"})
+@StackTrace(false)
+public class GraphBuildEvent extends Event {
+    @Label("Vertices")
+    public int vertices;
+
+    @Label("Edges")
+    public int edges;
+}
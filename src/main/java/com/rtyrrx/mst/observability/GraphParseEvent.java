@@ -0,0 +1,19 @@
+package com.rtyrrx.mst.observability;
+
+import jdk.jfr.*;
+
+// Gson parsing of a dataset file into a TaskGraph.
+@Name("com.rtyrrx.mst.GraphParse")
+@Label("Graph Parse")
+@Category({"Smart City Scheduler", "Pipeline"})
+@StackTrace(false)
+public class GraphParseEvent extends Event {
+    @Label("File")
+    public String file;
+
+    @Label("Tasks")
+    public int tasks;
+
+    @Label("Dependencies")
+    public int dependencies;
+}
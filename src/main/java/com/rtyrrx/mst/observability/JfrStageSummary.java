@@ -0,0 +1,86 @@
+package com.rtyrrx.mst.observability;
+
+import jdk.jfr.ValueDescriptor;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+
+// Usage: java -cp target/classes com.rtyrrx.mst.observability.JfrStageSummary <recording.jfr>
+// Record with e.g. -XX:StartFlightRecording=filename=run.jfr; the pipeline
+// events are enabled by default. Prints one row per stage with the number
+// of events, their total and worst duration, and the sums of their
+// numeric fields (vertices, relaxations, ...).
+public class JfrStageSummary {
+    private static final String EVENT_PREFIX = "com.rtyrrx.mst.";
+    // Integral fields that are timestamps or identifiers rather than counts.
+    private static final Set<String> NOT_SUMMED = Set.of("startTime", "duration", "source");
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: java JfrStageSummary <recording.jfr>");
+            return;
+        }
+        List<StageSummary> stages = summarize(Path.of(args[0]));
+        if (stages.isEmpty()) {
+            System.out.println("No pipeline events in " + args[0]);
+            return;
+        }
+
+        System.out.printf("%-18s %8s %12s %12s %12s  %s%n", "stage", "events", "total ms", "mean ms", "max ms", "totals");
+        for (StageSummary stage : stages) {
+            StringJoiner totals = new StringJoiner(", ");
+            stage.fieldTotals().forEach((field, value) -> totals.add(field + "=" + value));
+            System.out.printf("%-18s %8d %12.3f %12.3f %12.3f  %s%n", stage.stage(), stage.events(),
+                    millis(stage.total()), millis(stage.total()) / stage.events(), millis(stage.max()), totals);
+        }
+    }
+
+    // Stages come back ordered by total time, slowest first.
+    public static List<StageSummary> summarize(Path recording) throws IOException {
+        Map<String, Accumulator> byStage = new LinkedHashMap<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(recording)) {
+            String name = event.getEventType().getName();
+            if (!name.startsWith(EVENT_PREFIX)) continue;
+            byStage.computeIfAbsent(name.substring(EVENT_PREFIX.length()), stage -> new Accumulator()).add(event);
+        }
+
+        List<StageSummary> stages = new ArrayList<>();
+        byStage.forEach((stage, acc) -> stages.add(
+                new StageSummary(stage, acc.events, acc.total, acc.max, acc.fieldTotals)));
+        stages.sort(Comparator.comparing(StageSummary::total).reversed());
+        return stages;
+    }
+
+    private static double millis(Duration duration) {
+        return duration.toNanos() / 1_000_000.0;
+    }
+
+    public record StageSummary(String stage, int events, Duration total, Duration max,
+                               Map<String, Long> fieldTotals) {
+    }
+
+    private static final class Accumulator {
+        int events;
+        Duration total = Duration.ZERO;
+        Duration max = Duration.ZERO;
+        final Map<String, Long> fieldTotals = new LinkedHashMap<>();
+
+        void add(RecordedEvent event) {
+            events++;
+            total = total.plus(event.getDuration());
+            if (event.getDuration().compareTo(max) > 0) {
+                max = event.getDuration();
+            }
+            for (ValueDescriptor field : event.getEventType().getFields()) {
+                String type = field.getTypeName();
+                boolean integral = type.equals("int") || type.equals("long");
+                if (!integral || NOT_SUMMED.contains(field.getName())) continue;
+                fieldTotals.merge(field.getName(), event.getLong(field.getName()), Long::sum);
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.rtyrrx.mst.observability;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Process-wide aggregation of what the algorithms count and time. Named
+// MetricsImpl instances publish here when a run stops, but only while the
+// registry is enabled, so an unobserved process pays a single volatile
+// read per algorithm run.
+public final class MetricsRegistry {
+    private static final MetricsRegistry GLOBAL = new MetricsRegistry();
+
+    // Upper bounds of the run duration histogram, in nanoseconds.
+    static final long[] BUCKET_BOUNDS = {
+            100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L, 10_000_000_000L};
+
+    private final Map<String, Series> series = new ConcurrentHashMap<>();
+    // Calls that changed the registry, so tests can check that publishing
+    // costs a fixed number of updates per run, whatever the graph size.
+    private final LongAdder updates = new LongAdder();
+    private volatile boolean enabled;
+
+    public static MetricsRegistry global() {
+        return GLOBAL;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public void recordRun(String algorithm, long elapsedNanos) {
+        updates.increment();
+        series(algorithm).observe(elapsedNanos);
+    }
+
+    // A further slice of a run already recorded: adds to its time and moves
+    // it to the bucket of its new total, without counting another run.
+    public void extendRun(String algorithm, long previousNanos, long totalNanos) {
+        updates.increment();
+        series(algorithm).extend(previousNanos, totalNanos);
+    }
+
+    public void addCounter(String algorithm, String counter, long delta) {
+        updates.increment();
+        series(algorithm).counters.computeIfAbsent(counter, name -> new LongAdder()).add(delta);
+    }
+
+    // Sorted by name so scrapes list series in a stable order.
+    public Map<String, Series> snapshot() {
+        return new TreeMap<>(series);
+    }
+
+    public void clear() {
+        series.clear();
+    }
+
+    long updates() {
+        return updates.sum();
+    }
+
+    private Series series(String algorithm) {
+        Series existing = series.get(algorithm);
+        return existing != null ? existing : series.computeIfAbsent(algorithm, name -> new Series());
+    }
+
+    public static final class Series {
+        private final LongAdder runs = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS.length];
+        private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+        Series() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void observe(long elapsedNanos) {
+            runs.increment();
+            totalNanos.add(elapsedNanos);
+            int bucket = bucket(elapsedNanos);
+            if (bucket >= 0) buckets[bucket].increment();
+        }
+
+        void extend(long previousNanos, long totalNanos) {
+            this.totalNanos.add(totalNanos - previousNanos);
+            int from = bucket(previousNanos);
+            int to = bucket(totalNanos);
+            if (from != to) {
+                if (from >= 0) buckets[from].decrement();
+                if (to >= 0) buckets[to].increment();
+            }
+        }
+
+        // -1 above the last bound; those runs only show in +Inf.
+        private static int bucket(long elapsedNanos) {
+            for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+                if (elapsedNanos <= BUCKET_BOUNDS[i]) return i;
+            }
+            return -1;
+        }
+
+        public long runs() {
+            return runs.sum();
+        }
+
+        public long totalNanos() {
+            return totalNanos.sum();
+        }
+
+        // Cumulative count of runs at or below each bucket bound.
+        public long[] cumulativeBuckets() {
+            long[] cumulative = new long[buckets.length];
+            long sum = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                sum += buckets[i].sum();
+                cumulative[i] = sum;
+            }
+            return cumulative;
+        }
+
+        public Map<String, Long> counters() {
+            Map<String, Long> values = new TreeMap<>();
+            counters.forEach((name, adder) -> values.put(name, adder.sum()));
+            return values;
+        }
+    }
+}
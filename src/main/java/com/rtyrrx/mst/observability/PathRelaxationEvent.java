@@ -0,0 +1,22 @@
+package com.rtyrrx.mst.observability;
+
+import jdk.jfr.*;
+
+// One DAG path computation, including the topological sort it needs.
+@Name("com.rtyrrx.mst.PathRelaxation")
+@Label("Path Relaxation")
+@Category({"Smart City Scheduler", "Pipeline"})
+@StackTrace(false)
+public class PathRelaxationEvent extends Event {
+    @Label("Vertices")
+    public int vertices;
+
+    @Label("Mode")
+    public String mode;
+
+    @Label("Source")
+    public int source;
+
+    @Label("Relaxations")
+    public long relaxations;
+}
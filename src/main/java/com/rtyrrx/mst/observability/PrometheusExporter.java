@@ -0,0 +1,90 @@
+package com.rtyrrx.mst.observability;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+// Serves a MetricsRegistry in the Prometheus text exposition format on
+// /metrics. The registry is enabled while the exporter runs; formatting
+// happens on the scrape, never on the algorithms' threads.
+public class PrometheusExporter implements AutoCloseable {
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final MetricsRegistry registry;
+    private final HttpServer server;
+
+    private PrometheusExporter(MetricsRegistry registry, HttpServer server) {
+        this.registry = registry;
+        this.server = server;
+    }
+
+    // Port 0 picks a free port; see port().
+    public static PrometheusExporter start(MetricsRegistry registry, int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/metrics", exchange -> {
+            byte[] body = format(registry).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        registry.setEnabled(true);
+        return new PrometheusExporter(registry, server);
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        registry.setEnabled(false);
+        server.stop(0);
+    }
+
+    public static String format(MetricsRegistry registry) {
+        Map<String, MetricsRegistry.Series> snapshot = registry.snapshot();
+        StringBuilder out = new StringBuilder();
+
+        out.append("# HELP mst_operations_total Operations counted by the scheduling algorithms.\n");
+        out.append("# TYPE mst_operations_total counter\n");
+        snapshot.forEach((algorithm, series) -> series.counters().forEach((counter, value) ->
+                out.append("mst_operations_total{algorithm=\"").append(escape(algorithm))
+                        .append("\",counter=\"").append(escape(counter)).append("\"} ")
+                        .append(value).append('\n')));
+
+        out.append("# HELP mst_run_duration_seconds Wall time of algorithm runs.\n");
+        out.append("# TYPE mst_run_duration_seconds histogram\n");
+        snapshot.forEach((algorithm, series) -> {
+            String label = "algorithm=\"" + escape(algorithm) + "\"";
+            long[] cumulative = series.cumulativeBuckets();
+            for (int i = 0; i < cumulative.length; i++) {
+                out.append("mst_run_duration_seconds_bucket{").append(label).append(",le=\"")
+                        .append(seconds(MetricsRegistry.BUCKET_BOUNDS[i])).append("\"} ")
+                        .append(cumulative[i]).append('\n');
+            }
+            out.append("mst_run_duration_seconds_bucket{").append(label).append(",le=\"+Inf\"} ")
+                    .append(series.runs()).append('\n');
+            out.append("mst_run_duration_seconds_sum{").append(label).append("} ")
+                    .append(seconds(series.totalNanos())).append('\n');
+            out.append("mst_run_duration_seconds_count{").append(label).append("} ")
+                    .append(series.runs()).append('\n');
+        });
+        return out.toString();
+    }
+
+    private static String seconds(long nanos) {
+        return BigDecimal.valueOf(nanos, 9).stripTrailingZeros().toPlainString();
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
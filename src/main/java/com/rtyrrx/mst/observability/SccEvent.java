@@ -0,0 +1,25 @@
+package com.rtyrrx.mst.observability;
+
+import jdk.jfr.*;
+
+// One run of Tarjan's algorithm.
+@Name("com.rtyrrx.mst.Scc")
+@Label("SCC Detection")
+@Category({"Smart City Scheduler", "Pipeline"})
+@StackTrace(false)
+public class SccEvent extends Event {
+    @Label("Vertices")
+    public int vertices;
+
+    @Label("Edges")
+    public int edges;
+
+    @Label("Components")
+    public int components;
+
+    @Label("DFS Visits")
+    public long dfsVisits;
+
+    @Label("Edges Explored")
+    public long edgesExplored;
+}
@@ -0,0 +1,22 @@
+package com.rtyrrx.mst.observability;
+
+import jdk.jfr.*;
+
+// One Kahn pass; acyclic is false when the graph had a cycle.
+@Name("com.rtyrrx.mst.TopologicalSort")
+@Label("Topological Sort")
+@Category({"Smart City Scheduler", "Pipeline"})
+@StackTrace(false)
+public class TopologicalSortEvent extends Event {
+    @Label("Vertices")
+    public int vertices;
+
+    @Label("Edges Processed")
+    public long edgesProcessed;
+
+    @Label("Queue Pushes")
+    public long queuePushes;
+
+    @Label("Acyclic")
+    public boolean acyclic;
+}
@@ -0,0 +1,142 @@
+package com.rtyrrx.mst;
+
+import com.google.gson.Gson;
+import com.rtyrrx.mst.cache.SchedulingResult;
+import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.data.DeltaApplier;
+import com.rtyrrx.mst.data.GraphDelta;
+import com.rtyrrx.mst.data.GraphLoader;
+import com.rtyrrx.mst.data.TaskGraph;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchedulingPipelineTest {
+
+    private static Graph load(TaskGraph taskGraph) throws IOException {
+        Path file = Files.createTempFile("pipeline-snapshot", ".json");
+        try {
+            Files.writeString(file, new Gson().toJson(taskGraph));
+            return GraphLoader.loadFromJson(file.toString());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testDeltaThenAnalyzeMatchesSnapshot() throws IOException {
+        String dataset = "data/small_dag.json";
+        GraphDelta delta = new GraphDelta();
+        delta.removeTask("T0");
+        delta.removeTask("T3");
+        delta.addTask(new TaskGraph.Task("N1", "new", 4.0));
+        delta.addDependency(new TaskGraph.Dependency("N1", "T1", 2.0));
+
+        Graph graph = GraphLoader.loadFromJson(dataset);
+        TaskGraph taskGraph = GraphLoader.loadTaskGraph(dataset);
+        new DeltaApplier(graph, taskGraph).apply(delta);
+        SchedulingResult applied = SchedulingPipeline.analyze(graph, taskGraph, new HashMap<>());
+
+        // The same graph written out as a dataset of its own.
+        TaskGraph snapshot = GraphLoader.loadTaskGraph(dataset);
+        Set<String> removed = Set.of("T0", "T3");
+        snapshot.getTasks().removeIf(task -> removed.contains(task.getId()));
+        snapshot.getDependencies().removeIf(dep -> removed.contains(dep.getFrom()) || removed.contains(dep.getTo()));
+        snapshot.addTask(new TaskGraph.Task("N1", "new", 4.0));
+        snapshot.addDependency(new TaskGraph.Dependency("N1", "T1", 2.0));
+        Graph snapshotGraph = load(snapshot);
+        SchedulingResult expected = SchedulingPipeline.analyze(snapshotGraph, snapshot, new HashMap<>());
+
+        assertEquals(snapshotGraph.getVertices(), graph.getVertices());
+        for (int v = 0; v < graph.getVertices(); v++) {
+            assertEquals(snapshotGraph.getTaskId(v), graph.getTaskId(v));
+        }
+        assertEquals(expected.componentOf().length, applied.componentOf().length);
+        assertArrayEquals(expected.topoOrder(), applied.topoOrder());
+        assertArrayEquals(expected.paths().criticalPath(), applied.paths().criticalPath());
+        assertEquals(expected.paths().criticalPathLength(), applied.paths().criticalPathLength(), 0.0);
+        assertEquals(expected.paths().projectDuration(), applied.paths().projectDuration(), 0.0);
+        assertArrayEquals(expected.encode(), applied.encode());
+    }
+
+    @Test
+    void testRemovedDependencyKeepsSnapshotEdgeOrder() throws IOException {
+        String dataset = "data/small_dag.json";
+        GraphDelta delta = new GraphDelta();
+        delta.removeDependency("T0", "T4");
+        delta.addDependency(new TaskGraph.Dependency("T0", "T6", 3.0));
+
+        Graph graph = GraphLoader.loadFromJson(dataset);
+        TaskGraph taskGraph = GraphLoader.loadTaskGraph(dataset);
+        new DeltaApplier(graph, taskGraph).apply(delta);
+
+        TaskGraph snapshot = GraphLoader.loadTaskGraph(dataset);
+        snapshot.getDependencies().removeIf(dep -> dep.getFrom().equals("T0") && dep.getTo().equals("T4"));
+        snapshot.addDependency(new TaskGraph.Dependency("T0", "T6", 3.0));
+        Graph snapshotGraph = load(snapshot);
+
+        for (int v = 0; v < graph.getVertices(); v++) {
+            assertEquals(snapshotGraph.getAdjacentVertices(v), graph.getAdjacentVertices(v));
+            for (int i = 0; i < graph.getOutDegree(v); i++) {
+                assertEquals(snapshotGraph.getWeight(v, i), graph.getWeight(v, i), 0.0);
+            }
+        }
+        assertArrayEquals(SchedulingPipeline.analyze(snapshotGraph, snapshot, new HashMap<>()).encode(),
+                SchedulingPipeline.analyze(graph, taskGraph, new HashMap<>()).encode());
+    }
+
+    @Test
+    void testNegativeLagKeepsCriticalPathInsideChain() {
+        // 0 -5-> 1 -(-10)-> 2: the longest path from 0 ends at 1, which
+        // sits inside the only chain.
+        TaskGraph taskGraph = new TaskGraph();
+        Graph graph = new Graph(3);
+        for (int v = 0; v < 3; v++) {
+            taskGraph.addTask(new TaskGraph.Task("T" + v, "t" + v, 1.0));
+            graph.mapTaskToVertex("T" + v, v);
+        }
+        graph.addEdge(0, 1, 5.0);
+        graph.addEdge(1, 2, -10.0);
+
+        SchedulingResult result = SchedulingPipeline.analyze(graph, taskGraph, new HashMap<>());
+
+        int[] componentOf = result.componentOf();
+        assertArrayEquals(new int[]{componentOf[0], componentOf[1]}, result.paths().criticalPath());
+        assertEquals(5.0, result.paths().criticalPathLength(), 0.0);
+        assertEquals(-5.0, result.paths().longestDistances()[componentOf[2]], 0.0);
+    }
+
+    @Test
+    void testBreakCyclesRemovesFeedbackArcs() throws IOException {
+        Graph graph = GraphLoader.loadFromJson("data/small_cyclic.json");
+        TaskGraph taskGraph = GraphLoader.loadTaskGraph("data/small_cyclic.json");
+        int edges = graph.countEdges();
+        long hash = graph.getContentHash();
+
+        SchedulingResult kept = SchedulingPipeline.analyze(graph, taskGraph, new HashMap<>());
+        assertEquals(-1, kept.feedbackEdges());
+        assertEquals(edges, graph.countEdges());
+
+        SchedulingResult broken = SchedulingPipeline.analyze(graph, taskGraph, new HashMap<>(), true);
+        assertTrue(broken.feedbackEdges() > 0);
+        assertEquals(edges - broken.feedbackEdges(), graph.countEdges());
+        assertEquals(graph.getVertices(), broken.components().length);
+        assertNotEquals(hash, graph.getContentHash());
+    }
+
+    @Test
+    void testCacheKeySeparatesBrokenCycles() {
+        Graph graph = new Graph(2);
+        graph.setContentHash(99L);
+
+        assertEquals(SchedulingPipeline.cacheKey(graph, false), SchedulingPipeline.cacheKey(graph, false));
+        assertNotEquals(SchedulingPipeline.cacheKey(graph, false), SchedulingPipeline.cacheKey(graph, true));
+        assertNotEquals(99L, SchedulingPipeline.cacheKey(graph, false));
+    }
+}
@@ -0,0 +1,104 @@
+package com.rtyrrx.mst.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultCacheTest {
+
+    @Test
+    void testRoundTrip(@TempDir Path dir) throws IOException {
+        ResultCache cache = new ResultCache(dir, 1 << 20);
+        cache.put(42L, new byte[]{1, 2, 3});
+
+        assertArrayEquals(new byte[]{1, 2, 3}, cache.get(42L));
+        assertNull(cache.get(43L));
+        assertEquals(1, cache.getMetrics().getCounter("cache_hits"));
+        assertEquals(1, cache.getMetrics().getCounter("cache_misses"));
+    }
+
+    @Test
+    void testEntriesSurviveNewInstance(@TempDir Path dir) throws IOException {
+        new ResultCache(dir, 1 << 20).put(-7L, new byte[]{9});
+
+        assertArrayEquals(new byte[]{9}, new ResultCache(dir, 1 << 20).get(-7L));
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsed(@TempDir Path dir) throws IOException {
+        ResultCache cache = new ResultCache(dir, 250);
+        cache.put(1L, new byte[100]);
+        cache.put(2L, new byte[100]);
+        // Make entry 1 older, then use it so entry 2 becomes the victim.
+        for (Path file : Files.newDirectoryStream(dir)) {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(1_000));
+        }
+        Files.setLastModifiedTime(dir.resolve(String.format("%016x.bin", 2L)), FileTime.fromMillis(2_000));
+        assertNotNull(cache.get(1L));
+
+        cache.put(3L, new byte[100]);
+
+        assertNotNull(cache.get(1L));
+        assertNull(cache.get(2L));
+        assertNotNull(cache.get(3L));
+        assertEquals(1, cache.getMetrics().getCounter("cache_evictions"));
+        assertTrue(cache.sizeBytes() <= 250);
+    }
+
+    @Test
+    void testOversizedPayloadIsNotStored(@TempDir Path dir) throws IOException {
+        ResultCache cache = new ResultCache(dir, 64);
+        cache.put(1L, new byte[100]);
+
+        assertNull(cache.get(1L));
+        assertEquals(0, cache.sizeBytes());
+    }
+
+    @Test
+    void testCorruptEntryIsAMiss(@TempDir Path dir) throws IOException {
+        ResultCache cache = new ResultCache(dir, 1 << 20);
+        cache.put(5L, new byte[]{1, 2, 3, 4});
+        Path file = dir.resolve(String.format("%016x.bin", 5L));
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, java.util.Arrays.copyOf(bytes, bytes.length - 2));
+
+        assertNull(cache.get(5L));
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void testFlippedPayloadByteIsAMiss(@TempDir Path dir) throws IOException {
+        ResultCache cache = new ResultCache(dir, 1 << 20);
+        cache.put(6L, new byte[]{1, 2, 3, 4});
+        Path file = dir.resolve(String.format("%016x.bin", 6L));
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(file, bytes);
+
+        assertNull(cache.get(6L));
+        assertFalse(Files.exists(file));
+        assertEquals(1, cache.getMetrics().getCounter("cache_misses"));
+    }
+
+    @Test
+    void testRemovedEntryIsAMiss(@TempDir Path dir) throws IOException {
+        ResultCache cache = new ResultCache(dir, 1 << 20);
+        cache.put(7L, new byte[]{1});
+        cache.remove(7L);
+        cache.remove(7L);
+
+        assertNull(cache.get(7L));
+        assertEquals(0, cache.sizeBytes());
+    }
+
+    @Test
+    void testRejectsNonPositiveBound(@TempDir Path dir) {
+        assertThrows(IllegalArgumentException.class, () -> new ResultCache(dir, 0));
+    }
+}
@@ -0,0 +1,65 @@
+package com.rtyrrx.mst.cache;
+
+import com.rtyrrx.mst.SchedulingPipeline;
+import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.data.GraphLoader;
+import com.rtyrrx.mst.data.TaskGraph;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.HashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchedulingResultTest {
+
+    @Test
+    void testEncodeDecodeRoundTrip() throws IOException {
+        Graph graph = GraphLoader.loadFromJson("data/medium_dense.json");
+        TaskGraph taskGraph = GraphLoader.loadTaskGraph("data/medium_dense.json");
+        SchedulingResult result = SchedulingPipeline.analyze(graph, taskGraph, new HashMap<>());
+
+        SchedulingResult decoded = SchedulingResult.decode(result.encode());
+
+        assertEquals(result.feedbackEdges(), decoded.feedbackEdges());
+        assertEquals(result.feedbackWeight(), decoded.feedbackWeight());
+        assertArrayEquals(result.componentOf(), decoded.componentOf());
+        assertArrayEquals(result.components(), decoded.components());
+        assertEquals(result.groupOrders().size(), decoded.groupOrders().size());
+        assertArrayEquals(result.groupOrders().getFirst().tasks(), decoded.groupOrders().getFirst().tasks());
+        assertArrayEquals(result.condensationOffsets(), decoded.condensationOffsets());
+        assertArrayEquals(result.condensationTargets(), decoded.condensationTargets());
+        assertArrayEquals(result.condensationWeights(), decoded.condensationWeights());
+        assertArrayEquals(result.topoOrder(), decoded.topoOrder());
+
+        SchedulingResult.Paths paths = result.paths();
+        SchedulingResult.Paths decodedPaths = decoded.paths();
+        assertEquals(paths.source(), decodedPaths.source());
+        assertArrayEquals(paths.shortestDistances(), decodedPaths.shortestDistances());
+        assertArrayEquals(paths.longestDistances(), decodedPaths.longestDistances());
+        assertArrayEquals(paths.criticalPath(), decodedPaths.criticalPath());
+        assertEquals(paths.nearCriticalPaths(), decodedPaths.nearCriticalPaths());
+        assertEquals(paths.projectDuration(), decodedPaths.projectDuration());
+        assertArrayEquals(paths.zeroFloatComponents(), decodedPaths.zeroFloatComponents());
+    }
+
+    @Test
+    void testEmptyGraphHasNoPaths() throws IOException {
+        SchedulingResult result = SchedulingPipeline.analyze(new Graph(0), new TaskGraph(), new HashMap<>());
+
+        SchedulingResult decoded = SchedulingResult.decode(result.encode());
+
+        assertNull(decoded.paths());
+        assertEquals(0, decoded.condensationVertices());
+        assertEquals(-1, decoded.feedbackEdges());
+    }
+
+    @Test
+    void testTruncatedDataIsRejected() throws IOException {
+        Graph graph = GraphLoader.loadFromJson("data/small_dag.json");
+        TaskGraph taskGraph = GraphLoader.loadTaskGraph("data/small_dag.json");
+        byte[] data = SchedulingPipeline.analyze(graph, taskGraph, new HashMap<>()).encode();
+
+        assertThrows(IOException.class, () -> SchedulingResult.decode(java.util.Arrays.copyOf(data, data.length / 2)));
+    }
+}
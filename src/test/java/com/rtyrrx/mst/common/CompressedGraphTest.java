@@ -0,0 +1,145 @@
+package com.rtyrrx.mst.common;
+
+import com.rtyrrx.mst.graph.scc.SCC;
+import com.rtyrrx.mst.graph.topo.TopologicalSort;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedGraphTest {
+
+    private static Graph randomGraph(int n, int edges, boolean integerWeights, long seed) {
+        Random random = new Random(seed);
+        Graph graph = new Graph(n);
+        for (int e = 0; e < edges; e++) {
+            double weight = integerWeights ? 1 + random.nextInt(5) : random.nextDouble() * 100;
+            graph.addEdge(random.nextInt(n), random.nextInt(n), weight);
+        }
+        return graph;
+    }
+
+    // Edges of one vertex as (target, weight) pairs in target order.
+    private static List<double[]> sortedEdges(DirectedGraph graph, int vertex) {
+        List<double[]> result = new ArrayList<>();
+        for (int i = 0; i < graph.getOutDegree(vertex); i++) {
+            result.add(new double[]{graph.getNeighbor(vertex, i), graph.getWeight(vertex, i)});
+        }
+        result.sort(Comparator.<double[]>comparingDouble(e -> e[0]).thenComparingDouble(e -> e[1]));
+        return result;
+    }
+
+    private static void assertSameAdjacency(Graph expected, CompressedGraph actual) {
+        assertEquals(expected.getVertices(), actual.getVertices());
+        assertEquals(expected.countEdges(), actual.countEdges());
+        EdgeCursor cursor = actual.cursor();
+        for (int v = 0; v < expected.getVertices(); v++) {
+            List<double[]> edges = sortedEdges(expected, v);
+            assertEquals(edges.size(), actual.getOutDegree(v));
+            List<double[]> decoded = new ArrayList<>();
+            cursor.reset(v);
+            while (cursor.next()) {
+                decoded.add(new double[]{cursor.target(), cursor.weight()});
+            }
+            decoded.sort(Comparator.<double[]>comparingDouble(e -> e[0]).thenComparingDouble(e -> e[1]));
+            assertEquals(edges.size(), decoded.size());
+            for (int i = 0; i < edges.size(); i++) {
+                assertArrayEquals(edges.get(i), decoded.get(i), 0.0);
+            }
+            for (int i = 1; i < actual.getOutDegree(v); i++) {
+                assertTrue(actual.getNeighbor(v, i - 1) <= actual.getNeighbor(v, i));
+            }
+        }
+    }
+
+    @Test
+    void testRoundTripWithDictionaryWeights() {
+        Graph graph = randomGraph(500, 3000, true, 1);
+        graph.addEdge(7, 7, 2.0);
+        graph.addEdge(400, 3, 5.0);
+        graph.addEdge(400, 3, 1.0);
+
+        CompressedGraph compressed = CompressedGraph.copyOf(graph);
+
+        assertTrue(compressed.isDictionaryCoded());
+        assertSameAdjacency(graph, compressed);
+    }
+
+    @Test
+    void testRoundTripWithRawWeights() {
+        Graph graph = randomGraph(300, 6000, false, 2);
+
+        CompressedGraph compressed = CompressedGraph.copyOf(graph);
+
+        assertFalse(compressed.isDictionaryCoded());
+        assertSameAdjacency(graph, compressed);
+    }
+
+    @Test
+    void testSmallerThanCsr() {
+        Graph graph = new Graph(10_000);
+        Random random = new Random(3);
+        for (int u = 0; u < 10_000; u++) {
+            for (int j = 0; j < 4; j++) {
+                graph.addEdge(u, Math.min(9_999, u + 1 + random.nextInt(64)), 1 + random.nextInt(5));
+            }
+        }
+
+        CompressedGraph compressed = CompressedGraph.copyOf(graph);
+        long csrBytes = (long) graph.countEdges() * (Integer.BYTES + Double.BYTES)
+                + (graph.getVertices() + 1L) * Integer.BYTES;
+
+        assertTrue(compressed.byteSize() * 4 < csrBytes,
+                compressed.byteSize() + " bytes vs " + csrBytes + " for CSR");
+    }
+
+    @Test
+    void testTraversalsMatchUncompressed() {
+        Graph graph = randomGraph(400, 900, true, 4);
+        CompressedGraph compressed = CompressedGraph.copyOf(graph);
+
+        assertEquals(asSets(new SCC(graph).findSCCs()), asSets(new SCC(compressed).findSCCs()));
+
+        Graph dag = new Graph(200);
+        Random random = new Random(5);
+        for (int u = 0; u < 199; u++) {
+            dag.addEdge(u, u + 1 + random.nextInt(199 - u), 1.0);
+        }
+        int[] order = new TopologicalSort(CompressedGraph.copyOf(dag)).sortToArray();
+        assertNotNull(order);
+        int[] position = new int[200];
+        for (int i = 0; i < order.length; i++) {
+            position[order[i]] = i;
+        }
+        for (int u = 0; u < 200; u++) {
+            for (int i = 0; i < dag.getOutDegree(u); i++) {
+                assertTrue(position[u] < position[dag.getNeighbor(u, i)]);
+            }
+        }
+        assertNull(new TopologicalSort(compressed).sortToArray());
+    }
+
+    @Test
+    void testEmptyGraphAndBadIndex() {
+        CompressedGraph compressed = CompressedGraph.copyOf(new Graph(3));
+
+        assertEquals(0, compressed.countEdges());
+        assertEquals(0, compressed.getOutDegree(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> compressed.getNeighbor(1, 0));
+    }
+
+    private static Set<Set<Integer>> asSets(List<List<Integer>> groups) {
+        Set<Set<Integer>> result = new HashSet<>();
+        for (List<Integer> group : groups) {
+            result.add(new TreeSet<>(group));
+        }
+        return result;
+    }
+}
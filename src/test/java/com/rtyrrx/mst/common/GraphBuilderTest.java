@@ -0,0 +1,109 @@
+package com.rtyrrx.mst.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphBuilderTest {
+
+    private static void assertSameAdjacency(Graph expected, Graph actual) {
+        assertEquals(expected.getVertices(), actual.getVertices());
+        for (int u = 0; u < expected.getVertices(); u++) {
+            assertEquals(expected.getOutDegree(u), actual.getOutDegree(u), "degree of " + u);
+            for (int i = 0; i < expected.getOutDegree(u); i++) {
+                assertEquals(expected.getNeighbor(u, i), actual.getNeighbor(u, i));
+                assertEquals(expected.getWeight(u, i), actual.getWeight(u, i), 0.0);
+            }
+        }
+    }
+
+    @Test
+    void testMatchesAddEdgeLoop() {
+        Random random = new Random(3);
+        Graph expected = new Graph(500);
+        GraphBuilder builder = new GraphBuilder(500);
+        for (int e = 0; e < 6000; e++) {
+            int from = random.nextInt(500);
+            int to = random.nextInt(500);
+            double weight = random.nextInt(10);
+            expected.addEdge(from, to, weight);
+            builder.addEdge(from, to, weight);
+        }
+
+        assertEquals(6000, builder.countEdges());
+        assertSameAdjacency(expected, builder.build());
+    }
+
+    @Test
+    void testChunkedBuildMatchesSequential() {
+        Random random = new Random(5);
+        GraphBuilder builder = new GraphBuilder(300).mergeDuplicates(GraphBuilder.Duplicates.SUM);
+        for (int e = 0; e < 5000; e++) {
+            builder.addEdge(random.nextInt(300), random.nextInt(30), random.nextInt(10));
+        }
+
+        Graph sequential = builder.build(1);
+        assertSameAdjacency(sequential, builder.build(7));
+        assertSameAdjacency(sequential, builder.build(64));
+    }
+
+    @Test
+    void testChunksAreBoundedByEdgesPerVertex() {
+        assertEquals(1, GraphBuilder.boundChunks(64, 1_000_000, 10_000_000));
+        assertEquals(8, GraphBuilder.boundChunks(64, 8_000_000, 1_000_000));
+        assertEquals(4, GraphBuilder.boundChunks(4, 8_000_000, 1_000_000));
+        assertEquals(1, GraphBuilder.boundChunks(8, 0, 0));
+    }
+
+    @Test
+    void testMergeDuplicates() {
+        GraphBuilder builder = new GraphBuilder(3)
+                .addEdge(0, 2, 4.0)
+                .addEdge(0, 1, 1.0)
+                .addEdge(0, 2, 2.0)
+                .addEdge(1, 2, 3.0)
+                .addEdge(0, 2, 7.0);
+
+        Graph kept = builder.build();
+        assertEquals(4, kept.getOutDegree(0));
+
+        double[] expected = {4.0, 2.0, 7.0, 13.0};
+        GraphBuilder.Duplicates[] policies = {
+                GraphBuilder.Duplicates.FIRST, GraphBuilder.Duplicates.MIN,
+                GraphBuilder.Duplicates.MAX, GraphBuilder.Duplicates.SUM};
+        for (int p = 0; p < policies.length; p++) {
+            Graph merged = builder.mergeDuplicates(policies[p]).build();
+            assertEquals(2, merged.getOutDegree(0));
+            assertEquals(2, merged.getNeighbor(0, 0));
+            assertEquals(expected[p], merged.getWeight(0, 0), 0.0, policies[p].name());
+            assertEquals(1, merged.getNeighbor(0, 1));
+            assertEquals(3.0, merged.getWeight(1, 0), 0.0);
+        }
+    }
+
+    @Test
+    void testBuiltGraphStaysMutable() {
+        Graph graph = new GraphBuilder(2).addEdge(0, 1, 2.0).build();
+        int modCount = graph.getModCount();
+
+        graph.addEdge(1, 0, 1.0);
+        int added = graph.addVertex();
+
+        assertNotEquals(modCount, graph.getModCount());
+        assertEquals(2, added);
+        assertEquals(2, graph.countEdges());
+        assertEquals(1, graph.getPredecessors(1).size());
+    }
+
+    @Test
+    void testEmptyAndInvalid() {
+        Graph empty = new GraphBuilder(4).build(8);
+        assertEquals(4, empty.getVertices());
+        assertEquals(0, empty.countEdges());
+
+        assertThrows(IllegalArgumentException.class, () -> new GraphBuilder(2).addEdge(0, 2, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> new GraphBuilder(-1));
+    }
+}
@@ -0,0 +1,136 @@
+package com.rtyrrx.mst.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphTest {
+
+    @Test
+    void testRemoveEdge() {
+        Graph graph = new Graph(3);
+        graph.addEdge(0, 1, 1.0);
+        graph.addEdge(0, 2, 2.0);
+        graph.addEdge(0, 1, 3.0);
+
+        assertTrue(graph.removeEdge(0, 1));
+        assertEquals(List.of(2, 1), graph.getAdjacentVertices(0));
+        assertEquals(3.0, graph.getWeight(0, 1), 0.0);
+        assertTrue(graph.removeEdge(0, 1));
+        assertFalse(graph.removeEdge(0, 1));
+        assertEquals(List.of(2), graph.getAdjacentVertices(0));
+    }
+
+    @Test
+    void testSetEdgeWeight() {
+        Graph graph = new Graph(2);
+        graph.addEdge(0, 1, 1.0);
+
+        assertTrue(graph.setEdgeWeight(0, 1, 4.5));
+        assertFalse(graph.setEdgeWeight(1, 0, 2.0));
+        assertEquals(4.5, graph.getWeight(0, 0), 0.0);
+    }
+
+    @Test
+    void testRemoveVerticesDropsIncidentEdgesAndFreesIds() {
+        Graph graph = new Graph(4);
+        graph.mapTaskToVertex("A", 0);
+        graph.mapTaskToVertex("B", 1);
+        graph.addEdge(0, 1);
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 1);
+        graph.addEdge(3, 1);
+        graph.addEdge(3, 2);
+
+        graph.removeVertices(List.of(1));
+
+        assertEquals(4, graph.getVertices());
+        assertEquals(0, graph.getOutDegree(1));
+        assertEquals(0, graph.getOutDegree(0));
+        assertEquals(List.of(2), graph.getAdjacentVertices(3));
+        assertNull(graph.getTaskId(1));
+        assertNull(graph.getVertex("B"));
+        assertEquals(0, graph.getVertex("A"));
+
+        assertEquals(1, graph.addVertex());
+        assertEquals(4, graph.addVertex());
+        assertEquals(5, graph.getVertices());
+        assertEquals(0, graph.getOutDegree(4));
+    }
+
+    @Test
+    void testCompactVerticesRenumbersInOrder() {
+        Graph graph = new Graph(4);
+        graph.mapTaskToVertex("A", 0);
+        graph.mapTaskToVertex("B", 1);
+        graph.mapTaskToVertex("C", 2);
+        graph.mapTaskToVertex("D", 3);
+        graph.addEdge(0, 3, 2.0);
+        graph.addEdge(0, 2, 1.0);
+        graph.addEdge(2, 1, 5.0);
+        graph.addEdge(3, 2, 4.0);
+
+        graph.removeVertices(List.of(1));
+        int[] remap = graph.compactVertices();
+
+        assertArrayEquals(new int[]{0, -1, 1, 2}, remap);
+        assertEquals(3, graph.getVertices());
+        assertEquals(List.of(2, 1), graph.getAdjacentVertices(0));
+        assertEquals(0, graph.getOutDegree(1));
+        assertEquals(List.of(1), graph.getAdjacentVertices(2));
+        assertEquals(4.0, graph.getWeight(2, 0), 0.0);
+        assertEquals(2, graph.getVertex("D"));
+        assertNull(graph.getVertex("B"));
+        assertEquals("C", graph.getTaskId(1));
+        assertEquals(3, graph.addVertex());
+    }
+
+    @Test
+    void testModCountTracksChanges() {
+        Graph graph = new Graph(2);
+        int before = graph.getModCount();
+
+        graph.addEdge(0, 1);
+        int afterAdd = graph.getModCount();
+        graph.removeEdge(1, 0);
+
+        assertTrue(afterAdd > before);
+        assertEquals(afterAdd, graph.getModCount());
+    }
+
+    @Test
+    void testReverseIndexIsCachedUntilChange() {
+        Graph graph = new Graph(3);
+        graph.addEdge(0, 2);
+        graph.addEdge(1, 2);
+
+        ReverseAdjacency first = graph.getReverseAdjacency();
+        assertSame(first, graph.getReverseAdjacency());
+        assertEquals(List.of(0, 1), graph.getPredecessors(2));
+        assertEquals(2, graph.getInDegree(2));
+
+        graph.removeEdge(0, 2);
+        graph.addEdge(2, 0);
+
+        assertNotSame(first, graph.getReverseAdjacency());
+        assertEquals(List.of(1), graph.getPredecessors(2));
+        assertEquals(List.of(2), graph.getPredecessors(0));
+        assertEquals(1, graph.getInDegree(0));
+
+        graph.addVertex();
+        assertEquals(0, graph.getInDegree(3));
+    }
+
+    @Test
+    void testInDegreeCopyIsIndependent() {
+        Graph graph = new Graph(2);
+        graph.addEdge(0, 1);
+
+        int[] copy = graph.copyInDegrees();
+        copy[1] = 42;
+
+        assertArrayEquals(new int[]{0, 1}, graph.copyInDegrees());
+    }
+}
@@ -0,0 +1,76 @@
+package com.rtyrrx.mst.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexedDaryHeapTest {
+
+    @Test
+    void testPopsInKeyThenIdOrder() {
+        IndexedDaryHeap heap = new IndexedDaryHeap(5);
+        heap.push(3, 2.0);
+        heap.push(1, 1.0);
+        heap.push(4, 1.0);
+        heap.push(0, 5.0);
+
+        assertEquals(4, heap.size());
+        assertEquals(1, heap.pop());
+        assertEquals(4, heap.pop());
+        assertEquals(3, heap.pop());
+        assertEquals(0, heap.pop());
+        assertTrue(heap.isEmpty());
+        assertThrows(NoSuchElementException.class, heap::pop);
+    }
+
+    @Test
+    void testChangeKey() {
+        IndexedDaryHeap heap = new IndexedDaryHeap(4);
+        for (int v = 0; v < 4; v++) {
+            heap.push(v, v);
+        }
+
+        heap.changeKey(3, -1.0);
+        heap.changeKey(0, 10.0);
+
+        assertTrue(heap.contains(0));
+        assertEquals(10.0, heap.key(0), 0.0);
+        assertArrayEquals(new int[]{3, 1, 2, 0}, new int[]{heap.pop(), heap.pop(), heap.pop(), heap.pop()});
+        assertFalse(heap.contains(0));
+        assertThrows(IllegalArgumentException.class, () -> heap.changeKey(0, 1.0));
+    }
+
+    @Test
+    void testMatchesPriorityQueue() {
+        Random random = new Random(9);
+        int n = 2000;
+        IndexedDaryHeap heap = new IndexedDaryHeap(n);
+        double[] keys = new double[n];
+        PriorityQueue<Integer> reference = new PriorityQueue<>(
+                (a, b) -> keys[a] != keys[b] ? Double.compare(keys[a], keys[b]) : Integer.compare(a, b));
+        for (int v = 0; v < n; v++) {
+            keys[v] = random.nextInt(100);
+            heap.push(v, keys[v]);
+            reference.add(v);
+        }
+        for (int i = 0; i < n; i++) {
+            assertEquals(reference.poll(), heap.pop());
+        }
+    }
+
+    @Test
+    void testDuplicatePushAndClear() {
+        IndexedDaryHeap heap = new IndexedDaryHeap(3);
+        heap.push(1, 1.0);
+
+        assertThrows(IllegalArgumentException.class, () -> heap.push(1, 2.0));
+        heap.clear();
+        assertFalse(heap.contains(1));
+        heap.push(1, 2.0);
+        assertEquals(1, heap.peek());
+    }
+}
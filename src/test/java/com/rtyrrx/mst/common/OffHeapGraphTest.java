@@ -0,0 +1,122 @@
+package com.rtyrrx.mst.common;
+
+import com.rtyrrx.mst.graph.dagsp.DAGShortestPath;
+import com.rtyrrx.mst.graph.scc.SCC;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapGraphTest {
+
+    private static Graph sampleGraph() {
+        Graph graph = new Graph(5);
+        graph.addEdge(0, 1, 2.0);
+        graph.addEdge(0, 2, 4.0);
+        graph.addEdge(1, 3, 1.5);
+        graph.addEdge(2, 3, 3.0);
+        graph.addEdge(3, 4, 1.0);
+        return graph;
+    }
+
+    @Test
+    void testCopyPreservesAdjacency() {
+        Graph graph = sampleGraph();
+
+        try (OffHeapGraph offHeap = OffHeapGraph.copyOf(graph)) {
+            assertEquals(graph.getVertices(), offHeap.getVertices());
+            assertEquals(graph.countEdges(), offHeap.countEdges());
+            for (int v = 0; v < graph.getVertices(); v++) {
+                assertEquals(graph.getOutDegree(v), offHeap.getOutDegree(v));
+                for (int i = 0; i < graph.getOutDegree(v); i++) {
+                    assertEquals(graph.getNeighbor(v, i), offHeap.getNeighbor(v, i));
+                    assertEquals(graph.getWeight(v, i), offHeap.getWeight(v, i), 0.0);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testAlgorithmsMatchOnHeapResults() {
+        Graph graph = sampleGraph();
+        graph.addEdge(4, 3, 1.0);
+
+        try (OffHeapGraph offHeap = OffHeapGraph.copyOf(graph)) {
+            SCC heapScc = new SCC(graph);
+            heapScc.findSCCs();
+            SCC offHeapScc = new SCC(offHeap);
+            offHeapScc.findSCCs();
+            assertEquals(heapScc.getSCCCount(), offHeapScc.getSCCCount());
+            assertEquals(heapScc.buildCondensationGraph().countEdges(),
+                    offHeapScc.buildCondensationGraph().countEdges());
+        }
+
+        Graph dag = sampleGraph();
+        try (OffHeapGraph offHeap = OffHeapGraph.copyOf(dag)) {
+            DAGShortestPath.LongestPathResult expected = new DAGShortestPath(dag).findLongestPath(0);
+            DAGShortestPath.LongestPathResult actual = new DAGShortestPath(offHeap).findLongestPath(0);
+            assertEquals(expected.criticalPathLength(), actual.criticalPathLength(), 0.001);
+            assertEquals(expected.criticalPath(), actual.criticalPath());
+        }
+    }
+
+    @Test
+    void testFileBackedRoundTrip(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("graph.bin");
+        Graph graph = sampleGraph();
+
+        try (OffHeapGraph written = OffHeapGraph.copyOf(graph, file)) {
+            assertEquals(5, written.countEdges());
+        }
+
+        try (OffHeapGraph mapped = OffHeapGraph.open(file)) {
+            assertEquals(5, mapped.getVertices());
+            assertEquals(2, mapped.getOutDegree(0));
+            assertEquals(3, mapped.getNeighbor(2, 0));
+            assertEquals(3.0, mapped.getWeight(2, 0), 0.0);
+        }
+    }
+
+    @Test
+    void testTruncatedFileIsRejected(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("graph.bin");
+        OffHeapGraph.copyOf(sampleGraph(), file).close();
+        byte[] bytes = Files.readAllBytes(file);
+
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 4));
+        IOException truncated = assertThrows(IOException.class, () -> OffHeapGraph.open(file));
+        assertTrue(truncated.getMessage().contains("truncated"));
+
+        Files.write(file, Arrays.copyOf(bytes, 10));
+        assertThrows(IOException.class, () -> OffHeapGraph.open(file));
+
+        bytes[0] ^= 1;
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> OffHeapGraph.open(file));
+    }
+
+    @Test
+    void testAccessAfterCloseFails() {
+        OffHeapGraph offHeap = OffHeapGraph.copyOf(sampleGraph());
+        assertTrue(offHeap.isOpen());
+
+        offHeap.close();
+
+        assertFalse(offHeap.isOpen());
+        assertThrows(IllegalStateException.class, () -> offHeap.getOutDegree(0));
+    }
+
+    @Test
+    void testEmptyGraph() {
+        try (OffHeapGraph offHeap = OffHeapGraph.copyOf(new Graph(3))) {
+            assertEquals(3, offHeap.getVertices());
+            assertEquals(0, offHeap.countEdges());
+            assertEquals(0, offHeap.getOutDegree(2));
+        }
+    }
+}
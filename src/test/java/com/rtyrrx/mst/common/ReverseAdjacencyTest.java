@@ -0,0 +1,91 @@
+package com.rtyrrx.mst.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReverseAdjacencyTest {
+
+    private static Graph randomGraph(int n, int edges, long seed) {
+        Random random = new Random(seed);
+        Graph graph = new Graph(n);
+        for (int e = 0; e < edges; e++) {
+            graph.addEdge(random.nextInt(n), random.nextInt(n), random.nextInt(10));
+        }
+        return graph;
+    }
+
+    @Test
+    void testTransposeOrderedBySource() {
+        Graph graph = new Graph(4);
+        graph.addEdge(2, 1, 5.0);
+        graph.addEdge(0, 1, 1.0);
+        graph.addEdge(3, 1, 2.0);
+        graph.addEdge(0, 1, 3.0);
+        graph.addEdge(1, 2, 4.0);
+
+        ReverseAdjacency reverse = ReverseAdjacency.build(graph);
+
+        assertEquals(4, reverse.getInDegree(1));
+        assertArrayEquals(new int[]{0, 0, 2, 3}, new int[]{
+                reverse.getPredecessor(1, 0), reverse.getPredecessor(1, 1),
+                reverse.getPredecessor(1, 2), reverse.getPredecessor(1, 3)});
+        assertEquals(1.0, reverse.getPredecessorWeight(1, 0), 0.0);
+        assertEquals(3.0, reverse.getPredecessorWeight(1, 1), 0.0);
+        assertArrayEquals(new int[]{0, 4, 1, 0}, reverse.inDegrees());
+        assertEquals(5, reverse.countEdges());
+        assertEquals(0, reverse.getOutDegree(0));
+    }
+
+    @Test
+    void testChunkedBuildMatchesSequential() {
+        Graph graph = randomGraph(1000, 8000, 1);
+
+        ReverseAdjacency sequential = ReverseAdjacency.build(graph, 1);
+        ReverseAdjacency chunked = ReverseAdjacency.build(graph, 7);
+
+        for (int v = 0; v < graph.getVertices(); v++) {
+            assertEquals(sequential.getInDegree(v), chunked.getInDegree(v));
+            for (int i = 0; i < sequential.getInDegree(v); i++) {
+                assertEquals(sequential.getPredecessor(v, i), chunked.getPredecessor(v, i));
+                assertEquals(sequential.getPredecessorWeight(v, i), chunked.getPredecessorWeight(v, i), 0.0);
+            }
+        }
+        assertArrayEquals(ReverseAdjacency.countInDegrees(graph), chunked.inDegrees());
+    }
+
+    @Test
+    void testSparseGraphIgnoresSurplusChunks() {
+        // Fewer edges than vertices: one chunk, whatever is requested.
+        Graph graph = randomGraph(5000, 3000, 2);
+
+        ReverseAdjacency sequential = ReverseAdjacency.build(graph, 1);
+        ReverseAdjacency chunked = ReverseAdjacency.build(graph, 64);
+
+        assertArrayEquals(sequential.inDegrees(), chunked.inDegrees());
+        for (int v = 0; v < graph.getVertices(); v++) {
+            for (int i = 0; i < sequential.getInDegree(v); i++) {
+                assertEquals(sequential.getPredecessor(v, i), chunked.getPredecessor(v, i));
+            }
+        }
+    }
+
+    @Test
+    void testTransposeOfTransposeHasSameEdges() {
+        Graph graph = randomGraph(50, 300, 2);
+        ReverseAdjacency twice = ReverseAdjacency.build(ReverseAdjacency.build(graph));
+
+        for (int v = 0; v < graph.getVertices(); v++) {
+            assertEquals(graph.getOutDegree(v), twice.getOutDegree(v));
+            int[] expected = graph.getAdjacentVertices(v).stream().mapToInt(Integer::intValue).sorted().toArray();
+            int[] actual = new int[twice.getOutDegree(v)];
+            for (int i = 0; i < actual.length; i++) {
+                actual[i] = twice.getNeighbor(v, i);
+            }
+            assertArrayEquals(expected, Arrays.stream(actual).sorted().toArray());
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.rtyrrx.mst.common;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkspacePoolTest {
+
+    private static WorkspacePool<int[]> pool(int maxIdle) {
+        return new WorkspacePool<>(int[]::new, array -> array.length, maxIdle);
+    }
+
+    @Test
+    void testReleasedWorkspaceIsReused() {
+        WorkspacePool<int[]> pool = pool(2);
+        int[] first = pool.acquire(10);
+        pool.release(first);
+
+        assertSame(first, pool.acquire(8));
+        assertEquals(1, pool.createdCount());
+    }
+
+    @Test
+    void testTooSmallWorkspaceIsReplaced() {
+        WorkspacePool<int[]> pool = pool(2);
+        pool.release(pool.acquire(10));
+
+        int[] larger = pool.acquire(20);
+
+        assertEquals(20, larger.length);
+        assertEquals(2, pool.createdCount());
+        assertEquals(0, pool.idleCount());
+    }
+
+    @Test
+    void testIdleWorkspacesAreBounded() {
+        WorkspacePool<int[]> pool = pool(1);
+        int[] a = pool.acquire(4);
+        int[] b = pool.acquire(4);
+        pool.release(a);
+        pool.release(b);
+
+        assertEquals(1, pool.idleCount());
+        assertThrows(IllegalArgumentException.class, () -> pool(-1));
+    }
+}
@@ -0,0 +1,200 @@
+package com.rtyrrx.mst.data;
+
+import com.google.gson.Gson;
+import com.rtyrrx.mst.common.Graph;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeltaApplierTest {
+
+    private static TaskGraph sample() {
+        TaskGraph taskGraph = new TaskGraph();
+        taskGraph.addTask(new TaskGraph.Task("A", "a", 1.0));
+        taskGraph.addTask(new TaskGraph.Task("B", "b", 2.0));
+        taskGraph.addTask(new TaskGraph.Task("C", "c", 3.0));
+        taskGraph.addDependency(new TaskGraph.Dependency("A", "B", 1.0));
+        taskGraph.addDependency(new TaskGraph.Dependency("B", "C", 2.0));
+        taskGraph.addDependency(new TaskGraph.Dependency("A", "C", 5.0));
+        return taskGraph;
+    }
+
+    private static Graph load(TaskGraph taskGraph) throws IOException {
+        Path file = Files.createTempFile("delta-base", ".json");
+        try {
+            Files.writeString(file, new Gson().toJson(taskGraph));
+            return GraphLoader.loadFromJson(file.toString());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static double weight(Graph graph, String from, String to) {
+        int u = graph.getVertex(from);
+        int v = graph.getVertex(to);
+        for (int i = 0; i < graph.getOutDegree(u); i++) {
+            if (graph.getNeighbor(u, i) == v) return graph.getWeight(u, i);
+        }
+        return Double.NaN;
+    }
+
+    @Test
+    void testDependencyChanges() throws IOException {
+        TaskGraph taskGraph = sample();
+        Graph graph = load(taskGraph);
+        long baseHash = graph.getContentHash();
+
+        GraphDelta delta = new GraphDelta();
+        delta.removeDependency("A", "C");
+        delta.addDependency(new TaskGraph.Dependency("C", "A", 4.0));
+        delta.changeWeight("B", "C", 7.0);
+        DeltaApplier.AppliedDelta applied = new DeltaApplier(graph, taskGraph).apply(delta);
+
+        assertEquals(1, applied.dependenciesRemoved());
+        assertEquals(1, applied.dependenciesAdded());
+        assertEquals(1, applied.weightsChanged());
+        assertEquals(3, graph.countEdges());
+        assertTrue(Double.isNaN(weight(graph, "A", "C")));
+        assertEquals(4.0, weight(graph, "C", "A"), 0.0);
+        assertEquals(7.0, weight(graph, "B", "C"), 0.0);
+        assertNotEquals(baseHash, graph.getContentHash());
+    }
+
+    @Test
+    void testRemovedTasksAreCompactedAway() throws IOException {
+        TaskGraph taskGraph = sample();
+        Graph graph = load(taskGraph);
+
+        GraphDelta delta = new GraphDelta();
+        delta.removeTask("B");
+        delta.addTask(new TaskGraph.Task("D", "d", 9.0));
+        delta.addTask(new TaskGraph.Task("E", "e", 4.0));
+        delta.addDependency(new TaskGraph.Dependency("D", "C", 1.0));
+        delta.addDependency(new TaskGraph.Dependency("E", "D", 1.0));
+        new DeltaApplier(graph, taskGraph).apply(delta);
+
+        assertNull(graph.getVertex("B"));
+        assertEquals(1, graph.getVertex("C"));
+        assertEquals(2, graph.getVertex("D"));
+        assertEquals(3, graph.getVertex("E"));
+        assertEquals(4, graph.getVertices());
+        assertEquals(List.of(1), graph.getAdjacentVertices(0));
+        assertEquals(List.of(1), graph.getAdjacentVertices(2));
+        assertEquals(3, graph.countEdges());
+        assertEquals(4, taskGraph.getTasks().size());
+        assertEquals("C", taskGraph.getTasks().get(1).getId());
+        assertEquals(9.0, taskGraph.getTasks().get(2).getDuration(), 0.0);
+        assertEquals("E", taskGraph.getTasks().get(3).getId());
+    }
+
+    @Test
+    void testDependencyListFollowsTheGraph() throws IOException {
+        TaskGraph taskGraph = sample();
+        Graph graph = load(taskGraph);
+
+        GraphDelta delta = new GraphDelta();
+        delta.removeTask("B");
+        delta.removeDependency("A", "C");
+        delta.addTask(new TaskGraph.Task("D", "d", 1.0));
+        delta.addDependency(new TaskGraph.Dependency("A", "D", 2.0));
+        delta.addDependency(new TaskGraph.Dependency("D", "C", 3.0));
+        delta.changeWeight("D", "C", 6.0);
+        new DeltaApplier(graph, taskGraph).apply(delta);
+
+        List<TaskGraph.Dependency> dependencies = taskGraph.getDependencies();
+        assertEquals(2, dependencies.size());
+        assertEquals("A", dependencies.get(0).getFrom());
+        assertEquals("D", dependencies.get(0).getTo());
+        assertEquals(6.0, dependencies.get(1).getWeight(), 0.0);
+        assertEquals(3.0, delta.getAddedDependencies().get(1).getWeight(), 0.0);
+
+        Graph reloaded = load(taskGraph);
+        for (int v = 0; v < graph.getVertices(); v++) {
+            assertEquals(reloaded.getAdjacentVertices(v), graph.getAdjacentVertices(v));
+            for (int i = 0; i < graph.getOutDegree(v); i++) {
+                assertEquals(reloaded.getWeight(v, i), graph.getWeight(v, i), 0.0);
+            }
+        }
+    }
+
+    @Test
+    void testInvalidDeltaLeavesGraphUntouched() throws IOException {
+        TaskGraph taskGraph = sample();
+        Graph graph = load(taskGraph);
+        int modCount = graph.getModCount();
+
+        GraphDelta delta = new GraphDelta();
+        delta.removeDependency("A", "B");
+        delta.addDependency(new TaskGraph.Dependency("A", "Z", 1.0));
+
+        assertThrows(IllegalArgumentException.class, () -> new DeltaApplier(graph, taskGraph).apply(delta));
+        assertEquals(modCount, graph.getModCount());
+        assertEquals(3, graph.countEdges());
+    }
+
+    @Test
+    void testRejectsConflictingTaskChanges() throws IOException {
+        TaskGraph taskGraph = sample();
+        Graph graph = load(taskGraph);
+        DeltaApplier applier = new DeltaApplier(graph, taskGraph);
+
+        GraphDelta duplicate = new GraphDelta();
+        duplicate.addTask(new TaskGraph.Task("A", "again", 1.0));
+        assertThrows(IllegalArgumentException.class, () -> applier.apply(duplicate));
+
+        GraphDelta unknown = new GraphDelta();
+        unknown.removeTask("Z");
+        assertThrows(IllegalArgumentException.class, () -> applier.apply(unknown));
+
+        GraphDelta dangling = new GraphDelta();
+        dangling.removeTask("C");
+        dangling.changeWeight("B", "C", 3.0);
+        assertThrows(IllegalArgumentException.class, () -> applier.apply(dangling));
+    }
+
+    @Test
+    void testRejectsConflictingDependencyChanges() throws IOException {
+        TaskGraph taskGraph = sample();
+        Graph graph = load(taskGraph);
+        int modCount = graph.getModCount();
+        DeltaApplier applier = new DeltaApplier(graph, taskGraph);
+
+        GraphDelta twice = new GraphDelta();
+        twice.removeDependency("A", "C");
+        twice.removeDependency("A", "C");
+        assertThrows(IllegalArgumentException.class, () -> applier.apply(twice));
+
+        GraphDelta removedThenChanged = new GraphDelta();
+        removedThenChanged.removeDependency("B", "C");
+        removedThenChanged.changeWeight("B", "C", 4.0);
+        assertThrows(IllegalArgumentException.class, () -> applier.apply(removedThenChanged));
+        assertEquals(modCount, graph.getModCount());
+
+        GraphDelta readded = new GraphDelta();
+        readded.removeDependency("B", "C");
+        readded.addDependency(new TaskGraph.Dependency("B", "C", 1.0));
+        readded.changeWeight("B", "C", 4.0);
+        applier.apply(readded);
+        assertEquals(4.0, weight(graph, "B", "C"), 0.0);
+    }
+
+    @Test
+    void testSameDeltaGivesSameHash() throws IOException {
+        GraphDelta delta = new GraphDelta();
+        delta.changeWeight("A", "B", 2.0);
+
+        TaskGraph first = sample();
+        Graph firstGraph = load(first);
+        new DeltaApplier(firstGraph, first).apply(delta);
+        TaskGraph second = sample();
+        Graph secondGraph = load(second);
+        new DeltaApplier(secondGraph, second).apply(delta);
+
+        assertEquals(firstGraph.getContentHash(), secondGraph.getContentHash());
+    }
+}
@@ -0,0 +1,48 @@
+package com.rtyrrx.mst.data;
+
+import com.google.gson.Gson;
+import com.rtyrrx.mst.common.Graph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphLoaderTest {
+
+    private static Path write(Path dir, String name, double weight, double duration) throws IOException {
+        TaskGraph taskGraph = new TaskGraph();
+        taskGraph.setDescription(name);
+        taskGraph.addTask(new TaskGraph.Task("A", "First", duration));
+        taskGraph.addTask(new TaskGraph.Task("B", "Second", 2.0));
+        taskGraph.addDependency(new TaskGraph.Dependency("A", "B", weight));
+        Path file = dir.resolve(name + ".json");
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            new Gson().toJson(taskGraph, writer);
+        }
+        return file;
+    }
+
+    @Test
+    void testContentHashIsStable() throws IOException {
+        Graph first = GraphLoader.loadFromJson("data/small_cyclic.json");
+        Graph second = GraphLoader.loadFromJson("data/small_cyclic.json");
+
+        assertEquals(first.getContentHash(), second.getContentHash());
+        assertNotEquals(first.getContentHash(),
+                GraphLoader.loadFromJson("data/small_dag.json").getContentHash());
+    }
+
+    @Test
+    void testContentHashIgnoresDescriptionButNotData(@TempDir Path dir) throws IOException {
+        long base = GraphLoader.loadFromJson(write(dir, "base", 1.0, 3.0).toString()).getContentHash();
+
+        assertEquals(base, GraphLoader.loadFromJson(write(dir, "renamed", 1.0, 3.0).toString()).getContentHash());
+        assertNotEquals(base, GraphLoader.loadFromJson(write(dir, "weight", 1.5, 3.0).toString()).getContentHash());
+        assertNotEquals(base, GraphLoader.loadFromJson(write(dir, "duration", 1.0, 4.0).toString()).getContentHash());
+    }
+}
@@ -0,0 +1,148 @@
+package com.rtyrrx.mst.export;
+
+import com.rtyrrx.mst.SchedulingPipeline;
+import com.rtyrrx.mst.cache.SchedulingResult;
+import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.data.GraphLoader;
+import com.rtyrrx.mst.data.TaskGraph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultExporterTest {
+
+    private static SchedulingResult analyze(Graph graph) {
+        TaskGraph taskGraph = new TaskGraph();
+        for (int v = 0; v < graph.getVertices(); v++) {
+            taskGraph.addTask(new TaskGraph.Task("T" + v, "Task " + v, 1.0));
+        }
+        return SchedulingPipeline.analyze(graph, taskGraph, new HashMap<>());
+    }
+
+    // 0 -> 1 -> 2 with 3 unreachable from the source component.
+    private static Graph sampleGraph() {
+        Graph graph = new Graph(4);
+        graph.addEdge(0, 1, 2.0);
+        graph.addEdge(1, 2, 1.5);
+        graph.mapTaskToVertex("a", 0);
+        graph.mapTaskToVertex("b,\"c\"", 1);
+        return graph;
+    }
+
+    @Test
+    void testCsvTables(@TempDir Path dir) throws IOException {
+        Graph graph = sampleGraph();
+        SchedulingResult result = analyze(graph);
+
+        ResultExporter.ExportSummary summary =
+                new ResultExporter(graph).export(result, dir, ResultExporter.Format.CSV);
+
+        assertEquals(4, summary.files().size());
+        List<String> components = Files.readAllLines(dir.resolve("components.csv"));
+        assertEquals("vertex,task,component", components.get(0));
+        assertEquals("0,a," + result.componentOf()[0], components.get(1));
+        assertEquals("1,\"b,\"\"c\"\"\"," + result.componentOf()[1], components.get(2));
+        assertEquals("3,," + result.componentOf()[3], components.get(4));
+
+        List<String> distances = Files.readAllLines(dir.resolve("distances.csv"));
+        assertEquals(result.condensationVertices() + 1, distances.size());
+        int last = result.componentOf()[2];
+        assertTrue(distances.contains(last + ",3.5,3.5," + result.componentOf()[1]), distances.toString());
+        assertTrue(distances.contains(result.componentOf()[3] + ",,,-1"), distances.toString());
+
+        long bytes = 0;
+        for (Path file : summary.files()) {
+            bytes += Files.size(file);
+        }
+        assertEquals(bytes, summary.bytes());
+    }
+
+    @Test
+    void testJsonLines(@TempDir Path dir) throws IOException {
+        Graph graph = sampleGraph();
+        SchedulingResult result = analyze(graph);
+
+        new ResultExporter(graph).export(result, dir, ResultExporter.Format.JSONL);
+
+        List<String> components = Files.readAllLines(dir.resolve("components.jsonl"));
+        assertEquals("{\"vertex\":1,\"task\":\"b,\\\"c\\\"\",\"component\":" + result.componentOf()[1] + "}",
+                components.get(1));
+        assertTrue(components.get(3).contains("\"task\":null"));
+        List<String> distances = Files.readAllLines(dir.resolve("distances.jsonl"));
+        assertTrue(distances.get(result.componentOf()[3]).contains("\"shortest\":null,\"longest\":null"));
+        assertEquals(result.topoOrder().length, Files.readAllLines(dir.resolve("topo_order.jsonl")).size());
+    }
+
+    @Test
+    void testJsonLinesKeepSupplementaryCharacters(@TempDir Path dir) throws IOException {
+        Graph graph = sampleGraph();
+        graph.mapTaskToVertex("caf\u00e9-\uD83D\uDE80\t", 2);
+        SchedulingResult result = analyze(graph);
+
+        new ResultExporter(graph).export(result, dir, ResultExporter.Format.JSONL);
+
+        List<String> components = Files.readAllLines(dir.resolve("components.jsonl"));
+        assertEquals("{\"vertex\":2,\"task\":\"caf\u00e9-\uD83D\uDE80\\u0009\",\"component\":"
+                + result.componentOf()[2] + "}", components.get(2));
+    }
+
+    @Test
+    void testBinaryColumnsRoundTrip(@TempDir Path dir) throws IOException {
+        Graph graph = GraphLoader.loadFromJson("data/medium_dense.json");
+        TaskGraph taskGraph = GraphLoader.loadTaskGraph("data/medium_dense.json");
+        SchedulingResult result = SchedulingPipeline.analyze(graph, taskGraph, new HashMap<>());
+
+        new ResultExporter(graph).export(result, dir, ResultExporter.Format.BINARY);
+        Map<String, Object> columns = ResultExporter.readColumns(dir.resolve(ResultExporter.BINARY_FILE));
+
+        assertEquals(List.of("component_of", "topo_order", "shortest", "longest", "predecessor", "critical_path"),
+                List.copyOf(columns.keySet()));
+        assertArrayEquals(result.componentOf(), (int[]) columns.get("component_of"));
+        assertArrayEquals(result.topoOrder(), (int[]) columns.get("topo_order"));
+        assertArrayEquals(result.paths().shortestDistances(), (double[]) columns.get("shortest"));
+        assertArrayEquals(result.paths().longestDistances(), (double[]) columns.get("longest"));
+        assertArrayEquals(result.paths().longestPredecessors(), (int[]) columns.get("predecessor"));
+        assertArrayEquals(result.paths().criticalPath(), (int[]) columns.get("critical_path"));
+    }
+
+    @Test
+    void testLargeColumnsSpanSeveralBuffers(@TempDir Path dir) throws IOException {
+        int n = 600_000;
+        int[] componentOf = new int[n];
+        int[] topoOrder = new int[n];
+        for (int v = 0; v < n; v++) {
+            componentOf[v] = n - 1 - v;
+            topoOrder[v] = v;
+        }
+        SchedulingResult result = new SchedulingResult(-1, 0.0, componentOf, new int[0][], List.of(),
+                new int[]{0}, new int[0], new double[0], topoOrder, null);
+
+        new ResultExporter(null).export(result, dir, ResultExporter.Format.BINARY);
+        Map<String, Object> columns = ResultExporter.readColumns(dir.resolve(ResultExporter.BINARY_FILE));
+        assertArrayEquals(componentOf, (int[]) columns.get("component_of"));
+        assertArrayEquals(topoOrder, (int[]) columns.get("topo_order"));
+
+        ResultExporter.ExportSummary summary = new ResultExporter(null).export(result, dir, ResultExporter.Format.CSV);
+        assertEquals(2L * n, summary.rows());
+        List<String> lines = Files.readAllLines(dir.resolve("components.csv"));
+        assertEquals("599999,,0", lines.get(n));
+    }
+
+    @Test
+    void testRejectsForeignFilesAndFormats(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("other.bin");
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12});
+
+        assertThrows(IOException.class, () -> ResultExporter.readColumns(file));
+        assertThrows(IllegalArgumentException.class, () -> ResultExporter.parseFormat("xml"));
+        assertEquals(ResultExporter.Format.JSONL, ResultExporter.parseFormat("jsonl"));
+    }
+}
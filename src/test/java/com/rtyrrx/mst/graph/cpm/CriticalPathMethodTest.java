@@ -0,0 +1,108 @@
+package com.rtyrrx.mst.graph.cpm;
+
+import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.graph.dagsp.DAGShortestPath;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CriticalPathMethodTest {
+
+    // Classic textbook network: A(3) -> C(2), B(2) -> C, B -> D(4), C -> E(1), D -> E.
+    private static Graph network() {
+        Graph graph = new Graph(5);
+        graph.addEdge(0, 2, 0.0);
+        graph.addEdge(1, 2, 0.0);
+        graph.addEdge(1, 3, 0.0);
+        graph.addEdge(2, 4, 0.0);
+        graph.addEdge(3, 4, 0.0);
+        return graph;
+    }
+
+    private static final double[] DURATIONS = {3, 2, 2, 4, 1};
+
+    @Test
+    void testForwardAndBackwardPasses() {
+        CriticalPathMethod.CpmResult result = new CriticalPathMethod(network(), DURATIONS).analyze();
+
+        assertNotNull(result);
+        assertEquals(7.0, result.projectDuration(), 1e-9);
+        assertArrayEquals(new double[]{0, 0, 3, 2, 6}, result.earliestStart(), 1e-9);
+        assertArrayEquals(new double[]{3, 2, 5, 6, 7}, result.earliestFinish(), 1e-9);
+        assertArrayEquals(new double[]{1, 0, 4, 2, 6}, result.latestStart(), 1e-9);
+        assertArrayEquals(new double[]{4, 2, 6, 6, 7}, result.latestFinish(), 1e-9);
+        assertArrayEquals(new double[]{1, 0, 1, 0, 0}, result.totalFloat(), 1e-9);
+    }
+
+    @Test
+    void testFreeFloat() {
+        CriticalPathMethod.CpmResult result = new CriticalPathMethod(network(), DURATIONS).analyze();
+
+        assertEquals(0.0, result.freeFloat()[0], 1e-9, "A finishes exactly when C may start");
+        assertEquals(1.0, result.freeFloat()[2], 1e-9, "C can slip one unit without delaying E");
+        assertEquals(0.0, result.freeFloat()[4], 1e-9);
+    }
+
+    @Test
+    void testCriticalActivities() {
+        CriticalPathMethod.CpmResult result = new CriticalPathMethod(network(), DURATIONS).analyze();
+
+        assertArrayEquals(new int[]{1, 3, 4}, result.criticalActivities());
+        assertTrue(result.isCritical(1));
+        assertFalse(result.isCritical(0));
+    }
+
+    @Test
+    void testEdgeLagsMatchLongestPath() {
+        Graph graph = new Graph(4);
+        graph.addEdge(0, 1, 5.0);
+        graph.addEdge(0, 2, 2.0);
+        graph.addEdge(1, 3, 1.0);
+        graph.addEdge(2, 3, 3.0);
+
+        CriticalPathMethod.CpmResult result = new CriticalPathMethod(graph).analyze();
+        DAGShortestPath.LongestPathResult longest = new DAGShortestPath(graph).findLongestPath(0);
+
+        assertEquals(longest.criticalPathLength(), result.projectDuration(), 1e-9);
+        assertArrayEquals(longest.distances(), result.earliestStart(), 1e-9);
+        assertEquals(1.0, result.totalFloat()[2], 1e-9);
+    }
+
+    @Test
+    void testMultipleSourcesAndSinks() {
+        Graph graph = new Graph(4);
+        graph.addEdge(0, 2, 0.0);
+        graph.addEdge(1, 3, 0.0);
+
+        CriticalPathMethod.CpmResult result = new CriticalPathMethod(graph, new double[]{1, 4, 1, 1}).analyze();
+
+        assertEquals(5.0, result.projectDuration(), 1e-9);
+        assertEquals(3.0, result.totalFloat()[0], 1e-9);
+        assertEquals(3.0, result.totalFloat()[2], 1e-9);
+        assertArrayEquals(new int[]{1, 3}, result.criticalActivities());
+    }
+
+    @Test
+    void testComponentDurations() {
+        double[] durations = CriticalPathMethod.componentDurations(
+                List.of(List.of(0, 2), List.of(1)), new double[]{1.5, 2.0, 3.0});
+
+        assertArrayEquals(new double[]{4.5, 2.0}, durations, 1e-9);
+    }
+
+    @Test
+    void testCycleReturnsNull() {
+        Graph graph = new Graph(2);
+        graph.addEdge(0, 1);
+        graph.addEdge(1, 0);
+
+        assertNull(new CriticalPathMethod(graph).analyze());
+    }
+
+    @Test
+    void testMismatchedDurationsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new CriticalPathMethod(new Graph(2), new double[3]));
+    }
+}
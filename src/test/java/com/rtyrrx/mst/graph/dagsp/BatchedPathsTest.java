@@ -0,0 +1,129 @@
+package com.rtyrrx.mst.graph.dagsp;
+
+import com.rtyrrx.mst.common.Graph;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchedPathsTest {
+
+    private static Graph randomDag(int vertices, int edges, long seed) {
+        Random random = new Random(seed);
+        Graph graph = new Graph(vertices);
+        for (int e = 0; e < edges; e++) {
+            int u = random.nextInt(vertices - 1);
+            int v = u + 1 + random.nextInt(vertices - u - 1);
+            graph.addEdge(u, v, 1 + random.nextInt(5));
+        }
+        return graph;
+    }
+
+    private static List<RelaxationKernel> kernels() {
+        return List.of(RelaxationKernel.scalar(), RelaxationKernel.best());
+    }
+
+    @Test
+    void testMultiSourceMatchesSingleSourceRuns() {
+        Graph graph = randomDag(60, 200, 3);
+        int[] sources = {0, 1, 2, 5, 7, 11, 13, 17, 19, 23, 29};
+
+        for (RelaxationKernel kernel : kernels()) {
+            BatchedPaths batched = new BatchedPaths(graph, kernel);
+            BatchedPaths.BatchResult shortest = batched.shortestFromSources(sources);
+            BatchedPaths.BatchResult longest = batched.longestFromSources(sources);
+
+            for (int l = 0; l < sources.length; l++) {
+                DAGShortestPath dagSP = new DAGShortestPath(graph);
+                double[] expectedShortest = dagSP.findShortestPaths(sources[l]).distances();
+                double[] expectedLongest = dagSP.findLongestPath(sources[l]).distances();
+                for (int v = 0; v < graph.getVertices(); v++) {
+                    assertEquals(expectedShortest[v], shortest.distance(v, l), 1e-9, kernel.name());
+                    assertEquals(expectedLongest[v], longest.distance(v, l), 1e-9, kernel.name());
+                }
+            }
+        }
+    }
+
+    @Test
+    void testLaneWeights() {
+        Graph graph = new Graph(4);
+        graph.addEdge(0, 1, 1.0);
+        graph.addEdge(0, 2, 1.0);
+        graph.addEdge(1, 3, 1.0);
+        graph.addEdge(2, 3, 1.0);
+        // Edge order: 0->1, 0->2, 1->3, 2->3; lane 0 favours the upper branch, lane 1 the lower.
+        double[] weights = {
+                5, 1,
+                1, 5,
+                1, 1,
+                1, 1
+        };
+
+        for (RelaxationKernel kernel : kernels()) {
+            BatchedPaths batched = new BatchedPaths(graph, kernel);
+            BatchedPaths.BatchResult longest = batched.longestWithLaneWeights(0, weights, 2);
+            BatchedPaths.BatchResult shortest = batched.shortestWithLaneWeights(0, weights, 2);
+
+            assertEquals(6.0, longest.distance(3, 0), 1e-9);
+            assertEquals(6.0, longest.distance(3, 1), 1e-9);
+            assertEquals(2.0, shortest.distance(3, 0), 1e-9);
+            assertEquals(5.0, longest.distance(1, 0), 1e-9);
+            assertEquals(1.0, longest.distance(1, 1), 1e-9);
+        }
+    }
+
+    @Test
+    void testWrongWeightCountRejected() {
+        Graph graph = new Graph(2);
+        graph.addEdge(0, 1, 1.0);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new BatchedPaths(graph).longestWithLaneWeights(0, new double[3], 2));
+    }
+
+    @Test
+    void testCycleReturnsNull() {
+        Graph graph = new Graph(2);
+        graph.addEdge(0, 1);
+        graph.addEdge(1, 0);
+
+        assertNull(new BatchedPaths(graph).longestFromSources(new int[]{0}));
+    }
+
+    @Test
+    void testBestKernelUsesVectorWhenModuleAvailable() {
+        boolean available = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+        assertEquals(available, RelaxationKernel.best().name().startsWith("vector"));
+    }
+
+    @Test
+    void testMetrics() {
+        Graph graph = new Graph(3);
+        graph.addEdge(0, 1, 1.0);
+        graph.addEdge(1, 2, 1.0);
+
+        BatchedPaths batched = new BatchedPaths(graph);
+        batched.longestFromSources(new int[]{0, 1, 2});
+
+        assertEquals(6, batched.getMetrics().getCounter("relaxations"));
+    }
+
+    @Test
+    void testLaneWeightsFollowGraphMutation() {
+        Graph graph = new Graph(3);
+        graph.addEdge(0, 2, 1.0);
+        graph.addEdge(1, 2, 1.0);
+        BatchedPaths batched = new BatchedPaths(graph, RelaxationKernel.scalar());
+        assertEquals(5.0, batched.shortestWithLaneWeights(0, new double[]{5.0, 7.0}, 1).distance(2, 0), 0.0);
+
+        // A new edge of vertex 0 shifts the edge numbers of vertex 1.
+        graph.addEdge(0, 1, 1.0);
+        BatchedPaths.BatchResult result = batched.longestWithLaneWeights(0, new double[]{5.0, 2.0, 7.0}, 1);
+
+        assertEquals(2.0, result.distance(1, 0), 0.0);
+        assertEquals(9.0, result.distance(2, 0), 0.0);
+    }
+}
@@ -0,0 +1,180 @@
+package com.rtyrrx.mst.graph.dagsp;
+
+import com.rtyrrx.mst.common.Graph;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChainContractionTest {
+
+    // 0 -> 1 -> 2 -> 3 -> 6 and 0 -> 4 -> 5 -> 6: two chains between 0 and 6.
+    private static Graph twoChains() {
+        Graph graph = new Graph(7);
+        graph.addEdge(0, 1, 1.0);
+        graph.addEdge(1, 2, 2.0);
+        graph.addEdge(2, 3, 3.0);
+        graph.addEdge(3, 6, 4.0);
+        graph.addEdge(0, 4, 5.0);
+        graph.addEdge(4, 5, 1.0);
+        graph.addEdge(5, 6, 1.0);
+        return graph;
+    }
+
+    @Test
+    void testChainsBecomeSingleEdges() {
+        Graph graph = new Graph(5);
+        graph.addEdge(0, 1, 1.0);
+        graph.addEdge(1, 2, 2.0);
+        graph.addEdge(2, 3, 3.0);
+        graph.addEdge(0, 4, 0.5);
+        graph.mapTaskToVertex("end", 3);
+
+        ChainContraction chains = ChainContraction.contract(graph);
+        Graph contracted = chains.graph();
+
+        assertEquals(3, contracted.getVertices());
+        assertEquals(2, contracted.countEdges());
+        int end = chains.toContracted(3);
+        assertEquals(-1, chains.toContracted(1));
+        assertEquals(3, chains.toOriginal(end));
+        assertEquals(end, contracted.getVertex("end"));
+        assertEquals(6.0, contracted.getWeight(chains.toContracted(0), 0), 0.0);
+        assertEquals(List.of(0, 1, 2, 3), chains.expandPath(List.of(chains.toContracted(0), end)));
+        assertEquals(2, chains.getMetrics().getCounter("vertices_removed"));
+        assertEquals(2, chains.getMetrics().getCounter("edges_removed"));
+    }
+
+    @Test
+    void testParallelChainsKeepALastVertex() {
+        ChainContraction chains = ChainContraction.contract(twoChains());
+        Graph contracted = chains.graph();
+
+        int source = chains.toContracted(0);
+        int sink = chains.toContracted(6);
+        int sinkEdges = 0;
+        for (int i = 0; i < contracted.getOutDegree(source); i++) {
+            if (contracted.getNeighbor(source, i) == sink) sinkEdges++;
+        }
+        assertEquals(1, sinkEdges, "no parallel contracted edges");
+        assertEquals(3, contracted.getVertices());
+        assertTrue(chains.toContracted(5) >= 0);
+
+        DAGShortestPath.LongestPathResult longest = new DAGShortestPath(contracted).findLongestPath(source);
+        assertEquals(10.0, longest.criticalPathLength(), 0.0);
+        assertEquals(List.of(0, 1, 2, 3, 6), chains.expandPath(longest.criticalPath()));
+    }
+
+    @Test
+    void testKeptVerticesSurvive() {
+        ChainContraction chains = ChainContraction.contract(twoChains(), 2);
+
+        assertTrue(chains.toContracted(2) >= 0);
+        assertEquals(-1, chains.toContracted(1));
+        assertThrows(IllegalArgumentException.class, () -> ChainContraction.contract(twoChains(), 7));
+    }
+
+    @Test
+    void testExpandedResultsMatchUncontracted() {
+        Random random = new Random(5);
+        for (int round = 0; round < 20; round++) {
+            Graph graph = chainHeavyDag(random, 60);
+            int source = 0;
+            ChainContraction chains = ChainContraction.contract(graph, source);
+            Graph contracted = chains.graph();
+            int contractedSource = chains.toContracted(source);
+            assertTrue(contracted.getVertices() < graph.getVertices());
+
+            DAGShortestPath.ShortestPathResult expectedShortest = new DAGShortestPath(graph).findShortestPaths(source);
+            DAGShortestPath.ShortestPathResult shortest = new DAGShortestPath(contracted).findShortestPaths(contractedSource);
+            assertArrayEquals(expectedShortest.distances(), chains.expandDistances(shortest.distances()), 1e-9);
+
+            DAGShortestPath.LongestPathResult expected = new DAGShortestPath(graph).findLongestPath(source);
+            DAGShortestPath.LongestPathResult longest = new DAGShortestPath(contracted).findLongestPath(contractedSource);
+            double[] distances = chains.expandDistances(longest.distances());
+            assertArrayEquals(expected.distances(), distances, 1e-9);
+            assertEquals(expected.criticalPathLength(), longest.criticalPathLength(), 1e-9);
+
+            // Every expanded predecessor is a real edge on an optimal path.
+            int[] predecessors = chains.expandPredecessors(longest.distances(), longest.predecessors());
+            for (int v = 0; v < graph.getVertices(); v++) {
+                int p = predecessors[v];
+                if (v == source || distances[v] == Double.NEGATIVE_INFINITY) {
+                    assertEquals(-1, p);
+                    continue;
+                }
+                boolean tight = false;
+                for (int i = 0; i < graph.getOutDegree(p); i++) {
+                    if (graph.getNeighbor(p, i) == v
+                            && Math.abs(distances[p] + graph.getWeight(p, i) - distances[v]) < 1e-9) {
+                        tight = true;
+                    }
+                }
+                assertTrue(tight, "predecessor " + p + " of " + v);
+            }
+
+            List<Integer> path = chains.expandPath(longest.criticalPath());
+            double length = 0;
+            for (int j = 1; j < path.size(); j++) {
+                length += weight(graph, path.get(j - 1), path.get(j));
+            }
+            assertEquals(expected.criticalPathLength(), length, 1e-9);
+        }
+    }
+
+    @Test
+    void testCycleOfChainVertices() {
+        Graph graph = new Graph(5);
+        graph.addEdge(0, 1, 1.0);
+        graph.addEdge(1, 2, 1.0);
+        graph.addEdge(2, 0, 1.0);
+        graph.addEdge(3, 4, 1.0);
+
+        ChainContraction chains = ChainContraction.contract(graph);
+
+        assertEquals(3, chains.graph().getVertices());
+        assertEquals(2, chains.graph().countEdges());
+        int kept = chains.toContracted(0);
+        assertEquals(kept, chains.graph().getNeighbor(kept, 0));
+        assertEquals(3.0, chains.graph().getWeight(kept, 0), 0.0);
+    }
+
+    // Random branching skeleton whose edges are stretched into chains.
+    private static Graph chainHeavyDag(Random random, int skeleton) {
+        int[][] edges = new int[skeleton * 2][];
+        int edgeCount = 0;
+        int vertices = skeleton;
+        for (int u = 0; u < skeleton - 1; u++) {
+            int fanOut = 1 + random.nextInt(2);
+            for (int j = 0; j < fanOut; j++) {
+                int v = u + 1 + random.nextInt(Math.min(5, skeleton - 1 - u));
+                int length = random.nextInt(4);
+                edges[edgeCount++] = new int[]{u, v, length};
+                vertices += length;
+            }
+        }
+        Graph graph = new Graph(vertices);
+        int next = skeleton;
+        for (int e = 0; e < edgeCount; e++) {
+            int from = edges[e][0];
+            for (int c = 0; c < edges[e][2]; c++) {
+                graph.addEdge(from, next, 1 + random.nextInt(9));
+                from = next++;
+            }
+            graph.addEdge(from, edges[e][1], 1 + random.nextInt(9));
+        }
+        return graph;
+    }
+
+    private static double weight(Graph graph, int u, int v) {
+        double best = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < graph.getOutDegree(u); i++) {
+            if (graph.getNeighbor(u, i) == v) {
+                best = Math.max(best, graph.getWeight(u, i));
+            }
+        }
+        return best;
+    }
+}
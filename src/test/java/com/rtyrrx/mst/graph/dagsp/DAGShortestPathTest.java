@@ -133,4 +133,80 @@ class DAGShortestPathTest {
         assertEquals(2, path.get(2));
         assertEquals(3, path.get(3));
     }
+
+    @Test
+    void testSemiringMatchesSpecializedKernels() {
+        Graph graph = new Graph(5);
+        graph.addEdge(0, 1, 5.0);
+        graph.addEdge(0, 2, 2.0);
+        graph.addEdge(1, 3, 1.0);
+        graph.addEdge(2, 3, 3.0);
+        graph.addEdge(3, 4, 2.0);
+
+        DAGShortestPath dagSP = new DAGShortestPath(graph);
+        double[] shortest = dagSP.findShortestPaths(0).distances();
+        double[] longest = dagSP.findLongestPath(0).distances();
+        DAGShortestPath.SemiringResult minPlus = dagSP.findPaths(0, StandardSemiring.MIN_PLUS);
+        DAGShortestPath.SemiringResult maxPlus = dagSP.findPaths(0, StandardSemiring.MAX_PLUS);
+
+        assertArrayEquals(shortest, minPlus.values(), 0.001);
+        assertArrayEquals(longest, maxPlus.values(), 0.001);
+        assertEquals(List.of(0, 2, 3, 4), minPlus.getPathTo(4));
+        assertEquals(List.of(0, 1, 3, 4), maxPlus.getPathTo(4));
+    }
+
+    @Test
+    void testBottleneckSemiring() {
+        Graph graph = new Graph(4);
+        graph.addEdge(0, 1, 10.0);
+        graph.addEdge(1, 3, 2.0);
+        graph.addEdge(0, 2, 4.0);
+        graph.addEdge(2, 3, 5.0);
+
+        DAGShortestPath.SemiringResult result = new DAGShortestPath(graph).findPaths(0, StandardSemiring.BOTTLENECK);
+
+        assertNotNull(result);
+        assertEquals(4.0, result.values()[3], 0.001, "Widest path goes through vertex 2");
+        assertEquals(List.of(0, 2, 3), result.getPathTo(3));
+    }
+
+    @Test
+    void testPathCountSemiring() {
+        Graph graph = new Graph(4);
+        graph.addEdge(0, 1, 1.0);
+        graph.addEdge(0, 2, 1.0);
+        graph.addEdge(1, 3, 1.0);
+        graph.addEdge(2, 3, 1.0);
+        graph.addEdge(0, 3, 1.0);
+
+        DAGShortestPath.SemiringResult result = new DAGShortestPath(graph).findPaths(0, StandardSemiring.PATH_COUNT);
+
+        assertEquals(1.0, result.values()[0], 0.001);
+        assertEquals(3.0, result.values()[3], 0.001);
+        assertEquals(-1, result.predecessors()[3], "Counting is not selective");
+    }
+
+    @Test
+    void testSemiringCycleReturnsNull() {
+        Graph graph = new Graph(2);
+        graph.addEdge(0, 1, 1.0);
+        graph.addEdge(1, 0, 1.0);
+
+        assertNull(new DAGShortestPath(graph).findPaths(0, StandardSemiring.MAX_PLUS));
+    }
+
+    @Test
+    void testSourceLateInTopologicalOrder() {
+        Graph graph = new Graph(4);
+        graph.addEdge(0, 1, 1.0);
+        graph.addEdge(1, 2, 1.0);
+        graph.addEdge(2, 3, 1.0);
+
+        DAGShortestPath dagSP = new DAGShortestPath(graph);
+        DAGShortestPath.ShortestPathResult result = dagSP.findShortestPaths(2);
+
+        assertEquals(Double.POSITIVE_INFINITY, result.distances()[0]);
+        assertEquals(1.0, result.distances()[3], 0.001);
+        assertEquals(1, dagSP.getMetrics().getCounter("relaxations"));
+    }
 }
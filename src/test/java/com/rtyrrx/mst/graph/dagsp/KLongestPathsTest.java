@@ -0,0 +1,123 @@
+package com.rtyrrx.mst.graph.dagsp;
+
+import com.rtyrrx.mst.common.Graph;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KLongestPathsTest {
+
+    private static Graph diamondChain() {
+        Graph graph = new Graph(6);
+        graph.addEdge(0, 1, 5.0);
+        graph.addEdge(0, 2, 2.0);
+        graph.addEdge(1, 3, 1.0);
+        graph.addEdge(2, 3, 3.0);
+        graph.addEdge(3, 4, 2.0);
+        graph.addEdge(3, 5, 1.0);
+        return graph;
+    }
+
+    @Test
+    void testFirstPathIsCriticalPath() {
+        Graph graph = diamondChain();
+
+        DAGShortestPath.LongestPathResult critical = new DAGShortestPath(graph).findLongestPath(0);
+        List<KLongestPaths.RankedPath> paths = new KLongestPaths(graph).findKLongestPaths(0, 1);
+
+        assertEquals(1, paths.size());
+        assertEquals(critical.criticalPathLength(), paths.getFirst().length(), 0.001);
+        assertEquals(critical.criticalPath(), paths.getFirst().vertices());
+    }
+
+    @Test
+    void testAllPathsInDescendingOrder() {
+        Graph graph = diamondChain();
+
+        List<KLongestPaths.RankedPath> paths = new KLongestPaths(graph).findKLongestPaths(0, 10);
+
+        assertEquals(4, paths.size(), "Two branches times two sinks");
+        assertEquals(List.of(8.0, 7.0, 7.0, 6.0),
+                paths.stream().map(KLongestPaths.RankedPath::length).collect(Collectors.toList()));
+        for (KLongestPaths.RankedPath path : paths) {
+            assertEquals(0, path.vertices().getFirst());
+        }
+    }
+
+    @Test
+    void testPathsToSpecificTarget() {
+        Graph graph = diamondChain();
+        DAGShortestPath.LongestPathResult forward = new DAGShortestPath(graph).findLongestPath(0);
+
+        List<KLongestPaths.RankedPath> paths = new KLongestPaths(graph).stream(forward, 3).toList();
+
+        assertEquals(2, paths.size());
+        assertEquals(List.of(0, 1, 3), paths.get(0).vertices());
+        assertEquals(List.of(0, 2, 3), paths.get(1).vertices());
+        assertEquals(5.0, paths.get(1).length(), 0.001);
+    }
+
+    @Test
+    void testUnreachableTarget() {
+        Graph graph = new Graph(3);
+        graph.addEdge(0, 1, 1.0);
+        DAGShortestPath.LongestPathResult forward = new DAGShortestPath(graph).findLongestPath(0);
+
+        assertFalse(new KLongestPaths(graph).iterator(forward, 2).hasNext());
+    }
+
+    @Test
+    void testSingleVertex() {
+        Graph graph = new Graph(1);
+
+        List<KLongestPaths.RankedPath> paths = new KLongestPaths(graph).findKLongestPaths(0, 5);
+
+        assertEquals(1, paths.size());
+        assertEquals(List.of(0), paths.getFirst().vertices());
+        assertEquals(0.0, paths.getFirst().length(), 0.001);
+    }
+
+    @Test
+    void testCycleReturnsNull() {
+        Graph graph = new Graph(2);
+        graph.addEdge(0, 1);
+        graph.addEdge(1, 0);
+
+        assertNull(new KLongestPaths(graph).findKLongestPaths(0, 3));
+    }
+
+    @Test
+    void testMetrics() {
+        KLongestPaths kPaths = new KLongestPaths(diamondChain());
+        kPaths.findKLongestPaths(0, 2);
+
+        assertTrue(kPaths.getMetrics().getCounter("heap_pushes") > 0);
+        assertTrue(kPaths.getMetrics().getCounter("heap_pops") > 0);
+    }
+
+    @Test
+    void testManyTiedPathsStayCheap() {
+        // 2^40 equally long paths through a ladder of diamonds.
+        int diamonds = 40;
+        Graph graph = new Graph(3 * diamonds + 1);
+        for (int d = 0; d < diamonds; d++) {
+            int base = 3 * d;
+            graph.addEdge(base, base + 1, 1.0);
+            graph.addEdge(base, base + 2, 1.0);
+            graph.addEdge(base + 1, base + 3, 1.0);
+            graph.addEdge(base + 2, base + 3, 1.0);
+        }
+
+        KLongestPaths kPaths = new KLongestPaths(graph);
+        List<KLongestPaths.RankedPath> paths = kPaths.findKLongestPaths(0, 3);
+
+        assertEquals(3, paths.size());
+        for (KLongestPaths.RankedPath path : paths) {
+            assertEquals(2.0 * diamonds, path.length(), 0.0);
+        }
+        assertTrue(kPaths.getMetrics().getCounter("heap_pops") < 10 * diamonds);
+    }
+}
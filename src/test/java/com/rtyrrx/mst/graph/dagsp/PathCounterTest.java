@@ -0,0 +1,109 @@
+package com.rtyrrx.mst.graph.dagsp;
+
+import com.rtyrrx.mst.common.Graph;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PathCounterTest {
+
+    @Test
+    void testCountsOnDiamond() {
+        Graph graph = new Graph(4);
+        graph.addEdge(0, 1, 2.0);
+        graph.addEdge(0, 2, 1.0);
+        graph.addEdge(1, 3, 1.0);
+        graph.addEdge(2, 3, 2.0);
+        graph.addEdge(0, 3, 1.0);
+
+        PathCounter.PathCountResult result = new PathCounter(graph).countLongest(0);
+
+        assertNotNull(result);
+        assertEquals(3, result.pathCounts()[3]);
+        assertEquals(2, result.optimalPathCounts()[3], "Both two-edge paths have length 3");
+        assertEquals(3.0, result.distances()[3], 0.001);
+        assertEquals(3.0, result.criticalLength(), 0.001);
+        assertEquals(BigInteger.TWO, result.criticalPathCount());
+        assertFalse(result.isSaturated());
+    }
+
+    @Test
+    void testShortestCounts() {
+        Graph graph = new Graph(4);
+        graph.addEdge(0, 1, 2.0);
+        graph.addEdge(0, 2, 1.0);
+        graph.addEdge(1, 3, 1.0);
+        graph.addEdge(2, 3, 2.0);
+        graph.addEdge(0, 3, 1.0);
+
+        PathCounter.PathCountResult result = new PathCounter(graph).countShortest(0);
+
+        assertEquals(1.0, result.distances()[3], 0.001);
+        assertEquals(1, result.optimalPathCounts()[3]);
+        assertEquals(3, result.pathCounts()[3]);
+    }
+
+    @Test
+    void testCountsFromAllRoots() {
+        Graph graph = new Graph(5);
+        graph.addEdge(0, 2, 1.0);
+        graph.addEdge(1, 2, 3.0);
+        graph.addEdge(2, 3, 1.0);
+        graph.addEdge(2, 4, 1.0);
+
+        PathCounter.PathCountResult result = new PathCounter(graph).countLongestFromRoots();
+
+        assertEquals(1, result.pathCounts()[0]);
+        assertEquals(2, result.pathCounts()[2]);
+        assertEquals(2, result.pathCounts()[4]);
+        assertEquals(1, result.optimalPathCounts()[4]);
+        assertEquals(4.0, result.criticalLength(), 0.001);
+        assertEquals(BigInteger.TWO, result.criticalPathCount(), "1->2->3 and 1->2->4");
+    }
+
+    @Test
+    void testOverflowPromotesToExactCounts() {
+        // 70 diamonds in a row: 2^70 paths from start to end.
+        int diamonds = 70;
+        Graph graph = new Graph(3 * diamonds + 1);
+        for (int d = 0; d < diamonds; d++) {
+            int start = 3 * d;
+            graph.addEdge(start, start + 1, 1.0);
+            graph.addEdge(start, start + 2, 1.0);
+            graph.addEdge(start + 1, start + 3, 1.0);
+            graph.addEdge(start + 2, start + 3, 1.0);
+        }
+        int end = 3 * diamonds;
+
+        PathCounter.PathCountResult result = new PathCounter(graph).countLongest(0);
+
+        assertTrue(result.isSaturated());
+        assertEquals(Long.MAX_VALUE, result.pathCounts()[end]);
+        assertEquals(BigInteger.TWO.pow(diamonds), result.exactPathCount(end));
+        assertEquals(BigInteger.TWO.pow(diamonds), result.exactOptimalPathCount(end));
+        assertEquals(BigInteger.TWO.pow(diamonds), result.criticalPathCount());
+        assertEquals(BigInteger.TWO.pow(10), result.exactPathCount(30));
+    }
+
+    @Test
+    void testUnreachableVerticesHaveNoPaths() {
+        Graph graph = new Graph(3);
+        graph.addEdge(0, 1, 1.0);
+
+        PathCounter.PathCountResult result = new PathCounter(graph).countLongest(0);
+
+        assertEquals(0, result.pathCounts()[2]);
+        assertEquals(Double.NEGATIVE_INFINITY, result.distances()[2]);
+    }
+
+    @Test
+    void testCycleReturnsNull() {
+        Graph graph = new Graph(2);
+        graph.addEdge(0, 1);
+        graph.addEdge(1, 0);
+
+        assertNull(new PathCounter(graph).countLongest(0));
+    }
+}
@@ -0,0 +1,126 @@
+package com.rtyrrx.mst.graph.dagsp;
+
+import com.rtyrrx.mst.common.Graph;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PathEngineTest {
+
+    private static Graph randomDag(int n, long seed) {
+        Random random = new Random(seed);
+        Graph graph = new Graph(n);
+        for (int u = 0; u < n - 1; u++) {
+            for (int j = 0; j < 3; j++) {
+                graph.addEdge(u, u + 1 + random.nextInt(n - u - 1), 1 + random.nextInt(9));
+            }
+        }
+        return graph;
+    }
+
+    @Test
+    void testMatchesDagShortestPath() {
+        Graph graph = randomDag(300, 1);
+        PathEngine engine = new PathEngine();
+        DAGShortestPath reference = new DAGShortestPath(graph);
+
+        double[] dist = new double[300];
+        int[] pred = new int[300];
+        assertTrue(engine.shortestPaths(graph, 5, dist, pred));
+        DAGShortestPath.ShortestPathResult shortest = reference.findShortestPaths(5);
+        assertArrayEquals(shortest.distances(), dist, 0.0);
+        assertArrayEquals(shortest.predecessors(), pred);
+
+        assertTrue(engine.longestPaths(graph, 0, dist, null));
+        DAGShortestPath.LongestPathResult longest = reference.findLongestPath(0);
+        assertArrayEquals(longest.distances(), dist, 0.0);
+        assertEquals(longest.criticalPathLength(), engine.longestPathLength(graph, 0), 0.0);
+        assertEquals(shortest.distances()[299], engine.shortestDistance(graph, 5, 299), 0.0);
+    }
+
+    @Test
+    void testCycleIsReported() {
+        Graph graph = new Graph(3);
+        graph.addEdge(0, 1);
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 1);
+        PathEngine engine = new PathEngine();
+
+        assertFalse(engine.longestPaths(graph, 0, new double[3], new int[3]));
+        assertTrue(Double.isNaN(engine.longestPathLength(graph, 0)));
+        assertThrows(IllegalArgumentException.class, () -> engine.shortestPaths(graph, 0, new double[2], null));
+        assertThrows(IllegalArgumentException.class, () -> engine.longestPathLength(graph, 3));
+    }
+
+    @Test
+    void testBadVerticesAreRejectedWithoutPoolingTheWorkspace() {
+        Graph graph = new Graph(3);
+        graph.addEdge(0, 1, 2.0);
+        graph.addEdge(1, 2, 3.0);
+        PathEngine engine = new PathEngine();
+
+        assertThrows(IllegalArgumentException.class, () -> engine.shortestDistance(graph, 0, 3));
+        assertThrows(IllegalArgumentException.class, () -> engine.shortestDistance(graph, 0, -1));
+        assertThrows(IllegalArgumentException.class, () -> engine.shortestDistance(graph, 5, 1));
+        assertThrows(IllegalArgumentException.class, () -> engine.longestPathLength(graph, -1));
+        assertEquals(0, engine.getPool().idleCount());
+
+        assertEquals(5.0, engine.shortestDistance(graph, 0, 2), 0.0);
+        assertEquals(5.0, engine.longestPathLength(graph, 0), 0.0);
+        assertEquals(1, engine.getPool().idleCount());
+    }
+
+    @Test
+    void testConcurrentQueriesOnSharedGraph() throws Exception {
+        int n = 2_000;
+        Graph graph = randomDag(n, 2);
+        DAGShortestPath reference = new DAGShortestPath(graph);
+        double[] expectedLongest = new double[50];
+        double[][] expectedShortest = new double[50][];
+        for (int s = 0; s < 50; s++) {
+            expectedLongest[s] = reference.findLongestPath(s * 10).criticalPathLength();
+            expectedShortest[s] = reference.findShortestPaths(s * 10).distances();
+        }
+
+        int threads = 8;
+        PathEngine engine = new PathEngine(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int seed = t;
+                futures.add(executor.submit(() -> {
+                    Random random = new Random(seed);
+                    double[] dist = new double[n];
+                    int checked = 0;
+                    for (int q = 0; q < 200; q++) {
+                        int s = random.nextInt(50);
+                        if (q % 2 == 0) {
+                            assertEquals(expectedLongest[s], engine.longestPathLength(graph, s * 10), 0.0);
+                        } else {
+                            assertTrue(engine.shortestPaths(graph, s * 10, dist, null));
+                            assertArrayEquals(expectedShortest[s], dist, 0.0);
+                        }
+                        checked++;
+                    }
+                    return checked;
+                }));
+            }
+            for (Future<Integer> future : futures) {
+                assertEquals(200, future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        // Workspaces are only created while more queries overlap than the
+        // pool already holds.
+        assertTrue(engine.getPool().createdCount() <= threads);
+    }
+}
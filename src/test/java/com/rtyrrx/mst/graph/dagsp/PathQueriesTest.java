@@ -0,0 +1,127 @@
+package com.rtyrrx.mst.graph.dagsp;
+
+import com.rtyrrx.mst.common.Graph;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PathQueriesTest {
+
+    private static Graph randomDag(int vertices, int edges, long seed) {
+        Random random = new Random(seed);
+        Graph graph = new Graph(vertices);
+        for (int e = 0; e < edges; e++) {
+            int u = random.nextInt(vertices - 1);
+            int v = u + 1 + random.nextInt(vertices - u - 1);
+            graph.addEdge(u, v, 1 + random.nextInt(5));
+        }
+        return graph;
+    }
+
+    @Test
+    void testMatchesGetPathTo() {
+        Graph graph = randomDag(200, 600, 11);
+        DAGShortestPath.ShortestPathResult result = new DAGShortestPath(graph).findShortestPaths(0);
+        PathQueries queries = PathQueries.of(result);
+        int[] buffer = new int[graph.getVertices()];
+
+        for (int v = 0; v < graph.getVertices(); v++) {
+            List<Integer> expected = result.getPathTo(v);
+            int length = queries.copyPathTo(v, buffer);
+            assertEquals(expected.size(), length);
+            assertEquals(expected.size(), queries.pathLength(v));
+            for (int i = 0; i < length; i++) {
+                assertEquals(expected.get(i), buffer[i]);
+            }
+            assertEquals(expected, queries.getPath(v).toList());
+        }
+    }
+
+    @Test
+    void testAllPathsMatchesSingleQueries() {
+        Graph graph = randomDag(300, 900, 5);
+        DAGShortestPath.LongestPathResult result = new DAGShortestPath(graph).findLongestPath(3);
+        PathQueries queries = PathQueries.of(result);
+
+        PathQueries.PathTree tree = queries.allPaths();
+
+        for (int v = 0; v < graph.getVertices(); v++) {
+            assertEquals(queries.getPath(v).toList(), tree.pathTo(v).toList());
+        }
+        assertEquals(List.of(3), tree.pathTo(3).toList());
+        assertTrue(tree.pathTo(0).isEmpty(), "Vertex 0 precedes the source");
+    }
+
+    @Test
+    void testAllPathsOnLongChainStaysLinear() {
+        // The paths of a 100k chain hold about 5e9 vertices together.
+        int n = 100_000;
+        int[] predecessors = new int[n];
+        for (int v = 0; v < n; v++) {
+            predecessors[v] = v - 1;
+        }
+
+        PathQueries.PathTree tree = new PathQueries(predecessors, 0).allPaths();
+
+        assertEquals((long) n * (n + 1) / 2, tree.totalPathVertices());
+        IntPath longest = tree.pathTo(n - 1);
+        assertEquals(n, longest.length());
+        assertEquals(0, longest.vertex(0));
+        assertEquals(n - 1, longest.vertex(n - 1));
+    }
+
+    @Test
+    void testCacheHitsAndEviction() {
+        Graph graph = new Graph(4);
+        graph.addEdge(0, 1, 1.0);
+        graph.addEdge(1, 2, 1.0);
+        graph.addEdge(2, 3, 1.0);
+        DAGShortestPath.ShortestPathResult result = new DAGShortestPath(graph).findShortestPaths(0);
+
+        // Room for exactly one cached path of four vertices.
+        PathQueries queries = new PathQueries(result.predecessors(), result.source(), 100);
+        queries.getPath(3);
+        queries.getPath(3);
+        assertEquals(1, queries.getMetrics().getCounter("cache_hits"));
+
+        queries.getPath(2);
+        assertEquals(1, queries.getCachedPaths());
+        assertTrue(queries.getCachedBytes() <= 100);
+        assertEquals(1, queries.getMetrics().getCounter("cache_evictions"));
+    }
+
+    @Test
+    void testUnreachableDestination() {
+        Graph graph = new Graph(3);
+        graph.addEdge(0, 1, 1.0);
+        PathQueries queries = PathQueries.of(new DAGShortestPath(graph).findShortestPaths(0));
+
+        assertFalse(queries.isReachable(2));
+        assertEquals(0, queries.copyPathTo(2, new int[3]));
+        assertTrue(queries.getPath(2).isEmpty());
+    }
+
+    @Test
+    void testIntPathView() {
+        IntPath path = new IntPath(new int[]{9, 4, 5, 6, 9}, 1, 3);
+
+        assertEquals(4, path.vertex(0));
+        assertEquals(6, path.vertex(2));
+        assertArrayEquals(new int[]{4, 5, 6}, path.toArray());
+        assertThrows(IndexOutOfBoundsException.class, () -> path.vertex(3));
+        assertEquals(new IntPath(new int[]{4, 5, 6}, 0, 3), path);
+    }
+
+    @Test
+    void testCachedPathCannotBeModified() {
+        PathQueries queries = new PathQueries(new int[]{-1, 0, 1}, 0);
+        IntPath path = queries.getPath(2);
+
+        path.toArray()[0] = 42;
+
+        assertArrayEquals(new int[]{0, 1, 2}, queries.getPath(2).toArray());
+    }
+}
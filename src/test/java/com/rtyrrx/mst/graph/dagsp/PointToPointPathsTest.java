@@ -0,0 +1,111 @@
+package com.rtyrrx.mst.graph.dagsp;
+
+import com.rtyrrx.mst.common.Graph;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PointToPointPathsTest {
+
+    @Test
+    void testSimpleQueries() {
+        Graph graph = new Graph(5);
+        graph.addEdge(0, 1, 5.0);
+        graph.addEdge(0, 2, 2.0);
+        graph.addEdge(1, 3, 1.0);
+        graph.addEdge(2, 3, 3.0);
+        graph.addEdge(3, 4, 1.0);
+
+        PointToPointPaths paths = new PointToPointPaths(graph);
+
+        PointToPointPaths.PathResult shortest = paths.shortestPath(0, 4);
+        assertEquals(6.0, shortest.length(), 0.0);
+        assertArrayEquals(new int[]{0, 2, 3, 4}, shortest.path());
+        PointToPointPaths.PathResult longest = paths.longestPath(0, 3, PointToPointPaths.Pruning.WINDOW);
+        assertEquals(6.0, longest.length(), 0.0);
+        assertArrayEquals(new int[]{0, 1, 3}, longest.path());
+
+        assertArrayEquals(new int[]{2}, paths.shortestPath(2, 2).path());
+        PointToPointPaths.PathResult backwards = paths.shortestPath(4, 0);
+        assertFalse(backwards.isReachable());
+        assertEquals(Double.POSITIVE_INFINITY, backwards.length());
+        assertFalse(paths.longestPath(1, 2).isReachable());
+        assertThrows(IllegalArgumentException.class, () -> paths.shortestPath(0, 5));
+    }
+
+    @Test
+    void testPruningScansFewerVertices() {
+        // 0 -> 1 (target) directly; 0 also feeds a dead-end chain 2..51, and
+        // the target waits on a second source 52 via chain 53..102, which
+        // places the dead end inside the topological window.
+        Graph graph = new Graph(103);
+        graph.addEdge(0, 1, 1.0);
+        graph.addEdge(0, 2, 1.0);
+        for (int v = 2; v < 51; v++) {
+            graph.addEdge(v, v + 1, 1.0);
+        }
+        graph.addEdge(52, 53, 1.0);
+        for (int v = 53; v < 102; v++) {
+            graph.addEdge(v, v + 1, 1.0);
+        }
+        graph.addEdge(102, 1, 1.0);
+
+        PointToPointPaths paths = new PointToPointPaths(graph);
+        PointToPointPaths.PathResult window = paths.shortestPath(0, 1, PointToPointPaths.Pruning.WINDOW);
+        PointToPointPaths.PathResult pruned = paths.shortestPath(0, 1, PointToPointPaths.Pruning.BIDIRECTIONAL);
+
+        assertArrayEquals(window.path(), pruned.path());
+        assertEquals(2, pruned.scannedVertices());
+        assertEquals(52, window.scannedVertices());
+    }
+
+    @Test
+    void testMatchesFullAlgorithm() {
+        Random random = new Random(3);
+        for (int round = 0; round < 10; round++) {
+            int n = 80;
+            Graph graph = new Graph(n);
+            for (int u = 0; u < n - 1; u++) {
+                int edges = random.nextInt(4);
+                for (int j = 0; j < edges; j++) {
+                    // Small integer weights make ties, so the chosen path matters.
+                    graph.addEdge(u, u + 1 + random.nextInt(Math.min(10, n - 1 - u)), 1 + random.nextInt(3));
+                }
+            }
+            PointToPointPaths paths = new PointToPointPaths(graph);
+            for (int s = 0; s < n; s += 7) {
+                DAGShortestPath.ShortestPathResult shortest = new DAGShortestPath(graph).findShortestPaths(s);
+                DAGShortestPath.LongestPathResult longest = new DAGShortestPath(graph).findLongestPath(s);
+                for (int t = 0; t < n; t++) {
+                    for (PointToPointPaths.Pruning pruning : PointToPointPaths.Pruning.values()) {
+                        PointToPointPaths.PathResult sp = paths.shortestPath(s, t, pruning);
+                        assertEquals(shortest.distances()[t], sp.length(), 0.0);
+                        assertEquals(shortest.getPathTo(t), toList(sp.path()), s + " -> " + t);
+
+                        PointToPointPaths.PathResult lp = paths.longestPath(s, t, pruning);
+                        assertEquals(longest.distances()[t], lp.length(), 0.0);
+                        List<Integer> expected = PathQueries.of(longest).getPath(t).toList();
+                        assertEquals(expected, toList(lp.path()), s + " -> " + t);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testCyclicGraphReturnsNull() {
+        Graph graph = new Graph(2);
+        graph.addEdge(0, 1);
+        graph.addEdge(1, 0);
+
+        assertNull(new PointToPointPaths(graph).shortestPath(0, 1));
+    }
+
+    private static List<Integer> toList(int[] path) {
+        return Arrays.stream(path).boxed().toList();
+    }
+}
@@ -0,0 +1,78 @@
+package com.rtyrrx.mst.graph.dominator;
+
+import com.rtyrrx.mst.common.Graph;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BottleneckFinderTest {
+
+    // start -> survey -> {permit <-> design} -> build -> {paint, wire} -> open
+    private static Graph project() {
+        String[] tasks = {"start", "survey", "permit", "design", "build", "paint", "wire", "open"};
+        Graph graph = new Graph(tasks.length);
+        for (int v = 0; v < tasks.length; v++) {
+            graph.mapTaskToVertex(tasks[v], v);
+        }
+        graph.addEdge(0, 1);
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+        graph.addEdge(3, 2);
+        graph.addEdge(3, 4);
+        graph.addEdge(4, 5);
+        graph.addEdge(4, 6);
+        graph.addEdge(5, 7);
+        graph.addEdge(6, 7);
+        return graph;
+    }
+
+    @Test
+    void testMustPassBeforeAndAfter() {
+        BottleneckFinder finder = new BottleneckFinder(project());
+
+        List<List<String>> before = finder.mustPassBefore("paint");
+        assertEquals(List.of(List.of("start"), List.of("survey")), before.subList(0, 2));
+        assertEquals(List.of("design", "permit"), before.get(2).stream().sorted().toList());
+        assertEquals(List.of("build"), before.get(3));
+
+        assertEquals(List.of(List.of("build"), List.of("open")), finder.mustPassAfter("design"));
+    }
+
+    @Test
+    void testProjectBottlenecks() {
+        BottleneckFinder finder = new BottleneckFinder(project());
+
+        List<List<String>> bottlenecks = finder.projectBottlenecks();
+        assertEquals(List.of("start"), bottlenecks.getFirst());
+        assertEquals(List.of("open"), bottlenecks.getLast());
+        assertEquals(5, bottlenecks.size());
+        assertTrue(finder.isBottleneckFor("build", "wire"));
+        assertTrue(finder.isBottleneckFor("open", "paint"));
+        assertFalse(finder.isBottleneckFor("paint", "open"));
+        assertThrows(IllegalArgumentException.class, () -> finder.mustPassBefore("missing"));
+    }
+
+    @Test
+    void testIndependentStarts() {
+        Graph graph = new Graph(5);
+        String[] tasks = {"a", "b", "c", "d", "e"};
+        for (int v = 0; v < tasks.length; v++) {
+            graph.mapTaskToVertex(tasks[v], v);
+        }
+        graph.addEdge(0, 2);
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+        graph.addEdge(2, 4);
+
+        BottleneckFinder finder = new BottleneckFinder(graph);
+
+        assertEquals(List.of(List.of("c")), finder.projectBottlenecks());
+        assertEquals(List.of(), finder.mustPassBefore("a"));
+        assertEquals(List.of(List.of("c")), finder.mustPassAfter("a"));
+
+        graph.addEdge(1, 4);
+        assertTrue(new BottleneckFinder(graph).projectBottlenecks().isEmpty());
+    }
+}
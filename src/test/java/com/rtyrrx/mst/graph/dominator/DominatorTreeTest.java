@@ -0,0 +1,126 @@
+package com.rtyrrx.mst.graph.dominator;
+
+import com.rtyrrx.mst.common.Graph;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DominatorTreeTest {
+
+    // 0 -> 1 -> {2, 3} -> 4 -> 5, plus 0 -> 6 -> 5.
+    private static Graph diamond() {
+        Graph graph = new Graph(7);
+        graph.addEdge(0, 1);
+        graph.addEdge(1, 2);
+        graph.addEdge(1, 3);
+        graph.addEdge(2, 4);
+        graph.addEdge(3, 4);
+        graph.addEdge(4, 5);
+        graph.addEdge(0, 6);
+        graph.addEdge(6, 5);
+        return graph;
+    }
+
+    @Test
+    void testImmediateDominators() {
+        DominatorTree tree = DominatorTree.dominators(diamond(), 0);
+
+        assertArrayEquals(new int[]{-1, 0, 1, 1, 1, 0, 0}, tree.immediateDominators());
+        assertArrayEquals(new int[]{0, 1}, tree.getDominators(4));
+        assertEquals(2, tree.getDepth(4));
+        assertTrue(tree.dominates(1, 4));
+        assertTrue(tree.dominates(4, 4));
+        assertFalse(tree.dominates(2, 4));
+        assertFalse(tree.dominates(1, 5));
+        assertEquals(1, tree.commonDominator(2, 3));
+        assertEquals(0, tree.commonDominator(4, 6));
+    }
+
+    @Test
+    void testPostDominators() {
+        DominatorTree tree = DominatorTree.postDominators(diamond(), 5);
+
+        assertEquals(4, tree.getImmediateDominator(1));
+        assertEquals(4, tree.getImmediateDominator(2));
+        assertEquals(5, tree.getImmediateDominator(0));
+        assertArrayEquals(new int[]{5, 4}, tree.getDominators(1));
+    }
+
+    @Test
+    void testVirtualRootAndUnreachableVertices() {
+        Graph graph = new Graph(5);
+        graph.addEdge(0, 2);
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+
+        DominatorTree virtual = DominatorTree.dominators(graph);
+        assertEquals(-1, virtual.getImmediateDominator(2));
+        assertEquals(2, virtual.getImmediateDominator(3));
+        assertTrue(virtual.isReachable(4));
+        assertEquals(-1, virtual.commonDominator(0, 1));
+
+        DominatorTree rooted = DominatorTree.dominators(graph, 0);
+        assertFalse(rooted.isReachable(1));
+        assertFalse(rooted.dominates(1, 3));
+        assertEquals(0, rooted.getImmediateDominator(2));
+        assertEquals(0, rooted.getDominators(1).length);
+        assertEquals(-1, rooted.commonDominator(1, 3));
+    }
+
+    @Test
+    void testCycleAndBadRoot() {
+        Graph graph = new Graph(3);
+        graph.addEdge(0, 1);
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 1);
+
+        assertNull(DominatorTree.dominators(graph, 0));
+        assertNull(DominatorTree.postDominators(graph));
+        assertThrows(IllegalArgumentException.class, () -> DominatorTree.dominators(graph, 3));
+    }
+
+    @Test
+    void testMatchesRemovalReachability() {
+        Random random = new Random(11);
+        for (int round = 0; round < 30; round++) {
+            int n = 40;
+            Graph graph = new Graph(n);
+            for (int u = 0; u < n - 1; u++) {
+                int edges = 1 + random.nextInt(3);
+                for (int j = 0; j < edges; j++) {
+                    graph.addEdge(u, u + 1 + random.nextInt(Math.min(6, n - 1 - u)));
+                }
+            }
+            DominatorTree tree = DominatorTree.dominators(graph, 0);
+            for (int d = 0; d < n; d++) {
+                boolean[] reached = reachableWithout(graph, 0, d);
+                for (int v = 0; v < n; v++) {
+                    boolean expected = v == d ? tree.isReachable(v) : !reached[v] && reachableWithout(graph, 0, -1)[v];
+                    assertEquals(expected, tree.dominates(d, v), d + " dominates " + v);
+                }
+            }
+        }
+    }
+
+    private static boolean[] reachableWithout(Graph graph, int root, int removed) {
+        boolean[] seen = new boolean[graph.getVertices()];
+        if (root == removed) return seen;
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        queue.add(root);
+        seen[root] = true;
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            for (int i = 0; i < graph.getOutDegree(u); i++) {
+                int v = graph.getNeighbor(u, i);
+                if (v != removed && !seen[v]) {
+                    seen[v] = true;
+                    queue.add(v);
+                }
+            }
+        }
+        return seen;
+    }
+}
@@ -0,0 +1,109 @@
+package com.rtyrrx.mst.graph.fas;
+
+import com.rtyrrx.mst.common.Graph;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EadesLinSmythTest {
+
+    private static int backwardEdges(Graph graph, int[] sequence) {
+        int[] position = new int[sequence.length];
+        for (int p = 0; p < sequence.length; p++) {
+            position[sequence[p]] = p;
+        }
+        int backward = 0;
+        for (int u = 0; u < graph.getVertices(); u++) {
+            for (int i = 0; i < graph.getOutDegree(u); i++) {
+                if (position[graph.getNeighbor(u, i)] <= position[u]) backward++;
+            }
+        }
+        return backward;
+    }
+
+    @Test
+    void testDagNeedsNoRemovals() {
+        Random random = new Random(3);
+        Graph graph = new Graph(50);
+        for (int e = 0; e < 150; e++) {
+            int u = random.nextInt(49);
+            graph.addEdge(u, u + 1 + random.nextInt(49 - u));
+        }
+
+        int[] sequence = new EadesLinSmyth(graph).sequence();
+
+        assertEquals(0, backwardEdges(graph, sequence));
+    }
+
+    @Test
+    void testSequenceIsPermutation() {
+        Random random = new Random(8);
+        Graph graph = new Graph(40);
+        for (int e = 0; e < 160; e++) {
+            graph.addEdge(random.nextInt(40), random.nextInt(40));
+        }
+
+        int[] sequence = new EadesLinSmyth(graph).sequence().clone();
+        Arrays.sort(sequence);
+
+        for (int v = 0; v < 40; v++) {
+            assertEquals(v, sequence[v]);
+        }
+    }
+
+    @Test
+    void testSimpleCycleRemovesOneEdge() {
+        Graph graph = new Graph(4);
+        graph.addEdge(0, 1);
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+        graph.addEdge(3, 0);
+
+        assertEquals(1, backwardEdges(graph, new EadesLinSmyth(graph).sequence()));
+    }
+
+    @Test
+    void testTwoCyclesSharingAVertex() {
+        Graph graph = new Graph(5);
+        graph.addEdge(0, 1);
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 0);
+        graph.addEdge(2, 3);
+        graph.addEdge(3, 4);
+        graph.addEdge(4, 2);
+
+        assertEquals(2, backwardEdges(graph, new EadesLinSmyth(graph).sequence()));
+    }
+
+    @Test
+    void testSelfLoopIsAlwaysRemoved() {
+        Graph graph = new Graph(2);
+        graph.addEdge(0, 0);
+        graph.addEdge(0, 1);
+
+        int[] sequence = new EadesLinSmyth(graph).sequence();
+
+        assertArrayEquals(new int[]{0, 1}, sequence);
+        assertEquals(1, backwardEdges(graph, sequence));
+    }
+
+    @Test
+    void testParallelEdgesBeyondVertexCount() {
+        Graph graph = new Graph(3);
+        for (int i = 0; i < 5; i++) {
+            graph.addEdge(0, 1);
+            graph.addEdge(1, 2);
+        }
+        graph.addEdge(2, 0);
+
+        assertEquals(1, backwardEdges(graph, new EadesLinSmyth(graph).sequence()));
+    }
+
+    @Test
+    void testEmptyGraph() {
+        assertEquals(0, new EadesLinSmyth(new Graph(0)).sequence().length);
+    }
+}
@@ -0,0 +1,119 @@
+package com.rtyrrx.mst.graph.fas;
+
+import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.graph.topo.TopologicalSort;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeedbackArcSetTest {
+
+    private static Graph randomGraph(int vertices, int edges, long seed) {
+        Random random = new Random(seed);
+        Graph graph = new Graph(vertices);
+        for (int e = 0; e < edges; e++) {
+            graph.addEdge(random.nextInt(vertices), random.nextInt(vertices), 1 + random.nextInt(9));
+        }
+        return graph;
+    }
+
+    private static void assertValid(Graph graph, FeedbackArcSet.FasResult result) {
+        int n = graph.getVertices();
+        int[] position = new int[n];
+        for (int p = 0; p < n; p++) {
+            position[result.topologicalOrder()[p]] = p;
+        }
+
+        Graph kept = new Graph(n);
+        int removed = 0;
+        double removedWeight = 0;
+        for (int u = 0; u < n; u++) {
+            for (int i = 0; i < graph.getOutDegree(u); i++) {
+                int v = graph.getNeighbor(u, i);
+                if (position[v] > position[u]) {
+                    kept.addEdge(u, v, graph.getWeight(u, i));
+                } else {
+                    removed++;
+                    removedWeight += graph.getWeight(u, i);
+                }
+            }
+        }
+        assertEquals(removed, result.removedCount());
+        assertEquals(removedWeight, result.removedWeight(), 1e-9);
+        assertEquals(graph.countEdges(), kept.countEdges() + result.removedCount());
+        assertNotNull(new TopologicalSort(kept).sortToArray(), "Kept edges must form a DAG");
+    }
+
+    @Test
+    void testDagKeepsEveryEdge() {
+        Graph graph = new Graph(4);
+        graph.addEdge(0, 1);
+        graph.addEdge(0, 2);
+        graph.addEdge(1, 3);
+        graph.addEdge(2, 3);
+
+        FeedbackArcSet.FasResult result = new FeedbackArcSet(graph).compute(3);
+
+        assertEquals(0, result.removedCount());
+        assertEquals(0.0, result.removedWeight());
+        assertValid(graph, result);
+    }
+
+    @Test
+    void testRandomCyclicGraphBecomesDag() {
+        Graph graph = randomGraph(300, 1200, 17);
+        assertNull(new TopologicalSort(graph).sortToArray());
+
+        FeedbackArcSet.FasResult result = new FeedbackArcSet(graph).compute();
+
+        assertTrue(result.removedCount() > 0);
+        assertValid(graph, result);
+    }
+
+    @Test
+    void testRefinementNeverIncreasesRemovedWeight() {
+        for (long seed = 1; seed <= 5; seed++) {
+            Graph graph = randomGraph(200, 800, seed);
+
+            FeedbackArcSet.FasResult plain = new FeedbackArcSet(graph).compute();
+            FeedbackArcSet.FasResult refined = new FeedbackArcSet(graph).compute(5);
+
+            assertValid(graph, refined);
+            assertTrue(refined.removedWeight() <= plain.removedWeight());
+        }
+    }
+
+    @Test
+    void testRefinementDropsTheCheaperEdgeOfATwoCycle() {
+        Graph graph = new Graph(2);
+        graph.addEdge(0, 1, 10.0);
+        graph.addEdge(1, 0, 1.0);
+
+        FeedbackArcSet.FasResult result = new FeedbackArcSet(graph).compute(2);
+
+        assertEquals(1, result.removedCount());
+        assertEquals(1, result.removedSources()[0]);
+        assertEquals(0, result.removedTargets()[0]);
+        assertEquals(1.0, result.removedWeight(), 0.0);
+    }
+
+    @Test
+    void testSelfLoopsAreRemoved() {
+        Graph graph = new Graph(2);
+        graph.addEdge(0, 0, 3.0);
+        graph.addEdge(0, 1, 1.0);
+
+        FeedbackArcSet.FasResult result = new FeedbackArcSet(graph).compute(1);
+
+        assertEquals(1, result.removedCount());
+        assertEquals(3.0, result.removedWeight(), 0.0);
+        assertValid(graph, result);
+    }
+
+    @Test
+    void testNegativePassesRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new FeedbackArcSet(new Graph(1)).compute(-1));
+    }
+}
@@ -0,0 +1,204 @@
+package com.rtyrrx.mst.graph.reorder;
+
+import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.data.TaskGraph;
+import com.rtyrrx.mst.graph.dagsp.DAGShortestPath;
+import com.rtyrrx.mst.graph.scc.SCC;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VertexReorderingTest {
+
+    // A chain whose vertex ids have been shuffled, so consecutive tasks are
+    // far apart in the arrays.
+    private static Graph shuffledChain(int n, long seed) {
+        int[] ids = new int[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = i;
+        }
+        Random random = new Random(seed);
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = ids[i];
+            ids[i] = ids[j];
+            ids[j] = tmp;
+        }
+        Graph graph = new Graph(n);
+        for (int i = 0; i < n; i++) {
+            graph.mapTaskToVertex("T" + i, ids[i]);
+            if (i + 1 < n) {
+                graph.addEdge(ids[i], ids[i + 1], 1.0 + i % 3);
+            }
+            if (i + 2 < n) {
+                graph.addEdge(ids[i], ids[i + 2], 2.5);
+            }
+        }
+        return graph;
+    }
+
+    @Test
+    void testPermutationIsBijective() {
+        Graph graph = shuffledChain(200, 1);
+        for (VertexReordering.Strategy strategy : VertexReordering.Strategy.values()) {
+            VertexReordering.Permutation permutation = new VertexReordering(graph).compute(strategy);
+            Set<Integer> seen = new HashSet<>();
+            for (int v = 0; v < graph.getVertices(); v++) {
+                assertTrue(seen.add(permutation.toOriginal(v)), strategy.toString());
+                assertEquals(v, permutation.toReordered(permutation.toOriginal(v)));
+            }
+        }
+    }
+
+    @Test
+    void testCuthillMcKeeVisitsHighDegreeNeighboursByDegree() {
+        // A hub with 40 leaves, too many for the insertion sort; leaf i has
+        // i % 4 pendants, so leaves with equal degree must keep id order.
+        int leaves = 40;
+        Graph graph = new Graph(1 + leaves + leaves * 3);
+        int next = 1 + leaves;
+        for (int leaf = 1; leaf <= leaves; leaf++) {
+            graph.addEdge(0, leaf, 1.0);
+            for (int p = 0; p < leaf % 4; p++) {
+                graph.addEdge(leaf, next++, 1.0);
+            }
+        }
+
+        int[] reversed = new VertexReordering(graph)
+                .compute(VertexReordering.Strategy.REVERSE_CUTHILL_MCKEE).newToOld();
+        List<Integer> visited = new java.util.ArrayList<>();
+        for (int i = reversed.length - 1; i >= 0; i--) {
+            int v = reversed[i];
+            if (v >= 1 && v <= leaves) visited.add(v);
+        }
+
+        List<Integer> expected = new java.util.ArrayList<>(visited);
+        expected.sort((a, b) -> a % 4 != b % 4 ? Integer.compare(a % 4, b % 4) : Integer.compare(a, b));
+        assertEquals(leaves, visited.size());
+        assertEquals(expected, visited);
+    }
+
+    @Test
+    void testTaskIdsFollowTheirVertices() {
+        Graph graph = shuffledChain(50, 2);
+        VertexReordering.Permutation permutation =
+                new VertexReordering(graph).compute(VertexReordering.Strategy.REVERSE_CUTHILL_MCKEE);
+        Graph relabelled = permutation.apply(graph);
+
+        assertEquals(graph.countEdges(), relabelled.countEdges());
+        for (int v = 0; v < relabelled.getVertices(); v++) {
+            String taskId = relabelled.getTaskId(v);
+            assertEquals(graph.getTaskId(permutation.toOriginal(v)), taskId);
+            assertEquals(v, relabelled.getVertex(taskId));
+        }
+        assertNotEquals(graph.getContentHash(), relabelled.getContentHash());
+    }
+
+    @Test
+    void testTaskListIsPermutedWithVertices() {
+        TaskGraph taskGraph = new TaskGraph();
+        Graph graph = new Graph(3);
+        for (int i = 0; i < 3; i++) {
+            taskGraph.addTask(new TaskGraph.Task("T" + i, "Task " + i, i + 1.0));
+            graph.mapTaskToVertex("T" + i, i);
+        }
+        graph.addEdge(2, 1);
+        graph.addEdge(1, 0);
+
+        VertexReordering.Permutation permutation =
+                new VertexReordering(graph).compute(VertexReordering.Strategy.TOPOLOGICAL_LEVEL);
+        Graph relabelled = permutation.apply(graph);
+        TaskGraph reordered = permutation.apply(taskGraph);
+
+        assertEquals(List.of("T2", "T1", "T0"), reordered.getTasks().stream().map(TaskGraph.Task::getId).toList());
+        for (int v = 0; v < 3; v++) {
+            assertEquals(relabelled.getTaskId(v), reordered.getTasks().get(v).getId());
+        }
+    }
+
+    @Test
+    void testTopologicalLevelsPutEdgesForward() {
+        Graph graph = shuffledChain(300, 3);
+        Graph relabelled = new VertexReordering(graph)
+                .compute(VertexReordering.Strategy.TOPOLOGICAL_LEVEL).apply(graph);
+        for (int u = 0; u < relabelled.getVertices(); u++) {
+            for (int i = 0; i < relabelled.getOutDegree(u); i++) {
+                assertTrue(relabelled.getNeighbor(u, i) > u);
+            }
+        }
+    }
+
+    @Test
+    void testCyclicVerticesAreKeptAfterLevels() {
+        Graph graph = new Graph(4);
+        graph.addEdge(3, 1);
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 1);
+        graph.addEdge(0, 3);
+
+        VertexReordering.Permutation permutation =
+                new VertexReordering(graph).compute(VertexReordering.Strategy.TOPOLOGICAL_LEVEL);
+
+        assertArrayEquals(new int[]{0, 3, 1, 2}, permutation.newToOld());
+    }
+
+    @Test
+    void testReorderingReducesEdgeSpan() {
+        Graph graph = shuffledChain(2000, 4);
+        double before = VertexReordering.averageEdgeSpan(graph);
+        for (VertexReordering.Strategy strategy : VertexReordering.Strategy.values()) {
+            Graph relabelled = new VertexReordering(graph).compute(strategy).apply(graph);
+            assertTrue(VertexReordering.averageEdgeSpan(relabelled) < before / 10, strategy.toString());
+        }
+    }
+
+    @Test
+    void testResultsTranslateBack() {
+        Graph graph = shuffledChain(100, 5);
+        graph.addEdge(graph.getVertex("T90"), graph.getVertex("T80"), 1.0);
+        VertexReordering.Permutation permutation =
+                new VertexReordering(graph).compute(VertexReordering.Strategy.BFS);
+        Graph relabelled = permutation.apply(graph);
+
+        SCC original = new SCC(graph);
+        Set<Set<Integer>> expected = asSets(original.findSCCs());
+        SCC reordered = new SCC(relabelled);
+        assertEquals(expected, asSets(permutation.toOriginal(reordered.findSCCs())));
+
+        Graph dag = shuffledChain(100, 6);
+        permutation = new VertexReordering(dag).compute(VertexReordering.Strategy.REVERSE_CUTHILL_MCKEE);
+        int source = dag.getVertex("T0");
+        DAGShortestPath.LongestPathResult before = new DAGShortestPath(dag).findLongestPath(source);
+        DAGShortestPath.LongestPathResult after = new DAGShortestPath(permutation.apply(dag))
+                .findLongestPath(permutation.toReordered(source));
+
+        assertArrayEquals(before.distances(), permutation.valuesByOriginal(after.distances()), 1e-9);
+        assertEquals(before.criticalPathLength(), after.criticalPathLength(), 1e-9);
+        assertEquals(before.criticalPath(), toOriginal(permutation, after.criticalPath()));
+    }
+
+    @Test
+    void testParseStrategy() {
+        assertEquals(VertexReordering.Strategy.REVERSE_CUTHILL_MCKEE, VertexReordering.parseStrategy("rcm"));
+        assertEquals(VertexReordering.Strategy.TOPOLOGICAL_LEVEL, VertexReordering.parseStrategy("LEVEL"));
+        assertThrows(IllegalArgumentException.class, () -> VertexReordering.parseStrategy("dfs"));
+    }
+
+    private static Set<Set<Integer>> asSets(List<List<Integer>> groups) {
+        Set<Set<Integer>> result = new HashSet<>();
+        for (List<Integer> group : groups) {
+            result.add(new TreeSet<>(group));
+        }
+        return result;
+    }
+
+    private static List<Integer> toOriginal(VertexReordering.Permutation permutation, List<Integer> path) {
+        return path.stream().map(permutation::toOriginal).toList();
+    }
+}
@@ -0,0 +1,116 @@
+package com.rtyrrx.mst.graph.risk;
+
+import com.rtyrrx.mst.common.Graph;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MonteCarloSchedulerTest {
+
+    private static DurationDistribution[] fixedDurations(double... values) {
+        DurationDistribution[] result = new DurationDistribution[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = DurationDistribution.fixed(values[i]);
+        }
+        return result;
+    }
+
+    @Test
+    void testFixedDurationsGiveDeterministicMakespan() {
+        Graph graph = new Graph(4);
+        graph.addEdge(0, 1, 0.0);
+        graph.addEdge(0, 2, 0.0);
+        graph.addEdge(1, 3, 0.0);
+        graph.addEdge(2, 3, 1.0);
+
+        MonteCarloScheduler scheduler = new MonteCarloScheduler(graph, fixedDurations(2, 5, 3, 1));
+        MonteCarloScheduler.RiskReport report = scheduler.simulate(100, 2, 7L);
+
+        assertNotNull(report);
+        assertEquals(100, report.samples());
+        assertEquals(8.0, report.percentile(50), 1e-9);
+        assertEquals(8.0, report.percentile(100), 1e-9);
+        assertEquals(1.0, report.criticalityIndex()[1], 1e-9);
+        assertEquals(0.0, report.criticalityIndex()[2], 1e-9);
+        assertEquals(1.0, report.criticalityIndex()[3], 1e-9);
+    }
+
+    @Test
+    void testCriticalityFollowsTheLongerBranch() {
+        Graph graph = new Graph(3);
+        graph.addEdge(0, 2, 0.0);
+        graph.addEdge(1, 2, 0.0);
+
+        DurationDistribution[] durations = {
+                DurationDistribution.uniform(0, 10),
+                DurationDistribution.uniform(0, 10),
+                DurationDistribution.fixed(1)
+        };
+        MonteCarloScheduler.RiskReport report = new MonteCarloScheduler(graph, durations).simulate(20_000, 4, 1L);
+
+        assertEquals(0.5, report.criticalityIndex()[0], 0.03);
+        assertEquals(0.5, report.criticalityIndex()[1], 0.03);
+        assertEquals(1.0, report.criticalityIndex()[2], 1e-9);
+        assertTrue(report.percentile(10) < report.percentile(90));
+    }
+
+    @Test
+    void testSameSeedAndThreadsIsReproducible() {
+        Graph graph = new Graph(3);
+        graph.addEdge(0, 1, 1.0);
+        graph.addEdge(1, 2, 1.0);
+        DurationDistribution[] durations = {
+                DurationDistribution.triangular(1, 2, 6),
+                DurationDistribution.lognormal(3, 0.4),
+                DurationDistribution.uniform(1, 2)
+        };
+
+        MonteCarloScheduler scheduler = new MonteCarloScheduler(graph, durations);
+        MonteCarloScheduler.RiskReport first = scheduler.simulate(5_000, 3, 99L);
+        MonteCarloScheduler.RiskReport second = scheduler.simulate(5_000, 3, 99L);
+
+        assertArrayEquals(first.sortedMakespans(), second.sortedMakespans());
+    }
+
+    @Test
+    void testTriangularStaysWithinBounds() {
+        DurationDistribution triangular = DurationDistribution.triangular(2, 3, 7);
+        SplittableRandom random = new SplittableRandom(5);
+        double sum = 0;
+        for (int i = 0; i < 50_000; i++) {
+            double value = triangular.sample(random);
+            assertTrue(value >= 2 && value <= 7);
+            sum += value;
+        }
+        assertEquals(4.0, sum / 50_000, 0.05);
+    }
+
+    @Test
+    void testCycleReturnsNull() {
+        Graph graph = new Graph(2);
+        graph.addEdge(0, 1);
+        graph.addEdge(1, 0);
+
+        assertNull(new MonteCarloScheduler(graph, fixedDurations(1, 1)).simulate(10, 1, 1L));
+    }
+
+    @Test
+    void testMismatchedDistributionsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new MonteCarloScheduler(new Graph(3), fixedDurations(1, 1)));
+    }
+
+    @Test
+    void testMetrics() {
+        Graph graph = new Graph(2);
+        graph.addEdge(0, 1, 1.0);
+
+        MonteCarloScheduler scheduler = new MonteCarloScheduler(graph, fixedDurations(1, 1));
+        scheduler.simulate(10, 1, 1L);
+
+        assertEquals(10, scheduler.getMetrics().getCounter("samples"));
+        assertTrue(scheduler.getMetrics().getElapsedTimeNanos() > 0);
+    }
+}
@@ -0,0 +1,76 @@
+package com.rtyrrx.mst.graph.scc;
+
+import com.rtyrrx.mst.common.Graph;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComponentOrderingTest {
+
+    @Test
+    void testOrdersOnlyNonTrivialComponents() {
+        Graph graph = new Graph(6);
+        graph.addEdge(0, 1, 1.0);
+        graph.addEdge(1, 2, 1.0);
+        graph.addEdge(2, 0, 4.0);
+        graph.addEdge(2, 3, 1.0);
+        graph.addEdge(3, 4, 2.0);
+        graph.addEdge(4, 3, 3.0);
+        graph.addEdge(4, 5, 1.0);
+
+        SCC scc = new SCC(graph);
+        List<List<Integer>> components = scc.findSCCs();
+        List<ComponentOrdering.ComponentOrder> orders = new ComponentOrdering(graph, components).orderComponents();
+
+        assertEquals(2, orders.size());
+        for (ComponentOrdering.ComponentOrder order : orders) {
+            int[] expected = components.get(order.component()).stream().mapToInt(Integer::intValue).sorted().toArray();
+            int[] actual = order.tasks().clone();
+            Arrays.sort(actual);
+            assertArrayEquals(expected, actual, "Order must contain exactly the component's tasks");
+            assertEquals(1, order.removedEdges(), "Each component is a single cycle");
+        }
+    }
+
+    @Test
+    void testRemovedWeightAndOrder() {
+        Graph graph = new Graph(3);
+        graph.addEdge(0, 1, 2.0);
+        graph.addEdge(1, 2, 3.0);
+        graph.addEdge(2, 0, 5.0);
+
+        SCC scc = new SCC(graph);
+        List<ComponentOrdering.ComponentOrder> orders =
+                new ComponentOrdering(graph, scc.findSCCs()).orderComponents();
+
+        ComponentOrdering.ComponentOrder order = orders.getFirst();
+        int[] tasks = order.tasks();
+        int[] position = new int[3];
+        for (int p = 0; p < tasks.length; p++) {
+            position[tasks[p]] = p;
+        }
+        double expectedWeight = 0;
+        int[][] edges = {{0, 1}, {1, 2}, {2, 0}};
+        double[] weights = {2.0, 3.0, 5.0};
+        for (int e = 0; e < edges.length; e++) {
+            if (position[edges[e][1]] < position[edges[e][0]]) expectedWeight += weights[e];
+        }
+        assertEquals(expectedWeight, order.removedWeight(), 1e-9);
+    }
+
+    @Test
+    void testDagHasNothingToOrder() {
+        Graph graph = new Graph(3);
+        graph.addEdge(0, 1);
+        graph.addEdge(1, 2);
+
+        SCC scc = new SCC(graph);
+        ComponentOrdering ordering = new ComponentOrdering(graph, scc.findSCCs());
+
+        assertTrue(ordering.orderComponents().isEmpty());
+        assertEquals(0, ordering.getMetrics().getCounter("edges_removed"));
+    }
+}
@@ -0,0 +1,171 @@
+package com.rtyrrx.mst.graph.scc;
+
+import com.rtyrrx.mst.common.DirectedGraph;
+import com.rtyrrx.mst.common.Graph;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SccEngineTest {
+
+    private static Set<Set<Integer>> asSets(List<List<Integer>> groups) {
+        Set<Set<Integer>> result = new HashSet<>();
+        for (List<Integer> group : groups) {
+            result.add(new TreeSet<>(group));
+        }
+        return result;
+    }
+
+    @Test
+    void testMatchesRecursiveTarjan() {
+        Random random = new Random(3);
+        SccEngine engine = new SccEngine();
+        for (int round = 0; round < 20; round++) {
+            int n = 50 + random.nextInt(100);
+            Graph graph = new Graph(n);
+            for (int e = 0; e < n * 2; e++) {
+                graph.addEdge(random.nextInt(n), random.nextInt(n));
+            }
+
+            SCC scc = new SCC(graph);
+            List<List<Integer>> expected = scc.findSCCs();
+            int[] componentOf = new int[n];
+            int count = engine.findComponents(graph, componentOf);
+
+            assertEquals(scc.getSCCCount(), count);
+            assertEquals(asSets(expected), asSets(engine.findSCCs(graph)));
+            for (int c = 0; c < expected.size(); c++) {
+                for (int v : expected.get(c)) {
+                    assertEquals(c, componentOf[v]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testDeepChainDoesNotRecurse() {
+        int n = 200_000;
+        Graph graph = new Graph(n);
+        for (int v = 0; v < n - 1; v++) {
+            graph.addEdge(v, v + 1);
+        }
+        graph.addEdge(n - 1, 0);
+
+        assertEquals(1, new SccEngine().findComponents(graph, new int[n]));
+    }
+
+    @Test
+    void testWorkspaceIsReused() {
+        Graph graph = new Graph(3);
+        graph.addEdge(0, 1);
+        graph.addEdge(1, 0);
+        SccEngine engine = new SccEngine();
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(2, engine.findComponents(graph, new int[3]));
+        }
+        assertEquals(1, engine.getPool().createdCount());
+        assertThrows(IllegalArgumentException.class, () -> engine.findComponents(graph, new int[2]));
+    }
+
+    @Test
+    void testFailedRunDoesNotReturnItsWorkspace() {
+        Graph graph = new Graph(3);
+        graph.addEdge(0, 1);
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 1);
+        // Fails on the third edge, with 1 and 2 still on the DFS stack.
+        DirectedGraph failing = new DirectedGraph() {
+            private int calls;
+
+            @Override
+            public int getVertices() {
+                return graph.getVertices();
+            }
+
+            @Override
+            public int countEdges() {
+                return graph.countEdges();
+            }
+
+            @Override
+            public int getOutDegree(int vertex) {
+                return graph.getOutDegree(vertex);
+            }
+
+            @Override
+            public int getNeighbor(int vertex, int index) {
+                if (++calls == 3) throw new IllegalStateException("graph changed");
+                return graph.getNeighbor(vertex, index);
+            }
+
+            @Override
+            public double getWeight(int vertex, int index) {
+                return graph.getWeight(vertex, index);
+            }
+        };
+        SccEngine engine = new SccEngine();
+
+        assertThrows(IllegalStateException.class, () -> engine.findComponents(failing, new int[3]));
+        assertEquals(0, engine.getPool().idleCount());
+
+        Graph dag = new Graph(3);
+        dag.addEdge(0, 1);
+        dag.addEdge(1, 2);
+        assertEquals(3, engine.findComponents(dag, new int[3]));
+        assertEquals(2, engine.getPool().createdCount());
+    }
+
+    @Test
+    void testConcurrentQueriesOnSharedGraphs() throws Exception {
+        Random random = new Random(5);
+        Graph[] graphs = new Graph[20];
+        List<Set<Set<Integer>>> expected = new ArrayList<>();
+        for (int g = 0; g < graphs.length; g++) {
+            int n = 1_000;
+            graphs[g] = new Graph(n);
+            for (int e = 0; e < n + g * 50; e++) {
+                graphs[g].addEdge(random.nextInt(n), random.nextInt(n));
+            }
+            expected.add(asSets(new SCC(graphs[g]).findSCCs()));
+        }
+
+        int threads = 8;
+        SccEngine engine = new SccEngine(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int seed = t;
+                futures.add(executor.submit(() -> {
+                    Random local = new Random(seed);
+                    int checked = 0;
+                    for (int q = 0; q < 200; q++) {
+                        int g = local.nextInt(graphs.length);
+                        assertEquals(expected.get(g), asSets(engine.findSCCs(graphs[g])));
+                        checked++;
+                    }
+                    return checked;
+                }));
+            }
+            for (Future<Integer> future : futures) {
+                assertEquals(200, future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        // Same-sized graphs, so workspaces are only created while more
+        // queries overlap than the pool already holds.
+        assertTrue(engine.getPool().createdCount() <= threads);
+    }
+}
@@ -0,0 +1,142 @@
+package com.rtyrrx.mst.graph.scenario;
+
+import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.graph.cpm.CriticalPathMethod;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScenarioEvaluatorTest {
+
+    // Two parallel branches 0 -> 1 -> 3 and 0 -> 2 -> 3, then 3 -> 4.
+    private static Graph sampleGraph() {
+        Graph graph = new Graph(5);
+        graph.addEdge(0, 1, 0.0);
+        graph.addEdge(0, 2, 0.0);
+        graph.addEdge(1, 3, 0.0);
+        graph.addEdge(2, 3, 1.0);
+        graph.addEdge(3, 4, 0.0);
+        return graph;
+    }
+
+    private static final double[] DURATIONS = {1.0, 2.0, 4.0, 1.0, 1.0};
+
+    @Test
+    void testBaseline() {
+        ScenarioEvaluator evaluator = new ScenarioEvaluator(sampleGraph(), DURATIONS);
+        ScenarioEvaluator.ScenarioResult result = evaluator.evaluate(new Scenario("baseline"));
+
+        assertEquals(8.0, evaluator.baselineDuration(), 1e-9);
+        assertTrue(result.acyclic());
+        assertEquals(8.0, result.projectDuration(), 1e-9);
+        assertEquals(0.0, result.durationChange(), 1e-9);
+        assertArrayEquals(new int[]{0, 2, 3, 4}, result.criticalActivities());
+        assertTrue(result.orderReused());
+    }
+
+    @Test
+    void testDurationAndDependencyScenarios() {
+        ScenarioEvaluator evaluator = new ScenarioEvaluator(sampleGraph(), DURATIONS);
+
+        ScenarioEvaluator.ScenarioResult slower = evaluator.evaluate(new Scenario("slow 1").scaleDuration(1, 4.0));
+        assertEquals(11.0, slower.projectDuration(), 1e-9);
+        assertEquals(3.0, slower.durationChange(), 1e-9);
+        assertArrayEquals(new int[]{0, 1, 3, 4}, slower.criticalActivities());
+
+        ScenarioEvaluator.ScenarioResult dropped = evaluator.evaluate(new Scenario("drop").removeDependency(2, 3));
+        assertEquals(5.0, dropped.projectDuration(), 1e-9);
+        assertTrue(dropped.orderReused());
+
+        ScenarioEvaluator.ScenarioResult backwards = evaluator.evaluate(new Scenario("chain").addDependency(2, 1, 0.0));
+        assertEquals(9.0, backwards.projectDuration(), 1e-9);
+        assertFalse(backwards.orderReused());
+    }
+
+    @Test
+    void testCycleIsReported() {
+        ScenarioEvaluator evaluator = new ScenarioEvaluator(sampleGraph(), DURATIONS);
+        ScenarioEvaluator.ScenarioResult result = evaluator.evaluate(new Scenario("loop").addDependency(4, 0, 1.0));
+
+        assertFalse(result.acyclic());
+        assertEquals(1, result.cyclicGroups());
+        assertTrue(Double.isNaN(result.projectDuration()));
+        assertEquals(1, evaluator.getMetrics().getCounter("cyclic_scenarios"));
+    }
+
+    @Test
+    void testCyclicBaseCanBeBrokenByScenario() {
+        Graph graph = sampleGraph();
+        graph.addEdge(4, 0, 0.0);
+        ScenarioEvaluator evaluator = new ScenarioEvaluator(graph, DURATIONS);
+
+        assertTrue(Double.isNaN(evaluator.baselineDuration()));
+        assertFalse(evaluator.evaluate(new Scenario("as is")).acyclic());
+        assertEquals(8.0, evaluator.evaluate(new Scenario("cut").removeDependency(4, 0)).projectDuration(), 1e-9);
+    }
+
+    @Test
+    void testConcurrentResultsMatchSequential() {
+        Random random = new Random(7);
+        int n = 400;
+        Graph graph = new Graph(n);
+        double[] durations = new double[n];
+        for (int u = 0; u < n; u++) {
+            durations[u] = 1 + random.nextInt(10);
+            for (int j = 0; j < 3 && u < n - 1; j++) {
+                graph.addEdge(u, u + 1 + random.nextInt(n - u - 1), random.nextInt(3));
+            }
+        }
+
+        List<Scenario> scenarios = new ArrayList<>();
+        for (int s = 0; s < 100; s++) {
+            int u = random.nextInt(n - 1);
+            Scenario scenario = new Scenario("s" + s).scaleDuration(random.nextInt(n), 2.0);
+            if (graph.getOutDegree(u) > 0 && s % 2 == 0) {
+                scenario.removeDependency(u, graph.getNeighbor(u, 0));
+            }
+            if (s % 5 == 0) {
+                // Every fifth scenario adds a backward edge, some of which close a cycle.
+                scenario.addDependency(u + 1 + random.nextInt(n - u - 1), u, 0.0);
+            }
+            scenarios.add(scenario);
+        }
+
+        ScenarioEvaluator evaluator = new ScenarioEvaluator(graph, durations, 4);
+        List<ScenarioEvaluator.ScenarioResult> concurrent = evaluator.evaluateAll(scenarios);
+
+        assertEquals(scenarios.size(), concurrent.size());
+        assertEquals(100, evaluator.getMetrics().getCounter("scenarios"));
+        for (int s = 0; s < scenarios.size(); s++) {
+            ScenarioEvaluator.ScenarioResult expected = evaluator.evaluate(scenarios.get(s));
+            ScenarioEvaluator.ScenarioResult actual = concurrent.get(s);
+            assertEquals(expected.name(), actual.name());
+            assertEquals(expected.acyclic(), actual.acyclic());
+            assertEquals(expected.projectDuration(), actual.projectDuration(), 1e-9);
+            assertArrayEquals(expected.criticalActivities(), actual.criticalActivities());
+        }
+
+        // Spot-check one scenario against a CPM run on a materialised copy.
+        Scenario first = scenarios.get(1);
+        ScenarioOverlay overlay = new ScenarioOverlay(graph, first);
+        Graph copy = new Graph(n);
+        for (int u = 0; u < n; u++) {
+            for (int i = 0; i < overlay.getOutDegree(u); i++) {
+                copy.addEdge(u, overlay.getNeighbor(u, i), overlay.getWeight(u, i));
+            }
+        }
+        double expected = new CriticalPathMethod(copy, first.applyDurations(durations)).analyze().projectDuration();
+        assertEquals(expected, concurrent.get(1).projectDuration(), 1e-9);
+    }
+
+    @Test
+    void testInvalidScenarioFailsTheBatch() {
+        ScenarioEvaluator evaluator = new ScenarioEvaluator(sampleGraph(), DURATIONS);
+        List<Scenario> scenarios = List.of(new Scenario("ok"), new Scenario("bad").removeDependency(4, 3));
+
+        assertThrows(IllegalArgumentException.class, () -> evaluator.evaluateAll(scenarios));
+    }
+}
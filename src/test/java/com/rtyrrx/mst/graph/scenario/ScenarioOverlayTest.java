@@ -0,0 +1,97 @@
+package com.rtyrrx.mst.graph.scenario;
+
+import com.rtyrrx.mst.common.Graph;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScenarioOverlayTest {
+
+    private static Graph sampleGraph() {
+        Graph graph = new Graph(5);
+        graph.addEdge(0, 1, 2.0);
+        graph.addEdge(0, 2, 4.0);
+        graph.addEdge(1, 3, 1.5);
+        graph.addEdge(2, 3, 3.0);
+        graph.addEdge(3, 4, 1.0);
+        return graph;
+    }
+
+    private static Map<Integer, Double> edges(ScenarioOverlay overlay, int vertex) {
+        Map<Integer, Double> result = new HashMap<>();
+        for (int i = 0; i < overlay.getOutDegree(vertex); i++) {
+            result.put(overlay.getNeighbor(vertex, i), overlay.getWeight(vertex, i));
+        }
+        return result;
+    }
+
+    @Test
+    void testChangesAreVisibleThroughOverlay() {
+        Graph base = sampleGraph();
+        Scenario scenario = new Scenario("what-if")
+                .removeDependency(0, 1)
+                .addDependency(0, 4, 7.0)
+                .changeWeight(3, 4, 2.5);
+
+        ScenarioOverlay overlay = new ScenarioOverlay(base, scenario);
+
+        assertEquals(Map.of(2, 4.0, 4, 7.0), edges(overlay, 0));
+        assertEquals(Map.of(4, 2.5), edges(overlay, 3));
+        assertEquals(Map.of(3, 1.5), edges(overlay, 1));
+        assertEquals(5, overlay.countEdges());
+        assertEquals(2, overlay.copiedVertexCount());
+        assertTrue(overlay.isCopied(3));
+        assertFalse(overlay.isCopied(1));
+    }
+
+    @Test
+    void testBaseGraphIsUntouched() {
+        Graph base = sampleGraph();
+        int modCount = base.getModCount();
+
+        new ScenarioOverlay(base, new Scenario("drop").removeDependency(0, 2).addDependency(4, 0, 1.0));
+
+        assertEquals(modCount, base.getModCount());
+        assertEquals(2, base.getOutDegree(0));
+        assertEquals(0, base.getOutDegree(4));
+    }
+
+    @Test
+    void testFilterCollisionsFallBackToBase() {
+        // 1 and 1025 share a filter bit; only 1 is copied.
+        Graph base = new Graph(1100);
+        base.addEdge(1, 2, 1.0);
+        base.addEdge(1025, 3, 1.0);
+
+        ScenarioOverlay overlay = new ScenarioOverlay(base, new Scenario("collide").removeDependency(1, 2));
+
+        assertEquals(0, overlay.getOutDegree(1));
+        assertEquals(1, overlay.getOutDegree(1025));
+        assertEquals(3, overlay.getNeighbor(1025, 0));
+    }
+
+    @Test
+    void testMissingDependencyIsRejected() {
+        Graph base = sampleGraph();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new ScenarioOverlay(base, new Scenario("bad").removeDependency(4, 0)));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ScenarioOverlay(base, new Scenario("bad").changeWeight(1, 2, 1.0)));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ScenarioOverlay(base, new Scenario("bad").addDependency(0, 9, 1.0)));
+    }
+
+    @Test
+    void testDurationChangesCompose() {
+        double[] base = {1.0, 2.0, 3.0};
+        Scenario scenario = new Scenario("slow").setDuration(1, 5.0).scaleDuration(1, 2.0).scaleDuration(2, 0.5);
+
+        assertArrayEquals(new double[]{1.0, 10.0, 1.5}, scenario.applyDurations(base), 0.0);
+        assertArrayEquals(new double[]{1.0, 2.0, 3.0}, base, 0.0);
+        assertSame(base, new Scenario("none").applyDurations(base));
+    }
+}
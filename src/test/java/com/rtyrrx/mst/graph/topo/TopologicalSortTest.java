@@ -118,4 +118,93 @@ class TopologicalSortTest {
         assertTrue(topoSort.getMetrics().getCounter("queue_pops") > 0);
         assertTrue(topoSort.getMetrics().getElapsedTimeNanos() > 0);
     }
+
+    @Test
+    void testSortToArrayMatchesSort() {
+        Graph graph = new Graph(5);
+        graph.addEdge(0, 2);
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+        graph.addEdge(2, 4);
+
+        TopologicalSort topoSort = new TopologicalSort(graph);
+        int[] order = topoSort.sortToArray();
+
+        assertNotNull(order);
+        assertEquals(topoSort.sort(), java.util.Arrays.stream(order).boxed().toList());
+        assertEquals(5, topoSort.getMetrics().getCounter("queue_pops"));
+        assertEquals(4, topoSort.getMetrics().getCounter("edges_processed"));
+    }
+
+    @Test
+    void testSortToArrayCycleDetection() {
+        Graph graph = new Graph(3);
+        graph.addEdge(0, 1);
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 1);
+
+        assertNull(new TopologicalSort(graph).sortToArray());
+    }
+
+    // 0 and 1 are both ready at the start; 2 depends on 0, 3 on 1.
+    private static Graph twoChains() {
+        Graph graph = new Graph(4);
+        graph.addEdge(0, 2);
+        graph.addEdge(1, 3);
+        return graph;
+    }
+
+    @Test
+    void testPriorityOrderAmongReadyVertices() {
+        Graph graph = twoChains();
+        double[] durations = {1.0, 1.0, 1.0, 10.0};
+
+        assertArrayEquals(new int[]{0, 1, 2, 3},
+                new TopologicalSort(graph).sortByPriority(VertexPriority.byVertexId()));
+        assertArrayEquals(new int[]{0, 1, 3, 2},
+                new TopologicalSort(graph).sortByPriority(VertexPriority.byLongestDuration(durations)));
+        assertArrayEquals(new int[]{1, 3, 0, 2},
+                new TopologicalSort(graph).sortByPriority(VertexPriority.byLongestRemainingPath(graph, durations)));
+    }
+
+    @Test
+    void testPriorityByTaskId() {
+        Graph graph = twoChains();
+        graph.mapTaskToVertex("b", 0);
+        graph.mapTaskToVertex("a", 1);
+        graph.mapTaskToVertex("c", 2);
+
+        assertArrayEquals(new int[]{1, 0, 2, 3},
+                new TopologicalSort(graph).sortByPriority(VertexPriority.byTaskId(graph)));
+    }
+
+    @Test
+    void testPriorityOrderIsIndependentOfEdgeOrder() {
+        Graph forward = new Graph(6);
+        Graph backward = new Graph(6);
+        int[][] edges = {{0, 3}, {0, 4}, {1, 4}, {2, 5}, {3, 5}, {4, 5}};
+        for (int[] edge : edges) {
+            forward.addEdge(edge[0], edge[1]);
+        }
+        for (int i = edges.length - 1; i >= 0; i--) {
+            backward.addEdge(edges[i][0], edges[i][1]);
+        }
+        VertexPriority constant = vertex -> 0.0;
+
+        int[] expected = new TopologicalSort(forward).sortByPriority(constant);
+        assertArrayEquals(expected, new TopologicalSort(backward).sortByPriority(constant));
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4, 5}, expected);
+    }
+
+    @Test
+    void testPrioritySortDetectsCycle() {
+        Graph graph = new Graph(3);
+        graph.addEdge(0, 1);
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 1);
+
+        assertNull(new TopologicalSort(graph).sortByPriority(VertexPriority.byVertexId()));
+        assertThrows(IllegalArgumentException.class,
+                () -> VertexPriority.byLongestRemainingPath(graph, new double[3]));
+    }
 }
@@ -0,0 +1,68 @@
+package com.rtyrrx.mst.observability;
+
+import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.data.GraphLoader;
+import com.rtyrrx.mst.graph.dagsp.DAGShortestPath;
+import com.rtyrrx.mst.graph.scc.SCC;
+import com.rtyrrx.mst.graph.topo.TopologicalSort;
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JfrStageSummaryTest {
+
+    @Test
+    void testPipelineStagesAreRecordedAndSummarized(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("pipeline.jfr");
+        Graph graph;
+        Graph condensation;
+        try (Recording recording = new Recording()) {
+            recording.enable("com.rtyrrx.mst.*");
+            recording.start();
+
+            graph = GraphLoader.loadFromJson("data/medium_dense.json");
+            SCC scc = new SCC(graph);
+            scc.findSCCs();
+            condensation = scc.buildCondensationGraph();
+            new TopologicalSort(condensation).sortToArray();
+            new DAGShortestPath(condensation).findLongestPath(0);
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        Map<String, JfrStageSummary.StageSummary> stages = JfrStageSummary.summarize(file).stream()
+                .collect(Collectors.toMap(JfrStageSummary.StageSummary::stage, Function.identity()));
+
+        assertTrue(stages.keySet().containsAll(
+                List.of("GraphParse", "GraphBuild", "Scc", "Condensation", "TopologicalSort", "PathRelaxation")));
+        assertEquals(1, stages.get("Scc").events());
+        assertEquals((long) graph.getVertices(), stages.get("Scc").fieldTotals().get("dfsVisits"));
+        assertEquals((long) graph.countEdges(), stages.get("GraphBuild").fieldTotals().get("edges"));
+        assertEquals((long) condensation.countEdges(), stages.get("Condensation").fieldTotals().get("condensationEdges"));
+        // The path computation sorts the condensation again.
+        assertEquals(2, stages.get("TopologicalSort").events());
+        assertTrue(stages.get("PathRelaxation").total().compareTo(stages.get("PathRelaxation").max()) >= 0);
+    }
+
+    @Test
+    void testRecordingWithoutPipelineEvents(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("empty.jfr");
+        try (Recording recording = new Recording()) {
+            recording.start();
+            recording.stop();
+            recording.dump(file);
+        }
+
+        assertTrue(JfrStageSummary.summarize(file).isEmpty());
+    }
+}
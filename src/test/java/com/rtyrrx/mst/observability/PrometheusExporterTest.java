@@ -0,0 +1,171 @@
+package com.rtyrrx.mst.observability;
+
+import com.rtyrrx.mst.common.Graph;
+import com.rtyrrx.mst.common.MetricsImpl;
+import com.rtyrrx.mst.graph.dagsp.DAGShortestPath;
+import com.rtyrrx.mst.graph.scc.SCC;
+import com.rtyrrx.mst.graph.topo.TopologicalSort;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrometheusExporterTest {
+
+    @AfterEach
+    void resetGlobalRegistry() {
+        MetricsRegistry.global().setEnabled(false);
+        MetricsRegistry.global().clear();
+    }
+
+    @Test
+    void testNothingIsPublishedWhileDisabled() {
+        MetricsRegistry registry = new MetricsRegistry();
+        MetricsImpl metrics = new MetricsImpl("test", registry);
+
+        metrics.startTiming();
+        metrics.incrementCounter("visits", 3);
+        metrics.stopTiming();
+
+        assertTrue(registry.snapshot().isEmpty());
+    }
+
+    // Publishing happens once per run, so a graph 2000 times larger must not
+    // add a single registry update.
+    @Test
+    void testRegistryUpdatesDoNotGrowWithTheGraph() {
+        MetricsRegistry registry = MetricsRegistry.global();
+        registry.setEnabled(true);
+
+        long small = updatesForOneRunOfEach(registry, 100);
+        long large = updatesForOneRunOfEach(registry, 200_000);
+
+        assertEquals(small, large);
+        // scc, topological_sort twice (one inside dag_paths) and dag_paths:
+        // one run each plus a handful of counters.
+        assertTrue(large <= 4 * 4, "Updates per run: " + large);
+    }
+
+    private static long updatesForOneRunOfEach(MetricsRegistry registry, int n) {
+        // A binary tree keeps the recursive DFS shallow.
+        Graph graph = new Graph(n);
+        for (int v = 1; v < n; v++) {
+            graph.addEdge((v - 1) / 2, v, v % 3);
+        }
+        long before = registry.updates();
+        new SCC(graph).findSCCs();
+        new TopologicalSort(graph).sortToArray();
+        new DAGShortestPath(graph).findLongestPath(0);
+        return registry.updates() - before;
+    }
+
+    @Test
+    void testSlicesUntilResetPublishOneRun() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.setEnabled(true);
+        MetricsImpl metrics = new MetricsImpl("test", registry);
+
+        metrics.startTiming();
+        metrics.incrementCounter("visits", 3);
+        metrics.stopTiming();
+        metrics.startTiming();
+        metrics.incrementCounter("visits", 2);
+        metrics.stopTiming();
+        metrics.reset();
+        metrics.startTiming();
+        metrics.incrementCounter("visits", 4);
+        metrics.stopTiming();
+
+        MetricsRegistry.Series series = registry.snapshot().get("test");
+        assertEquals(2, series.runs());
+        assertEquals(9L, series.counters().get("visits"));
+        assertEquals(2, series.cumulativeBuckets()[series.cumulativeBuckets().length - 1]);
+    }
+
+    @Test
+    void testExtendedRunMovesToItsTotalBucket() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.recordRun("paths", 50_000L);
+        registry.extendRun("paths", 50_000L, 2_000_000L);
+
+        String text = PrometheusExporter.format(registry);
+
+        assertTrue(text.contains("mst_run_duration_seconds_bucket{algorithm=\"paths\",le=\"0.0001\"} 0\n"));
+        assertTrue(text.contains("mst_run_duration_seconds_bucket{algorithm=\"paths\",le=\"0.01\"} 1\n"));
+        assertTrue(text.contains("mst_run_duration_seconds_sum{algorithm=\"paths\"} 0.002\n"));
+        assertTrue(text.contains("mst_run_duration_seconds_count{algorithm=\"paths\"} 1\n"));
+    }
+
+    @Test
+    void testPipelineRunsArePublished() {
+        Graph graph = new Graph(4);
+        graph.addEdge(0, 1);
+        graph.addEdge(1, 2);
+        graph.addEdge(0, 3);
+        MetricsRegistry registry = MetricsRegistry.global();
+
+        registry.setEnabled(true);
+        for (int i = 0; i < 3; i++) {
+            new SCC(graph).findSCCs();
+            new TopologicalSort(graph).sortToArray();
+            new DAGShortestPath(graph).findLongestPath(0);
+        }
+        registry.setEnabled(false);
+        new SCC(graph).findSCCs();
+
+        Map<String, MetricsRegistry.Series> snapshot = registry.snapshot();
+        assertEquals(3, snapshot.get("scc").runs());
+        assertEquals(12L, snapshot.get("scc").counters().get("dfs_visits"));
+        // DAGShortestPath sorts with its own TopologicalSort as well.
+        assertEquals(6, snapshot.get("topological_sort").runs());
+        assertEquals(3, snapshot.get("dag_paths").runs());
+    }
+
+    @Test
+    void testFormat() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.recordRun("scc", 2_000_000L);
+        registry.recordRun("scc", 50_000L);
+        registry.addCounter("scc", "dfs_visits", 42);
+
+        String text = PrometheusExporter.format(registry);
+
+        assertTrue(text.contains("# TYPE mst_operations_total counter\n"));
+        assertTrue(text.contains("mst_operations_total{algorithm=\"scc\",counter=\"dfs_visits\"} 42\n"));
+        assertTrue(text.contains("mst_run_duration_seconds_bucket{algorithm=\"scc\",le=\"0.0001\"} 1\n"));
+        assertTrue(text.contains("mst_run_duration_seconds_bucket{algorithm=\"scc\",le=\"0.01\"} 2\n"));
+        assertTrue(text.contains("mst_run_duration_seconds_bucket{algorithm=\"scc\",le=\"+Inf\"} 2\n"));
+        assertTrue(text.contains("mst_run_duration_seconds_sum{algorithm=\"scc\"} 0.00205\n"));
+        assertTrue(text.contains("mst_run_duration_seconds_count{algorithm=\"scc\"} 2\n"));
+    }
+
+    @Test
+    void testScrapeOverHttp() throws IOException, InterruptedException {
+        Graph graph = new Graph(3);
+        graph.addEdge(0, 1);
+        graph.addEdge(1, 0);
+        graph.addEdge(1, 2);
+
+        try (PrometheusExporter exporter = PrometheusExporter.start(MetricsRegistry.global(), 0)) {
+            assertTrue(MetricsRegistry.global().isEnabled());
+            new SCC(graph).findSCCs();
+
+            HttpResponse<String> response = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + exporter.port() + "/metrics")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(200, response.statusCode());
+            assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("text/plain"));
+            assertTrue(response.body().contains("mst_operations_total{algorithm=\"scc\",counter=\"dfs_visits\"} 3"));
+            assertTrue(response.body().contains("mst_run_duration_seconds_count{algorithm=\"scc\"} 1"));
+        }
+        assertFalse(MetricsRegistry.global().isEnabled());
+    }
+}